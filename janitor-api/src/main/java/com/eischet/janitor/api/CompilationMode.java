@@ -0,0 +1,18 @@
+package com.eischet.janitor.api;
+
+/**
+ * How a compiled script is executed.
+ * @see JanitorRuntime#compile(String, String, CompilationMode)
+ */
+public enum CompilationMode {
+    /**
+     * Run the syntax tree directly. This is the default and always available.
+     */
+    INTERPRETER,
+    /**
+     * Translate the script into JVM bytecode where possible, and interpret the rest.
+     * <p>This needs the ASM library on the class path. If it's missing, or the script cannot be translated, the script
+     * falls back to the interpreter and a warning is logged. The results are the same either way.</p>
+     */
+    BYTECODE
+}
@@ -1,8 +1,14 @@
 package com.eischet.janitor.api;
 
 import com.eischet.janitor.api.types.JanitorObject;
+import org.jetbrains.annotations.NotNull;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * A predicate that filters JanitorObjects, e.g. in a stream.
@@ -15,9 +21,74 @@ import java.util.function.Predicate;
  * But it's not, so it isn't. When streaming JanitorAware objects, a simple .map(JanitorAware::getJanitorObject) will
  * suffice, though.
  * </p>
+ * <p>
+ * When filtering whole collections, prefer the filter methods over calling {@link #test(Object)} for each element:
+ * implementations can set up their state once for all elements instead of once per element.
+ * </p>
  * <p>com.eischet.janitor.env.FilterScript implements this interface. That code is not visible from here, so we
  * cannot link directly.</p>
  */
 @FunctionalInterface
 public interface FilterPredicate extends Predicate<JanitorObject> {
+
+    /**
+     * Return the elements of a collection that pass the filter, in their original order.
+     *
+     * @param values the elements to filter
+     * @param <T>    the element type
+     * @return the elements that pass
+     */
+    default <T extends JanitorObject> @NotNull List<T> filter(final @NotNull Collection<T> values) {
+        return values.stream().filter(this).toList();
+    }
+
+    /**
+     * Filter a stream.
+     * <p>Implementations may hold resources until the returned stream is closed, so callers should close it, preferably
+     * with try-with-resources.</p>
+     *
+     * @param values the stream to filter
+     * @param <T>    the element type
+     * @return a stream of the elements that pass
+     */
+    default <T extends JanitorObject> @NotNull Stream<T> filter(final @NotNull Stream<T> values) {
+        return values.filter(this);
+    }
+
+    /**
+     * Return the elements of a collection that pass the filter, in their original order, testing the elements in parallel
+     * on the common fork-join pool.
+     *
+     * @param values the elements to filter
+     * @param <T>    the element type
+     * @return the elements that pass
+     */
+    default <T extends JanitorObject> @NotNull List<T> filterParallel(final @NotNull Collection<T> values) {
+        return filterParallel(values, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Return the elements of a collection that pass the filter, in their original order, testing the elements in parallel
+     * on the given fork-join pool.
+     *
+     * @param values the elements to filter
+     * @param pool   the pool to run on
+     * @param <T>    the element type
+     * @return the elements that pass
+     */
+    default <T extends JanitorObject> @NotNull List<T> filterParallel(final @NotNull Collection<T> values, final @NotNull ForkJoinPool pool) {
+        try {
+            // a parallel stream started from within a fork-join task runs on that task's pool:
+            return pool.submit(() -> values.parallelStream().filter(this).toList()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while filtering", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("error filtering", e.getCause());
+        }
+    }
+
 }
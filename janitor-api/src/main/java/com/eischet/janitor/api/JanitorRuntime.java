@@ -11,6 +11,8 @@ import org.intellij.lang.annotations.Language;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Supplier;
 
 /**
@@ -21,6 +23,21 @@ public interface JanitorRuntime {
     JanitorEnvironment getEnvironment();
 
     RunnableScript compile(String moduleName, @Language("Janitor") String source) throws JanitorCompilerException;
+
+    /**
+     * Compile a script, choosing how it is executed.
+     * Runtimes that don't support anything but the interpreter simply ignore the mode.
+     *
+     * @param moduleName the module name
+     * @param source the source code
+     * @param mode how to execute the script
+     * @return the compiled script
+     * @throws JanitorCompilerException on errors
+     */
+    default RunnableScript compile(String moduleName, @Language("Janitor") String source, CompilationMode mode) throws JanitorCompilerException {
+        return compile(moduleName, source);
+    }
+
     RunnableScript checkCompile(String moduleName, @Language("Janitor") String source) throws JanitorCompilerException;
     JanitorObject print(JanitorScriptProcess process, JCallArgs args);
 
@@ -54,6 +71,15 @@ public interface JanitorRuntime {
         getEnvironment().warn(warning);
     }
 
+    /**
+     * Return the executor used by parallel operations like list.parallelMap().
+     * The default implementation returns the common fork/join pool.
+     * @return the executor for parallel operations
+     */
+    default @NotNull Executor getParallelExecutor() {
+        return ForkJoinPool.commonPool();
+    }
+
     /**
      * Run script code without throwing a script runtime exception on errors.
      * The environment may report an exception, but it may not throw.
@@ -2,6 +2,7 @@ package com.eischet.janitor.api;
 
 import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
 import com.eischet.janitor.api.i18n.JanitorFormatting;
+import com.eischet.janitor.api.scopes.FrameLayout;
 import com.eischet.janitor.api.scopes.Location;
 import com.eischet.janitor.api.scopes.ResultAndScope;
 import com.eischet.janitor.api.scopes.Scope;
@@ -56,6 +57,18 @@ public interface JanitorScriptProcess {
 
     void enterBlock(final Location location);
 
+    /**
+     * Enter a frame, i.e. a block whose variables were resolved to slots by the compiler.
+     * Processes that do not support frames may simply enter a regular block; compiled lookups will then fall back to
+     * looking up variables by name.
+     *
+     * @param location    the location
+     * @param frameLayout the layout of the frame
+     */
+    default void enterFrame(final Location location, final FrameLayout frameLayout) {
+        enterBlock(location);
+    }
+
     void exitBlock();
 
     ResultAndScope lookupScopedVar(String id);
@@ -1,8 +1,9 @@
 package com.eischet.janitor.api.errors.glue;
 
 /**
- * Control Flow Exceptions are used internally by the Janitor interpreter.
- * These exceptions should never be thrown to outside users, unless there is a bug in the interpreter.
+ * Control Flow Exceptions were used internally by the Janitor interpreter to implement return, break and continue.
+ * The interpreter now passes completion values between statements instead, so nothing throws these anymore;
+ * the class is kept so that existing code referring to it still compiles.
  */
 public abstract class JanitorControlFlowException extends Exception {
 }
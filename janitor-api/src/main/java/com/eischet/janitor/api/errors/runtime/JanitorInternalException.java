@@ -7,6 +7,15 @@ import com.eischet.janitor.api.errors.glue.JanitorControlFlowException;
  * An exception thrown when an internal error occurs in the Janitor interpreter.
  */
 public class JanitorInternalException extends JanitorRuntimeException {
+    /**
+     * Constructs a new JanitorInternalException.
+     * @param process the running script
+     * @param message the detail message
+     */
+    public JanitorInternalException(final JanitorScriptProcess process, final String message) {
+        super(process, message, JanitorInternalException.class);
+    }
+
     /**
      * Constructs a new JanitorInternalException.
      * @param process the running script
@@ -9,6 +9,7 @@ public class JanitorModuleRegistration {
 
     private final String qualifiedName;
     private final Supplier<JanitorModule> moduleSupplier;
+    private final boolean stateless;
 
     /**
      * Constructs a new JanitorModuleRegistration.
@@ -16,8 +17,19 @@ public class JanitorModuleRegistration {
      * @param moduleSupplier a supplier that creates a new instance of the module
      */
     public JanitorModuleRegistration(final String qualifiedName, final Supplier<JanitorModule> moduleSupplier) {
+        this(qualifiedName, moduleSupplier, false);
+    }
+
+    /**
+     * Constructs a new JanitorModuleRegistration.
+     * @param qualifiedName the qualified name of the module
+     * @param moduleSupplier a supplier that creates a new instance of the module
+     * @param stateless true if module instances hold no state of their own, so a single instance can be shared by all scripts
+     */
+    public JanitorModuleRegistration(final String qualifiedName, final Supplier<JanitorModule> moduleSupplier, final boolean stateless) {
         this.qualifiedName = qualifiedName;
         this.moduleSupplier = moduleSupplier;
+        this.stateless = stateless;
     }
 
     /**
@@ -36,4 +48,13 @@ public class JanitorModuleRegistration {
         return moduleSupplier;
     }
 
+    /**
+     * Checks whether the module is stateless.
+     * Environments may then share a single instance of the module between all scripts instead of creating one per import.
+     * @return true if module instances hold no state of their own
+     */
+    public boolean isStateless() {
+        return stateless;
+    }
+
 }
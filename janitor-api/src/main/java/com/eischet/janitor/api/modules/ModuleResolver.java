@@ -17,4 +17,17 @@ public interface ModuleResolver {
      */
     @Nullable
     JanitorModule resolveModuleByStringName(JanitorScriptProcess process, String name) throws JanitorRuntimeException;
+
+    /**
+     * Check whether a module returned by this resolver before is still current.
+     * Environments that cache resolved modules call this before reusing a cached module, so resolvers that load modules
+     * from sources that can change, e.g. script files, can have them reloaded. Hosts can also drop cached modules explicitly.
+     *
+     * @param name   the name of the module
+     * @param module the module returned for that name before
+     * @return true if the module can be reused, false to have it resolved again
+     */
+    default boolean isModuleCurrent(String name, JanitorModule module) {
+        return true;
+    }
 }
@@ -0,0 +1,83 @@
+package com.eischet.janitor.api.scopes;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.List;
+
+/**
+ * The static layout of a frame, i.e. of a scope whose variables are known when the script is compiled.
+ * <p>Function parameters, for-loop variables and the variable bound by a catch clause are such "lexically known" variables.
+ * The compiler assigns each of them a fixed slot number, and the interpreter stores their values in an array instead of
+ * the scope's map of variables. Lookups that the compiler was able to resolve can then go straight to the array.</p>
+ * <p>Layouts are created once at compile time and shared by all frames created from them, across all runs of a script.</p>
+ */
+public final class FrameLayout {
+
+    private final String[] names;
+
+    private FrameLayout(final String[] names) {
+        this.names = names;
+    }
+
+    /**
+     * Create a layout for the given variable names.
+     * The position of each name in the list becomes its slot number.
+     *
+     * @param names the variable names
+     * @return a new layout
+     */
+    public static @NotNull FrameLayout of(final @NotNull List<String> names) {
+        return new FrameLayout(names.toArray(new String[0]));
+    }
+
+    /**
+     * Get the number of slots.
+     *
+     * @return the number of slots
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Get the name of the variable in a slot.
+     *
+     * @param slot the slot number
+     * @return the variable name
+     */
+    public @NotNull String getName(final int slot) {
+        return names[slot];
+    }
+
+    /**
+     * Get all variable names, in slot order.
+     *
+     * @return the variable names
+     */
+    public @NotNull @Unmodifiable List<String> getNames() {
+        return List.of(names);
+    }
+
+    /**
+     * Find the slot of a variable.
+     * Layouts are tiny (a handful of parameters, typically), so a linear scan beats hashing here.
+     *
+     * @param name the variable name
+     * @return the slot number, or -1 if the layout does not contain the name
+     */
+    public int indexOf(final String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return "FrameLayout" + List.of(names);
+    }
+
+}
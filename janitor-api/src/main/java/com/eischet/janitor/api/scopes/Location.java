@@ -141,6 +141,16 @@ public class Location implements JsonExportableObject {
         return endColumn;
     }
 
+    /**
+     * Get the alias name of this location, e.g. the function name of a call stack entry.
+     *
+     * @return the alias name, or null for plain locations
+     * @see #nested(String)
+     */
+    public @Nullable String getNesting() {
+        return nesting;
+    }
+
     /**
      * Return a readable representation of the location.
      *
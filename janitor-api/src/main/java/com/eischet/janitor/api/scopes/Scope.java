@@ -15,6 +15,7 @@ import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -69,15 +70,23 @@ public class Scope implements JanitorObject {
     private final @Nullable Location location;
     private final @Nullable Scope moduleScope;
     private final JanitorEnvironment env;
+    private final @Nullable FrameLayout frameLayout;
+    private final JanitorObject[] slots; // only present in frame scopes
     private @Nullable Location ip;
     private @Nullable ImplicitObjectProvider implicitObjectProvider;
     private boolean sealed = false;
 
     private Scope(final JanitorEnvironment env, final @Nullable Location location, final @Nullable Scope parent, final @Nullable Scope moduleScope, final boolean threadEnabled) {
+        this(env, location, parent, moduleScope, threadEnabled, null);
+    }
+
+    private Scope(final JanitorEnvironment env, final @Nullable Location location, final @Nullable Scope parent, final @Nullable Scope moduleScope, final boolean threadEnabled, final @Nullable FrameLayout frameLayout) {
         this.env = env;
         this.location = location;
         this.parent = parent;
         this.moduleScope = moduleScope;
+        this.frameLayout = frameLayout;
+        this.slots = frameLayout == null ? null : new JanitorObject[frameLayout.size()];
         this._variables = threadEnabled ? new ConcurrentHashMap<>(4) : new HashMap<>(4);
         // Initially, we always used HashMap. 2025-11-05, I became aware of a potential issue where an app keeps updating the builtin scope in a background thread,
         // *while scripts might be running*, which would lead to a potential ConcurrentModificationException. Now, I'm not sure if it's a good idea to use ConcurrentHashMap
@@ -138,6 +147,19 @@ public class Scope implements JanitorObject {
         return new Scope(currentScope.env, location, currentScope, null, false);
     }
 
+    /**
+     * Create a fresh frame scope, which stores the variables named by the layout in slots instead of its variable map.
+     * Any other variables bound in a frame scope are stored in the variable map, just like in a block scope.
+     *
+     * @param location     the location
+     * @param currentScope the current scope
+     * @param frameLayout  the layout of the frame, as determined by the compiler
+     * @return the fresh frame scope
+     */
+    public static Scope createFreshFrameScope(final Location location, final Scope currentScope, final @NotNull FrameLayout frameLayout) {
+        return new Scope(currentScope.env, location, currentScope, null, false, frameLayout);
+    }
+
     /**
      * Lookup a method/variable within the scope.
      *
@@ -207,6 +229,69 @@ public class Scope implements JanitorObject {
         return moduleScope;
     }
 
+    /**
+     * Get the frame layout, if this is a frame scope.
+     *
+     * @return the frame layout, or null for other kinds of scopes
+     */
+    public @Nullable FrameLayout getFrameLayout() {
+        return frameLayout;
+    }
+
+    /**
+     * Read a slot of a frame scope.
+     * This is what compiler-resolved variable lookups boil down to, so no checks are performed: the caller must make
+     * sure that this is a frame scope with the expected layout.
+     *
+     * @param slot the slot number
+     * @return the variable, or null if the slot has not been bound yet
+     */
+    public @Nullable JanitorObject getSlot(final int slot) {
+        return slots[slot];
+    }
+
+    /**
+     * Bind a variable in a slot of a frame scope.
+     * This behaves exactly like binding by name, but skips looking up the slot for the name.
+     *
+     * @param process  the running script
+     * @param slot     the slot number
+     * @param variable the variable
+     * @return this scope (for chained, builder-style calls)
+     */
+    public Scope bindSlot(final @NotNull JanitorScriptProcess process, final int slot, final @Nullable JanitorObject variable) {
+        final JanitorObject value = variable == null ? JNull.NULL : variable;
+        final JanitorObject existing = slots[slot];
+        if (existing != null) {
+            existing.janitorLeaveScope();
+        }
+        slots[slot] = value;
+        value.janitorEnterScope();
+        if (value instanceof JanitorCleanupRequired cleanable) {
+            process.registerCleanable(cleanable);
+        }
+        return this;
+    }
+
+    /**
+     * Bind a lexically declared variable, e.g. a parameter or a loop variable.
+     * If this scope is a frame of the given layout, the variable goes into its slot, otherwise it is bound by name.
+     *
+     * @param process     the running script
+     * @param frameLayout  the layout the compiler expects, or null if the variable was not resolved
+     * @param slot         the slot number within that layout
+     * @param variableName the variable name
+     * @param variable     the variable
+     * @return this scope (for chained, builder-style calls)
+     */
+    public Scope bindDeclared(final @NotNull JanitorScriptProcess process, final @Nullable FrameLayout frameLayout, final int slot,
+                              final @NotNull String variableName, final @Nullable JanitorObject variable) {
+        if (frameLayout != null && this.frameLayout == frameLayout) {
+            return bindSlot(process, slot, variable);
+        }
+        return bind(process, variableName, variable);
+    }
+
     /**
      * Look up a variable in this scope's implicit object or in its variables.
      * No other scope (parent, module) is consulted. The implicit object takes precedence.
@@ -244,11 +329,22 @@ public class Scope implements JanitorObject {
     }
 
     protected @Nullable JanitorObject getVariable(final String variableName) {
+        if (frameLayout != null) {
+            final int slot = frameLayout.indexOf(variableName);
+            if (slot >= 0) {
+                return slots[slot];
+            }
+        }
         return _variables.get(variableName);
     }
 
     protected void setVariable(final @NotNull String variableName, final @NotNull JanitorObject value, final @Nullable JanitorScriptProcess process) {
-        _variables.put(variableName, value);
+        final int slot = frameLayout == null ? -1 : frameLayout.indexOf(variableName);
+        if (slot >= 0) {
+            slots[slot] = value;
+        } else {
+            _variables.put(variableName, value);
+        }
         value.janitorEnterScope();
         if (process != null && value instanceof JanitorCleanupRequired cleanable) {
             process.registerCleanable(cleanable);
@@ -263,7 +359,7 @@ public class Scope implements JanitorObject {
      * @return true if the variable is present
      */
     public boolean hasLocal(final String variableName) {
-        return _variables.containsKey(variableName);
+        return getVariable(variableName) != null;
     }
 
     /**
@@ -336,7 +432,9 @@ public class Scope implements JanitorObject {
             // Das aber abzuklemmen macht alle Mailimporte des BV kaputt, daher hier wieder erlaubt.
         }
         // für debugging des o.g. Sachverhalts: log.info("failed lookup: {} in scope {} -> trying parent {}",  this, variableName, parent);
-        return parent == null ? null : parent.lookup(process, variableName, closureScopes);
+        // The closure scopes have already been searched (without success) right after our own variables, so there's no need to
+        // search them again on every level of the parent chain:
+        return parent == null ? null : parent.lookup(process, variableName, null);
         // });
     }
 
@@ -350,7 +448,6 @@ public class Scope implements JanitorObject {
      */
     public Scope bind(final @NotNull JanitorScriptProcess process, final @NotNull String variableName, final @Nullable JanitorObject variable) {
         final @NotNull String name = Objects.requireNonNull(process.getBuiltins().intern(variableName));
-        process.trace(() -> "binding in" + (sealed ? " SEALED" : "") + " scope " + this + ": " + name + " = " + variable);
         //log.debug("binding in scope {}: {} = {}", this.getLocation(), name, variable);
         if (sealed) {
             process.warn("tried to rebind '%s' as %s in sealed scope %s".formatted(name, variable, this));
@@ -362,7 +459,6 @@ public class Scope implements JanitorObject {
         } else {
             final JanitorObject existing = getVariable(name);
             if (existing != null) {
-                process.trace(() -> "replacing existing value " + name + " = " + existing + " with " + variable);
                 existing.janitorLeaveScope();
             }
             setVariable(name, variable, process);
@@ -379,7 +475,14 @@ public class Scope implements JanitorObject {
      * @param variableName the name to unbind
      */
     public JanitorObject unbind(final String variableName) {
-        final JanitorObject existing = _variables.remove(variableName);
+        final int slot = frameLayout == null ? -1 : frameLayout.indexOf(variableName);
+        final JanitorObject existing;
+        if (slot >= 0) {
+            existing = slots[slot];
+            slots[slot] = null;
+        } else {
+            existing = _variables.remove(variableName);
+        }
         if (existing != null) {
             existing.janitorLeaveScope();
         }
@@ -392,6 +495,14 @@ public class Scope implements JanitorObject {
     public void unbindAll() {
         _variables.values().forEach(JanitorObject::janitorLeaveScope);
         _variables.clear();
+        if (slots != null) {
+            for (int i = 0; i < slots.length; i++) {
+                if (slots[i] != null) {
+                    slots[i].janitorLeaveScope();
+                    slots[i] = null;
+                }
+            }
+        }
     }
 
     /**
@@ -492,9 +603,31 @@ public class Scope implements JanitorObject {
      * @return a list of variable names
      */
     public @NotNull @Unmodifiable List<String> dir() {
+        if (frameLayout != null) {
+            return variablesView().keySet().stream().toList();
+        }
         return _variables.keySet().stream().toList();
     }
 
+    /**
+     * Collect the variables of this scope, including those stored in the slots of a frame, into a fresh map.
+     *
+     * @return all variables of this scope
+     */
+    private Map<String, JanitorObject> variablesView() {
+        if (frameLayout == null) {
+            return _variables;
+        }
+        final Map<String, JanitorObject> view = new LinkedHashMap<>();
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] != null) {
+                view.put(frameLayout.getName(i), slots[i]);
+            }
+        }
+        view.putAll(_variables);
+        return view;
+    }
+
     /**
      * Get a list of variables defined in the scope, as a JMap.
      * This includes module scope and parent scope, recursively (!)
@@ -508,14 +641,14 @@ public class Scope implements JanitorObject {
         } else if (parent != null) {
             dump.putAll(parent.toMap());
         }
-        _variables.forEach((key, value) -> dump.put(env.getBuiltinTypes().string(key), value));
+        variablesView().forEach((key, value) -> dump.put(env.getBuiltinTypes().string(key), value));
         return dump;
 
     }
 
     @Override
     public @NotNull String janitorToString() {
-        return String.valueOf(_variables);
+        return String.valueOf(variablesView());
     }
 
     /**
@@ -526,7 +659,7 @@ public class Scope implements JanitorObject {
      */
     @Override
     public boolean janitorIsTrue() {
-        return !_variables.isEmpty();
+        return !variablesView().isEmpty();
     }
 
     @Override
@@ -543,6 +676,13 @@ public class Scope implements JanitorObject {
     public void janitorLeaveScope() {
         if (!sealed) {
             _variables.values().stream().filter(Objects::nonNull).forEach(JanitorObject::janitorLeaveScope);
+            if (slots != null) {
+                for (final JanitorObject slot : slots) {
+                    if (slot != null) {
+                        slot.janitorLeaveScope();
+                    }
+                }
+            }
         }
     }
 
@@ -560,7 +700,7 @@ public class Scope implements JanitorObject {
      * @param other another scope, probably the main scope of a previous REPL command execution
      */
     public void replEatScope(Scope other) {
-        other._variables.forEach((variableName, value) -> setVariable(variableName, value, null));
+        other.variablesView().forEach((variableName, value) -> setVariable(variableName, value, null));
     }
 
     /**
@@ -590,7 +730,7 @@ public class Scope implements JanitorObject {
      * @see Scope#replEatScope
      */
     public void bindAll(final Scope evalScope) {
-        evalScope._variables.forEach((variableName, value) -> setVariable(variableName, value, null));
+        evalScope.variablesView().forEach((variableName, value) -> setVariable(variableName, value, null));
     }
 
 }
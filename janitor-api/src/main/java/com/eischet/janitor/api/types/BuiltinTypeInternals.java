@@ -2,8 +2,12 @@ package com.eischet.janitor.api.types;
 
 import com.eischet.janitor.api.types.builtin.JDateTime;
 import com.eischet.janitor.api.types.builtin.JDuration;
+import com.eischet.janitor.api.types.builtin.JFloat;
+import com.eischet.janitor.api.types.builtin.JInt;
 import com.eischet.janitor.api.types.builtin.JList;
+import com.eischet.janitor.api.types.builtin.JSequence;
 import com.eischet.janitor.api.types.builtin.JString;
+import com.eischet.janitor.api.types.builtin.JStringBuilder;
 import com.eischet.janitor.api.types.dispatch.DispatchTable;
 import com.eischet.janitor.api.types.wrapped.WrapperDispatchTable;
 
@@ -18,15 +22,37 @@ public interface BuiltinTypeInternals {
 
     DispatchTable<JString> getStringDispatcher();
 
+    /**
+     * Return the dispatch table for string builders.
+     * The default returns a new table without any string builder methods on every call, for implementations that predate
+     * string builders; override this to provide the methods and to share a single table.
+     *
+     * @return the dispatch table
+     */
+    default DispatchTable<JStringBuilder> getStringBuilderDispatcher() {
+        return new DispatchTable<>();
+    }
+
     DispatchTable<JList> getListDispatcher();
 
     WrapperDispatchTable<Set<JanitorObject>> getSetDispatcher();
 
-    WrapperDispatchTable<Long> getIntDispatcher();
+    /**
+     * Return the dispatch table for sequences.
+     * The default returns a new table without any sequence methods on every call, for implementations that predate sequences;
+     * override this to provide the methods and to share a single table.
+     *
+     * @return the dispatch table
+     */
+    default DispatchTable<JSequence> getSequenceDispatcher() {
+        return new DispatchTable<>();
+    }
+
+    DispatchTable<JInt> getIntDispatcher();
 
     WrapperDispatchTable<byte[]> getBinaryDispatcher();
 
-    WrapperDispatchTable<Double> getFloatDispatcher();
+    DispatchTable<JFloat> getFloatDispatcher();
 
     WrapperDispatchTable<Pattern> getRegexDispatcher();
 
@@ -75,6 +75,27 @@ public interface BuiltinTypes {
 
     @NotNull JSet set(@NotNull Stream<? extends JanitorObject> stream);
 
+    /**
+     * Create a lazy sequence over the source's elements.
+     * The source is iterated once per terminal operation on the sequence, and not copied.
+     *
+     * @param source the elements
+     * @return a sequence
+     */
+    default @NotNull JSequence sequence(@NotNull Iterable<? extends JanitorObject> source) {
+        return JSequence.newInstance(internals().getSequenceDispatcher(), source);
+    }
+
+    /**
+     * Create a mutable string builder.
+     *
+     * @param initial the initial contents
+     * @return a string builder
+     */
+    default @NotNull JStringBuilder stringBuilder(@NotNull String initial) {
+        return JStringBuilder.newInstance(internals().getStringBuilderDispatcher(), initial);
+    }
+
 
     @NotNull
     JInt integer(long value);
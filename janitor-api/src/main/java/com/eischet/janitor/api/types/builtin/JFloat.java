@@ -1,7 +1,8 @@
 package com.eischet.janitor.api.types.builtin;
 
+import com.eischet.janitor.api.types.JanitorTypedObject;
+import com.eischet.janitor.api.types.composed.JanitorComposed;
 import com.eischet.janitor.api.types.dispatch.Dispatcher;
-import com.eischet.janitor.api.types.wrapped.JanitorWrapper;
 import com.eischet.janitor.toolbox.json.api.JsonException;
 import com.eischet.janitor.toolbox.json.api.JsonOutputStream;
 import org.jetbrains.annotations.NotNull;
@@ -10,26 +11,42 @@ import java.math.BigDecimal;
 
 /**
  * A float object, representing a floating-point number.
+ * <p>The value is kept as a primitive double, so arithmetic does not box; a Double is only created when the host asks for one.</p>
  */
-public class JFloat extends JanitorWrapper<Double> implements JNumber {
+public class JFloat extends JanitorComposed<JFloat> implements JNumber, JanitorTypedObject<Double> {
 
-    private JFloat(final Dispatcher<JanitorWrapper<Double>> dispatcher, final Double wrapped) {
-        super(dispatcher, wrapped);
+    private final double value;
+
+    private JFloat(final Dispatcher<JFloat> dispatcher, final double value) {
+        super(dispatcher);
+        this.value = value;
     }
 
     @Override
     public @NotNull Double janitorGetHostValue() {
-        return wrapped;
+        return value;
     }
 
     @Override
     public String toString() {
-        return String.valueOf(wrapped);
+        return String.valueOf(value);
+    }
+
+    @Override
+    public boolean equals(final Object object) {
+        if (this == object) return true;
+        if (object == null || getClass() != object.getClass()) return false;
+        return Double.compare(value, ((JFloat) object).value) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Double.hashCode(value);
     }
 
     @Override
     public boolean janitorIsTrue() {
-        return wrapped != 0.0;
+        return value != 0.0;
     }
 
     /**
@@ -38,7 +55,7 @@ public class JFloat extends JanitorWrapper<Double> implements JNumber {
      * @return the value
      */
     public double getValue() {
-        return wrapped;
+        return value;
     }
 
     /**
@@ -48,17 +65,17 @@ public class JFloat extends JanitorWrapper<Double> implements JNumber {
      */
     @Override
     public double toDouble() {
-        return wrapped;
+        return value;
     }
 
     @Override
     public long toLong() {
-        return wrapped.longValue();
+        return (long) value;
     }
 
     @Override
     public BigDecimal toBigDecimal() {
-        return BigDecimal.valueOf(wrapped);
+        return BigDecimal.valueOf(value);
     }
 
 
@@ -69,15 +86,15 @@ public class JFloat extends JanitorWrapper<Double> implements JNumber {
 
     @Override
     public boolean isDefaultOrEmpty() {
-        return wrapped == 0.0d;
+        return value == 0.0d;
     }
 
     @Override
     public void writeJson(final JsonOutputStream producer) throws JsonException {
-        producer.value(wrapped);
+        producer.value(value);
     }
 
-    public static JFloat newInstance(final Dispatcher<JanitorWrapper<Double>> dispatcher, final double value) {
+    public static JFloat newInstance(final Dispatcher<JFloat> dispatcher, final double value) {
         return new JFloat(dispatcher, value);
     }
 
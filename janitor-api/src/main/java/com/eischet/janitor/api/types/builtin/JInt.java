@@ -1,24 +1,33 @@
 package com.eischet.janitor.api.types.builtin;
 
+import com.eischet.janitor.api.types.JanitorTypedObject;
+import com.eischet.janitor.api.types.composed.JanitorComposed;
 import com.eischet.janitor.api.types.dispatch.Dispatcher;
-import com.eischet.janitor.api.types.wrapped.JanitorWrapper;
 import com.eischet.janitor.toolbox.json.api.JsonException;
 import com.eischet.janitor.toolbox.json.api.JsonOutputStream;
 import org.jetbrains.annotations.NotNull;
 
 import java.math.BigDecimal;
-import java.util.Objects;
 
 /**
  * An integer object, representing a 64-bit signed integer.
  * This is one of the built-in types that Janitor provides automatically.
+ * <p>The value is kept as a primitive long, so arithmetic does not box; a Long is only created when the host asks for one.</p>
  */
-public class JInt extends JanitorWrapper<Long> implements JNumber {
+public class JInt extends JanitorComposed<JInt> implements JNumber, JanitorTypedObject<Long> {
 
-    public JInt(final Dispatcher<JanitorWrapper<Long>> dispatcher, final Long wrapped) {
-        super(dispatcher, wrapped);
-    }
+    private final long value;
 
+    /**
+     * Create a new JInt.
+     *
+     * @param dispatcher method/attribute dispatch table
+     * @param value      the value
+     */
+    public JInt(final Dispatcher<JInt> dispatcher, final long value) {
+        super(dispatcher);
+        this.value = value;
+    }
 
 
     /**
@@ -28,12 +37,17 @@ public class JInt extends JanitorWrapper<Long> implements JNumber {
      */
     @Override
     public boolean janitorIsTrue() {
-        return wrapped != 0;
+        return value != 0;
     }
 
     @Override
     public @NotNull Long janitorGetHostValue() {
-        return wrapped;
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(value);
     }
 
     /**
@@ -42,7 +56,7 @@ public class JInt extends JanitorWrapper<Long> implements JNumber {
      * @return the integer as a double
      */
     public double getAsDouble() {
-        return wrapped.doubleValue();
+        return (double) value;
     }
 
     /**
@@ -52,13 +66,20 @@ public class JInt extends JanitorWrapper<Long> implements JNumber {
      * @return the integer as an int
      */
     public int getAsInt() {
-        return wrapped.intValue();
+        return (int) value;
     }
 
 
+    @Override
+    public boolean equals(final Object object) {
+        if (this == object) return true;
+        if (object == null || getClass() != object.getClass()) return false;
+        return value == ((JInt) object).value;
+    }
+
     @Override
     public int hashCode() {
-        return Objects.hash(wrapped);
+        return Long.hashCode(value);
     }
 
     /**
@@ -67,7 +88,7 @@ public class JInt extends JanitorWrapper<Long> implements JNumber {
      * @return the integer
      */
     public long getValue() {
-        return wrapped;
+        return value;
     }
 
 
@@ -79,31 +100,31 @@ public class JInt extends JanitorWrapper<Long> implements JNumber {
 
     @Override
     public boolean isDefaultOrEmpty() {
-        return wrapped == 0;
+        return value == 0;
     }
 
     @Override
     public void writeJson(final JsonOutputStream producer) throws JsonException {
-        producer.value(wrapped);
+        producer.value(value);
     }
 
-    public static JInt newInstance(final Dispatcher<JanitorWrapper<Long>> dispatcher, final long value) {
+    public static JInt newInstance(final Dispatcher<JInt> dispatcher, final long value) {
         return new JInt(dispatcher, value);
     }
 
     @Override
     public double toDouble() {
-        return (double) wrapped;
+        return (double) value;
     }
 
     @Override
     public long toLong() {
-        return wrapped;
+        return value;
     }
 
     @Override
     public BigDecimal toBigDecimal() {
-        return BigDecimal.valueOf(wrapped);
+        return BigDecimal.valueOf(value);
     }
 
 }
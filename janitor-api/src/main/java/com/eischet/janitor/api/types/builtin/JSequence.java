@@ -0,0 +1,122 @@
+package com.eischet.janitor.api.types.builtin;
+
+import com.eischet.janitor.api.JanitorScriptProcess;
+import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
+import com.eischet.janitor.api.types.JanitorObject;
+import com.eischet.janitor.api.types.composed.JanitorComposed;
+import com.eischet.janitor.api.types.dispatch.Dispatcher;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A lazy sequence of Janitor objects, e.g. list.stream().filter(x -> x > 0).map(x -> x * 2).toList().
+ * This is one of the built-in types that Janitor provides automatically.
+ * <p>
+ * Unlike list.filter() and list.map(), which each build a new list, a sequence only records its stages. Nothing happens
+ * until a terminal operation like toList() or count() runs, which then pushes each element of the source through all stages
+ * in a single pass, without any intermediate lists. Stages like take() and first() stop the pass early.
+ * </p>
+ * <p>
+ * Sequences are immutable: adding a stage returns a new sequence, and a sequence can be run any number of times.
+ * The source is read anew on each run, so changes to the underlying list or set are visible.
+ * </p>
+ */
+public class JSequence extends JanitorComposed<JSequence> {
+
+    /**
+     * Receives the elements of a sequence, one at a time.
+     */
+    @FunctionalInterface
+    public interface Sink {
+        /**
+         * Receive an element.
+         *
+         * @param element the element
+         * @return true to receive more elements, false to stop the pass
+         * @throws JanitorRuntimeException on errors
+         */
+        boolean accept(@NotNull JanitorObject element) throws JanitorRuntimeException;
+    }
+
+    /**
+     * One stage of a sequence, e.g. a filter or a mapping.
+     */
+    @FunctionalInterface
+    public interface Stage {
+        /**
+         * Create the sink for one pass over the sequence.
+         * Stages that keep state, e.g. counting elements, must keep it in the sink, so the sequence can be run again.
+         *
+         * @param process    the running script
+         * @param downstream the sink that receives the elements passed on by this stage
+         * @return the sink for this stage
+         */
+        @NotNull Sink wrap(@NotNull JanitorScriptProcess process, @NotNull Sink downstream);
+    }
+
+    private final Iterable<? extends JanitorObject> source;
+    private final List<Stage> stages;
+
+    private JSequence(final Dispatcher<JSequence> dispatcher, final Iterable<? extends JanitorObject> source, final List<Stage> stages) {
+        super(dispatcher);
+        this.source = source;
+        this.stages = stages;
+    }
+
+    /**
+     * Create a new sequence.
+     *
+     * @param dispatcher the dispatcher
+     * @param source     where the elements come from
+     * @return the sequence
+     */
+    public static JSequence newInstance(final Dispatcher<JSequence> dispatcher, final Iterable<? extends JanitorObject> source) {
+        return new JSequence(dispatcher, source, Collections.emptyList());
+    }
+
+    /**
+     * Return a new sequence with one more stage.
+     *
+     * @param stage the stage to add at the end
+     * @return the new sequence
+     */
+    public @NotNull JSequence then(final @NotNull Stage stage) {
+        final List<Stage> extended = new ArrayList<>(stages.size() + 1);
+        extended.addAll(stages);
+        extended.add(stage);
+        return new JSequence(dispatcher, source, List.copyOf(extended));
+    }
+
+    /**
+     * Run the sequence, pushing each element through all stages into the terminal sink.
+     *
+     * @param process  the running script
+     * @param terminal receives the elements that pass all stages
+     * @throws JanitorRuntimeException on errors
+     */
+    public void run(final @NotNull JanitorScriptProcess process, final @NotNull Sink terminal) throws JanitorRuntimeException {
+        Sink sink = terminal;
+        for (int i = stages.size() - 1; i >= 0; i--) {
+            sink = stages.get(i).wrap(process, sink);
+        }
+        for (final JanitorObject element : source) {
+            if (!sink.accept(element)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public @NotNull String janitorClassName() {
+        return "sequence";
+    }
+
+    @Override
+    public @NotNull String janitorToString() {
+        return "sequence";
+    }
+
+}
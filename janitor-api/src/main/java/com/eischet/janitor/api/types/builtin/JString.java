@@ -9,12 +9,18 @@ import com.eischet.janitor.toolbox.json.api.JsonExportablePrimitive;
 import com.eischet.janitor.toolbox.json.api.JsonOutputStream;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayDeque;
 import java.util.Objects;
 import java.util.function.Function;
 
 /**
  * A string object, representing a string of characters.
  * This is one of the built-in types that Janitor provides automatically.
+ * <p>
+ * Strings are immutable. A string created by {@link #append(String)} only records the string it was appended to and the
+ * suffix, and builds its {@link String} value once, when the value is first needed. Appending is therefore O(1), and
+ * building a string with s += x in a loop copies its characters once instead of on every step.
+ * </p>
  */
 public class JString extends JanitorComposed<JString> implements JConstant, JsonExportablePrimitive, JStringBase, Comparable<JString> {
 
@@ -23,12 +29,21 @@ public class JString extends JanitorComposed<JString> implements JConstant, Json
      */
     public static final String CLASS_NAME = "string";
 
-    private final @NotNull String wrapped;
+    /**
+     * A string that has not been built yet: the string appended to, and the suffix.
+     */
+    private record Appended(@NotNull JString prefix, @NotNull String suffix) {
+    }
+
+    // Either the String value, or an Appended until the value is first needed. Like String's hash, this is replaced without
+    // synchronization: both kinds of content are immutable, and every thread building the value builds the same one.
+    private @NotNull Object content;
+    private final int length;
 
 
     @Override
     public boolean janitorIsTrue() {
-        return !wrapped.isEmpty();
+        return length != 0;
     }
 
     private WildCardMatcher wildCardMatcher;
@@ -57,7 +72,67 @@ public class JString extends JanitorComposed<JString> implements JConstant, Json
      */
     protected JString(final Dispatcher<JString> dispatcher, final String string, final Function<String, String> interner) {
         super(dispatcher);
-        this.wrapped =  string != null && !string.isEmpty() ? interner.apply(string) : "";
+        final String wrapped = string != null && !string.isEmpty() ? interner.apply(string) : "";
+        this.content = wrapped;
+        this.length = wrapped.length();
+    }
+
+    private JString(final Dispatcher<JString> dispatcher, final @NotNull Appended appended, final int length) {
+        super(dispatcher);
+        this.content = appended;
+        this.length = length;
+    }
+
+    /**
+     * Append a suffix, e.g. for s += x, without copying this string.
+     *
+     * @param suffix the suffix
+     * @return a new string, or this string if the suffix is empty
+     */
+    public @NotNull JString append(final @NotNull String suffix) {
+        if (suffix.isEmpty()) {
+            return this;
+        }
+        return new JString(dispatcher, new Appended(this, suffix), Math.addExact(length, suffix.length()));
+    }
+
+    /**
+     * Check if this string has been created by {@link #append(String)} and its value has not been built yet,
+     * so appending to it again does not copy anything.
+     *
+     * @return true for strings whose value has not been built yet
+     */
+    public boolean isAppended() {
+        return content instanceof Appended;
+    }
+
+    /**
+     * Return the length of the string, without building it first.
+     * @return the number of chars
+     * @see String#length()
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Build the value of a string created by {@link #append(String)}, going back through the chain of appends to the
+     * nearest string whose value is known. The chain is dropped afterwards, so it can be garbage collected.
+     */
+    private @NotNull String build(final @NotNull Appended appended) {
+        final ArrayDeque<String> suffixes = new ArrayDeque<>();
+        Object current = appended;
+        while (current instanceof Appended pending) {
+            suffixes.push(pending.suffix());
+            current = pending.prefix().content;
+        }
+        final StringBuilder builder = new StringBuilder(length).append((String) current);
+        for (final String suffix : suffixes) {
+            builder.append(suffix);
+        }
+        final String value = builder.toString();
+        content = value;
+        return value;
     }
 
     /**
@@ -66,18 +141,19 @@ public class JString extends JanitorComposed<JString> implements JConstant, Json
      */
     @Override
     public String toString() {
-        return wrapped;
+        return janitorGetHostValue();
     }
 
 
     @Override
     public @NotNull String janitorGetHostValue() {
-        return wrapped;
+        final Object current = content;
+        return current instanceof Appended appended ? build(appended) : (String) current;
     }
 
     @Override
     public @NotNull String janitorToString() {
-        return wrapped;
+        return janitorGetHostValue();
     }
 
     /**
@@ -86,7 +162,7 @@ public class JString extends JanitorComposed<JString> implements JConstant, Json
      * @see String#isEmpty()
      */
     public boolean isEmpty() {
-        return wrapped.isEmpty();
+        return length == 0;
     }
 
     @Override
@@ -96,12 +172,12 @@ public class JString extends JanitorComposed<JString> implements JConstant, Json
 
     @Override
     public boolean isDefaultOrEmpty() {
-        return wrapped.isEmpty();
+        return length == 0;
     }
 
     @Override
     public void writeJson(final JsonOutputStream producer) throws JsonException {
-        producer.value(wrapped);
+        producer.value(janitorGetHostValue());
     }
 
     public static JString newInstance(final Dispatcher<JString> dispatcher, final String value, final Function<String, String> interner) {
@@ -113,17 +189,17 @@ public class JString extends JanitorComposed<JString> implements JConstant, Json
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         final JString jString = (JString) o;
-        return Objects.equals(wrapped, jString.wrapped);
+        return length == jString.length && Objects.equals(janitorGetHostValue(), jString.janitorGetHostValue());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(wrapped);
+        return Objects.hashCode(janitorGetHostValue());
     }
 
     @Override
     public int compareTo(@NotNull final JString o) {
-        return CharSequence.compare(wrapped, o.wrapped);
+        return CharSequence.compare(janitorGetHostValue(), o.janitorGetHostValue());
     }
 
 }
@@ -0,0 +1,116 @@
+package com.eischet.janitor.api.types.builtin;
+
+import com.eischet.janitor.api.types.JanitorObject;
+import com.eischet.janitor.api.types.composed.JanitorComposed;
+import com.eischet.janitor.api.types.dispatch.Dispatcher;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A mutable string builder, e.g. for assembling CSV or XML line by line:
+ * sb = StringBuilder(); for (row in rows) { sb.append(row.name).append(";").append(row.value).append("\n"); } sb.toString().
+ * This is one of the built-in types that Janitor provides automatically.
+ * <p>
+ * Appending to a builder changes it in place, so unlike repeated string concatenation, building a long string never
+ * copies the characters that have already been appended.
+ * </p>
+ */
+public class JStringBuilder extends JanitorComposed<JStringBuilder> {
+
+    /**
+     * String builder class name.
+     */
+    public static final String CLASS_NAME = "StringBuilder";
+
+    private final StringBuilder builder;
+
+    private JStringBuilder(final Dispatcher<JStringBuilder> dispatcher, final StringBuilder builder) {
+        super(dispatcher);
+        this.builder = builder;
+    }
+
+    /**
+     * Create a new string builder.
+     *
+     * @param dispatcher the dispatcher
+     * @param initial    the initial contents
+     * @return the string builder
+     */
+    public static JStringBuilder newInstance(final Dispatcher<JStringBuilder> dispatcher, final @NotNull String initial) {
+        return new JStringBuilder(dispatcher, new StringBuilder(Math.max(16, 2 * initial.length())).append(initial));
+    }
+
+    /**
+     * Append a value, converted to a string the same way string concatenation with + converts it.
+     *
+     * @param value the value
+     * @return this builder
+     */
+    public @NotNull JStringBuilder append(final @NotNull JanitorObject value) {
+        builder.append(toText(value));
+        return this;
+    }
+
+    /**
+     * Insert a value.
+     *
+     * @param offset the offset, from 0 to {@link #length()}
+     * @param value  the value
+     * @return this builder
+     * @throws StringIndexOutOfBoundsException if the offset is invalid
+     */
+    public @NotNull JStringBuilder insert(final int offset, final @NotNull JanitorObject value) {
+        builder.insert(offset, toText(value));
+        return this;
+    }
+
+    /**
+     * Remove all characters.
+     *
+     * @return this builder
+     */
+    public @NotNull JStringBuilder clear() {
+        builder.setLength(0);
+        return this;
+    }
+
+    /**
+     * Return the number of characters appended so far.
+     *
+     * @return the length
+     */
+    public int length() {
+        return builder.length();
+    }
+
+    @Override
+    public boolean janitorIsTrue() {
+        return !builder.isEmpty();
+    }
+
+    @Override
+    public @NotNull String janitorClassName() {
+        return CLASS_NAME;
+    }
+
+    @Override
+    public @NotNull String janitorToString() {
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return builder.toString();
+    }
+
+    /**
+     * Convert a value to a string, the same way string concatenation with + converts it.
+     *
+     * @param value the value
+     * @return the text
+     */
+    public static @NotNull String toText(final @NotNull JanitorObject value) {
+        final JanitorObject unpacked = value.janitorUnpack();
+        return unpacked instanceof JString string ? string.janitorGetHostValue() : String.valueOf(unpacked.janitorGetHostValue());
+    }
+
+}
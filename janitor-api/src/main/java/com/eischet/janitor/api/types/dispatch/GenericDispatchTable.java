@@ -56,6 +56,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -103,6 +104,9 @@ public abstract class GenericDispatchTable<T extends JanitorObject> implements D
     final Dispatcher<?> parent;
     private final DispatchDelegate<T> parentLookupHandler;
     private final Map<String, AttributeLookupHandler<T>> map = new HashMap<>();
+    private final Map<String, JUnboundMethod<T>> methods = new HashMap<>();
+    private final Function<String, ResolvedAttribute<T>> parentResolver;
+    private final AtomicInteger version = new AtomicInteger();
     private final List<String> attributeNames = new ArrayList<>();
     private final List<Attribute<T>> attributes = new ArrayList<>();
     private final ParentAttributeReader<T> parentAttributeReader;
@@ -116,6 +120,7 @@ public abstract class GenericDispatchTable<T extends JanitorObject> implements D
     public GenericDispatchTable(final @Nullable Supplier<T> javaDefaultConstructor) {
         parent = null;
         parentLookupHandler = null;
+        parentResolver = null;
         parentAttributeReader = null;
         parentAttributeWriter = null;
         this.javaDefaultConstructor = javaDefaultConstructor;
@@ -149,6 +154,14 @@ public JanitorObject dispatch(T instance, JanitorScriptProcess process, String n
     public <P extends JanitorObject> GenericDispatchTable(final @NotNull Dispatcher<P> parent, final Function<T, P> caster) {
         this.parent = parent;
         parentLookupHandler = (instance, process, name) -> parent.dispatch(caster.apply(instance), process, name);
+        if (parent instanceof GenericDispatchTable<P> parentDispatch) {
+            parentResolver = name -> {
+                final ResolvedAttribute<P> resolved = parentDispatch.resolve(name);
+                return resolved == null ? null : resolved.adapt(caster);
+            };
+        } else {
+            parentResolver = null; // other dispatchers cannot be resolved ahead of time, so we cannot cache their lookups
+        }
         // not tested yet: can we use this to delegate
         parentAttributeReader = (stream, key, instance) -> {
             if (parent instanceof GenericDispatchTable<P> parentDispatch) {
@@ -317,8 +330,23 @@ public JanitorObject dispatch(T instance, JanitorScriptProcess process, String n
                                                    final @Nullable JsonAdapter<T> jsonSupport,
                                                    final @Nullable JsonType jsonType,
                                                    final @Nullable Dispatcher<?> dispatcher) {
+        return internalAddProperty(name, handler, null, jsonSupport, jsonType, dispatcher);
+    }
+
+    private MetaDataBuilder<T> internalAddProperty(final @NotNull String name,
+                                                   final @NotNull AttributeLookupHandler<T> handler,
+                                                   final @Nullable JUnboundMethod<T> method,
+                                                   final @Nullable JsonAdapter<T> jsonSupport,
+                                                   final @Nullable JsonType jsonType,
+                                                   final @Nullable Dispatcher<?> dispatcher) {
         attributeNames.add(name);
         map.put(name, handler);
+        if (method != null) {
+            methods.put(name, method);
+        } else {
+            methods.remove(name);
+        }
+        version.incrementAndGet(); // invalidates everything resolved from this table and its children so far
         attributes.removeIf(element -> Objects.equals(element.name, name));
         attributes.add(new Attribute<>(name, handler, jsonSupport));
         final InternalMetaDataBuilder<T> builder = new InternalMetaDataBuilder<>(name);
@@ -357,7 +385,7 @@ public JanitorObject dispatch(T instance, JanitorScriptProcess process, String n
             public <K> @Nullable K retrieveMetaData(final @NotNull MetaDataKey<K> key) {
                 return GenericDispatchTable.this.getMetaData(name, key);
             }
-        }), null, null, null)
+        }), method, null, null, null)
             .setMetaData(TYPE_HINT, Janitor.MetaData.TypeHint.METHOD);
     }
 
@@ -369,16 +397,10 @@ public JanitorObject dispatch(T instance, JanitorScriptProcess process, String n
      * @return a meta-data builder
      */
     public MetaDataBuilder<T> addBuilderMethod(final @NotNull String name, final @NotNull JVoidMethod<T> method) {
-        return internalAddProperty(name, instance -> new JBoundMethod<>(name, instance, (self, p1, arguments) -> {
-            method.call(instance, p1, arguments);
-            return instance;
-        }, new MetaDataRetriever() {
-            @Override
-            public <K> @Nullable K retrieveMetaData(final @NotNull MetaDataKey<K> key) {
-                return GenericDispatchTable.this.getMetaData(name, key);
-            }
-        }), null, null, null)
-            .setMetaData(TYPE_HINT, Janitor.MetaData.TypeHint.METHOD);
+        return addMethod(name, (self, p1, arguments) -> {
+            method.call(self, p1, arguments);
+            return self;
+        });
     }
 
     /**
@@ -390,16 +412,10 @@ public JanitorObject dispatch(T instance, JanitorScriptProcess process, String n
      * @return a meta-data builder
      */
     public MetaDataBuilder<T> addVoidMethod(final @NotNull String name, final @NotNull JVoidMethod<T> method) {
-        return internalAddProperty(name, instance -> new JBoundMethod<>(name, instance, (self, p1, arguments) -> {
-            method.call(instance, p1, arguments);
+        return addMethod(name, (self, p1, arguments) -> {
+            method.call(self, p1, arguments);
             return JNull.NULL;
-        }, new MetaDataRetriever() {
-            @Override
-            public <K> @Nullable K retrieveMetaData(final @NotNull MetaDataKey<K> key) {
-                return GenericDispatchTable.this.getMetaData(name, key);
-            }
-        }), null, null, null)
-            .setMetaData(TYPE_HINT, Janitor.MetaData.TypeHint.METHOD);
+        });
     }
 
     /**
@@ -1303,6 +1319,40 @@ public JanitorObject dispatch(T instance, JanitorScriptProcess process, String n
         return map.get(key);
     }
 
+    /**
+     * Resolve an attribute name without an instance, for caching the lookup.
+     * This follows the same path as {@link #dispatch(JanitorObject, JanitorScriptProcess, String)}: our own attributes
+     * first, then the parent's.
+     *
+     * @param name the attribute name
+     * @return the resolved attribute, or null if it's not found or cannot be resolved ahead of time
+     * @see #getChainVersion()
+     */
+    public @Nullable ResolvedAttribute<T> resolve(final String name) {
+        final AttributeLookupHandler<T> handler = map.get(name);
+        if (handler != null) {
+            return new ResolvedAttribute<>(handler, methods.get(name));
+        }
+        return parentResolver != null ? parentResolver.apply(name) : null;
+    }
+
+    /**
+     * Return a number that changes whenever an attribute is added to this table or one of its parent tables.
+     * Callers that cache the results of {@link #resolve(String)} must throw them away when this number changes.
+     *
+     * @return the current version of this table and its parents
+     */
+    public long getChainVersion() {
+        // Versions only ever go up, so the sum changes whenever any of the tables changes.
+        long chainVersion = version.get();
+        Dispatcher<?> current = parent;
+        while (current instanceof GenericDispatchTable<?> table) {
+            chainVersion += table.version.get();
+            current = table.parent;
+        }
+        return chainVersion;
+    }
+
     public boolean has(final String key) {
         return map.containsKey(key);
     }
@@ -0,0 +1,83 @@
+package com.eischet.janitor.api.types.dispatch;
+
+import com.eischet.janitor.api.JanitorScriptProcess;
+import com.eischet.janitor.api.errors.glue.JanitorGlueException;
+import com.eischet.janitor.api.errors.runtime.JanitorNativeException;
+import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
+import com.eischet.janitor.api.types.JanitorObject;
+import com.eischet.janitor.api.types.functions.JUnboundMethod;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Function;
+
+/**
+ * The result of looking up an attribute name in a dispatch table, without an instance to apply it to.
+ * <p>The interpreter keeps these in inline caches at member access and member call sites, so repeated lookups of the same
+ * name on objects with the same dispatcher skip the hash map lookup. For methods, the unbound method is available, too,
+ * so a call does not need to allocate a bound method first.</p>
+ * <p>A resolved attribute is only valid as long as {@link GenericDispatchTable#getChainVersion()} returns the value it
+ * had when the attribute was resolved.</p>
+ *
+ * @param <T> the type of JanitorObject
+ */
+public final class ResolvedAttribute<T extends JanitorObject> {
+
+    private final AttributeLookupHandler<T> handler;
+    private final @Nullable JUnboundMethod<T> method;
+
+    /**
+     * Constructor.
+     *
+     * @param handler the handler that looks up the attribute value on an instance
+     * @param method  the unbound method, when the attribute is a plain method, or null otherwise
+     */
+    public ResolvedAttribute(final @NotNull AttributeLookupHandler<T> handler, final @Nullable JUnboundMethod<T> method) {
+        this.handler = handler;
+        this.method = method;
+    }
+
+    /**
+     * Look up the attribute on an instance, exactly like {@link GenericDispatchTable#dispatch(JanitorObject, JanitorScriptProcess, String)} would.
+     *
+     * @param instance the instance
+     * @param process  the running script
+     * @return the attribute value
+     * @throws JanitorRuntimeException on errors
+     */
+    public JanitorObject lookup(final T instance, final JanitorScriptProcess process) throws JanitorRuntimeException {
+        try {
+            return handler.lookupAttribute(instance);
+        } catch (JanitorRuntimeException e) {
+            throw e;
+        } catch (JanitorGlueException e) {
+            throw e.toRuntimeException(process);
+        } catch (Exception e) {
+            throw new JanitorNativeException(process, "unhandled exception in native code", e);
+        }
+    }
+
+    /**
+     * Get the unbound method.
+     *
+     * @return the method, or null if the attribute is not a plain method
+     */
+    public @Nullable JUnboundMethod<T> getMethod() {
+        return method;
+    }
+
+    /**
+     * Adapt an attribute resolved in a parent dispatch table to a child's instance type.
+     *
+     * @param caster a function that casts child instances to the parent type
+     * @param <C>    the child type
+     * @return the adapted attribute
+     */
+    <C extends JanitorObject> ResolvedAttribute<C> adapt(final Function<C, T> caster) {
+        final JUnboundMethod<T> parentMethod = method;
+        return new ResolvedAttribute<>(
+                instance -> handler.lookupAttribute(caster.apply(instance)),
+                parentMethod == null ? null : (self, process, arguments) -> parentMethod.call(caster.apply(self), process, arguments));
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.eischet.janitor.benchmarks;
+
+import com.eischet.janitor.api.CompilationMode;
+import com.eischet.janitor.api.JanitorScriptProcess;
+import com.eischet.janitor.api.RunnableScript;
+import com.eischet.janitor.api.errors.compiler.JanitorCompilerException;
+import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
+import com.eischet.janitor.api.types.BuiltinTypes;
+import com.eischet.janitor.api.types.JanitorObject;
+import com.eischet.janitor.runtime.JanitorSemantics;
+import com.eischet.janitor.runtime.OutputCatchingTestRuntime;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Arithmetic and comparisons in {@link JanitorSemantics}, called directly and from a script loop.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArithmeticBenchmark {
+
+    private static final String LOOP = """
+            sum = 0;
+            x = 0.5;
+            for (i from 0 to 1000) {
+                sum = sum + i * 3 - i % 7;
+                x = x * 1.0001 + 0.25;
+            }
+            return sum;
+            """;
+
+    private JanitorScriptProcess process;
+    private JanitorObject smallInt;
+    private JanitorObject otherSmallInt;
+    private JanitorObject largeInt;
+    private JanitorObject otherLargeInt;
+    private JanitorObject floatingPoint;
+    private JanitorObject otherFloatingPoint;
+
+    @Setup
+    public void setup() throws JanitorCompilerException {
+        final OutputCatchingTestRuntime runtime = BenchmarkSupport.runtime();
+        final BuiltinTypes builtins = runtime.getEnvironment().getBuiltinTypes();
+        process = BenchmarkSupport.process(runtime);
+        smallInt = builtins.integer(17);
+        otherSmallInt = builtins.integer(25);
+        largeInt = builtins.integer(1_000_000_017L);
+        otherLargeInt = builtins.integer(2_000_000_025L);
+        floatingPoint = builtins.floatingPoint(17.5);
+        otherFloatingPoint = builtins.floatingPoint(25.25);
+    }
+
+    @Benchmark
+    public JanitorObject addSmallIntegers() throws JanitorRuntimeException {
+        return JanitorSemantics.add(process, smallInt, otherSmallInt);
+    }
+
+    @Benchmark
+    public JanitorObject addLargeIntegers() throws JanitorRuntimeException {
+        return JanitorSemantics.add(process, largeInt, otherLargeInt);
+    }
+
+    @Benchmark
+    public JanitorObject multiplyFloats() throws JanitorRuntimeException {
+        return JanitorSemantics.multiply(process, floatingPoint, otherFloatingPoint);
+    }
+
+    @Benchmark
+    public JanitorObject addMixed() throws JanitorRuntimeException {
+        return JanitorSemantics.add(process, smallInt, floatingPoint);
+    }
+
+    @Benchmark
+    public JanitorObject compareIntegers() throws JanitorRuntimeException {
+        return JanitorSemantics.lessThan(process, smallInt, otherSmallInt);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public JanitorObject scriptLoop(final Scripts scripts) throws JanitorRuntimeException {
+        return scripts.loop.run(globals -> {});
+    }
+
+    @State(Scope.Benchmark)
+    public static class Scripts {
+        @Param({"INTERPRETER", "BYTECODE"})
+        public CompilationMode mode;
+
+        private RunnableScript loop;
+
+        @Setup
+        public void setup() throws JanitorCompilerException {
+            final OutputCatchingTestRuntime runtime = BenchmarkSupport.runtime();
+            loop = runtime.compile("arithmetic", LOOP, mode);
+        }
+    }
+
+}
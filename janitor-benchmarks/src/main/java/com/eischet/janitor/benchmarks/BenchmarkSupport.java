@@ -0,0 +1,48 @@
+package com.eischet.janitor.benchmarks;
+
+import com.eischet.janitor.api.Janitor;
+import com.eischet.janitor.api.JanitorScriptProcess;
+import com.eischet.janitor.api.errors.compiler.JanitorCompilerException;
+import com.eischet.janitor.api.scopes.Scope;
+import com.eischet.janitor.api.scopes.ScriptModule;
+import com.eischet.janitor.compiler.JanitorCompiler;
+import com.eischet.janitor.runtime.JanitorScript;
+import com.eischet.janitor.runtime.OutputCatchingTestRuntime;
+import com.eischet.janitor.runtime.RunningScriptProcess;
+
+/**
+ * Shared setup code for the benchmarks.
+ */
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Create a fresh runtime, and make its environment the current one for the static helpers in {@link Janitor}.
+     * Output from print() is collected in memory instead of going to stdout.
+     *
+     * @return a runtime
+     */
+    static OutputCatchingTestRuntime runtime() {
+        final OutputCatchingTestRuntime runtime = OutputCatchingTestRuntime.fresh();
+        Janitor.setUserProvider(runtime::getEnvironment);
+        return runtime;
+    }
+
+    /**
+     * Create a process for calling into the interpreter's internals directly, e.g. for dispatching or scope lookups.
+     * The process runs an empty script, which is never started.
+     *
+     * @param runtime the runtime
+     * @return a process
+     * @throws JanitorCompilerException if the empty script does not compile (which it should)
+     */
+    static JanitorScriptProcess process(final OutputCatchingTestRuntime runtime) throws JanitorCompilerException {
+        final ScriptModule module = ScriptModule.unnamed("");
+        final Scope globals = Scope.createGlobalScope(runtime.getEnvironment(), module);
+        return new RunningScriptProcess(runtime, globals, "benchmark",
+                JanitorCompiler.build(runtime.getEnvironment(), module, JanitorScript.parseScript(""), ""));
+    }
+
+}
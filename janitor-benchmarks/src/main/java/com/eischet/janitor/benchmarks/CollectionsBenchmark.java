@@ -0,0 +1,120 @@
+package com.eischet.janitor.benchmarks;
+
+import com.eischet.janitor.api.CompilationMode;
+import com.eischet.janitor.api.RunnableScript;
+import com.eischet.janitor.api.errors.compiler.JanitorCompilerException;
+import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
+import com.eischet.janitor.api.types.BuiltinTypes;
+import com.eischet.janitor.api.types.JanitorObject;
+import com.eischet.janitor.api.types.builtin.JList;
+import com.eischet.janitor.api.types.builtin.JMap;
+import com.eischet.janitor.api.types.builtin.JString;
+import com.eischet.janitor.runtime.OutputCatchingTestRuntime;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and reading {@link JMap} and {@link JList}, from Java and from a script.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollectionsBenchmark {
+
+    private static final int SIZE = 1000;
+
+    private static final String SCRIPT = """
+            list = [];
+            map = {};
+            for (i from 0 to 1000) {
+                list.add(i);
+                map["k" + i] = i;
+            }
+            sum = 0;
+            for (x in list) {
+                sum = sum + map["k" + x];
+            }
+            return sum;
+            """;
+
+    private BuiltinTypes builtins;
+    private JString[] keys;
+    private JList list;
+    private JMap map;
+
+    @Setup
+    public void setup() throws JanitorCompilerException {
+        final OutputCatchingTestRuntime runtime = BenchmarkSupport.runtime();
+        builtins = runtime.getEnvironment().getBuiltinTypes();
+        keys = new JString[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            keys[i] = builtins.string("k" + i);
+        }
+        list = buildList();
+        map = buildMap();
+    }
+
+    @Benchmark
+    public JList buildList() {
+        final JList result = builtins.list();
+        for (int i = 0; i < SIZE; i++) {
+            result.add(builtins.integer(i));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public JMap buildMap() {
+        final JMap result = builtins.map();
+        for (int i = 0; i < SIZE; i++) {
+            result.put(keys[i], builtins.integer(i));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public void iterateList(final Blackhole blackhole) {
+        for (final JanitorObject element : list) {
+            blackhole.consume(element);
+        }
+    }
+
+    @Benchmark
+    public void indexList(final Blackhole blackhole) {
+        for (int i = 0; i < SIZE; i++) {
+            blackhole.consume(list.get(i));
+        }
+    }
+
+    @Benchmark
+    public void lookupMap(final Blackhole blackhole) {
+        for (final JString key : keys) {
+            blackhole.consume(map.get(key));
+        }
+    }
+
+    @Benchmark
+    public JanitorObject script(final Scripts scripts) throws JanitorRuntimeException {
+        return scripts.script.run(globals -> {});
+    }
+
+    @State(Scope.Benchmark)
+    public static class Scripts {
+        @Param({"INTERPRETER", "BYTECODE"})
+        public CompilationMode mode;
+
+        private RunnableScript script;
+
+        @Setup
+        public void setup() throws JanitorCompilerException {
+            final OutputCatchingTestRuntime runtime = BenchmarkSupport.runtime();
+            script = runtime.compile("collections", SCRIPT, mode);
+        }
+    }
+
+}
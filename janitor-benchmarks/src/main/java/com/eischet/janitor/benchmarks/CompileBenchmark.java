@@ -0,0 +1,91 @@
+package com.eischet.janitor.benchmarks;
+
+import com.eischet.janitor.api.CompilationMode;
+import com.eischet.janitor.api.RunnableScript;
+import com.eischet.janitor.api.errors.compiler.JanitorCompilerException;
+import com.eischet.janitor.lang.JanitorParser;
+import com.eischet.janitor.runtime.JanitorScript;
+import com.eischet.janitor.runtime.OutputCatchingTestRuntime;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing and compiling a script of moderate size: ANTLR parsing alone, the complete compilation to a runnable script,
+ * and a lookup in the runtime's script cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompileBenchmark {
+
+    static final String SOURCE = """
+            function fib(n) {
+                if (n < 2) {
+                    return n;
+                }
+                return fib(n - 1) + fib(n - 2);
+            }
+
+            function summarize(orders) {
+                totals = {};
+                for (order in orders) {
+                    key = order.customer;
+                    if (totals[key] == null) {
+                        totals[key] = 0;
+                    }
+                    totals[key] = totals[key] + order.amount * (1 + order.tax / 100.0);
+                }
+                return totals;
+            }
+
+            orders = [];
+            for (i from 0 to 100) {
+                orders.add({customer: "c" + (i % 7), amount: i * 3, tax: i % 2 == 0 ? 19 : 7});
+            }
+            result = summarize(orders);
+            while (result.size() > 3) {
+                break;
+            }
+            try {
+                x = 1 / 0;
+            } catch (e) {
+                print("caught");
+            }
+            return [fib(10), result.size(), "done".upper()];
+            """;
+
+    @Benchmark
+    public JanitorParser.ScriptContext parse() throws JanitorCompilerException {
+        return JanitorScript.parseScript(SOURCE);
+    }
+
+    @Benchmark
+    public RunnableScript compile(final Compiler compiler) throws JanitorCompilerException {
+        return new JanitorScript(compiler.runtime, "benchmark", SOURCE, false, false, compiler.mode);
+    }
+
+    /**
+     * Compile through the runtime's script cache, which always hits after the first call.
+     */
+    @Benchmark
+    public RunnableScript compileCached(final Compiler compiler) throws JanitorCompilerException {
+        return compiler.runtime.compile("benchmark", SOURCE, compiler.mode);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Compiler {
+        @Param({"INTERPRETER", "BYTECODE"})
+        public CompilationMode mode;
+
+        private OutputCatchingTestRuntime runtime;
+
+        @Setup
+        public void setup() {
+            runtime = BenchmarkSupport.runtime();
+        }
+    }
+
+}
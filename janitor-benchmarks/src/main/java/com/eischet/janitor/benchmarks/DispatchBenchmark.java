@@ -0,0 +1,109 @@
+package com.eischet.janitor.benchmarks;
+
+import com.eischet.janitor.api.CompilationMode;
+import com.eischet.janitor.api.Janitor;
+import com.eischet.janitor.api.JanitorScriptProcess;
+import com.eischet.janitor.api.RunnableScript;
+import com.eischet.janitor.api.errors.compiler.JanitorCompilerException;
+import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
+import com.eischet.janitor.api.types.JanitorObject;
+import com.eischet.janitor.api.types.composed.JanitorComposed;
+import com.eischet.janitor.api.types.dispatch.DispatchTable;
+import com.eischet.janitor.api.types.dispatch.ResolvedAttribute;
+import com.eischet.janitor.api.types.functions.JCallArgs;
+import com.eischet.janitor.runtime.OutputCatchingTestRuntime;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Attribute lookups and method calls through a two-level {@link DispatchTable} hierarchy, called directly and from a script.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark {
+
+    private static final String MEMBER_CALLS = """
+            sum = 0;
+            for (i from 0 to 1000) {
+                sum = sum + p.x + p.y + p.manhattan();
+            }
+            return sum;
+            """;
+
+    private static final DispatchTable<Point> BASE = new DispatchTable<>();
+    private static final DispatchTable<Point> POINTS = new DispatchTable<>(BASE, it -> it);
+
+    static {
+        BASE.addLongProperty("x", point -> point.x);
+        BASE.addMethod("manhattan", (self, process, arguments) -> Janitor.integer(Math.abs(self.x) + Math.abs(self.y)));
+        POINTS.addLongProperty("y", point -> point.y);
+    }
+
+    private JanitorScriptProcess process;
+    private Point point;
+
+    @Setup
+    public void setup() throws JanitorCompilerException {
+        final OutputCatchingTestRuntime runtime = BenchmarkSupport.runtime();
+        process = BenchmarkSupport.process(runtime);
+        point = new Point(3, -4);
+    }
+
+    @Benchmark
+    public JanitorObject ownProperty() throws JanitorRuntimeException {
+        return POINTS.dispatch(point, process, "y");
+    }
+
+    @Benchmark
+    public JanitorObject inheritedProperty() throws JanitorRuntimeException {
+        return POINTS.dispatch(point, process, "x");
+    }
+
+    @Benchmark
+    public JanitorObject inheritedMethod() throws JanitorRuntimeException {
+        return POINTS.dispatch(point, process, "manhattan");
+    }
+
+    @Benchmark
+    public JanitorObject resolveAndCall() throws JanitorRuntimeException {
+        final ResolvedAttribute<Point> attribute = POINTS.resolve("manhattan");
+        return attribute.getMethod().call(point, process, JCallArgs.empty("manhattan", process));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public JanitorObject scriptMemberCalls(final Scripts scripts) throws JanitorRuntimeException {
+        return scripts.memberCalls.run(globals -> globals.bind("p", point));
+    }
+
+    private static final class Point extends JanitorComposed<Point> {
+        private final long x;
+        private final long y;
+
+        Point(final long x, final long y) {
+            super(POINTS);
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Scripts {
+        @Param({"INTERPRETER", "BYTECODE"})
+        public CompilationMode mode;
+
+        private RunnableScript memberCalls;
+
+        @Setup
+        public void setup() throws JanitorCompilerException {
+            final OutputCatchingTestRuntime runtime = BenchmarkSupport.runtime();
+            memberCalls = runtime.compile("dispatch", MEMBER_CALLS, mode);
+        }
+    }
+
+}
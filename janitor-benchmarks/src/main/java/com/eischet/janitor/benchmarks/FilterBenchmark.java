@@ -0,0 +1,52 @@
+package com.eischet.janitor.benchmarks;
+
+import com.eischet.janitor.api.FilterPredicate;
+import com.eischet.janitor.api.Janitor;
+import com.eischet.janitor.api.types.JanitorObject;
+import com.eischet.janitor.runtime.OutputCatchingTestRuntime;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Applying a filter script to a collection: element by element via test(), and in one batch via filter().
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterBenchmark {
+
+    private static final int SIZE = 10000;
+
+    private FilterPredicate filter;
+    private List<JanitorObject> values;
+
+    @Setup
+    public void setup() {
+        final OutputCatchingTestRuntime runtime = BenchmarkSupport.runtime();
+        filter = runtime.getEnvironment().filterScript("benchmark", "value % factor == 0 or value > limit",
+                globals -> globals.bind("factor", 7).bind("limit", SIZE - 100));
+        values = IntStream.range(0, SIZE).<JanitorObject>mapToObj(Janitor::integer).toList();
+    }
+
+    @Benchmark
+    public List<JanitorObject> perElement() {
+        return values.stream().filter(filter).toList();
+    }
+
+    @Benchmark
+    public List<JanitorObject> batch() {
+        return filter.filter(values);
+    }
+
+    @Benchmark
+    public List<JanitorObject> parallel() {
+        return filter.filterParallel(values);
+    }
+
+}
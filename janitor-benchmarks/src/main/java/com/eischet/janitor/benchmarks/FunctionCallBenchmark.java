@@ -0,0 +1,69 @@
+package com.eischet.janitor.benchmarks;
+
+import com.eischet.janitor.api.CompilationMode;
+import com.eischet.janitor.api.RunnableScript;
+import com.eischet.janitor.api.errors.compiler.JanitorCompilerException;
+import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
+import com.eischet.janitor.api.types.JanitorObject;
+import com.eischet.janitor.runtime.OutputCatchingTestRuntime;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Script function calls: deep recursion with early returns, closures, and many calls to a small function.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FunctionCallBenchmark {
+
+    private static final String RECURSION = """
+            function fib(n) {
+                if (n < 2) {
+                    return n;
+                }
+                return fib(n - 1) + fib(n - 2);
+            }
+            return fib(18);
+            """;
+
+    private static final String CALLS = """
+            offset = 3;
+            function add(a, b) {
+                return a + b + offset;
+            }
+            sum = 0;
+            for (i from 0 to 1000) {
+                sum = add(sum, i);
+            }
+            return sum;
+            """;
+
+    @Param({"INTERPRETER", "BYTECODE"})
+    public CompilationMode mode;
+
+    private RunnableScript recursion;
+    private RunnableScript calls;
+
+    @Setup
+    public void setup() throws JanitorCompilerException {
+        final OutputCatchingTestRuntime runtime = BenchmarkSupport.runtime();
+        recursion = runtime.compile("recursion", RECURSION, mode);
+        calls = runtime.compile("calls", CALLS, mode);
+    }
+
+    @Benchmark
+    public JanitorObject recursion() throws JanitorRuntimeException {
+        return recursion.run(globals -> {});
+    }
+
+    @Benchmark
+    public JanitorObject calls() throws JanitorRuntimeException {
+        return calls.run(globals -> {});
+    }
+
+}
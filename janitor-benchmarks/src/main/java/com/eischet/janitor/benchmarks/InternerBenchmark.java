@@ -0,0 +1,53 @@
+package com.eischet.janitor.benchmarks;
+
+import com.eischet.janitor.env.DefaultBuiltinTypes;
+import com.eischet.janitor.toolbox.memory.StringInterner;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creating short strings through each string interning strategy, from several threads at once.
+ * Each operation creates {@link #SIZE} strings from fresh copies, drawn from a pool of distinct values, like scripts
+ * do when reading words or result set columns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class InternerBenchmark {
+
+    private static final int SIZE = 1000;
+
+    @Param({"none", "jvm", "bounded"})
+    public String strategy;
+
+    private DefaultBuiltinTypes builtins;
+    private char[][] values;
+
+    @Setup
+    public void setup() {
+        final StringInterner interner = switch (strategy) {
+            case "none" -> StringInterner.NONE;
+            case "jvm" -> StringInterner.jvm(10);
+            default -> DefaultBuiltinTypes.defaultInterner();
+        };
+        builtins = new DefaultBuiltinTypes(interner);
+        values = new char[SIZE][];
+        for (int i = 0; i < SIZE; i++) {
+            values[i] = ("w" + (i % 250)).toCharArray();
+        }
+    }
+
+    @Benchmark
+    public void strings(final Blackhole blackhole) {
+        for (final char[] value : values) {
+            blackhole.consume(builtins.string(new String(value)));
+        }
+    }
+
+}
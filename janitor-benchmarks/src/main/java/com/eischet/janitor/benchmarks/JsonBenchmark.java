@@ -0,0 +1,97 @@
+package com.eischet.janitor.benchmarks;
+
+import com.eischet.janitor.api.JanitorEnvironment;
+import com.eischet.janitor.api.types.builtin.JMap;
+import com.eischet.janitor.json.impl.GsonInputStream;
+import com.eischet.janitor.toolbox.json.api.JsonException;
+import com.eischet.janitor.toolbox.json.api.JsonInputStream;
+import com.eischet.janitor.toolbox.json.api.JsonTokenType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON parsing and generation through the Gson-based {@link GsonInputStream} and GsonOutputStream.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    private JanitorEnvironment env;
+    private String json;
+    private JMap map;
+
+    @Setup
+    public void setup() throws JsonException {
+        env = BenchmarkSupport.runtime().getEnvironment();
+        final StringBuilder sb = new StringBuilder("{\"name\": \"orders\", \"version\": 3, \"active\": true, \"items\": [");
+        for (int i = 0; i < 100; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append("{\"id\": ").append(i)
+                    .append(", \"customer\": \"customer ").append(i % 17)
+                    .append("\", \"amount\": ").append(i * 1.25)
+                    .append(", \"tags\": [\"a\", \"b\", \"c\"], \"note\": null}");
+        }
+        sb.append("]}");
+        json = sb.toString();
+        map = env.parseJsonToMap(json);
+    }
+
+    /**
+     * Only walk the token stream, without building any objects.
+     */
+    @Benchmark
+    public int readTokens() throws JsonException {
+        final JsonInputStream stream = GsonInputStream.lenient(json);
+        int tokens = 0;
+        int depth = 0;
+        do {
+            final JsonTokenType token = stream.peek();
+            tokens++;
+            switch (token) {
+                case BEGIN_OBJECT -> {
+                    stream.beginObject();
+                    depth++;
+                }
+                case END_OBJECT -> {
+                    stream.endObject();
+                    depth--;
+                }
+                case BEGIN_ARRAY -> {
+                    stream.beginArray();
+                    depth++;
+                }
+                case END_ARRAY -> {
+                    stream.endArray();
+                    depth--;
+                }
+                case NAME -> stream.nextKey();
+                default -> stream.skipValue();
+            }
+        } while (depth > 0);
+        stream.close();
+        return tokens;
+    }
+
+    @Benchmark
+    public JMap parse() throws JsonException {
+        return env.parseJsonToMap(json);
+    }
+
+    @Benchmark
+    public String write() throws JsonException {
+        return env.writeJson(map);
+    }
+
+    @Benchmark
+    public String roundTrip() throws JsonException {
+        return env.writeJson(env.parseJsonToMap(json));
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.eischet.janitor.benchmarks;
+
+import com.eischet.janitor.api.Janitor;
+import com.eischet.janitor.api.JanitorScriptProcess;
+import com.eischet.janitor.api.errors.compiler.JanitorCompilerException;
+import com.eischet.janitor.api.scopes.Scope;
+import com.eischet.janitor.api.scopes.ScriptModule;
+import com.eischet.janitor.api.types.JanitorObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looking up variables by name through a chain of nested block scopes, as the interpreter does for every variable
+ * that the compiler could not resolve to a frame slot.
+ */
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScopeLookupBenchmark {
+
+    /**
+     * Number of block scopes between the innermost scope and the global scope.
+     */
+    @Param({"1", "4", "16"})
+    public int depth;
+
+    private JanitorScriptProcess process;
+    private Scope innermost;
+
+    @Setup
+    public void setup() throws JanitorCompilerException {
+        process = BenchmarkSupport.process(BenchmarkSupport.runtime());
+        final Scope globals = Scope.createGlobalScope(process.getEnvironment(), ScriptModule.unnamed(""));
+        globals.bind("global", Janitor.string("found"));
+        innermost = globals;
+        for (int i = 0; i < depth; i++) {
+            innermost = Scope.createFreshBlockScope(null, innermost);
+            innermost.bind("level" + i, i);
+        }
+        innermost.bind("local", 17);
+    }
+
+    @Benchmark
+    public JanitorObject local() {
+        return innermost.lookup(process, "local", null);
+    }
+
+    @Benchmark
+    public JanitorObject global() {
+        return innermost.lookup(process, "global", null);
+    }
+
+    @Benchmark
+    public JanitorObject builtin() {
+        return innermost.lookup(process, "print", null);
+    }
+
+    @Benchmark
+    public JanitorObject missing() {
+        return innermost.lookup(process, "doesNotExist", null);
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.eischet.janitor.benchmarks;
+
+import com.eischet.janitor.api.RunnableScript;
+import com.eischet.janitor.api.errors.compiler.JanitorCompilerException;
+import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
+import com.eischet.janitor.api.types.JanitorObject;
+import com.eischet.janitor.api.types.builtin.JList;
+import com.eischet.janitor.runtime.OutputCatchingTestRuntime;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chained collection operations: eager list.filter().map(), which builds a list per step, versus a lazy list.stream() pipeline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SequenceBenchmark {
+
+    private static final int SIZE = 1000;
+
+    private RunnableScript eager;
+    private RunnableScript lazy;
+    private RunnableScript lazyFirst;
+    private JList numbers;
+
+    @Setup
+    public void setup() throws JanitorCompilerException {
+        final OutputCatchingTestRuntime runtime = BenchmarkSupport.runtime();
+        numbers = runtime.getBuiltinTypes().list(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            numbers.add(runtime.getBuiltinTypes().integer(i));
+        }
+        eager = runtime.compile("eager", "return numbers.filter(x -> x % 3 == 0).map(x -> x * 2).size();");
+        lazy = runtime.compile("lazy", "return numbers.stream().filter(x -> x % 3 == 0).map(x -> x * 2).count();");
+        lazyFirst = runtime.compile("lazyFirst", "return numbers.stream().filter(x -> x > 10).map(x -> x * 2).first();");
+    }
+
+    @Benchmark
+    public JanitorObject eager() throws JanitorRuntimeException {
+        return eager.run(globals -> globals.bind("numbers", numbers));
+    }
+
+    @Benchmark
+    public JanitorObject lazy() throws JanitorRuntimeException {
+        return lazy.run(globals -> globals.bind("numbers", numbers));
+    }
+
+    @Benchmark
+    public JanitorObject lazyFirst() throws JanitorRuntimeException {
+        return lazyFirst.run(globals -> globals.bind("numbers", numbers));
+    }
+
+}
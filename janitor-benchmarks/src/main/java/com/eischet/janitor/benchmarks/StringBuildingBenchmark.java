@@ -0,0 +1,58 @@
+package com.eischet.janitor.benchmarks;
+
+import com.eischet.janitor.api.RunnableScript;
+import com.eischet.janitor.api.errors.compiler.JanitorCompilerException;
+import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
+import com.eischet.janitor.api.types.JanitorObject;
+import com.eischet.janitor.api.types.builtin.JList;
+import com.eischet.janitor.runtime.OutputCatchingTestRuntime;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building a CSV-like string line by line: s += line, s = s + line, and a StringBuilder.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringBuildingBenchmark {
+
+    private static final int SIZE = 5000;
+
+    private RunnableScript plusAssign;
+    private RunnableScript concatenation;
+    private RunnableScript builder;
+    private JList lines;
+
+    @Setup
+    public void setup() throws JanitorCompilerException {
+        final OutputCatchingTestRuntime runtime = BenchmarkSupport.runtime();
+        lines = runtime.getBuiltinTypes().list(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            lines.add(runtime.getBuiltinTypes().string("line;" + i + ";some more text for the line"));
+        }
+        plusAssign = runtime.compile("plusAssign", "s = ''; for (line in lines) { s += line; s += '\\n'; } return s.length();");
+        concatenation = runtime.compile("concatenation", "s = ''; for (line in lines) { s = s + line + '\\n'; } return s.length();");
+        builder = runtime.compile("builder", "sb = StringBuilder(); for (line in lines) { sb.append(line, '\\n'); } return sb.length();");
+    }
+
+    @Benchmark
+    public JanitorObject plusAssign() throws JanitorRuntimeException {
+        return plusAssign.run(globals -> globals.bind("lines", lines));
+    }
+
+    @Benchmark
+    public JanitorObject concatenation() throws JanitorRuntimeException {
+        return concatenation.run(globals -> globals.bind("lines", lines));
+    }
+
+    @Benchmark
+    public JanitorObject builder() throws JanitorRuntimeException {
+        return builder.run(globals -> globals.bind("lines", lines));
+    }
+
+}
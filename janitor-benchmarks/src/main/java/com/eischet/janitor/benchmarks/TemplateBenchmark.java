@@ -0,0 +1,118 @@
+package com.eischet.janitor.benchmarks;
+
+import com.eischet.janitor.api.JanitorScriptProcess;
+import com.eischet.janitor.api.RunnableScript;
+import com.eischet.janitor.api.errors.compiler.JanitorCompilerException;
+import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
+import com.eischet.janitor.api.types.BuiltinTypes;
+import com.eischet.janitor.api.types.JanitorObject;
+import com.eischet.janitor.api.types.builtin.JList;
+import com.eischet.janitor.api.types.builtin.JMap;
+import com.eischet.janitor.runtime.OutputCatchingTestRuntime;
+import com.eischet.janitor.template.CompiledTemplate;
+import com.eischet.janitor.template.TemplateParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Template handling via {@link TemplateParser}: translating a template into a script, expanding it from a script, and a
+ * mail merge that expands the same template once per row, reported in rows per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateBenchmark {
+
+    static final String TEMPLATE = """
+            Dear <%= name %>,
+            <% if (items.size() > 0) { %>your order contains:
+            <% for (item in items) { %>  - <%= item %>
+            <% } %><% } else { %>your order is empty.
+            <% } %><%-- comments are not rendered --%>
+            Regards, ${sender}
+            """;
+
+    private static final String EXPAND = """
+            return template.expand({name: "Jane", sender: "the shop", items: ["apples", "pears", "plums"]});
+            """;
+
+    private static final int ROWS = 100;
+
+    private static final String MAIL_MERGE = """
+            count = 0;
+            for (row in rows) {
+                count = count + template.expand(row).length();
+            }
+            return count;
+            """;
+
+    private OutputCatchingTestRuntime runtime;
+    private RunnableScript expand;
+    private RunnableScript mailMerge;
+    private JList rows;
+    private JanitorScriptProcess process;
+    private CompiledTemplate compiled;
+    private final StringBuilder buffer = new StringBuilder();
+
+    @Setup
+    public void setup() throws JanitorCompilerException, JanitorRuntimeException {
+        runtime = BenchmarkSupport.runtime();
+        expand = runtime.compile("template", EXPAND);
+        mailMerge = runtime.compile("mailMerge", MAIL_MERGE);
+        final BuiltinTypes builtins = runtime.getEnvironment().getBuiltinTypes();
+        rows = builtins.list();
+        for (int i = 0; i < ROWS; i++) {
+            final JMap row = builtins.map();
+            row.put("name", builtins.string("Customer " + i));
+            row.put("sender", builtins.string("the shop"));
+            final JList items = builtins.list();
+            for (int j = 0; j < i % 4; j++) {
+                items.add(builtins.string("item " + j));
+            }
+            row.put("items", items);
+            rows.add(row);
+        }
+        process = BenchmarkSupport.process(runtime);
+        compiled = TemplateParser.compile(runtime, process, TEMPLATE);
+    }
+
+    @Benchmark
+    public String translate() {
+        return new TemplateParser(TEMPLATE).toScript(TemplateParser::plainRenderer);
+    }
+
+    @Benchmark
+    public JanitorObject expand() throws JanitorRuntimeException {
+        return expand.run(globals -> globals.bind("template", TEMPLATE));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(ROWS)
+    public JanitorObject mailMerge() throws JanitorRuntimeException {
+        return mailMerge.run(globals -> globals.bind("template", TEMPLATE).bind("rows", rows));
+    }
+
+    /**
+     * The mail merge from Java, rendering every row into the same buffer instead of creating a string per row.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(ROWS)
+    public int renderInto() throws JanitorRuntimeException {
+        int count = 0;
+        for (final JanitorObject row : rows) {
+            buffer.setLength(0);
+            compiled.render(process, row, buffer);
+            count += buffer.length();
+        }
+        return count;
+    }
+
+}
@@ -0,0 +1,19 @@
+/*
+ * © Eischet Software e.K., Köln
+ */
+
+package com.eischet.dbxs;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.SQLException;
+
+/**
+ * Sets the parameters of a batched statement for one value, see {@link DatabaseConnection#executeBatch(com.eischet.dbxs.statements.UpdateStatement, Iterable, int, BatchStatementConfigurator)}.
+ *
+ * @param <T> the type of values
+ */
+@FunctionalInterface
+public interface BatchStatementConfigurator<T> {
+    void configure(final @NotNull SimplePreparedStatement ps, final T value) throws SQLException;
+}
@@ -0,0 +1,589 @@
+/*
+ * © Eischet Software e.K., Köln
+ */
+
+package com.eischet.dbxs;
+
+import com.eischet.janitor.logging.JanitorLogger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * A small connection pool for a {@link SimpleDataManager}, for data sources that do not pool connections themselves.
+ * <p>The pool opens at most {@link Settings#maximumSize()} physical connections. Each connection is initialized once,
+ * when it is opened, instead of once per transaction. Idle connections are validated before they are handed out again,
+ * and closed when they have not been used for longer than the maximum idle time. There is no background thread: idle
+ * connections are evicted whenever a connection is checked out or returned, or when {@link #evictIdle()} is called.</p>
+ * <p>Each pooled connection keeps its own LRU cache of prepared statements, keyed by SQL text, see
+ * {@link PooledConnection#prepareStatement(String)}.</p>
+ */
+public final class ConnectionPool implements Closeable {
+
+    /**
+     * The pool settings.
+     *
+     * @param maximumSize              the maximum number of physical connections
+     * @param maximumIdleTime          how long a connection may stay unused before it is closed, or null to keep idle connections open
+     * @param validationInterval       connections idle for longer than this are validated before they are handed out; zero validates on every checkout
+     * @param validationTimeoutSeconds the timeout passed to {@link Connection#isValid(int)}
+     * @param checkoutTimeout          how long to wait for a connection when all connections are in use
+     * @param statementCacheSize       the maximum number of prepared statements cached per connection; 0 disables the cache
+     */
+    public record Settings(int maximumSize,
+                           @Nullable Duration maximumIdleTime,
+                           @NotNull Duration validationInterval,
+                           int validationTimeoutSeconds,
+                           @NotNull Duration checkoutTimeout,
+                           int statementCacheSize) {
+
+        public Settings {
+            if (maximumSize < 1) {
+                throw new IllegalArgumentException("invalid maximum size: " + maximumSize);
+            }
+            if (maximumIdleTime != null && (maximumIdleTime.isNegative() || maximumIdleTime.isZero())) {
+                throw new IllegalArgumentException("invalid maximum idle time: " + maximumIdleTime);
+            }
+            if (validationInterval.isNegative()) {
+                throw new IllegalArgumentException("invalid validation interval: " + validationInterval);
+            }
+            if (validationTimeoutSeconds < 0) {
+                throw new IllegalArgumentException("invalid validation timeout: " + validationTimeoutSeconds);
+            }
+            if (checkoutTimeout.isNegative()) {
+                throw new IllegalArgumentException("invalid checkout timeout: " + checkoutTimeout);
+            }
+            if (statementCacheSize < 0) {
+                throw new IllegalArgumentException("invalid statement cache size: " + statementCacheSize);
+            }
+        }
+
+        /**
+         * Return the default settings for a pool of the given size: connections are closed after 10 minutes of
+         * inactivity, validated after 30 seconds of inactivity, checkouts wait for up to 30 seconds, and each
+         * connection caches up to 64 statements.
+         *
+         * @param maximumSize the maximum number of physical connections
+         * @return the settings
+         */
+        public static @NotNull Settings of(final int maximumSize) {
+            return new Settings(maximumSize, Duration.ofMinutes(10), Duration.ofSeconds(30), 5, Duration.ofSeconds(30), 64);
+        }
+
+        public @NotNull Settings withMaximumIdleTime(final @Nullable Duration maximumIdleTime) {
+            return new Settings(maximumSize, maximumIdleTime, validationInterval, validationTimeoutSeconds, checkoutTimeout, statementCacheSize);
+        }
+
+        public @NotNull Settings withValidationInterval(final @NotNull Duration validationInterval) {
+            return new Settings(maximumSize, maximumIdleTime, validationInterval, validationTimeoutSeconds, checkoutTimeout, statementCacheSize);
+        }
+
+        public @NotNull Settings withCheckoutTimeout(final @NotNull Duration checkoutTimeout) {
+            return new Settings(maximumSize, maximumIdleTime, validationInterval, validationTimeoutSeconds, checkoutTimeout, statementCacheSize);
+        }
+
+        public @NotNull Settings withStatementCacheSize(final int statementCacheSize) {
+            return new Settings(maximumSize, maximumIdleTime, validationInterval, validationTimeoutSeconds, checkoutTimeout, statementCacheSize);
+        }
+    }
+
+    /**
+     * A snapshot of the pool's statistics.
+     *
+     * @param size                 number of open physical connections, in use or idle
+     * @param idle                 number of idle connections
+     * @param checkouts            number of connections handed out
+     * @param opened               number of physical connections opened
+     * @param evicted              number of connections closed because they were idle for too long
+     * @param invalidated          number of connections closed because they failed validation or could not be reset
+     * @param timeouts             number of checkouts that failed because all connections stayed in use
+     * @param totalCheckoutNanos   total time spent in checkouts, including waiting, opening and validating
+     * @param maximumCheckoutNanos the longest checkout
+     * @param statementHits        number of prepared statements taken from a cache
+     * @param statementMisses      number of prepared statements that had to be prepared
+     */
+    public record Statistics(int size, int idle, long checkouts, long opened, long evicted, long invalidated, long timeouts,
+                             long totalCheckoutNanos, long maximumCheckoutNanos, long statementHits, long statementMisses) {
+
+        /**
+         * Return the average checkout latency.
+         *
+         * @return the average time per checkout in nanoseconds, or 0 if there were no checkouts yet
+         */
+        public long averageCheckoutNanos() {
+            return checkouts == 0 ? 0 : totalCheckoutNanos / checkouts;
+        }
+
+        /**
+         * Return the share of prepared statements taken from a cache.
+         *
+         * @return the hit rate, between 0 and 1, or 0 if no statements were prepared yet
+         */
+        public double statementHitRate() {
+            final long lookups = statementHits + statementMisses;
+            return lookups == 0 ? 0.0 : (double) statementHits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("pool: %d connections (%d idle), %d checkouts (avg %d µs, max %d µs), %d opened, %d evicted, %d invalidated, %d timeouts; statements: %d hits, %d misses",
+                    size, idle, checkouts, TimeUnit.NANOSECONDS.toMicros(averageCheckoutNanos()), TimeUnit.NANOSECONDS.toMicros(maximumCheckoutNanos),
+                    opened, evicted, invalidated, timeouts, statementHits, statementMisses);
+        }
+    }
+
+    /**
+     * Initializes new physical connections, e.g. runs the data manager's init statements.
+     */
+    @FunctionalInterface
+    public interface Initializer {
+        void initialize(@NotNull Connection connection) throws SQLException;
+    }
+
+    /**
+     * A physical connection owned by the pool. Between {@link #checkout()} and {@link #checkin(PooledConnection)},
+     * it must only be used by one thread at a time.
+     */
+    public final class PooledConnection {
+        private final Connection connection;
+        private final @Nullable Map<String, PreparedStatement> statements;
+        private long lastUsed;
+        private long lastValidated;
+
+        private PooledConnection(final @NotNull Connection connection) {
+            this.connection = connection;
+            this.lastUsed = clock.getAsLong();
+            this.lastValidated = lastUsed;
+            if (settings.statementCacheSize() == 0) {
+                this.statements = null;
+            } else {
+                this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(final Map.Entry<String, PreparedStatement> eldest) {
+                        if (size() > settings.statementCacheSize()) {
+                            closeQuietly(eldest.getValue());
+                            return true;
+                        }
+                        return false;
+                    }
+                };
+            }
+        }
+
+        public @NotNull Connection getConnection() {
+            return connection;
+        }
+
+        /**
+         * Prepare a statement, or take it from the cache if the same SQL has been prepared on this connection before.
+         * <p>A cached statement is removed from the cache until it is {@linkplain #releaseStatement(String, PreparedStatement)
+         * released}, so nested uses of the same SQL, e.g. a query inside a loop over an open cursor, get their own statement.</p>
+         *
+         * @param sql the SQL text
+         * @return the statement
+         * @throws SQLException on errors
+         */
+        public @NotNull PreparedStatement prepareStatement(final @NotNull String sql) throws SQLException {
+            if (statements != null) {
+                final @Nullable PreparedStatement cached = statements.remove(sql);
+                if (cached != null && !cached.isClosed()) {
+                    statementHits.increment();
+                    return cached;
+                }
+            }
+            statementMisses.increment();
+            //noinspection SqlSourceToSinkFlow
+            return connection.prepareStatement(sql);
+        }
+
+        /**
+         * Return a statement from {@link #prepareStatement(String)} after use. Its result set must already be closed.
+         * The statement's parameters, pending batch, timeout, row limit and fetch size are reset before it goes back into the cache.
+         * Statements are closed instead if the cache is disabled or the statement cannot be reset.
+         *
+         * @param sql       the SQL text the statement was prepared for
+         * @param statement the statement
+         */
+        public void releaseStatement(final @NotNull String sql, final @NotNull PreparedStatement statement) {
+            if (statements == null) {
+                closeQuietly(statement);
+                return;
+            }
+            try {
+                statement.clearParameters();
+                statement.clearBatch();
+                statement.setQueryTimeout(0);
+                statement.setMaxRows(0);
+                statement.setFetchSize(0);
+            } catch (SQLException e) {
+                log.debug("cannot reset statement, closing it: {}", sql, e);
+                closeQuietly(statement);
+                return;
+            }
+            final @Nullable PreparedStatement replaced = statements.put(sql, statement);
+            if (replaced != null && replaced != statement) {
+                closeQuietly(replaced);
+            }
+        }
+
+        /**
+         * Return the number of cached statements.
+         *
+         * @return the number of statements in this connection's cache
+         */
+        public int getCachedStatements() {
+            return statements == null ? 0 : statements.size();
+        }
+
+        private void closePhysical() {
+            if (statements != null) {
+                for (final PreparedStatement statement : statements.values()) {
+                    closeQuietly(statement);
+                }
+                statements.clear();
+            }
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                log.warn("error closing pooled connection", e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "PooledConnection{" + connection + ", statements=" + getCachedStatements() + "}";
+        }
+    }
+
+    private static final JanitorLogger log = JanitorLogger.getLogger(ConnectionPool.class);
+
+    private final DataSource dataSource;
+    private final Settings settings;
+    private final Initializer initializer;
+    private final LongSupplier clock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition returned = lock.newCondition();
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private int size;
+    private boolean closed;
+
+    private final LongAdder checkouts = new LongAdder();
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder invalidated = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder totalCheckoutNanos = new LongAdder();
+    private final AtomicLong maximumCheckoutNanos = new AtomicLong();
+    private final LongAdder statementHits = new LongAdder();
+    private final LongAdder statementMisses = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param dataSource  the data source that opens physical connections
+     * @param settings    the settings
+     * @param initializer called once for each new physical connection, after auto commit has been switched off
+     */
+    public ConnectionPool(final @NotNull DataSource dataSource, final @NotNull Settings settings, final @NotNull Initializer initializer) {
+        this(dataSource, settings, initializer, System::nanoTime);
+    }
+
+    /**
+     * Constructor, with a clock for idle times.
+     *
+     * @param dataSource  the data source that opens physical connections
+     * @param settings    the settings
+     * @param initializer called once for each new physical connection, after auto commit has been switched off
+     * @param clock       returns the current time in nanoseconds, like {@link System#nanoTime()}
+     */
+    public ConnectionPool(final @NotNull DataSource dataSource, final @NotNull Settings settings,
+                          final @NotNull Initializer initializer, final @NotNull LongSupplier clock) {
+        this.dataSource = dataSource;
+        this.settings = settings;
+        this.initializer = initializer;
+        this.clock = clock;
+    }
+
+    public @NotNull Settings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Take a connection from the pool, opening a new one if no idle connection is left and the pool is not full yet.
+     * If all connections are in use, wait for up to the checkout timeout for one to be returned.
+     *
+     * @return a connection with auto commit switched off
+     * @throws SQLException if no connection can be opened, or the timeout has passed, or the pool has been closed
+     */
+    public @NotNull PooledConnection checkout() throws SQLException {
+        final long start = System.nanoTime();
+        final long deadline = start + settings.checkoutTimeout().toNanos();
+        while (true) {
+            @Nullable PooledConnection candidate = null;
+            final List<PooledConnection> expired;
+            lock.lock();
+            try {
+                if (closed) {
+                    throw new SQLException("connection pool has been closed");
+                }
+                expired = removeExpired();
+                if (!idle.isEmpty()) {
+                    candidate = idle.pollFirst();
+                } else if (size < settings.maximumSize()) {
+                    ++size;
+                } else {
+                    final long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        timeouts.increment();
+                        throw new SQLException("no database connection available within " + settings.checkoutTimeout() + ", all " + size + " connections are in use");
+                    }
+                    try {
+                        returned.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("interrupted while waiting for a database connection", e);
+                    }
+                    continue;
+                }
+            } finally {
+                lock.unlock();
+            }
+            closeAll(expired);
+
+            final PooledConnection connection = candidate == null ? open() : validate(candidate);
+            if (connection != null) {
+                final long elapsed = System.nanoTime() - start;
+                checkouts.increment();
+                totalCheckoutNanos.add(elapsed);
+                maximumCheckoutNanos.accumulateAndGet(elapsed, Math::max);
+                return connection;
+            }
+        }
+    }
+
+    /**
+     * Return a connection to the pool. Any transaction left open on the connection is rolled back.
+     *
+     * @param connection a connection from {@link #checkout()}
+     */
+    public void checkin(final @NotNull PooledConnection connection) {
+        boolean reusable;
+        try {
+            if (!connection.connection.getAutoCommit()) {
+                connection.connection.rollback();
+            }
+            reusable = true;
+        } catch (SQLException e) {
+            log.warn("cannot reset pooled connection, closing it", e);
+            invalidated.increment();
+            reusable = false;
+        }
+        connection.lastUsed = clock.getAsLong();
+        final List<PooledConnection> expired;
+        lock.lock();
+        try {
+            if (reusable && !closed) {
+                idle.addFirst(connection);
+            } else {
+                --size;
+                reusable = false;
+            }
+            expired = removeExpired();
+            returned.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (!reusable) {
+            connection.closePhysical();
+        }
+        closeAll(expired);
+    }
+
+    /**
+     * Give up the place of a checked out connection that is not going to be returned in time, e.g. because it seems to
+     * have been abandoned, so other transactions can open a new connection instead. The connection is left open, because
+     * its owner may still be using it; the owner has to close it instead of returning it.
+     *
+     * @param connection a connection from {@link #checkout()}
+     */
+    public void forget(final @NotNull PooledConnection connection) {
+        log.warn("forgetting pooled connection {}", connection);
+        release();
+    }
+
+    /**
+     * Close all connections that have been idle for longer than the maximum idle time.
+     *
+     * @return the number of closed connections
+     */
+    public int evictIdle() {
+        final List<PooledConnection> expired;
+        lock.lock();
+        try {
+            expired = removeExpired();
+        } finally {
+            lock.unlock();
+        }
+        closeAll(expired);
+        return expired.size();
+    }
+
+    /**
+     * Close all idle connections and stop handing out connections. Connections in use are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        final List<PooledConnection> closing;
+        lock.lock();
+        try {
+            closed = true;
+            closing = new ArrayList<>(idle);
+            size -= idle.size();
+            idle.clear();
+            returned.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        closeAll(closing);
+    }
+
+    /**
+     * Return the current statistics.
+     *
+     * @return a snapshot of the statistics
+     */
+    public @NotNull Statistics getStatistics() {
+        final int currentSize;
+        final int currentIdle;
+        lock.lock();
+        try {
+            currentSize = size;
+            currentIdle = idle.size();
+        } finally {
+            lock.unlock();
+        }
+        return new Statistics(currentSize, currentIdle, checkouts.sum(), opened.sum(), evicted.sum(), invalidated.sum(), timeouts.sum(),
+                totalCheckoutNanos.sum(), maximumCheckoutNanos.get(), statementHits.sum(), statementMisses.sum());
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPool{" + getStatistics() + "}";
+    }
+
+    /**
+     * Open a new physical connection. The caller has already reserved a place in the pool for it.
+     */
+    private @NotNull PooledConnection open() throws SQLException {
+        Connection connection = null;
+        try {
+            connection = dataSource.getConnection();
+            connection.setAutoCommit(false);
+            initializer.initialize(connection);
+            opened.increment();
+            return new PooledConnection(connection);
+        } catch (SQLException | RuntimeException e) {
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (SQLException closeError) {
+                    e.addSuppressed(closeError);
+                }
+            }
+            release();
+            throw e;
+        }
+    }
+
+    /**
+     * Validate an idle connection that has not been validated recently.
+     *
+     * @return the connection, or null if it has been closed because it is broken
+     */
+    private @Nullable PooledConnection validate(final @NotNull PooledConnection connection) {
+        final long now = clock.getAsLong();
+        if (now - connection.lastValidated < settings.validationInterval().toNanos() && !settings.validationInterval().isZero()) {
+            return connection;
+        }
+        boolean valid;
+        try {
+            valid = connection.connection.isValid(settings.validationTimeoutSeconds());
+        } catch (SQLException e) {
+            valid = false;
+        }
+        if (valid) {
+            connection.lastValidated = now;
+            return connection;
+        }
+        log.warn("closing invalid pooled connection {}", connection);
+        invalidated.increment();
+        release();
+        connection.closePhysical();
+        return null;
+    }
+
+    /**
+     * Give up the place of a connection that has been closed or could not be opened.
+     */
+    private void release() {
+        lock.lock();
+        try {
+            --size;
+            returned.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove connections idle for longer than the maximum idle time from the pool. The caller must hold the lock,
+     * and close the returned connections after releasing it.
+     */
+    private @NotNull List<PooledConnection> removeExpired() {
+        if (settings.maximumIdleTime() == null || idle.isEmpty()) {
+            return List.of();
+        }
+        final long limit = clock.getAsLong() - settings.maximumIdleTime().toNanos();
+        final List<PooledConnection> expired = new ArrayList<>();
+        // the least recently used connections are at the end:
+        while (!idle.isEmpty() && idle.peekLast().lastUsed < limit) {
+            expired.add(idle.pollLast());
+            --size;
+        }
+        evicted.add(expired.size());
+        return expired;
+    }
+
+    private static void closeAll(final @NotNull List<PooledConnection> connections) {
+        for (final PooledConnection connection : connections) {
+            connection.closePhysical();
+        }
+    }
+
+    private static void closeQuietly(final @NotNull PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            log.debug("error closing cached statement", e);
+        }
+    }
+
+}
@@ -6,6 +6,8 @@ package com.eischet.dbxs;
 
 import com.eischet.dbxs.dialects.DatabaseDialect;
 import com.eischet.dbxs.exceptions.DatabaseError;
+import com.eischet.dbxs.results.ResultSetReader;
+import com.eischet.dbxs.statements.SelectStatement;
 import org.jetbrains.annotations.NotNull;
 
 public interface DataManager {
@@ -21,6 +23,25 @@ public interface DataManager {
 
     void scheduleTransaction(DatabaseTransaction transaction);
 
+    /**
+     * Open a cursor that reads the rows of a query while iterating, on a connection of its own that stays open until
+     * the cursor is closed. Readers can use {@link com.eischet.dbxs.results.SimpleResultSet#getConnection()} to run
+     * further queries on the cursor's connection.
+     * <p>The default implementation reads all rows in a transaction first; data managers that can stream override this.</p>
+     *
+     * @param sql    the select statement
+     * @param sc     the statement configurator
+     * @param reader reads one row
+     * @param <T>    the type of rows
+     * @return an open cursor, which the caller has to close
+     * @throws DatabaseError if the query cannot be executed
+     */
+    default <T> @NotNull QueryCursor<T> openCursor(@NotNull SelectStatement sql,
+                                                   @NotNull StatementConfigurator sc,
+                                                   @NotNull ResultSetReader<T> reader) throws DatabaseError {
+        return QueryCursor.of(callTransaction(conn -> conn.queryForList(sql, sc, reader)));
+    }
+
     String getName();
 
     String getSchema();
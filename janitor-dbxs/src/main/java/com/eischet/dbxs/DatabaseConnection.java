@@ -377,6 +377,72 @@ public interface DatabaseConnection {
         return queryForInteger(sql, stmt -> {});
     }
 
+    /**
+     * Open a cursor that reads the rows of a query while iterating, without collecting them in a list first.
+     * The cursor uses this connection, so it has to be closed before the transaction ends.
+     * The fetch size is taken from the statement or else from {@link DatabaseDialect#getCursorFetchSize()}.
+     *
+     * @param sql    the select statement
+     * @param sc     the statement configurator
+     * @param reader reads one row
+     * @param <T>    the type of rows
+     * @return an open cursor
+     * @throws DatabaseError if the query cannot be executed
+     */
+    <T> @NotNull QueryCursor<T> openCursor(@NotNull final SelectStatement sql,
+                                           @NotNull final StatementConfigurator sc,
+                                           @NotNull final ResultSetReader<T> reader) throws DatabaseError;
+
+    /**
+     * Execute an update statement once per value, sending the statements to the database in batches
+     * instead of one round trip per value.
+     *
+     * @param sql          the update statement
+     * @param values       the values, e.g. the records to insert
+     * @param batchSize    the maximum number of statements sent to the database at once
+     * @param configurator sets the statement's parameters for each value
+     * @param <T>          the type of values
+     * @return the number of affected rows; statements for which the driver does not report a count are counted as one row
+     * @throws DatabaseError on errors
+     */
+    <T> long executeBatch(@NotNull final UpdateStatement sql,
+                          @NotNull final Iterable<? extends T> values,
+                          final int batchSize,
+                          @NotNull final BatchStatementConfigurator<T> configurator) throws DatabaseError;
+
+    /**
+     * Fetch several values from a sequence, e.g. ids for a bulk insert.
+     * Dialects that support it fetch all values in a single round trip, see {@link DatabaseDialect#getNextValuesQuery(String, String)}.
+     *
+     * @param schema   optional schema
+     * @param sequence the name of the sequence
+     * @param count    the number of values wanted
+     * @return the values, in the order the sequence returned them
+     * @throws DatabaseError on errors, or when the dialect does not support sequences
+     */
+    default long @NotNull [] queryForNextValues(@Nullable final String schema, @NotNull final String sequence, final int count) throws DatabaseError {
+        final long[] values = new long[count];
+        if (count == 0) {
+            return values;
+        }
+        final @Nullable SelectStatement block = getDialect().getNextValuesQuery(schema, sequence);
+        if (block != null && count > 1) {
+            final List<Long> fetched = queryForList(block, ps -> ps.addInt(count), rs -> rs.getLong());
+            if (fetched.size() != count) {
+                throw new DatabaseError("expected " + count + " values from sequence " + sequence + ", but got " + fetched.size());
+            }
+            for (int i = 0; i < count; i++) {
+                values[i] = fetched.get(i);
+            }
+        } else {
+            final SelectStatement single = require(getDialect().getNextValueQuery(schema, sequence));
+            for (int i = 0; i < count; i++) {
+                values[i] = queryForLong(single);
+            }
+        }
+        return values;
+    }
+
     /**
      * Get the database dialect.
      *
@@ -489,6 +555,28 @@ public interface DatabaseConnection {
     <T> Set<T> queryForSet(@NotNull final SelectStatement sql,
                            @NotNull final ResultSetReader<T> reader) throws DatabaseError;
 
+    /**
+     * Run an action when the transaction ends, after it has been committed or rolled back, e.g. to drop cached copies of
+     * the rows it has changed once other transactions can see the changes.
+     * <p>The default implementation runs the action right away; connections that know when their transaction ends
+     * override this.</p>
+     *
+     * @param action the action
+     */
+    default void afterCompletion(@NotNull final Runnable action) {
+        action.run();
+    }
 
+    /**
+     * Return the connection that owns the transaction. Nested transactions that share the connection of an enclosing
+     * transaction return the enclosing transaction's connection, so state kept per transaction, e.g. by caches, covers
+     * the nested transactions as well.
+     * <p>The default implementation returns this connection.</p>
+     *
+     * @return the owning connection
+     */
+    default @NotNull DatabaseConnection getTransactionOwner() {
+        return this;
+    }
 
 }
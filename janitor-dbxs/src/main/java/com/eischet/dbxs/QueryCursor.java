@@ -0,0 +1,111 @@
+/*
+ * © Eischet Software e.K., Köln
+ */
+
+package com.eischet.dbxs;
+
+import com.eischet.dbxs.exceptions.DatabaseError;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.io.Serial;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A forward-only cursor over the rows of a query, which reads the rows from the database while iterating instead of
+ * collecting them in a list first.
+ * <p>A cursor holds an open result set, so it has to be closed, preferably with try-with-resources.
+ * It closes itself when the last row has been read or reading a row fails.</p>
+ * <p>Errors while reading rows are thrown as {@link CursorError}, because {@link Iterator#next()} cannot throw checked exceptions.</p>
+ *
+ * @param <T> the type of rows
+ */
+public interface QueryCursor<T> extends Iterator<T>, AutoCloseable {
+
+    /**
+     * Thrown by {@link #hasNext()} and {@link #next()} when reading from the database fails.
+     */
+    class CursorError extends RuntimeException {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        public CursorError(final @NotNull DatabaseError cause) {
+            super(cause.getMessage(), cause);
+        }
+
+        @Override
+        public synchronized DatabaseError getCause() {
+            return (DatabaseError) super.getCause();
+        }
+    }
+
+    /**
+     * Return the number of rows read so far.
+     *
+     * @return the number of rows returned by {@link #next()}
+     */
+    long getReadRows();
+
+    /**
+     * Check if the cursor has been closed, either explicitly or because all rows have been read.
+     *
+     * @return true if closed
+     */
+    boolean isClosed();
+
+    /**
+     * Close the cursor and release the result set, the statement, and any connection owned by the cursor.
+     * Closing a cursor twice does nothing.
+     */
+    @Override
+    void close();
+
+    /**
+     * Create a cursor over rows that have already been read, e.g. for data managers that cannot stream results.
+     *
+     * @param rows the rows
+     * @param <T>  the type of rows
+     * @return a cursor over the rows
+     */
+    static <T> @NotNull QueryCursor<T> of(final @NotNull @Unmodifiable List<T> rows) {
+        return new QueryCursor<>() {
+            private int index;
+            private boolean closed;
+
+            @Override
+            public boolean hasNext() {
+                if (!closed && index >= rows.size()) {
+                    closed = true;
+                }
+                return !closed;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return rows.get(index++);
+            }
+
+            @Override
+            public long getReadRows() {
+                return index;
+            }
+
+            @Override
+            public boolean isClosed() {
+                return closed;
+            }
+
+            @Override
+            public void close() {
+                closed = true;
+            }
+        };
+    }
+
+}
@@ -22,13 +22,15 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.concurrent.atomic.AtomicLong;
 
 @SuppressWarnings("unused") // this is not unused, it's our main API, currently all the tests are hidden from the public in an app though...
-public class SimpleDataManager implements DataManager {
+public class SimpleDataManager implements DataManager, Closeable {
 
     protected final JanitorLogger log;
     protected final ThreadLocal<ConnectionWrapper> connHolder = new ThreadLocal<>();
@@ -39,18 +41,50 @@ public class SimpleDataManager implements DataManager {
     protected final DataSource dataSource;
     protected final List<String> initStatements;
     protected final DatabaseDialect dialect;
-
+    protected final @Nullable ConnectionPool pool;
+
+    /**
+     * Constructor for a data manager that takes a new connection from the data source for each top level transaction,
+     * e.g. because the data source is a pool itself.
+     *
+     * @param name           the name, used for logging
+     * @param dataSource     the data source
+     * @param dialect        the SQL dialect
+     * @param defaultSchema  the default schema, or null
+     * @param initStatements statements to run on each new connection, or null
+     */
     public SimpleDataManager(final @NotNull String name,
                              final @NotNull DataSource dataSource,
                              final @NotNull DatabaseDialect dialect,
                              final @Nullable String defaultSchema,
                              final @Nullable List<String> initStatements) {
+        this(name, dataSource, dialect, defaultSchema, initStatements, null);
+    }
+
+    /**
+     * Constructor for a data manager that pools its connections, see {@link ConnectionPool}.
+     * The init statements run once per physical connection.
+     *
+     * @param name           the name, used for logging
+     * @param dataSource     the data source
+     * @param dialect        the SQL dialect
+     * @param defaultSchema  the default schema, or null
+     * @param initStatements statements to run on each new connection, or null
+     * @param poolSettings   the pool settings, or null to take a new connection from the data source for each top level transaction
+     */
+    public SimpleDataManager(final @NotNull String name,
+                             final @NotNull DataSource dataSource,
+                             final @NotNull DatabaseDialect dialect,
+                             final @Nullable String defaultSchema,
+                             final @Nullable List<String> initStatements,
+                             final @Nullable ConnectionPool.Settings poolSettings) {
         this.name = name;
         this.log = JanitorLogger.getLogger(SimpleDataManager.class, name);
         this.dataSource = dataSource;
         this.dialect = dialect;
         this.defaultSchema = defaultSchema;
         this.initStatements = initStatements == null ? Collections.emptyList() : List.copyOf(initStatements);
+        this.pool = poolSettings == null ? null : new ConnectionPool(dataSource, poolSettings, this::runInitStatements);
     }
 
     public DataSource getDataSource() {
@@ -67,15 +101,35 @@ public class SimpleDataManager implements DataManager {
         return dialect;
     }
 
+    /**
+     * Return the connection pool.
+     *
+     * @return the pool, or null if this data manager does not pool connections
+     */
+    public @Nullable ConnectionPool getPool() {
+        return pool;
+    }
+
     @Override
     public String getStatistics() {
-        return "none"; // LATER get statistics
+        return pool == null ? "none" : pool.getStatistics().toString();
     }
 
-    private void runInitStatements(final ConnectionWrapper newConn) {
+    /**
+     * Close the connection pool, if this data manager owns one. Connections in use are closed when their transactions end.
+     * Data managers without a pool have nothing to close.
+     */
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    private void runInitStatements(final Connection newConn) {
         if (initStatements != null && !initStatements.isEmpty()) {
             for (final String initStatement : initStatements) {
-                try (final Statement stmt = newConn.getConn().createStatement()) {
+                try (final Statement stmt = newConn.createStatement()) {
                     log.debug("executing init statement: {}", initStatement);
                     stmt.execute(initStatement);
                 } catch (SQLException e) {
@@ -127,6 +181,33 @@ public class SimpleDataManager implements DataManager {
         }
     }
 
+    /**
+     * Open a cursor on a dedicated connection, which is not shared with the transactions of the current thread,
+     * so transactions run while iterating cannot commit or close the cursor's result set.
+     * The connection is closed together with the cursor.
+     */
+    @Override
+    public <T> @NotNull QueryCursor<T> openCursor(final @NotNull SelectStatement sql,
+                                                  final @NotNull StatementConfigurator sc,
+                                                  final @NotNull ResultSetReader<T> reader) throws DatabaseError {
+        final ClosableDatabaseConnection conn;
+        try {
+            conn = new ClosableDatabaseConnection(true);
+        } catch (SQLException e) {
+            log.error("{}: SQL Exception connecting to database for cursor", name, e);
+            throw new DatabaseError(e);
+        }
+        try {
+            return conn.openCursor(sql, sc, reader, () -> {
+                conn.commit();
+                conn.close();
+            });
+        } catch (DatabaseError | RuntimeException e) {
+            conn.close();
+            throw e;
+        }
+    }
+
     public interface ExceptionConsumer {
         void accept(SimpleDataManager self, Throwable e);
     }
@@ -153,13 +234,22 @@ public class SimpleDataManager implements DataManager {
 
     public static class ConnectionWrapper {
         private final Connection conn;
+        private final @Nullable ConnectionPool.PooledConnection pooled;
         private final long checkoutTime;
 
         private long updates;
         private boolean orphaned;
+        private @Nullable DatabaseConnection owner; // the transaction that checked the connection out
 
         public ConnectionWrapper(final Connection conn) {
             this.conn = conn;
+            this.pooled = null;
+            this.checkoutTime = System.currentTimeMillis();
+        }
+
+        public ConnectionWrapper(final @NotNull ConnectionPool.PooledConnection pooled) {
+            this.conn = pooled.getConnection();
+            this.pooled = pooled;
             this.checkoutTime = System.currentTimeMillis();
         }
 
@@ -167,6 +257,42 @@ public class SimpleDataManager implements DataManager {
             return conn;
         }
 
+        /**
+         * Return the pooled connection.
+         *
+         * @return the pooled connection, or null if the connection has been taken from the data source directly
+         */
+        public @Nullable ConnectionPool.PooledConnection getPooled() {
+            return pooled;
+        }
+
+        /**
+         * Prepare a statement, using the statement cache of pooled connections.
+         *
+         * @param sql the SQL text
+         * @return the statement, to be passed to {@link #releaseStatement(String, PreparedStatement)} after use
+         * @throws SQLException on errors
+         */
+        public @NotNull PreparedStatement prepareStatement(final @NotNull String sql) throws SQLException {
+            //noinspection SqlSourceToSinkFlow
+            return pooled == null ? conn.prepareStatement(sql) : pooled.prepareStatement(sql);
+        }
+
+        /**
+         * Close a statement from {@link #prepareStatement(String)}, or return it to the statement cache.
+         *
+         * @param sql  the SQL text
+         * @param stmt the statement
+         * @throws SQLException on errors
+         */
+        public void releaseStatement(final @NotNull String sql, final @NotNull PreparedStatement stmt) throws SQLException {
+            if (pooled == null) {
+                stmt.close();
+            } else {
+                pooled.releaseStatement(sql, stmt);
+            }
+        }
+
         public long getCheckoutTime() {
             return checkoutTime;
         }
@@ -203,13 +329,27 @@ public class SimpleDataManager implements DataManager {
     private class ClosableDatabaseConnection extends AbstractDatabaseConnection implements Closeable {
 
         private final boolean borrowed;
+        private final boolean dedicated;
+        private final List<Runnable> completionActions = new ArrayList<>();
+        private final @NotNull DatabaseConnection owner;
         private ConnectionWrapper conn;
 
         public ClosableDatabaseConnection() throws SQLException {
+            this(false);
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param dedicated true to open a connection that is not shared with other transactions of the current thread
+         * @throws SQLException on errors
+         */
+        public ClosableDatabaseConnection(final boolean dedicated) throws SQLException {
             final long checkoutStart = System.currentTimeMillis();
             log.debug("{} checking out a database connection", getName());
+            this.dedicated = dedicated;
 
-            final ConnectionWrapper existing = connHolder.get();
+            final ConnectionWrapper existing = dedicated ? null : connHolder.get();
             boolean orphaned = false;
             if (existing != null && existing.getCheckoutTime() < checkoutStart - 1000 * 180) {
                 log.warn("orphaned connection detected: {}", existing);
@@ -222,6 +362,11 @@ public class SimpleDataManager implements DataManager {
                 // log.warn("removing orphaned connection {} created by {}", existing, existing.getFullStackTrace());
                 // existing.getConn().close();
                 connHolder.remove();
+                if (pool != null && existing.getPooled() != null) {
+                    // give up its place, so the pool does not run dry; the transaction still holding it may be a long running one
+                    // that is still using it, so it stays open until that transaction ends, see close(ConnectionWrapper):
+                    pool.forget(existing.getPooled());
+                }
             }
 
 
@@ -229,37 +374,68 @@ public class SimpleDataManager implements DataManager {
                 log.debug("{} reusing existing connection", name);
                 conn = existing;
                 borrowed = true;
+                owner = existing.owner != null ? existing.owner : this;
             } else {
                 log.debug("{} fetching new connection", name);
                 ConnectionWrapper newConn = null;
                 while (newConn == null) {
-                    newConn = new ConnectionWrapper(dataSource.getConnection());
-                    connHolder.set(newConn);
+                    newConn = pool != null ? new ConnectionWrapper(pool.checkout()) : new ConnectionWrapper(dataSource.getConnection());
+                    if (!dedicated) {
+                        connHolder.set(newConn);
+                    }
                     final long delta = newConn.getCheckoutTime() - checkoutStart;
                     if (delta > 1000) {
                         log.info("{} - database connection checkout time: {} ms", name, delta);
                     }
-                    newConn.getConn().setAutoCommit(false);
-
-                    runInitStatements(newConn);
-
+                    if (pool == null) { // pooled connections have been initialized by the pool
+                        newConn.getConn().setAutoCommit(false);
+                        runInitStatements(newConn.getConn());
+                    }
                 }
+                newConn.owner = this;
                 this.conn = newConn;
                 borrowed = false;
+                owner = this;
             }
         }
 
-        private void close(final Connection conn) {
+        private void close(final ConnectionWrapper conn) {
             if (borrowed) {
                 log.debug("{}: not closing 'borrowed' connection", name);
             } else if (conn != null) {
-                log.debug("{}: closing my own connection", name);
+                if (pool != null && conn.getPooled() != null) {
+                    if (conn.getOrphaned()) {
+                        log.warn("{}: closing orphaned connection instead of returning it to the pool", name);
+                        try {
+                            conn.getConn().close();
+                        } catch (SQLException e) {
+                            log.error("error closing connection", e);
+                        }
+                    } else {
+                        log.debug("{}: returning my own connection to the pool", name);
+                        pool.checkin(conn.getPooled());
+                    }
+                } else {
+                    log.debug("{}: closing my own connection", name);
+                    try {
+                        conn.getConn().close();
+                    } catch (SQLException e) {
+                        log.error("error closing connection", e);
+                    }
+                }
+                if (!dedicated) {
+                    connHolder.remove();
+                }
+            }
+        }
+
+        private void release(final String sql, final PreparedStatement stmt) {
+            if (stmt != null) {
                 try {
-                    conn.close();
+                    conn.releaseStatement(sql, stmt);
                 } catch (SQLException e) {
-                    log.error("error closing connection", e);
+                    log.error("error closing statement", e);
                 }
-                connHolder.remove();
             }
         }
 
@@ -336,9 +512,8 @@ public class SimpleDataManager implements DataManager {
             try {
                 log.debug("{} preparing sql statement", getName());
 
-                //noinspection SqlSourceToSinkFlow
-                stmt = conn.getConn().prepareStatement(sql.getSql());
-                // The risk is tolerable.
+                stmt = conn.prepareStatement(sql.getSql());
+                applyFetchSize(stmt, sql.getFetchSize() != null ? sql.getFetchSize() : getDialect().getDefaultFetchSize());
 
                 sps = new SimplePreparedStatement(getDialect(), sql, stmt);
                 sc.configure(sps);
@@ -367,20 +542,136 @@ public class SimpleDataManager implements DataManager {
                 }
             } finally {
                 close(rs);
-                close(stmt);
+                release(sql.getSql(), stmt);
                 log.debug("{} finished query {}", getName(), sql);
             }
             return new QuerySummary(readRows, abortedOnLimit, abortedOnFlag);
         }
 
+        private void applyFetchSize(final @NotNull PreparedStatement stmt, final int fetchSize) throws SQLException {
+            if (fetchSize != 0) {
+                stmt.setFetchSize(fetchSize);
+            }
+        }
+
+        @Override
+        public <T> @NotNull QueryCursor<T> openCursor(final @NotNull SelectStatement sql,
+                                                      final @NotNull StatementConfigurator sc,
+                                                      final @NotNull ResultSetReader<T> reader) throws DatabaseError {
+            return openCursor(sql, sc, reader, null);
+        }
+
+        private <T> @NotNull QueryCursor<T> openCursor(final @NotNull SelectStatement sql,
+                                                       final @NotNull StatementConfigurator sc,
+                                                       final @NotNull ResultSetReader<T> reader,
+                                                       final @Nullable Runnable afterClose) throws DatabaseError {
+            log.debug("{} opening cursor for {}", getName(), sql);
+            PreparedStatement stmt = null;
+            SimplePreparedStatement sps = null;
+            try {
+                stmt = conn.prepareStatement(sql.getSql());
+                applyFetchSize(stmt, sql.getFetchSize() != null ? sql.getFetchSize() : getDialect().getCursorFetchSize());
+                sps = new SimplePreparedStatement(getDialect(), sql, stmt);
+                sc.configure(sps);
+                return new ResultSetCursor<>(sql, stmt, new SimpleResultSet(getDialect(), stmt.executeQuery(), this), reader, afterClose);
+            } catch (final SQLException e) {
+                release(sql.getSql(), stmt);
+                if (sps == null) {
+                    throw new DatabaseError(sql, e);
+                } else {
+                    throw new DatabaseError(name, sps, e);
+                }
+            }
+        }
+
+        /**
+         * A cursor over an open result set of this connection.
+         */
+        private class ResultSetCursor<T> implements QueryCursor<T> {
+            private final SelectStatement sql;
+            private final PreparedStatement stmt;
+            private final SimpleResultSet rs;
+            private final ResultSetReader<T> reader;
+            private final @Nullable Runnable afterClose;
+            private boolean fetched;
+            private boolean closed;
+            private long readRows;
+
+            private ResultSetCursor(final SelectStatement sql, final PreparedStatement stmt, final SimpleResultSet rs,
+                                    final ResultSetReader<T> reader, final @Nullable Runnable afterClose) {
+                this.sql = sql;
+                this.stmt = stmt;
+                this.rs = rs;
+                this.reader = reader;
+                this.afterClose = afterClose;
+            }
+
+            @Override
+            public boolean hasNext() {
+                if (!closed && !fetched) {
+                    try {
+                        fetched = rs.next();
+                    } catch (SQLException e) {
+                        close();
+                        throw new CursorError(new DatabaseError(sql, e));
+                    }
+                    if (!fetched) {
+                        close();
+                    }
+                }
+                return !closed;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                fetched = false;
+                try {
+                    final T row = reader.read(rs);
+                    ++readRows;
+                    return row;
+                } catch (DatabaseError e) {
+                    close();
+                    throw new CursorError(e);
+                } catch (SQLException | RuntimeException e) {
+                    close();
+                    throw new CursorError(new DatabaseError(sql, e));
+                }
+            }
+
+            @Override
+            public long getReadRows() {
+                return readRows;
+            }
+
+            @Override
+            public boolean isClosed() {
+                return closed;
+            }
+
+            @Override
+            public void close() {
+                if (!closed) {
+                    closed = true;
+                    ClosableDatabaseConnection.this.close(rs);
+                    ClosableDatabaseConnection.this.release(sql.getSql(), stmt);
+                    log.debug("{} closed cursor after {} rows: {}", getName(), readRows, sql);
+                    if (afterClose != null) {
+                        afterClose.run();
+                    }
+                }
+            }
+        }
+
         @Override
         public int update(final @NotNull UpdateStatement sql, @NotNull final StatementConfigurator sc) throws DatabaseError {
             conn.countUpdate();
             PreparedStatement stmt = null;
             SimplePreparedStatement sps = null;
             try {
-                //noinspection SqlSourceToSinkFlow
-                stmt = conn.getConn().prepareStatement(sql.getSql());
+                stmt = conn.prepareStatement(sql.getSql());
                 sps = new SimplePreparedStatement(getDialect(), sql, stmt);
                 sc.configure(sps);
                 return stmt.executeUpdate();
@@ -391,8 +682,55 @@ public class SimpleDataManager implements DataManager {
                     throw new DatabaseError(name, sps, e);
                 }
             } finally {
-                close(stmt);
+                release(sql.getSql(), stmt);
+            }
+        }
+
+        @Override
+        public <T> long executeBatch(final @NotNull UpdateStatement sql,
+                                     final @NotNull Iterable<? extends T> values,
+                                     final int batchSize,
+                                     final @NotNull BatchStatementConfigurator<T> configurator) throws DatabaseError {
+            if (batchSize < 1) {
+                throw new DatabaseError("invalid batch size: " + batchSize);
+            }
+            conn.countUpdate();
+            PreparedStatement stmt = null;
+            SimplePreparedStatement sps = null;
+            try {
+                stmt = conn.prepareStatement(sql.getSql());
+                sps = new SimplePreparedStatement(getDialect(), sql, stmt);
+                long affected = 0;
+                int pending = 0;
+                for (final T value : values) {
+                    configurator.configure(sps, value);
+                    sps.addBatch();
+                    if (++pending == batchSize) {
+                        affected += countAffected(stmt.executeBatch());
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    affected += countAffected(stmt.executeBatch());
+                }
+                return affected;
+            } catch (final Throwable e) { // should catch RuntimeException, too, e.g. NPEs in client code
+                if (sps == null) {
+                    throw new DatabaseError(e);
+                } else {
+                    throw new DatabaseError(name, sps, e);
+                }
+            } finally {
+                release(sql.getSql(), stmt);
+            }
+        }
+
+        private long countAffected(final int[] counts) {
+            long affected = 0;
+            for (final int count : counts) {
+                affected += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(0, count);
             }
+            return affected;
         }
 
         @Override
@@ -435,10 +773,39 @@ public class SimpleDataManager implements DataManager {
             return conn.getConn();
         }
 
+        /**
+         * Run the action when this connection is closed, which happens after the transaction has been committed or rolled back.
+         * Nested transactions on a borrowed connection hand the action to the enclosing transaction, so it runs when that ends.
+         */
+        @Override
+        public void afterCompletion(final @NotNull Runnable action) {
+            if (owner != this) {
+                owner.afterCompletion(action);
+            } else {
+                completionActions.add(action);
+            }
+        }
+
+        @Override
+        public @NotNull DatabaseConnection getTransactionOwner() {
+            return owner;
+        }
+
         @Override
         public void close() {
             log.debug("closing transaction {} #{}", name, transId);
-            close(conn.getConn());
+            close(conn);
+            if (owner != this) {
+                return; // a nested transaction; the owner runs the completion actions
+            }
+            for (final Runnable action : completionActions) {
+                try {
+                    action.run();
+                } catch (RuntimeException e) {
+                    log.error("error running completion action {}", action, e);
+                }
+            }
+            completionActions.clear();
         }
     }
 
@@ -48,6 +48,17 @@ public class SimplePreparedStatement {
         return this;
     }
 
+    /**
+     * Add the current parameters to the statement's batch, and start over with the first parameter for the next row.
+     *
+     * @throws SQLException on errors
+     */
+    public void addBatch() throws SQLException {
+        ps.addBatch();
+        col = 0;
+        args.clear();
+    }
+
     public int getLatestColumnIndex() {
         return col;
     }
@@ -65,6 +65,20 @@ public interface DatabaseDialect {
     @Nullable
     SelectStatement getCurrentValueQuery(@Nullable String schema, @NotNull String seq);
 
+    /**
+     * Return a query that fetches a block of values from a sequence in a single round trip, one row per value.
+     * The query has exactly one parameter, the number of values wanted.
+     * Bulk inserts use this to allocate the ids of many records at once.
+     *
+     * @param schema optional schema
+     * @param seq    name of the sequence
+     * @return a query for several next values of the sequence, or null if the dialect cannot do that; callers then run
+     * {@link #getNextValueQuery(String, String)} once per value
+     */
+    default @Nullable SelectStatement getNextValuesQuery(@Nullable String schema, @NotNull String seq) {
+        return null;
+    }
+
     default void addClobToStatement(@NotNull PreparedStatement ps, int i, StringReader clob) throws SQLException {
         ps.setClob(i, clob);
     }
@@ -104,4 +118,36 @@ public interface DatabaseDialect {
     default boolean isLegacySetBytesRequired() {
         return false;
     }
+
+    /**
+     * Return the maximum number of values in a single "in (?, ?, ...)" list.
+     * Callers that look up many rows at once, e.g. when prefetching foreign keys, split their values into chunks of this size.
+     * The default of 1000 is safe for all databases we know; dialects with higher or lower limits override this.
+     *
+     * @return the maximum number of values in an IN list
+     */
+    default int getMaxInListSize() {
+        return 1000;
+    }
+
+    /**
+     * Return the number of rows the driver should fetch per round trip for statements that do not set their own
+     * fetch size, see {@link SelectStatement#getFetchSize()}.
+     *
+     * @return the fetch size, or 0 to keep the driver's default
+     */
+    default int getDefaultFetchSize() {
+        return 0;
+    }
+
+    /**
+     * Return the fetch size for streaming cursors that do not set their own fetch size.
+     * It has to be large enough to avoid a round trip every few rows, and must make drivers that read the whole result
+     * into memory by default, like PostgreSQL's, fetch it in portions instead.
+     *
+     * @return the fetch size for cursors
+     */
+    default int getCursorFetchSize() {
+        return 1000;
+    }
 }
@@ -14,4 +14,10 @@ public class DatabaseDialectDB2 extends DatabaseDialectGeneric {
         }
     }
 
+    @Override
+    public SelectStatement getNextValuesQuery(final @Nullable String schema, final @NotNull String seq) {
+        final String qualified = schema == null || schema.isEmpty() ? seq : schema + "." + seq;
+        return new SelectStatement("with block (n) as (select 1 from sysibm.sysdummy1 union all select n + 1 from block where n < ?) select " + qualified + ".nextval from block");
+    }
+
 }
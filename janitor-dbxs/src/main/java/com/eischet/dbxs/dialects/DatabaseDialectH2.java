@@ -29,5 +29,11 @@ public class DatabaseDialectH2 extends DatabaseDialectCommon {
         }
     }
 
+    @Override
+    public SelectStatement getNextValuesQuery(final @Nullable String schema, final @NotNull String seq) {
+        final String qualified = schema == null || schema.isEmpty() ? seq : schema + "." + seq;
+        return new SelectStatement("select next value for " + qualified + " from system_range(1, ?)");
+    }
+
 
 }
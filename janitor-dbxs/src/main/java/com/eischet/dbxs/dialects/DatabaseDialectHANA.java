@@ -13,4 +13,10 @@ public class DatabaseDialectHANA extends DatabaseDialectGeneric {
             return new SelectStatement("select " + schema + "." + seq + ".nextval");
         }
     }
+
+    @Override
+    public SelectStatement getNextValuesQuery(final @Nullable String schema, final @NotNull String seq) {
+        final String qualified = schema == null || schema.isEmpty() ? seq : schema + "." + seq;
+        return new SelectStatement("select " + qualified + ".nextval from series_generate_integer(1, 0, ?)");
+    }
 }
@@ -66,5 +66,9 @@ public class DatabaseDialectMicrosoft extends DatabaseDialectCommon {
         return null;
     }
 
+    @Override
+    public int getMaxInListSize() {
+        return 2000; // SQL Server allows at most 2100 parameters per statement, so leave some room for others
+    }
 
 }
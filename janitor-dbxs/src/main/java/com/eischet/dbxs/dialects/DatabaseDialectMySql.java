@@ -25,6 +25,11 @@ public class DatabaseDialectMySql extends DatabaseDialectCommon {
         }
     }
 
+    @Override
+    public int getCursorFetchSize() {
+        return Integer.MIN_VALUE; // Connector/J streams row by row only with this magic value; MariaDB's driver accepts it, too
+    }
+
     @Override
     public SelectStatement getNextValueQuery(final @Nullable String schema, final @NotNull String seq) {
         if (schema == null || schema.isEmpty()) {
@@ -45,6 +45,12 @@ public class DatabaseDialectOracle extends DatabaseDialectCommon {
         }
     }
 
+    @Override
+    public @NotNull SelectStatement getNextValuesQuery(final @Nullable String schema, final @NotNull String seq) {
+        final String qualified = schema == null || schema.isEmpty() ? seq : schema + "." + seq;
+        return new SelectStatement("select " + qualified + ".nextval from dual connect by level <= ?");
+    }
+
     @Override
     public @Nullable SelectStatement getCurrentValueQuery(final @Nullable String schema, final @NotNull String seq) {
         if (schema == null || schema.isEmpty()) {
@@ -70,6 +76,16 @@ public class DatabaseDialectOracle extends DatabaseDialectCommon {
         }
     }
 
+    @Override
+    public int getMaxInListSize() {
+        return 1000; // ORA-01795: maximum number of expressions in a list is 1000
+    }
+
+    @Override
+    public int getDefaultFetchSize() {
+        return 100; // the driver fetches only 10 rows per round trip by default
+    }
+
     @Override
     public boolean isLegacySetBytesRequired() {
         return true; // applies to LONG RAW, which is sadly still used in a few assyst databases...
@@ -27,6 +27,12 @@ public class DatabaseDialectPostgres extends DatabaseDialectCommon {
         }
     }
 
+    @Override
+    public SelectStatement getNextValuesQuery(final @Nullable String schema, final @NotNull String seq) {
+        final String qualified = schema == null || schema.isEmpty() ? seq : schema + "." + seq;
+        return new SelectStatement("select nextval('" + qualified + "') from generate_series(1, ?)");
+    }
+
     @Override
     public void addClobToStatement(final @NotNull PreparedStatement ps, final int i, final StringReader clob) throws SQLException {
         ps.setCharacterStream(i, clob); // notwendige Sonderbehandlung für PostgreSQL, da setClob offenbar nicht implementiert wurde
@@ -58,4 +64,9 @@ public class DatabaseDialectPostgres extends DatabaseDialectCommon {
         }
     }
 
+    @Override
+    public int getMaxInListSize() {
+        return 10000; // the protocol allows 32767 parameters; much longer lists do not pay off anymore
+    }
+
 }
@@ -1,4 +1,10 @@
 package com.eischet.dbxs.dialects;
 
 public class DatabaseDialectSqlite extends DatabaseDialectCommon {
+
+    @Override
+    public int getMaxInListSize() {
+        return 999; // SQLITE_MAX_VARIABLE_NUMBER of versions before 3.32
+    }
+
 }
@@ -6,12 +6,45 @@ package com.eischet.dbxs.statements;
 
 import org.intellij.lang.annotations.Language;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class SelectStatement extends GenericStatement {
+    private final @Nullable Integer fetchSize;
+
     public SelectStatement(@NotNull @Language("SQL") final String sql) {
+        this(sql, null);
+    }
+
+    public SelectStatement(@NotNull @Language("SQL") final String sql, @Nullable final Integer fetchSize) {
         super(sql);
+        this.fetchSize = fetchSize;
     }
+
     public static @NotNull SelectStatement of(@NotNull @Language("SQL") final String sql) {
         return new SelectStatement(sql);
     }
+
+    /**
+     * Return the number of rows the driver should fetch per round trip, if set for this statement.
+     * Statements without a fetch size use the dialect's default, see
+     * {@link com.eischet.dbxs.dialects.DatabaseDialect#getDefaultFetchSize()}.
+     *
+     * @return the fetch size, or null to use the default
+     */
+    public @Nullable Integer getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Return a plain select statement with the same SQL and the given fetch size.
+     *
+     * @param fetchSize the number of rows to fetch per round trip
+     * @return a new statement
+     */
+    public @NotNull SelectStatement withFetchSize(final int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("invalid fetch size: " + fetchSize);
+        }
+        return new SelectStatement(getSql(), fetchSize);
+    }
 }
@@ -1,10 +1,10 @@
 package com.eischet.janitor.compiler;
 
 import com.eischet.janitor.api.JanitorScriptProcess;
-import com.eischet.janitor.api.errors.glue.JanitorControlFlowException;
 import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
 import com.eischet.janitor.api.scopes.Location;
 import com.eischet.janitor.compiler.ast.Ast;
+import com.eischet.janitor.compiler.ast.statement.Completion;
 import com.eischet.janitor.compiler.ast.statement.Statement;
 import com.eischet.janitor.toolbox.json.api.JsonException;
 import com.eischet.janitor.toolbox.json.api.JsonOutputStream;
@@ -15,8 +15,9 @@ public class EmptyStatement extends Statement implements Ast {
     }
 
     @Override
-    public void execute(final JanitorScriptProcess process) throws JanitorRuntimeException, JanitorControlFlowException {
+    public Completion execute(final JanitorScriptProcess process) throws JanitorRuntimeException {
         // by definition, the empty statement does nothing
+        return Completion.NORMAL;
     }
 
     @Override
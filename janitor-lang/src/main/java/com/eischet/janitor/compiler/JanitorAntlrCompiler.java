@@ -1,6 +1,7 @@
 package com.eischet.janitor.compiler;
 
 import com.eischet.janitor.api.JanitorEnvironment;
+import com.eischet.janitor.api.scopes.FrameLayout;
 import com.eischet.janitor.api.scopes.Location;
 import com.eischet.janitor.api.scopes.ScriptModule;
 import com.eischet.janitor.api.types.BuiltinTypes;
@@ -61,14 +62,44 @@ public class JanitorAntlrCompiler extends JanitorBaseVisitor<Ast> implements Jan
     private final String source;
     private final JanitorEnvironment env;
     private final BuiltinTypes builtinTypes;
+    private final ScopeResolver resolver = new ScopeResolver();
+    private final boolean tracing;
 
 
     public JanitorAntlrCompiler(final JanitorEnvironment env, final ScriptModule module, final boolean verbose, final String source) {
+        this(env, module, verbose, source, false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param env     the environment
+     * @param module  the module
+     * @param verbose turn on verbose / debugging compiler output
+     * @param source  the source code
+     * @param tracing insert instrumented nodes, which report statements and function calls to the runtime's trace listener
+     */
+    public JanitorAntlrCompiler(final JanitorEnvironment env, final ScriptModule module, final boolean verbose, final String source, final boolean tracing) {
         this.env = env;
         this.module = module;
         this.verbose = verbose;
         this.source = source;
         this.builtinTypes = env.getBuiltinTypes();
+        this.tracing = tracing;
+    }
+
+    private Statement traced(final Statement statement) {
+        return tracing ? new TracedStatement(statement) : statement;
+    }
+
+    private FunctionCallStatement functionCall(final Location location, final String functionName, final Expression onExpression, final ArgumentList expressionList) {
+        return functionCall(location, functionName, null, onExpression, expressionList);
+    }
+
+    private FunctionCallStatement functionCall(final Location location, final String functionName, final @Nullable SlotAddress functionAddress, final Expression onExpression, final ArgumentList expressionList) {
+        return tracing
+                ? new TracedFunctionCallStatement(location, functionName, functionAddress, onExpression, expressionList)
+                : new FunctionCallStatement(location, functionName, functionAddress, onExpression, expressionList);
     }
 
     public static JString parseLiteral(final JanitorEnvironment env, final @NotNull String literal) {
@@ -97,10 +128,10 @@ public class JanitorAntlrCompiler extends JanitorBaseVisitor<Ast> implements Jan
                 // das fängt z.b. auch function call expressions!
                 if (verbose) log.info("top level expression: {}", expression);
                 final ExpressionStatement expressionStatement = new ExpressionStatement(location(topLevelStatementContext.start, topLevelStatementContext.stop), expression);
-                topLevelStatements.add(expressionStatement);
+                topLevelStatements.add(traced(expressionStatement));
             } else if (construct instanceof final Statement stmt) {
                 if (verbose) log.info("top level statement: {}", stmt);
-                topLevelStatements.add(stmt);
+                topLevelStatements.add(traced(stmt));
             } else {
                 log.warn("invalid top level construct: {} in {} at {}, built from {} [{}]", construct, ctx.getText(), location(ctx.start, ctx.stop), topLevelStatementContext, simpleClassNameOf(topLevelStatementContext));
             }
@@ -120,12 +151,33 @@ public class JanitorAntlrCompiler extends JanitorBaseVisitor<Ast> implements Jan
         if (ctx == null) {
             return null;
         }
+        resolver.pushBlock();
+        try {
+            return buildBlock(ctx);
+        } finally {
+            resolver.pop();
+        }
+    }
+
+    /**
+     * Build a block that runs as the body of a function, which does not get a scope of its own at runtime.
+     * @param ctx the block
+     * @return the block
+     */
+    private Block visitFunctionBody(final JanitorParser.BlockContext ctx) {
+        if (ctx == null) {
+            return null;
+        }
+        return buildBlock(ctx);
+    }
+
+    private Block buildBlock(final JanitorParser.BlockContext ctx) {
         final List<Statement> statements = new ArrayList<>(ctx.blockStatement().size());
         for (final JanitorParser.BlockStatementContext blockStatementContext : ctx.blockStatement()) {
             final Ast blockStatementCandidate = visit(blockStatementContext);
             if (blockStatementCandidate instanceof final Statement stmt) {
                 if (verbose) log.info("block statement: {}", stmt);
-                statements.add(stmt);
+                statements.add(traced(stmt));
             } else {
                 throw new CompilerError("invalid block statement: " + blockStatementCandidate + " at " + blockStatementCandidate.getLocation());
             }
@@ -203,7 +255,8 @@ public class JanitorAntlrCompiler extends JanitorBaseVisitor<Ast> implements Jan
         // System.out.println("visitIdentifier: " + text + ", TO = " + ctx.TO() + ", FROM = " + ctx.FROM());
         // Sonderlogik für Keywords, die auch Identifier sein können, z.B. from und to: Die müssen hier separat abgearbeitet werden!
         // Komischerweise scheint man das hier aber nicht zu brauchen, weil...?
-        return new Identifier(location(ctx.start, ctx.stop), builtinTypes.intern(ctx.getText()));
+        final String name = builtinTypes.intern(ctx.getText());
+        return new Identifier(location(ctx.start, ctx.stop), name, resolver.resolve(name));
     }
 
     @Override
@@ -303,10 +356,17 @@ public class JanitorAntlrCompiler extends JanitorBaseVisitor<Ast> implements Jan
         Block finallyBlock = null;
         String catchBind = null;
 
+        FrameLayout catchFrameLayout = null;
+
         final JanitorParser.CatchClauseContext catchClause = ctx.catchClause();
         if (catchClause != null) {
-            catchBlock = visitBlock(catchClause.block());
             catchBind = catchClause.validIdentifier().getText();
+            catchFrameLayout = resolver.pushFrame(List.of(catchBind));
+            try {
+                catchBlock = visitBlock(catchClause.block());
+            } finally {
+                resolver.pop();
+            }
         }
 
         final JanitorParser.FinallyBlockContext finallyBlockContext = ctx.finallyBlock();
@@ -318,15 +378,21 @@ public class JanitorAntlrCompiler extends JanitorBaseVisitor<Ast> implements Jan
             log.info("tryBlock: {}\ncatchBlock: (identifier {}) {}\nfinallyBlock: {}\n", tryBlock, catchBind, catchBlock, finallyBlock);
         }
 
-        return new TryCatchFinally(location(ctx.start, ctx.stop), tryBlock, catchBind, catchBlock, finallyBlock);
+        return new TryCatchFinally(location(ctx.start, ctx.stop), tryBlock, catchBind, catchFrameLayout, catchBlock, finallyBlock);
     }
 
     @Override
     public IfStatement visitIfStatementDef(final JanitorParser.IfStatementDefContext ctx) {
         final Location loc = location(ctx.start, ctx.stop);
         if (ctx.ifStatementDef() != null) { // else if
-            final Block elseBlock = new Block(location(ctx.start, ctx.stop), List.of(visitIfStatementDef(ctx.ifStatementDef())));
             final Ast nested = visit(ctx.expression());
+            final Block elseBlock;
+            resolver.pushBlock(); // the synthetic else block gets its own scope at runtime, just like any other block
+            try {
+                elseBlock = new Block(location(ctx.start, ctx.stop), List.of(visitIfStatementDef(ctx.ifStatementDef())));
+            } finally {
+                resolver.pop();
+            }
             if (nested instanceof Expression expr) {
                 return new IfStatement(loc,
                         expr,
@@ -437,8 +503,13 @@ public class JanitorAntlrCompiler extends JanitorBaseVisitor<Ast> implements Jan
     public Ast visitForStatement(final JanitorParser.ForStatementContext ctx) {
         final String loopVar = ctx.validIdentifier().getText();
         final Expression expression = (Expression) visit(ctx.expression());
-        final Block block = visitBlock(ctx.block());
-        return new ForLoop(location(ctx.start, ctx.stop), loopVar, expression, block);
+        final FrameLayout frameLayout = resolver.pushFrame(List.of(loopVar));
+        try {
+            final Block block = visitBlock(ctx.block());
+            return new ForLoop(location(ctx.start, ctx.stop), loopVar, frameLayout, expression, block);
+        } finally {
+            resolver.pop();
+        }
     }
 
     @Override
@@ -446,8 +517,13 @@ public class JanitorAntlrCompiler extends JanitorBaseVisitor<Ast> implements Jan
         final String loopVar = ctx.validIdentifier().getText();
         final Expression from = (Expression) visit(ctx.expression(0));
         final Expression to = (Expression) visit(ctx.expression(1));
-        final Block block = visitBlock(ctx.block());
-        return new ForRangeLoop(location(ctx.start, ctx.stop), loopVar, from, to, block);
+        final FrameLayout frameLayout = resolver.pushFrame(List.of(loopVar));
+        try {
+            final Block block = visitBlock(ctx.block());
+            return new ForRangeLoop(location(ctx.start, ctx.stop), loopVar, frameLayout, from, to, block);
+        } finally {
+            resolver.pop();
+        }
     }
 
     @Override
@@ -563,16 +639,41 @@ public class JanitorAntlrCompiler extends JanitorBaseVisitor<Ast> implements Jan
 
         final Location loc = location(ctx.start, ctx.stop);
 
+        final FrameLayout frameLayout = resolver.pushFunction(parameterNames(finishedParams));
+        final Block body;
+        try {
+            body = visitFunctionBody(ctx.block());
+        } finally {
+            resolver.pop();
+        }
+
         return new RegularAssignment(loc,
                 new Identifier(loc, ctx.validIdentifier().getText()),
-                new ScriptFunction(loc, ctx.validIdentifier().getText(), finishedParams, visitBlock(ctx.block()))
+                new ScriptFunction(loc, ctx.validIdentifier().getText(), finishedParams, body, frameLayout)
         );
     }
 
+    private static List<String> parameterNames(final @Nullable FormalParameters parameters) {
+        if (parameters == null) {
+            return List.of();
+        }
+        final List<String> names = new ArrayList<>(parameters.size());
+        for (final FormalParameter parameter : parameters) {
+            names.add(parameter.getName());
+        }
+        return names;
+    }
+
     private FormalParameters helpExtractFormalParameters(final JanitorParser.FormalParametersContext formalParameters) {
         if (verbose) log.info("formal parameters: {}", formalParameters);
         if (formalParameters != null) {
-            return helpExtractFormalParametersList(formalParameters.formalParameterList());
+            // default values are evaluated while the parameters are being bound, so the compiler cannot make assumptions about their scope
+            resolver.pushOpaque();
+            try {
+                return helpExtractFormalParametersList(formalParameters.formalParameterList());
+            } finally {
+                resolver.pop();
+            }
         } else {
             return FormalParameters.empty();
         }
@@ -636,7 +737,7 @@ public class JanitorAntlrCompiler extends JanitorBaseVisitor<Ast> implements Jan
     @Override
     public Statement visitExplicitGenericInvocationSuffix(final JanitorParser.ExplicitGenericInvocationSuffixContext ctx) {
         if (verbose) log.info("genericInvocationSuffix??");
-        return new FunctionCallStatement(location(ctx.start, ctx.stop), ctx.validIdentifier().getText(), null, visitArguments(ctx.arguments()));
+        return functionCall(location(ctx.start, ctx.stop), ctx.validIdentifier().getText(), null, visitArguments(ctx.arguments()));
     }
 
     @Override
@@ -655,7 +756,7 @@ public class JanitorAntlrCompiler extends JanitorBaseVisitor<Ast> implements Jan
     @Override
     public FunctionCallStatement visitIndexExpression(final JanitorParser.IndexExpressionContext ctx) {
         final JanitorParser.ExpressionContext index = ctx.expression(1);
-        return new FunctionCallStatement(
+        return functionCall(
                 location(ctx.start, ctx.stop),
                 INDEXED_GET_METHOD,
                 (Expression) visit(ctx.expression(0)),
@@ -689,7 +790,7 @@ public class JanitorAntlrCompiler extends JanitorBaseVisitor<Ast> implements Jan
 
     @Override
     public Ast visitIndexExpressionFullRange(final JanitorParser.IndexExpressionFullRangeContext ctx) {
-        return new FunctionCallStatement(
+        return functionCall(
                 location(ctx.start, ctx.stop),
                 INDEXED_GET_METHOD,
                 (Expression) visit(ctx.expression()),
@@ -705,7 +806,7 @@ public class JanitorAntlrCompiler extends JanitorBaseVisitor<Ast> implements Jan
                                      JanitorParser.ExpressionContext head,
                                      JanitorParser.ExpressionContext tail) {
         if (head == null && tail == null) {
-            return new FunctionCallStatement(
+            return functionCall(
                     location(start, stop),
                     INDEXED_GET_METHOD,
                     (Expression) visit(main),
@@ -714,7 +815,7 @@ public class JanitorAntlrCompiler extends JanitorBaseVisitor<Ast> implements Jan
                             .addExpression(NullLiteral.NULL)
             );
         } else if (tail == null) {
-            return new FunctionCallStatement(
+            return functionCall(
                     location(start, stop),
                     INDEXED_GET_METHOD,
                     (Expression) visit(main),
@@ -723,7 +824,7 @@ public class JanitorAntlrCompiler extends JanitorBaseVisitor<Ast> implements Jan
                             .addExpression(NullLiteral.NULL)
             );
         } else if (head == null) {
-            return new FunctionCallStatement(
+            return functionCall(
                     location(start, stop),
                     INDEXED_GET_METHOD,
                     (Expression) visit(main),
@@ -732,7 +833,7 @@ public class JanitorAntlrCompiler extends JanitorBaseVisitor<Ast> implements Jan
                             .addExpression((Expression) visit(tail))
             );
         } else {
-            return new FunctionCallStatement(
+            return functionCall(
                     location(start, stop),
                     INDEXED_GET_METHOD,
                     (Expression) visit(main),
@@ -827,9 +928,10 @@ public class JanitorAntlrCompiler extends JanitorBaseVisitor<Ast> implements Jan
         if (identifierText != null && functionCallContext != null) {
             if (verbose) log.info("case 1: call with identifier and function call context");
             final JanitorParser.ArgumentListContext expList = functionCallContext.argumentList();
-            return new FunctionCallStatement(
+            return functionCall(
                     location(ctx.start, ctx.stop),
                     identifierText,
+                    expr == null ? resolver.resolve(identifierText) : null,
                     expr == null ? null : (Expression) visit(expr),
                     expList == null ? null : visitArgumentList(expList)
             );
@@ -849,7 +951,7 @@ public class JanitorAntlrCompiler extends JanitorBaseVisitor<Ast> implements Jan
         if (identifierText == null && expr != null && functionCallContext != null) {
             final ArgumentList callExpr =
                     functionCallContext.argumentList() == null ? null : visitArgumentList(functionCallContext.argumentList());
-            return new FunctionCallStatement(
+            return functionCall(
                     location(ctx.start, ctx.stop),
                     functionCallContext.validIdentifier().getText(),
                     (Expression) visit(expr),
@@ -865,7 +967,13 @@ public class JanitorAntlrCompiler extends JanitorBaseVisitor<Ast> implements Jan
     public Ast visitLambdaExpression(final JanitorParser.LambdaExpressionContext ctx) {
         if (verbose) log.info("lambdaExpression");
 
-        final FormalParameters lambdaParameters = helpExtractLambdaParameters(ctx.lambdaParameters());
+        final FormalParameters lambdaParameters;
+        resolver.pushOpaque();
+        try {
+            lambdaParameters = helpExtractLambdaParameters(ctx.lambdaParameters());
+        } finally {
+            resolver.pop();
+        }
         if (verbose) log.info("lambda parameters: {}", lambdaParameters);
 
         final JanitorParser.LambdaBodyContext lambdaBodyContext = ctx.lambdaBody();
@@ -874,20 +982,26 @@ public class JanitorAntlrCompiler extends JanitorBaseVisitor<Ast> implements Jan
 
         final Location loc = location(ctx.start, ctx.stop);
 
-        if (lambdaExpressionContext != null) {
-            if (verbose) log.info("it's an expression lambda");
+        final FrameLayout frameLayout = resolver.pushFunction(parameterNames(lambdaParameters));
+        try {
+            if (lambdaExpressionContext != null) {
+                if (verbose) log.info("it's an expression lambda");
 
-            return new ScriptFunction(loc, "lambda", lambdaParameters,
-                    new Block(loc, List.of(
-                            new ReturnStatement(loc, (Expression) visit(lambdaExpressionContext))
-                    ))
-            );
+                return new ScriptFunction(loc, "lambda", lambdaParameters,
+                        new Block(loc, List.of(
+                                new ReturnStatement(loc, (Expression) visit(lambdaExpressionContext))
+                        )),
+                        frameLayout
+                );
 
-        }
-        if (lambdaBlockContext != null) {
-            if (verbose) log.info("it's a block lambda");
-            return new ScriptFunction(loc, "lambda", lambdaParameters,
-                    visitBlock(lambdaBlockContext));
+            }
+            if (lambdaBlockContext != null) {
+                if (verbose) log.info("it's a block lambda");
+                return new ScriptFunction(loc, "lambda", lambdaParameters,
+                        visitFunctionBody(lambdaBlockContext), frameLayout);
+            }
+        } finally {
+            resolver.pop();
         }
 
         log.error("unknown lambda construction at {}: {}", loc, ctx.getText());
@@ -35,7 +35,22 @@ public interface JanitorCompiler {
      * @return the script
      */
     static Script build(JanitorEnvironment env, ScriptModule module, JanitorParser.ScriptContext root, String source, boolean verbose) throws CompilerError {
-        final JanitorAntlrCompiler compiler = new JanitorAntlrCompiler(env, module, verbose, source);
+        return build(env, module, root, source, verbose, false);
+    }
+
+    /**
+     * Build a script from a parse tree.
+     *
+     * @param env              the environment
+     * @param module           the module
+     * @param root             the root of the parse tree
+     * @param source           the source code
+     * @param verbose          turn on verbose / debugging compiler output
+     * @param tracing          build an instrumented script, which reports its statements and function calls to the runtime's trace listener
+     * @return the script
+     */
+    static Script build(JanitorEnvironment env, ScriptModule module, JanitorParser.ScriptContext root, String source, boolean verbose, boolean tracing) throws CompilerError {
+        final JanitorAntlrCompiler compiler = new JanitorAntlrCompiler(env, module, verbose, source, tracing);
         final RuleContext parseTree = root.getRuleContext();
         return (Script) compiler.visit(parseTree);
     }
@@ -0,0 +1,112 @@
+package com.eischet.janitor.compiler;
+
+import com.eischet.janitor.api.scopes.FrameLayout;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Resolves variables to slot addresses while the compiler builds the AST.
+ * <p>The compiler mirrors every scope that the interpreter will create at runtime by pushing a level here: blocks,
+ * function calls, for-loop iterations and catch clauses. Levels that declare variables before any code runs in them
+ * (parameters, loop variables, the catch variable) get a {@link FrameLayout}, and references to those variables are
+ * resolved to a {@link SlotAddress}.</p>
+ * <p>Everything else is left to the name-based lookup in {@link com.eischet.janitor.api.scopes.Scope}: globals, implicit
+ * objects, module scopes, and all variables created by plain assignments, because whether "x = 1" creates a new local or
+ * assigns to a variable further up the (dynamic) scope chain can only be decided at runtime.
+ * Resolution also stops at function boundaries, because functions run on top of their caller's scope, not on top of
+ * the scope they were defined in.</p>
+ */
+public class ScopeResolver {
+
+    private static class Level {
+        private final @Nullable FrameLayout frameLayout;
+        private final boolean functionBoundary;
+
+        private Level(final @Nullable FrameLayout frameLayout, final boolean functionBoundary) {
+            this.frameLayout = frameLayout;
+            this.functionBoundary = functionBoundary;
+        }
+    }
+
+    private final Deque<Level> levels = new ArrayDeque<>();
+
+    /**
+     * Enter a plain block, which declares no variables but still adds a scope at runtime.
+     */
+    public void pushBlock() {
+        levels.push(new Level(null, false));
+    }
+
+    /**
+     * Enter a frame that declares the given variables, e.g. a for loop iteration.
+     *
+     * @param names the variables declared by the frame
+     * @return the layout to be used at runtime
+     */
+    public @NotNull FrameLayout pushFrame(final @NotNull List<String> names) {
+        final FrameLayout frameLayout = FrameLayout.of(names);
+        levels.push(new Level(frameLayout, false));
+        return frameLayout;
+    }
+
+    /**
+     * Enter a function body, which declares its parameters.
+     *
+     * @param parameterNames the names of the parameters, in order
+     * @return the layout to be used at runtime, or null for functions without parameters
+     */
+    public @Nullable FrameLayout pushFunction(final @NotNull List<String> parameterNames) {
+        final FrameLayout frameLayout = parameterNames.isEmpty() ? null : FrameLayout.of(parameterNames);
+        levels.push(new Level(frameLayout, true));
+        return frameLayout;
+    }
+
+    /**
+     * Enter code that runs in a scope chain the compiler cannot predict, e.g. the default values of parameters.
+     * Nothing is resolved until the matching {@link #pop()}.
+     */
+    public void pushOpaque() {
+        levels.push(new Level(null, true));
+    }
+
+    /**
+     * Leave the current level.
+     */
+    public void pop() {
+        levels.pop();
+    }
+
+    /**
+     * Resolve a variable reference at the current position.
+     *
+     * @param name the variable name
+     * @return the slot address, or null if the variable must be looked up by name at runtime
+     */
+    public @Nullable SlotAddress resolve(final @Nullable String name) {
+        if (name == null) {
+            return null;
+        }
+        int depth = 0;
+        final Iterator<Level> it = levels.iterator(); // ArrayDeque iterates from the top of the stack
+        while (it.hasNext()) {
+            final Level level = it.next();
+            if (level.frameLayout != null) {
+                final int slot = level.frameLayout.indexOf(name);
+                if (slot >= 0) {
+                    return new SlotAddress(depth, slot, level.frameLayout);
+                }
+            }
+            if (level.functionBoundary) {
+                return null;
+            }
+            depth++;
+        }
+        return null;
+    }
+
+}
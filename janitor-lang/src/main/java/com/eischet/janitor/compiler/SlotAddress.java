@@ -0,0 +1,75 @@
+package com.eischet.janitor.compiler;
+
+import com.eischet.janitor.api.scopes.FrameLayout;
+import com.eischet.janitor.api.scopes.Scope;
+import com.eischet.janitor.api.types.JanitorObject;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The compile-time address of a lexically known variable: how many scopes up from the current scope its frame is,
+ * and which slot of that frame holds it.
+ * <p>The frame found at runtime is always checked against the expected layout. Should they ever disagree, e.g. because
+ * host code has pushed scopes the compiler could not know about, the address does not match and callers fall back to
+ * looking up the variable by name.</p>
+ *
+ * @see ScopeResolver
+ */
+public final class SlotAddress {
+
+    private final int depth;
+    private final int slot;
+    private final FrameLayout frameLayout;
+
+    /**
+     * Constructor.
+     *
+     * @param depth       number of parent scopes to skip
+     * @param slot        slot number within the frame
+     * @param frameLayout expected layout of the frame
+     */
+    public SlotAddress(final int depth, final int slot, final @NotNull FrameLayout frameLayout) {
+        this.depth = depth;
+        this.slot = slot;
+        this.frameLayout = frameLayout;
+    }
+
+    /**
+     * Find the frame holding the variable.
+     *
+     * @param currentScope the current scope
+     * @return the frame, or null if the scope chain does not look like the compiler expected
+     */
+    public @Nullable Scope frameOf(final @NotNull Scope currentScope) {
+        Scope scope = currentScope;
+        for (int i = 0; i < depth && scope != null; i++) {
+            scope = scope.getParent();
+        }
+        return scope != null && scope.getFrameLayout() == frameLayout ? scope : null;
+    }
+
+    /**
+     * Read the variable.
+     *
+     * @param currentScope the current scope
+     * @return the variable, or null if it is not (yet) bound or cannot be found by address
+     */
+    public @Nullable JanitorObject fetch(final @NotNull Scope currentScope) {
+        final Scope frame = frameOf(currentScope);
+        return frame == null ? null : frame.getSlot(slot);
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    @Override
+    public String toString() {
+        return "SlotAddress{depth=" + depth + ", slot=" + slot + ", name=" + frameLayout.getName(slot) + "}";
+    }
+
+}
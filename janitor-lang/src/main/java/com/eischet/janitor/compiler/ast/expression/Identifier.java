@@ -3,11 +3,15 @@ package com.eischet.janitor.compiler.ast.expression;
 import com.eischet.janitor.api.JanitorScriptProcess;
 import com.eischet.janitor.api.errors.runtime.JanitorNameException;
 import com.eischet.janitor.api.scopes.Location;
+import com.eischet.janitor.api.scopes.ResultAndScope;
+import com.eischet.janitor.api.scopes.Scope;
 import com.eischet.janitor.api.types.JanitorObject;
+import com.eischet.janitor.compiler.SlotAddress;
 import com.eischet.janitor.compiler.ast.AstNode;
 import com.eischet.janitor.toolbox.json.api.JsonException;
 import com.eischet.janitor.toolbox.json.api.JsonOutputStream;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import static com.eischet.janitor.api.util.ObjectUtilities.simpleClassNameOf;
 
@@ -16,6 +20,7 @@ import static com.eischet.janitor.api.util.ObjectUtilities.simpleClassNameOf;
  */
 public class Identifier extends AstNode implements Expression {
     private final String text;
+    private final @Nullable SlotAddress address;
 
     /**
      * Constructor.
@@ -23,8 +28,19 @@ public class Identifier extends AstNode implements Expression {
      * @param text what
      */
     public Identifier(final Location location, final String text) {
+        this(location, text, null);
+    }
+
+    /**
+     * Constructor for identifiers that the compiler has resolved to a slot.
+     * @param location where
+     * @param text what
+     * @param address where to find the variable at runtime, or null to always look it up by name
+     */
+    public Identifier(final Location location, final String text, final @Nullable SlotAddress address) {
         super(location);
         this.text = text;
+        this.address = address;
     }
 
     /**
@@ -35,6 +51,32 @@ public class Identifier extends AstNode implements Expression {
         return text;
     }
 
+    /**
+     * Get the slot address, if the compiler was able to resolve this identifier.
+     * @return the slot address or null
+     */
+    public @Nullable SlotAddress getAddress() {
+        return address;
+    }
+
+    /**
+     * Look up the variable together with the scope that holds it, e.g. to assign a new value to it.
+     * @param process the running script
+     * @return the variable and its scope, or null if the variable is not bound
+     */
+    public @Nullable ResultAndScope lookupScoped(final JanitorScriptProcess process) {
+        if (address != null) {
+            final Scope frame = address.frameOf(process.getCurrentScope());
+            if (frame != null) {
+                final JanitorObject slotted = frame.getSlot(address.getSlot());
+                if (slotted != null) {
+                    return new ResultAndScope(frame, slotted);
+                }
+            }
+        }
+        return process.lookupScopedVar(text);
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName() + "=" + text + "@" + getLocation();
@@ -44,6 +86,12 @@ public class Identifier extends AstNode implements Expression {
     @Override
     public @NotNull JanitorObject evaluate(final JanitorScriptProcess process) throws JanitorNameException {
         process.setCurrentLocation(getLocation());
+        if (address != null) {
+            final JanitorObject slotted = address.fetch(process.getCurrentScope());
+            if (slotted != null) {
+                return slotted;
+            }
+        }
         final JanitorObject v = process.lookup(text);
         if (v == null) {
             throw new JanitorNameException(process, String.format("name '%s' is not defined", text));
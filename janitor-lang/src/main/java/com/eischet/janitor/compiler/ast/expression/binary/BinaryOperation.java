@@ -45,26 +45,51 @@ public abstract class BinaryOperation extends AstNode implements Expression {
         process.countInstruction();
         final JanitorObject leftObject = left.evaluate(process);
         final JanitorObject rightObject = right.evaluate(process);
-        process.trace(() -> String.format("evaluating %s with left = %s ==> %s [%s] -- right = %s ==> %s [%s]",
-                this, left, leftObject, simpleClassNameOf(leftObject),  right, rightObject, simpleClassNameOf(rightObject)));
+        return apply(process, leftObject, rightObject);
+    }
+
+    /**
+     * Apply the operation to already evaluated operands.
+     * This is the second half of {@link #evaluate(JanitorScriptProcess)}, which is also called from compiled code.
+     *
+     * @param process the running script
+     * @param leftObject the evaluated left operand
+     * @param rightObject the evaluated right operand
+     * @return the result
+     * @throws JanitorRuntimeException on errors
+     */
+    public @NotNull JanitorObject apply(final JanitorScriptProcess process, final JanitorObject leftObject, final JanitorObject rightObject) throws JanitorRuntimeException {
         if (leftObject == null || rightObject == null) {
             throw new JanitorArgumentException(process, String.format("null value in binary operation: left=%s=>%s, right=%s=>%s", left, leftObject, right, rightObject));
         }
         try {
             final JanitorObject leftValue = leftObject.janitorUnpack();
             final JanitorObject rightValue = rightObject.janitorUnpack();
-            process.trace(() -> "  left = " + leftValue + ", right = "+ rightValue);
             if (leftValue == null || rightValue == null) {
                 throw new JanitorArgumentException(process, String.format("null value in binary operation: left=%s=>%s, right=%s=>%s", left, leftObject, right, rightObject));
             }
-            final JanitorObject result = functor.perform(process, leftValue, rightValue).janitorUnpack();
-            process.trace(() -> "  result = " + result);
-            return result;
+            return functor.perform(process, leftValue, rightValue).janitorUnpack();
         } catch (RuntimeException e) {
             throw new JanitorArgumentException(process, String.format("runtime error in binary operation: left=%s=>%s, right=%s=>%s", left, leftObject, right, rightObject), e);
         }
     }
 
+    /**
+     * Get the left operand.
+     * @return the left operand
+     */
+    public Expression getLeft() {
+        return left;
+    }
+
+    /**
+     * Get the right operand.
+     * @return the right operand
+     */
+    public Expression getRight() {
+        return right;
+    }
+
     @Override
     public void writeJson(JsonOutputStream producer) throws JsonException {
         producer.beginObject()
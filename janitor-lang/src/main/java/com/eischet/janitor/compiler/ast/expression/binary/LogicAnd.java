@@ -48,6 +48,22 @@ public class LogicAnd extends AstNode implements Expression, JsonExportableObjec
         return Janitor.toBool(JanitorSemantics.isTruthy(rightValue));
     }
 
+    /**
+     * Get the left operand.
+     * @return the left operand
+     */
+    public Expression getLeft() {
+        return left;
+    }
+
+    /**
+     * Get the right operand.
+     * @return the right operand
+     */
+    public Expression getRight() {
+        return right;
+    }
+
     @Override
     public void writeJson(JsonOutputStream producer) throws JsonException {
         producer.beginObject()
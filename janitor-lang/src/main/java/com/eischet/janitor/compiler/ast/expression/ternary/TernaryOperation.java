@@ -33,6 +33,30 @@ public abstract class TernaryOperation extends AstNode implements Expression {
         this.c = c;
     }
 
+    /**
+     * Get the first operand, e.g. the condition.
+     * @return the first operand
+     */
+    public Expression getA() {
+        return a;
+    }
+
+    /**
+     * Get the second operand.
+     * @return the second operand
+     */
+    public Expression getB() {
+        return b;
+    }
+
+    /**
+     * Get the third operand.
+     * @return the third operand, which may be null
+     */
+    public Expression getC() {
+        return c;
+    }
+
     @Override
     public void writeJson(JsonOutputStream producer) throws JsonException {
         producer.beginObject()
@@ -34,11 +34,32 @@ public abstract class UnaryOperation extends AstNode implements Expression {
     @Override
     public @NotNull JanitorObject evaluate(final JanitorScriptProcess process) throws JanitorRuntimeException {
         final JanitorObject variable = parameter.evaluate(process).janitorUnpack();
+        return apply(process, variable);
+    }
+
+    /**
+     * Apply the operation to an already evaluated and unpacked operand.
+     * This is the second half of {@link #evaluate(JanitorScriptProcess)}, which is also called from compiled code.
+     *
+     * @param process the running script
+     * @param variable the operand
+     * @return the result
+     * @throws JanitorRuntimeException on errors
+     */
+    public @NotNull JanitorObject apply(final JanitorScriptProcess process, final JanitorObject variable) throws JanitorRuntimeException {
         process.setCurrentLocation(getLocation());
         process.countInstruction();
         return functor.perform(process, variable);
     }
 
+    /**
+     * Get the operand.
+     * @return the operand
+     */
+    public Expression getParameter() {
+        return parameter;
+    }
+
     @Override
     public void writeJson(JsonOutputStream producer) throws JsonException {
         producer.beginObject()
@@ -0,0 +1,62 @@
+package com.eischet.janitor.compiler.ast.function;
+
+import com.eischet.janitor.api.JanitorScriptProcess;
+import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
+import com.eischet.janitor.api.scopes.Scope;
+import com.eischet.janitor.api.types.JanitorObject;
+import com.eischet.janitor.api.types.functions.JCallArgs;
+import com.eischet.janitor.api.types.functions.JCallable;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A function value: the (shared, immutable) script function plus the scope that was current when the function
+ * was defined.
+ * <p>Every evaluation of a function declaration or lambda creates a new closure, so two processes running the same
+ * compiled script, or two invocations of a function that returns a lambda, never see each other's scopes.</p>
+ */
+public final class ScriptClosure implements JanitorObject, JCallable {
+
+    private final ScriptFunction function;
+    private final Scope closureScope;
+
+    /**
+     * Constructor.
+     *
+     * @param function     the function definition
+     * @param closureScope the scope captured at definition time
+     */
+    public ScriptClosure(final @NotNull ScriptFunction function, final Scope closureScope) {
+        this.function = function;
+        this.closureScope = closureScope;
+    }
+
+    /**
+     * Get the function definition.
+     *
+     * @return the function definition
+     */
+    public @NotNull ScriptFunction getFunction() {
+        return function;
+    }
+
+    @Override
+    public JanitorObject call(final JanitorScriptProcess process, final JCallArgs arguments) throws JanitorRuntimeException {
+        return function.call(process, arguments, closureScope);
+    }
+
+    @Override
+    public @NotNull String janitorClassName() {
+        return "Function";
+    }
+
+    @Override
+    public @NotNull String janitorToString() {
+        return function.toString();
+    }
+
+    @Override
+    public String toString() {
+        return function.toString();
+    }
+
+}
@@ -2,10 +2,10 @@ package com.eischet.janitor.compiler.ast.function;
 
 import com.eischet.janitor.api.Janitor;
 import com.eischet.janitor.api.JanitorScriptProcess;
-import com.eischet.janitor.api.errors.glue.JanitorControlFlowException;
 import com.eischet.janitor.api.errors.runtime.JanitorArgumentException;
 import com.eischet.janitor.api.errors.runtime.JanitorInternalException;
 import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
+import com.eischet.janitor.api.scopes.FrameLayout;
 import com.eischet.janitor.api.scopes.Location;
 import com.eischet.janitor.api.scopes.Scope;
 import com.eischet.janitor.api.types.JanitorObject;
@@ -13,34 +13,37 @@ import com.eischet.janitor.api.types.builtin.JList;
 import com.eischet.janitor.api.types.builtin.JMap;
 import com.eischet.janitor.api.types.builtin.JNull;
 import com.eischet.janitor.api.types.functions.JCallArgs;
-import com.eischet.janitor.api.types.functions.JCallable;
 import com.eischet.janitor.compiler.FormalParameter;
 import com.eischet.janitor.compiler.FormalParameters;
 import com.eischet.janitor.compiler.ast.AstNode;
 import com.eischet.janitor.compiler.ast.expression.Expression;
+import com.eischet.janitor.compiler.ast.statement.Completion;
+import com.eischet.janitor.compiler.ast.statement.Statement;
 import com.eischet.janitor.compiler.ast.statement.controlflow.Block;
-import com.eischet.janitor.compiler.ast.statement.controlflow.ReturnStatement;
 import com.eischet.janitor.logging.JanitorLogger;
 import com.eischet.janitor.toolbox.json.api.JsonException;
 import com.eischet.janitor.toolbox.json.api.JsonExportableObject;
 import com.eischet.janitor.toolbox.json.api.JsonOutputStream;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import static com.eischet.janitor.api.util.ObjectUtilities.simpleClassNameOf;
 
 /**
  * Script function.
  * This implements both functions and lambdas, so these are essentially the same thing internally.
+ * <p>Like all AST nodes, a script function is immutable and can be shared by any number of threads running the same script.
+ * Evaluating it produces a {@link ScriptClosure}, which is the actual callable function value that scripts pass around.</p>
  */
-public class ScriptFunction extends AstNode implements Expression, JanitorObject, JCallable, JsonExportableObject {
+public class ScriptFunction extends AstNode implements Expression, JsonExportableObject {
 
     private static final JanitorLogger log = JanitorLogger.getLogger(ScriptFunction.class);
 
     private final String name;
     private final FormalParameters formalParameters;
     private final Block block;
-    private Scope moduleScope;
-    private Scope closureScope;
+    private final @Nullable FrameLayout frameLayout;
+    private final @Nullable Statement body;
 
     /**
      * Constructor.
@@ -51,26 +54,60 @@ public class ScriptFunction extends AstNode implements Expression, JanitorObject
      * @param block            inner code of the function
      */
     public ScriptFunction(final Location location, final String name, final FormalParameters formalParameters, final Block block) {
+        this(location, name, formalParameters, block, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param location         where the function is defined
+     * @param name             name of the function
+     * @param formalParameters names of the parameters
+     * @param block            inner code of the function
+     * @param frameLayout      slot layout of the parameters, as resolved by the compiler, or null
+     */
+    public ScriptFunction(final Location location, final String name, final FormalParameters formalParameters, final Block block, final @Nullable FrameLayout frameLayout) {
+        this(location, name, formalParameters, block, frameLayout, null);
+    }
+
+    private ScriptFunction(final Location location, final String name, final FormalParameters formalParameters, final Block block,
+                           final @Nullable FrameLayout frameLayout, final @Nullable Statement body) {
         super(location);
         this.name = name;
         this.formalParameters = formalParameters;
         this.block = block;
+        this.frameLayout = frameLayout;
+        this.body = body;
     }
 
-    @Override
-    public @NotNull String janitorClassName() {
-        return "Function";
+    /**
+     * Return a copy of this function that runs another implementation of its block, e.g. one compiled to bytecode.
+     * <p>Like {@link Block#executeFunctionCall(JanitorScriptProcess)}, the body runs the block's statements in the
+     * function's own scope, without entering another one.</p>
+     *
+     * @param body the replacement body
+     * @return a new function
+     */
+    public ScriptFunction withBody(final @NotNull Statement body) {
+        return new ScriptFunction(getLocation(), name, formalParameters, block, frameLayout, body);
+    }
+
+    /**
+     * Get the name of the function.
+     *
+     * @return the name, which is "lambda" for lambdas
+     */
+    public String getName() {
+        return name;
     }
 
     /**
-     * Set the module scope of the function.
-     * TODO: why is this currently not used, and what would happen if it were?
+     * Get the code of the function.
      *
-     * @param moduleScope set the module scope
+     * @return the block
      */
-    public void setModuleScope(final Scope moduleScope) {
-        // System.out.println("function " + name + " received module scope " + moduleScope);
-        this.moduleScope = moduleScope;
+    public Block getBlock() {
+        return block;
     }
 
     @Override
@@ -78,130 +115,135 @@ public class ScriptFunction extends AstNode implements Expression, JanitorObject
         if (log.isDebugEnabled()) {
             log.debug("**** eval called on script function: " + name + " in scope with dir: {}", process.getCurrentScope().dir());
         }
-        this.closureScope = process.getCurrentScope().capture();
-        // A function initially evaluates "to itself", so it can later be called, because this class here
-        // implements both Expression and JCallable. This is a (small) design decision, not a hard requirement.
-        return this;
+        // The captured scope belongs to the running process, so it goes into a fresh function value instead of this AST node.
+        return new ScriptClosure(this, process.getCurrentScope().capture());
     }
 
     @Override
-    public @NotNull String janitorToString() {
+    public String toString() {
         return "function " + name + "(" + formalParameters + ")";
     }
 
-    @Override
-    public JanitorObject call(final JanitorScriptProcess process, final JCallArgs arguments) throws JanitorRuntimeException {
+    /**
+     * Call the function.
+     *
+     * @param process      the running script
+     * @param arguments    the arguments
+     * @param closureScope the scope captured when the function value was created
+     * @return the result of the call
+     * @throws JanitorRuntimeException on errors
+     */
+    JanitorObject call(final JanitorScriptProcess process, final JCallArgs arguments, final Scope closureScope) throws JanitorRuntimeException {
         process.countInstruction();
+        arguments.requireAtLeast(formalParameters.minSize());
         try {
-            arguments.requireAtLeast(formalParameters.minSize());
-            try {
-                if (moduleScope != null) {
-                    process.pushModuleScope(moduleScope);
-                }
-                if (getLocation() != null) {
-                    process.enterBlock(getLocation().nested(name));
-                } else {
-                    process.enterBlock(null); // anonyme Blöcke NICHT in den Stacktrace packen
-                }
-                process.pushClosureScope(closureScope);
-                final int nonDefaultSize = formalParameters.minSize();
+            final Location callLocation = getLocation() != null ? getLocation().nested(name) : null; // anonyme Blöcke NICHT in den Stacktrace packen
+            if (frameLayout != null) {
+                process.enterFrame(callLocation, frameLayout);
+            } else {
+                process.enterBlock(callLocation);
+            }
+            process.pushClosureScope(closureScope);
+            final int nonDefaultSize = formalParameters.minSize();
 
-                if (!formalParameters.getParameters().isEmpty()) {
-                    // start at the first argument:
-                    int argPos = 0;
-                    // go though all parameters that the function needs:
+            if (!formalParameters.getParameters().isEmpty()) {
+                // start at the first argument:
+                int argPos = 0;
+                int slot = 0;
+                // go though all parameters that the function needs:
 
-                    // TODO: do not let these go into kwargs, or don't care, have to decide what's better: final Set<String> usedNames = new HashSet<>();
+                // TODO: do not let these go into kwargs, or don't care, have to decide what's better: final Set<String> usedNames = new HashSet<>();
 
-                    for (final FormalParameter parameter : formalParameters) {
-                        if (parameter.getKind() == FormalParameter.Kind.POSITIONAL) {
+                for (final FormalParameter parameter : formalParameters) {
+                    if (parameter.getKind() == FormalParameter.Kind.POSITIONAL) {
+                        final JanitorObject matched = arguments.get(argPos++).janitorUnpack();
+                        bindParameter(process, slot, parameter, matched);
+                    } else if (parameter.getKind() == FormalParameter.Kind.VARARGS) {
+                        @NotNull final JList list = Janitor.list();
+                        while (argPos < arguments.size()) {
                             final JanitorObject matched = arguments.get(argPos++).janitorUnpack();
-                            process.getCurrentScope().bind(process, parameter.getName(), matched);
-                        } else if (parameter.getKind() == FormalParameter.Kind.VARARGS) {
-                            @NotNull final JList list = Janitor.list();
-                            while (argPos < arguments.size()) {
-                                final JanitorObject matched = arguments.get(argPos++).janitorUnpack();
-                                list.add(matched);
-                            }
-                            process.getCurrentScope().bind(process, parameter.getName(), list);
-                        } else if (parameter.getKind() == FormalParameter.Kind.DEFAULTED) {
-                            // these are a bit tricky, because (stealing the idea from Python without thinking it through first ;-) )
-                            // these can be positional or named, but not both.
-
-                            // Get the possible named argument, but don't use it yet:
-                            JanitorObject valueByName = arguments.getByName(parameter.getName());
-
-                            // First, check if there is a named argument matching our name
-                            JanitorObject valueByPosition = null;
-                            if (argPos < arguments.size()) {
-                                valueByPosition = arguments.get(argPos++).janitorUnpack();
-                            }
-
-                            JanitorObject defaultValue = parameter.getDefaultValue().evaluate(process).janitorUnpack();
-
-                            if (valueByName == null && valueByPosition == null) {
-                                // Simple: neither matching position nor name is found, use the default value.
-                                // System.out.println("using default value for parameter " + parameter.getName());
-                                process.getCurrentScope().bind(process, parameter.getName(), defaultValue);
-                            } else if (valueByName == null && valueByPosition != null) {
-                                // Simple, too: only a matching positional argument is found, use that
-                                process.getCurrentScope().bind(process, parameter.getName(), valueByPosition);
-                            } else if (valueByName != null && valueByPosition != null && valueByName == valueByPosition) {
-                                // It's the same thing, no need to worry
-                                process.getCurrentScope().bind(process, parameter.getName(), valueByPosition);
-                            } else {
-                                System.err.println("don't know what to do: valueByName=" + valueByName + ", valueByPosition=" + valueByPosition);
-                                // TODO: there are missing cases!
-                                throw new JanitorArgumentException(process, "Default parameters are not yet implemented");
-                            }
-                        } else if (parameter.getKind() == FormalParameter.Kind.KWARGS) {
-                            // my first impulse was to keep all "used" args out of the map, but it cannot hurt us at all to use them, too
-                            @NotNull final JMap kwargs = arguments.asKwargs(null);
-                            process.getCurrentScope().bind(process, parameter.getName(), kwargs);
-                            // throw new JanitorArgumentException(process, "kwargs parameters are not yet implemented");
+                            list.add(matched);
                         }
+                        bindParameter(process, slot, parameter, list);
+                    } else if (parameter.getKind() == FormalParameter.Kind.DEFAULTED) {
+                        // these are a bit tricky, because (stealing the idea from Python without thinking it through first ;-) )
+                        // these can be positional or named, but not both.
+
+                        // Get the possible named argument, but don't use it yet:
+                        JanitorObject valueByName = arguments.getByName(parameter.getName());
+
+                        // First, check if there is a named argument matching our name
+                        JanitorObject valueByPosition = null;
+                        if (argPos < arguments.size()) {
+                            valueByPosition = arguments.get(argPos++).janitorUnpack();
+                        }
+
+                        JanitorObject defaultValue = parameter.getDefaultValue().evaluate(process).janitorUnpack();
+
+                        if (valueByName == null && valueByPosition == null) {
+                            // Simple: neither matching position nor name is found, use the default value.
+                            // System.out.println("using default value for parameter " + parameter.getName());
+                            bindParameter(process, slot, parameter, defaultValue);
+                        } else if (valueByName == null && valueByPosition != null) {
+                            // Simple, too: only a matching positional argument is found, use that
+                            bindParameter(process, slot, parameter, valueByPosition);
+                        } else if (valueByName != null && valueByPosition != null && valueByName == valueByPosition) {
+                            // It's the same thing, no need to worry
+                            bindParameter(process, slot, parameter, valueByPosition);
+                        } else {
+                            System.err.println("don't know what to do: valueByName=" + valueByName + ", valueByPosition=" + valueByPosition);
+                            // TODO: there are missing cases!
+                            throw new JanitorArgumentException(process, "Default parameters are not yet implemented");
+                        }
+                    } else if (parameter.getKind() == FormalParameter.Kind.KWARGS) {
+                        // my first impulse was to keep all "used" args out of the map, but it cannot hurt us at all to use them, too
+                        @NotNull final JMap kwargs = arguments.asKwargs(null);
+                        bindParameter(process, slot, parameter, kwargs);
+                        // throw new JanitorArgumentException(process, "kwargs parameters are not yet implemented");
                     }
+                    slot++;
                 }
+            }
 
 
-                /*
+            /*
 
-                for (int i = 0; i < nonDefaultSize; i++) {
-                    process.getCurrentScope().bind(process, formalParameters.get(i).getName(), arguments.get(i).janitorUnpack());
-                    //if (closureScope != null) {
-                    //    // Bind this to the closure scope, too, so it can later be referenced.
-                    //    // Yes, having this here is a sign that the scoping needs more work in general...
-                    //    closureScope.bind(process, parameterNames.get(i), arguments.get(i).janitorUnpack());
-                    //}
-                // TODO: bind additional parameters to *args, if that is available
-                if (formalParameters.size() > nonDefaultSize) {
+            for (int i = 0; i < nonDefaultSize; i++) {
+                process.getCurrentScope().bind(process, formalParameters.get(i).getName(), arguments.get(i).janitorUnpack());
+                //if (closureScope != null) {
+                //    // Bind this to the closure scope, too, so it can later be referenced.
+                //    // Yes, having this here is a sign that the scoping needs more work in general...
+                //    closureScope.bind(process, parameterNames.get(i), arguments.get(i).janitorUnpack());
+                //}
+            // TODO: bind additional parameters to *args, if that is available
+            if (formalParameters.size() > nonDefaultSize) {
 
-                }
+            }
 
 
-                // TODO: bind **kwargs, as soon as they are in the Grammar for calling
+            // TODO: bind **kwargs, as soon as they are in the Grammar for calling
 
-                }
-                     */
+            }
+                 */
 
 
-                block.executeFunctionCall(process);
-            } finally {
-                process.popClosureScope(closureScope);
-                process.exitBlock();
-                if (moduleScope != null) {
-                    process.popModuleScope(moduleScope);
-                }
+            final Completion completion = body != null ? body.execute(process) : block.executeFunctionCall(process);
+            if (completion.isReturn()) {
+                return completion.getValue();
+            } else if (completion.isAbrupt()) {
+                throw new JanitorInternalException(process, "invalid control flow within function call: " + completion);
             }
-        } catch (ReturnStatement.Return e) {
-            process.trace(() -> "Function returned " + e.getValue());
-            return e.getValue().janitorUnpack();
-        } catch (JanitorControlFlowException e) {
-            throw new JanitorInternalException(process, "invalid control flow exception within function call", e);
+        } finally {
+            process.popClosureScope(closureScope);
+            process.exitBlock();
         }
         return JNull.NULL;
     }
 
+    private void bindParameter(final JanitorScriptProcess process, final int slot, final FormalParameter parameter, final JanitorObject value) {
+        process.getCurrentScope().bindDeclared(process, frameLayout, slot, parameter.getName(), value);
+    }
+
     @Override
     public void writeJson(JsonOutputStream producer) throws JsonException {
         producer.beginObject()
@@ -214,7 +256,6 @@ public class ScriptFunction extends AstNode implements Expression, JanitorObject
         }
         producer.endArray();
         producer.endObject();
-        // TODO: output the two scopes, too?!
     }
 
 }
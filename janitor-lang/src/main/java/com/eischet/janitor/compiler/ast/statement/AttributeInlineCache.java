@@ -0,0 +1,108 @@
+package com.eischet.janitor.compiler.ast.statement;
+
+import com.eischet.janitor.api.types.JanitorObject;
+import com.eischet.janitor.api.types.composed.JanitorComposed;
+import com.eischet.janitor.api.types.dispatch.Dispatcher;
+import com.eischet.janitor.api.types.dispatch.GenericDispatchTable;
+import com.eischet.janitor.api.types.dispatch.ResolvedAttribute;
+import com.eischet.janitor.api.types.wrapped.JanitorWrapper;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Inline cache for attribute lookups at a single member access or member call site.
+ * <p>Most call sites only ever see objects of one or two types, e.g. "s.length()" is usually called on strings. We
+ * remember the attribute resolved for up to {@link #MAX_ENTRIES} dispatchers, so the next lookup on an object with the
+ * same dispatcher does not need to go through the dispatch table's map and its parents again. When a site sees more
+ * dispatchers than that, it's considered megamorphic and stops caching.</p>
+ * <p>Only objects whose attribute lookup starts with their dispatcher, i.e. {@link JanitorComposed} and {@link JanitorWrapper},
+ * are cached. Entries remember the dispatch table's version and are dropped when attributes are added to the table or its
+ * parents.</p>
+ * <p>Compiled scripts are shared between threads, so the entries are immutable and replaced as a whole. Losing an update
+ * in a race only costs another lookup.</p>
+ */
+final class AttributeInlineCache {
+
+    /**
+     * Maximum number of dispatchers per site before we give up.
+     */
+    static final int MAX_ENTRIES = 4;
+
+    private static final Entry[] EMPTY = new Entry[0];
+
+    private final String name;
+    private volatile Entry[] entries = EMPTY;
+    private volatile boolean megamorphic;
+
+    /**
+     * Constructor.
+     *
+     * @param name the attribute name looked up at this site
+     */
+    AttributeInlineCache(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Find the resolved attribute for an object.
+     *
+     * @param object the object
+     * @return the resolved attribute, or null when the caller should use the regular lookup
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable ResolvedAttribute<JanitorObject> lookup(final JanitorObject object) {
+        if (megamorphic) {
+            return null;
+        }
+        final Dispatcher<?> dispatcher = dispatcherOf(object);
+        if (!(dispatcher instanceof GenericDispatchTable<?> table)) {
+            return null;
+        }
+        final Entry[] current = entries;
+        for (final Entry entry : current) {
+            if (entry.dispatcher == dispatcher) {
+                if (entry.version == table.getChainVersion()) {
+                    return entry.attribute;
+                }
+                break; // stale: the table has changed since we've resolved the name
+            }
+        }
+        final long version = table.getChainVersion();
+        final ResolvedAttribute<JanitorObject> attribute = (ResolvedAttribute<JanitorObject>) table.resolve(name);
+        if (attribute != null) {
+            remember(current, new Entry(dispatcher, version, attribute));
+        }
+        return attribute;
+    }
+
+    private void remember(final Entry[] current, final Entry entry) {
+        int kept = 0;
+        final Entry[] updated = new Entry[current.length + 1];
+        for (final Entry existing : current) {
+            if (existing.dispatcher != entry.dispatcher) {
+                updated[kept++] = existing;
+            }
+        }
+        if (kept >= MAX_ENTRIES) {
+            megamorphic = true;
+            entries = EMPTY;
+            return;
+        }
+        updated[kept++] = entry;
+        final Entry[] result = new Entry[kept];
+        System.arraycopy(updated, 0, result, 0, kept);
+        entries = result;
+    }
+
+    private static @Nullable Dispatcher<?> dispatcherOf(final JanitorObject object) {
+        if (object instanceof JanitorComposed<?> composed) {
+            return composed.getDispatcher();
+        } else if (object instanceof JanitorWrapper<?> wrapper) {
+            return wrapper.getDispatcher();
+        }
+        return null;
+    }
+
+    private record Entry(Dispatcher<?> dispatcher, long version, ResolvedAttribute<JanitorObject> attribute) {
+    }
+
+}
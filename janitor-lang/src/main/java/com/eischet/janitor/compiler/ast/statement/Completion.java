@@ -0,0 +1,127 @@
+package com.eischet.janitor.compiler.ast.statement;
+
+import com.eischet.janitor.api.types.JanitorObject;
+import com.eischet.janitor.api.types.builtin.JNull;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The way a statement completed: normally, or abruptly by return, break or continue.
+ * <p>Every {@link Statement#execute} returns a completion. Statements containing other statements (blocks, loops, if etc.)
+ * stop executing as soon as a nested statement completes abruptly, and pass the completion on to their caller until someone
+ * consumes it: loops consume break and continue, functions and scripts consume return.</p>
+ * <p>Only returns with a value need a fresh instance; all other completions are shared singletons, so control flow does not
+ * allocate anything on the hot path.</p>
+ */
+public final class Completion {
+
+    /**
+     * The kinds of completion.
+     */
+    public enum Kind {
+        /**
+         * The statement ran to its end.
+         */
+        NORMAL,
+        /**
+         * A return statement was executed.
+         */
+        RETURN,
+        /**
+         * A break statement was executed.
+         */
+        BREAK,
+        /**
+         * A continue statement was executed.
+         */
+        CONTINUE
+    }
+
+    /**
+     * Normal completion, singleton instance.
+     */
+    public static final Completion NORMAL = new Completion(Kind.NORMAL, JNull.NULL);
+
+    /**
+     * Break completion, singleton instance.
+     */
+    public static final Completion BREAK = new Completion(Kind.BREAK, JNull.NULL);
+
+    /**
+     * Continue completion, singleton instance.
+     */
+    public static final Completion CONTINUE = new Completion(Kind.CONTINUE, JNull.NULL);
+
+    /**
+     * Return completion without a value, singleton instance ("void" does not exist, so we return NULL).
+     */
+    public static final Completion RETURN_NOTHING = new Completion(Kind.RETURN, JNull.NULL);
+
+    private final Kind kind;
+    private final JanitorObject value;
+
+    private Completion(final Kind kind, final JanitorObject value) {
+        this.kind = kind;
+        this.value = value;
+    }
+
+    /**
+     * Create a return completion.
+     *
+     * @param value the returned value
+     * @return a new completion
+     */
+    public static @NotNull Completion returning(final @NotNull JanitorObject value) {
+        return new Completion(Kind.RETURN, value);
+    }
+
+    /**
+     * Get the kind of completion.
+     *
+     * @return the kind
+     */
+    public @NotNull Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Get the returned value.
+     *
+     * @return the value, or NULL for anything but a return with a value
+     */
+    public @NotNull JanitorObject getValue() {
+        return value.janitorUnpack();
+    }
+
+    /**
+     * Check if the statement ran to its end.
+     *
+     * @return true for normal completion
+     */
+    public boolean isNormal() {
+        return kind == Kind.NORMAL;
+    }
+
+    /**
+     * Check if the statement completed abruptly, i.e. the caller must stop executing further statements.
+     *
+     * @return true for return, break and continue
+     */
+    public boolean isAbrupt() {
+        return kind != Kind.NORMAL;
+    }
+
+    /**
+     * Check for a return.
+     *
+     * @return true for return completions
+     */
+    public boolean isReturn() {
+        return kind == Kind.RETURN;
+    }
+
+    @Override
+    public String toString() {
+        return kind == Kind.RETURN ? "Completion{RETURN " + value + "}" : "Completion{" + kind + "}";
+    }
+
+}
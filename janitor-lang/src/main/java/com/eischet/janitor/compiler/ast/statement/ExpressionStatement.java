@@ -1,7 +1,6 @@
 package com.eischet.janitor.compiler.ast.statement;
 
 import com.eischet.janitor.api.JanitorScriptProcess;
-import com.eischet.janitor.api.errors.glue.JanitorControlFlowException;
 import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
 import com.eischet.janitor.api.scopes.Location;
 import com.eischet.janitor.compiler.ast.expression.Expression;
@@ -37,10 +36,20 @@ public class ExpressionStatement extends Statement implements JsonExportableObje
     }
 
     @Override
-    public void execute(final JanitorScriptProcess process) throws JanitorRuntimeException, JanitorControlFlowException {
+    public Completion execute(final JanitorScriptProcess process) throws JanitorRuntimeException {
         process.setCurrentLocation(getLocation());
         process.countInstruction();
         process.setScriptResult(expression.evaluate(process).janitorUnpack());
+        return Completion.NORMAL;
+    }
+
+    /**
+     * Get the expression.
+     *
+     * @return the expression
+     */
+    public Expression getExpression() {
+        return expression;
     }
 
     @Override
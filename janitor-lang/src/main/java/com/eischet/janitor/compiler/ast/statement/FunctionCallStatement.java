@@ -2,7 +2,6 @@ package com.eischet.janitor.compiler.ast.statement;
 
 import com.eischet.janitor.api.JanitorScriptProcess;
 import com.eischet.janitor.api.types.functions.JCallArgs;
-import com.eischet.janitor.api.errors.glue.JanitorControlFlowException;
 import com.eischet.janitor.api.errors.runtime.JanitorNameException;
 import com.eischet.janitor.api.errors.runtime.JanitorNativeException;
 import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
@@ -10,12 +9,14 @@ import com.eischet.janitor.api.scopes.Location;
 import com.eischet.janitor.api.types.JAssignable;
 import com.eischet.janitor.api.types.functions.JCallable;
 import com.eischet.janitor.api.types.JanitorObject;
+import com.eischet.janitor.compiler.SlotAddress;
 import com.eischet.janitor.compiler.ast.expression.Expression;
 import com.eischet.janitor.compiler.ast.expression.ArgumentList;
 import com.eischet.janitor.toolbox.json.api.JsonException;
 import com.eischet.janitor.toolbox.json.api.JsonExportableObject;
 import com.eischet.janitor.toolbox.json.api.JsonOutputStream;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import static com.eischet.janitor.api.util.ObjectUtilities.simpleClassNameOf;
 
@@ -27,6 +28,7 @@ import static com.eischet.janitor.api.util.ObjectUtilities.simpleClassNameOf;
  */
 public class FunctionCallStatement extends Statement implements Expression, JsonExportableObject {
     private final String functionName;
+    private final @Nullable SlotAddress functionAddress;
     private final Expression onExpression;
     private final ArgumentList expressionList;
 
@@ -38,8 +40,21 @@ public class FunctionCallStatement extends Statement implements Expression, Json
      * @param expressionList list of arguments
      */
     public FunctionCallStatement(final Location location, final String functionName, final Expression onExpression, final ArgumentList expressionList) {
+        this(location, functionName, null, onExpression, expressionList);
+    }
+
+    /**
+     * Constructor.
+     * @param location where
+     * @param functionName name of the function
+     * @param functionAddress slot of the function, if the compiler resolved the name to a parameter or loop variable, or null
+     * @param onExpression preceding expression
+     * @param expressionList list of arguments
+     */
+    public FunctionCallStatement(final Location location, final String functionName, final @Nullable SlotAddress functionAddress, final Expression onExpression, final ArgumentList expressionList) {
         super(location);
         this.functionName = functionName;
+        this.functionAddress = functionAddress;
         this.onExpression = onExpression;
         this.expressionList = expressionList;
     }
@@ -50,32 +65,28 @@ public class FunctionCallStatement extends Statement implements Expression, Json
     }
 
     @Override
-    public void execute(final JanitorScriptProcess process) throws JanitorRuntimeException, JanitorControlFlowException {
-        process.trace(() -> "execute via evaluate in " + this);
+    public Completion execute(final JanitorScriptProcess process) throws JanitorRuntimeException {
         evaluate(process); // just pass it on
+        return Completion.NORMAL;
     }
 
     @Override
     public @NotNull JanitorObject evaluate(final JanitorScriptProcess process) throws JanitorRuntimeException {
-        process.trace(() -> "evaluating " + this);
         process.setCurrentLocation(getLocation());
         JanitorObject function = null;
         if (onExpression != null) {
-            process.trace(() -> "looking up function from expression");
-
             final JanitorObject object = onExpression.evaluate(process);
-            process.trace(() -> "object = " + object);
-
-
             function = object.janitorGetAttribute(process, functionName, true);
 
         } else if (functionName != null) {
-            process.trace(() -> "looking up function '" + functionName + "' from scopes");
-            function = process.lookup(functionName);
+            if (functionAddress != null) {
+                function = functionAddress.fetch(process.getCurrentScope());
+            }
+            if (function == null) {
+                function = process.lookup(functionName);
+            }
 
         }
-        final JanitorObject finalFunction = function;
-        process.trace(() -> "1 trying to call function: " + finalFunction);
         process.countInstruction();
 
         final JCallArgs args = expressionList == null ? JCallArgs.empty(functionName, process) : expressionList.toCallArguments(functionName, process);
@@ -86,8 +97,6 @@ public class FunctionCallStatement extends Statement implements Expression, Json
         if (function instanceof JCallable) {
             try {
                 final JanitorObject result = ((JCallable) function).call(process, args);
-                process.trace(() -> "function call result: " + result);
-
                 if (result == null) {
                     process.warn("expected result != null from call of " + functionName + "(" + args + ")");
                 }
@@ -1,7 +1,6 @@
 package com.eischet.janitor.compiler.ast.statement;
 
 import com.eischet.janitor.api.JanitorScriptProcess;
-import com.eischet.janitor.api.errors.glue.JanitorControlFlowException;
 import com.eischet.janitor.api.errors.runtime.JanitorNameException;
 import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
 import com.eischet.janitor.api.scopes.Location;
@@ -50,8 +49,9 @@ public class FunctionLookup extends Statement implements Expression, JsonExporta
     }
 
     @Override
-    public void execute(final JanitorScriptProcess process) throws JanitorRuntimeException, JanitorControlFlowException {
+    public Completion execute(final JanitorScriptProcess process) throws JanitorRuntimeException {
         evaluate(process); // just pass it on
+        return Completion.NORMAL;
     }
 
     @Override
@@ -61,17 +61,11 @@ public class FunctionLookup extends Statement implements Expression, JsonExporta
 
         JanitorObject function = null;
 
-        process.trace(() -> String.format("this=%s; evaluate onExpression=%s, functionName=%s, guarded=%s", this, onExpression, functionName, guarded));
-
         if (onExpression != null) {
-            process.trace(() -> "top");
-            process.trace(() -> "looking up function from expression " + onExpression);
             final JanitorObject object = onExpression.evaluate(process);
-            process.trace(() -> "back in the function lookup! object: " + object);
             if (object == null) {
                 process.trace(() -> "object is null!");
             } else {
-                process.trace(() -> "object = " + object + " [" + object.getClass().getSimpleName() + "], functionName=" + functionName);
                 function = object.janitorGetAttribute(process, functionName, false);
             }
 
@@ -96,49 +90,32 @@ public class FunctionLookup extends Statement implements Expression, JsonExporta
 
 
         } else if (functionName != null) {
-            process.trace(() -> "bottom");
-            process.trace(() -> "looking up function '" + functionName + "' from scopes");
             function = process.lookup(functionName);
         }
 
-        process.trace(() -> "check-1");
-
-
         if (expressionList == null && function instanceof JConstant) {
-            process.trace(() -> "the 'function' is a constant and there's no expr. list --> returning it");
+            // the 'function' is a constant and there's no expr. list --> returning it
             return function;
         }
 
-        process.trace(() -> "check-2");
-
         if (expressionList == null && function != null) {
-            process.trace(() -> "the 'function' is a managed object and there's no expr. list --> returning it");
+            // the 'function' is a managed object and there's no expr. list --> returning it
             return function;
         }
 
-        final JanitorObject finalFunction = function;
-        process.trace(() -> "2 trying to call function: " + finalFunction);
-
-
         //for (int i = 0; i < expressionList.length(); i++) {
         //    argumentList.bind("#"+i, expressionList.get(i).evaluate(runningScript));
         //}
         if (function instanceof JCallable) {
-            final JanitorObject finalFunction1 = function;
-            process.trace(() -> "function LOOKUP: returning the function " + finalFunction1);
             return function;
             //final Variable result = ((Callable) function).call(runningScript, finishedArgs);
             //runningScript.trace(() -> "function call result: " + result);
             //return result;
         }
-        process.trace(() -> "check-3");
 
         if (function != null) {
-            final JanitorObject finalFunction2 = function;
-            process.trace(() -> "function LOOKUP: returning the variable " + finalFunction2);
             return function;
         }
-        process.trace(() -> "check-4");
 
         throw new JanitorNameException(process, "invalid callable: " + functionName + " (name: " + functionName + ")");
     }
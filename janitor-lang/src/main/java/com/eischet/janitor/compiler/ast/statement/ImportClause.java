@@ -1,7 +1,6 @@
 package com.eischet.janitor.compiler.ast.statement;
 
 import com.eischet.janitor.api.JanitorScriptProcess;
-import com.eischet.janitor.api.errors.glue.JanitorControlFlowException;
 import com.eischet.janitor.api.errors.runtime.JanitorNotImplementedException;
 import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
 import com.eischet.janitor.api.modules.JanitorModule;
@@ -52,7 +51,7 @@ public class ImportClause extends Statement implements JsonExportableObject {
     }
 
     @Override
-    public void execute(final JanitorScriptProcess process) throws JanitorRuntimeException, JanitorControlFlowException {
+    public Completion execute(final JanitorScriptProcess process) throws JanitorRuntimeException {
         // Load qualified modules:
         if (qname != null) {
             if (qname.getParts().size() == 1) {
@@ -62,14 +61,14 @@ public class ImportClause extends Statement implements JsonExportableObject {
                 } else {
                     process.getMainScope().bind(process, alias.getText(), m);
                 }
-                return;
+                return Completion.NORMAL;
             }
         }
         // Load string-based modules (implementation specific):
         if (module != null) {
             final JanitorModule m = process.getEnvironment().getModuleByStringName(process, module);
             process.getMainScope().bind(process, alias.getText(), m);
-            return;
+            return Completion.NORMAL;
         }
         throw new JanitorNotImplementedException(process, "invalid import clause: either a qualified name or a module name string is required");
     }
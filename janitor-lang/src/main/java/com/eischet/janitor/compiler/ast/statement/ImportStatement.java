@@ -1,7 +1,6 @@
 package com.eischet.janitor.compiler.ast.statement;
 
 import com.eischet.janitor.api.JanitorScriptProcess;
-import com.eischet.janitor.api.errors.glue.JanitorControlFlowException;
 import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
 import com.eischet.janitor.api.scopes.Location;
 import com.eischet.janitor.toolbox.json.api.JsonException;
@@ -33,12 +32,13 @@ public class ImportStatement extends Statement implements JsonExportableObject {
     }
 
     @Override
-    public void execute(final JanitorScriptProcess process) throws JanitorRuntimeException, JanitorControlFlowException {
+    public Completion execute(final JanitorScriptProcess process) throws JanitorRuntimeException {
         process.setCurrentLocation(getLocation());
         for (final ImportClause clause : clauses) {
             clause.execute(process);
         }
         process.countInstruction();
+        return Completion.NORMAL;
     }
 
     @Override
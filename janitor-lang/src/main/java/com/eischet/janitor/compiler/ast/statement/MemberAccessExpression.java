@@ -7,6 +7,7 @@ import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
 import com.eischet.janitor.api.scopes.Location;
 import com.eischet.janitor.api.types.JanitorObject;
 import com.eischet.janitor.api.types.builtin.JMap;
+import com.eischet.janitor.api.types.dispatch.ResolvedAttribute;
 import com.eischet.janitor.compiler.ast.AstNode;
 import com.eischet.janitor.compiler.ast.expression.Expression;
 import com.eischet.janitor.toolbox.json.api.JsonException;
@@ -21,12 +22,14 @@ public class MemberAccessExpression extends AstNode implements Expression {
     private final boolean guarded;
     private final Expression expression;
     private final String identifier;
+    private final AttributeInlineCache cache;
 
     public MemberAccessExpression(final Location location, final Expression expression, final String identifier, final boolean guarded) {
         super(location);
         this.guarded = guarded;
         this.expression = expression;
         this.identifier = identifier;
+        this.cache = new AttributeInlineCache(identifier);
     }
 
     @Override
@@ -36,6 +39,13 @@ public class MemberAccessExpression extends AstNode implements Expression {
         if (guarded && Janitor.NULL == object) {
             return Janitor.NULL;
         }
+        final @Nullable ResolvedAttribute<JanitorObject> resolved = cache.lookup(object);
+        if (resolved != null) {
+            @Nullable final JanitorObject cachedAttribute = resolved.lookup(object, process);
+            if (cachedAttribute != null) {
+                return cachedAttribute;
+            }
+        }
         @Nullable final JanitorObject attribute = object.janitorGetAttribute(process, identifier, false);
         if (attribute != null) {
             return attribute;
@@ -2,14 +2,15 @@ package com.eischet.janitor.compiler.ast.statement;
 
 import com.eischet.janitor.api.Janitor;
 import com.eischet.janitor.api.JanitorScriptProcess;
-import com.eischet.janitor.api.errors.glue.JanitorControlFlowException;
 import com.eischet.janitor.api.errors.runtime.JanitorNameException;
 import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
 import com.eischet.janitor.api.scopes.Location;
 import com.eischet.janitor.api.types.JAssignable;
 import com.eischet.janitor.api.types.JanitorObject;
+import com.eischet.janitor.api.types.dispatch.ResolvedAttribute;
 import com.eischet.janitor.api.types.functions.JCallArgs;
 import com.eischet.janitor.api.types.functions.JCallable;
+import com.eischet.janitor.api.types.functions.JUnboundMethod;
 import com.eischet.janitor.compiler.ast.expression.Expression;
 import com.eischet.janitor.compiler.ast.expression.ArgumentList;
 import com.eischet.janitor.toolbox.json.api.JsonException;
@@ -25,6 +26,7 @@ public class MemberCallExpression extends Statement implements Expression {
     private final Expression expression;
     private final String identifier;
     private final ArgumentList args;
+    private final AttributeInlineCache cache;
 
     public MemberCallExpression(final Location location, final Expression expression, final String identifier, final ArgumentList args, final boolean guarded) {
         super(location);
@@ -32,11 +34,13 @@ public class MemberCallExpression extends Statement implements Expression {
         this.expression = expression;
         this.identifier = identifier;
         this.args = args;
+        this.cache = new AttributeInlineCache(identifier);
     }
 
     @Override
-    public void execute(final JanitorScriptProcess process) throws JanitorRuntimeException, JanitorControlFlowException {
+    public Completion execute(final JanitorScriptProcess process) throws JanitorRuntimeException {
         evaluate(process);
+        return Completion.NORMAL;
     }
 
     @Override
@@ -47,7 +51,19 @@ public class MemberCallExpression extends Statement implements Expression {
         if (guarded && Janitor.NULL == object) {
             return Janitor.NULL;
         }
-        @Nullable JanitorObject attribute = object.janitorGetAttribute(process, identifier, false);
+        @Nullable JanitorObject attribute = null;
+        final @Nullable ResolvedAttribute<JanitorObject> resolved = cache.lookup(object);
+        if (resolved != null) {
+            final @Nullable JUnboundMethod<JanitorObject> method = resolved.getMethod();
+            if (method != null) {
+                // plain methods are called directly, without binding them to the object first
+                return method.call(object, process, callArguments(process));
+            }
+            attribute = resolved.lookup(object, process);
+        }
+        if (attribute == null) {
+            attribute = object.janitorGetAttribute(process, identifier, false);
+        }
         if (attribute == null) {
             for (final JanitorObject inner : object.janitorUnpackAll()) {
                 @Nullable final JanitorObject subAttribute = inner.janitorGetAttribute(process, identifier, false);
@@ -66,13 +82,17 @@ public class MemberCallExpression extends Statement implements Expression {
         attribute = attribute.janitorUnpackUntil(it -> it instanceof JCallable);
 
         if (attribute instanceof JCallable callable) {
-            return callable.call(process, args == null ? JCallArgs.empty(identifier, process) : args.toCallArguments(identifier, process));
+            return callable.call(process, callArguments(process));
         }
         throw new JanitorNameException(process, "member is not callable: " + identifier +
                                                 "; on: " + object + "[" + simpleClassNameOf(object) + "] = " +
                                                  attribute + " [" + simpleClassNameOf(attribute) + "]");
     }
 
+    private JCallArgs callArguments(final JanitorScriptProcess process) throws JanitorRuntimeException {
+        return args == null ? JCallArgs.empty(identifier, process) : args.toCallArguments(identifier, process);
+    }
+
     @Override
     public void writeJson(final JsonOutputStream producer) throws JsonException {
         producer.beginObject()
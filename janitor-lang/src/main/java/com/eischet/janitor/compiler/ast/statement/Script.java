@@ -1,7 +1,6 @@
 package com.eischet.janitor.compiler.ast.statement;
 
 import com.eischet.janitor.api.JanitorScriptProcess;
-import com.eischet.janitor.api.errors.glue.JanitorControlFlowException;
 import com.eischet.janitor.api.errors.runtime.JanitorNativeException;
 import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
 import com.eischet.janitor.api.scopes.Location;
@@ -59,16 +58,19 @@ public class Script extends Statement implements JsonExportableList {
     }
 
     @Override
-    public void execute(final JanitorScriptProcess process) throws JanitorRuntimeException, JanitorControlFlowException {
-        process.trace(() -> "executing " + getStatements().size() + " statements at top level...");
+    public Completion execute(final JanitorScriptProcess process) throws JanitorRuntimeException {
         for (final Statement statement : getStatements()) {
+            final Completion completion;
             try {
-                process.trace(() -> "executing: " + statement);
-                statement.execute(process);
+                completion = statement.execute(process);
             } catch (RuntimeException runtimeException) {
                 throw new JanitorNativeException(process, runtimeException.getMessage(), runtimeException);
             }
+            if (completion.isAbrupt()) {
+                return completion;
+            }
         }
+        return Completion.NORMAL;
     }
 
     @Override
@@ -105,8 +107,9 @@ public class Script extends Statement implements JsonExportableList {
         }
 
         @Override
-        public void execute(final JanitorScriptProcess process) throws JanitorRuntimeException, JanitorControlFlowException {
+        public Completion execute(final JanitorScriptProcess process) throws JanitorRuntimeException {
             evaluate(process);
+            return Completion.NORMAL;
         }
 
         @Override
@@ -1,7 +1,6 @@
 package com.eischet.janitor.compiler.ast.statement;
 
 import com.eischet.janitor.api.JanitorScriptProcess;
-import com.eischet.janitor.api.errors.glue.JanitorControlFlowException;
 import com.eischet.janitor.api.errors.runtime.JanitorError;
 import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
 import com.eischet.janitor.api.scopes.Location;
@@ -23,9 +22,9 @@ public abstract class Statement extends AstNode implements JsonExportable {
     /**
      * Execute this statement.
      * @param process the script process
+     * @return how the statement completed; anything but {@link Completion#NORMAL} must be passed on to the caller
      * @throws JanitorRuntimeException if something goes wrong
-     * @throws JanitorControlFlowException on control flow events, which are currently implemented as exceptions
      */
-    public abstract void execute(final JanitorScriptProcess process) throws JanitorRuntimeException, JanitorControlFlowException, JanitorError;
+    public abstract Completion execute(final JanitorScriptProcess process) throws JanitorRuntimeException, JanitorError;
 
 }
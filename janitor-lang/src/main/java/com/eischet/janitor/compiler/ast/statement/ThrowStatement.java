@@ -1,7 +1,6 @@
 package com.eischet.janitor.compiler.ast.statement;
 
 import com.eischet.janitor.api.JanitorScriptProcess;
-import com.eischet.janitor.api.errors.glue.JanitorControlFlowException;
 import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
 import com.eischet.janitor.api.errors.runtime.JanitorScriptThrownException;
 import com.eischet.janitor.api.scopes.Location;
@@ -22,7 +21,7 @@ public class ThrowStatement extends Statement implements JsonExportableObject {
     }
 
     @Override
-    public void execute(final JanitorScriptProcess process) throws JanitorRuntimeException, JanitorControlFlowException {
+    public Completion execute(final JanitorScriptProcess process) throws JanitorRuntimeException {
         final JanitorObject throwable = expression.evaluate(process);
         process.countInstruction();
         if (throwable instanceof JanitorRuntimeException runtimeException) {
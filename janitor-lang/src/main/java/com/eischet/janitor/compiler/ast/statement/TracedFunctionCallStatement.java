@@ -0,0 +1,44 @@
+package com.eischet.janitor.compiler.ast.statement;
+
+import com.eischet.janitor.api.JanitorScriptProcess;
+import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
+import com.eischet.janitor.api.scopes.Location;
+import com.eischet.janitor.api.types.JanitorObject;
+import com.eischet.janitor.compiler.SlotAddress;
+import com.eischet.janitor.compiler.ast.expression.ArgumentList;
+import com.eischet.janitor.compiler.ast.expression.Expression;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Instrumented variant of a function call, which reports the call and its result to the runtime's trace listener.
+ * <p>The compiler only creates these instead of plain {@link FunctionCallStatement}s when tracing has been requested.</p>
+ */
+public class TracedFunctionCallStatement extends FunctionCallStatement {
+
+    /**
+     * Constructor.
+     * @param location where
+     * @param functionName name of the function
+     * @param functionAddress slot of the function, if the compiler resolved the name to a parameter or loop variable, or null
+     * @param onExpression preceding expression
+     * @param expressionList list of arguments
+     */
+    public TracedFunctionCallStatement(final Location location, final String functionName, final @Nullable SlotAddress functionAddress, final Expression onExpression, final ArgumentList expressionList) {
+        super(location, functionName, functionAddress, onExpression, expressionList);
+    }
+
+    @Override
+    public @NotNull JanitorObject evaluate(final JanitorScriptProcess process) throws JanitorRuntimeException {
+        process.trace(() -> "evaluating " + this);
+        try {
+            final JanitorObject result = super.evaluate(process);
+            process.trace(() -> "function call result: " + result);
+            return result;
+        } catch (JanitorRuntimeException e) {
+            process.trace(() -> "function call failed: " + e.getMessage());
+            throw e;
+        }
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.eischet.janitor.compiler.ast.statement;
+
+import com.eischet.janitor.api.JanitorScriptProcess;
+import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
+import com.eischet.janitor.toolbox.json.api.JsonException;
+import com.eischet.janitor.toolbox.json.api.JsonOutputStream;
+
+/**
+ * Instrumented variant of a statement, which reports the statement to the runtime's trace listener before executing it.
+ * <p>The compiler only wraps statements like this when tracing has been requested, so regular scripts do not spend anything
+ * on tracing at all.</p>
+ */
+public class TracedStatement extends Statement {
+
+    private final Statement statement;
+
+    /**
+     * Constructor.
+     *
+     * @param statement the statement to trace
+     */
+    public TracedStatement(final Statement statement) {
+        super(statement.getLocation());
+        this.statement = statement;
+    }
+
+    /**
+     * Get the traced statement.
+     *
+     * @return the statement
+     */
+    public Statement getStatement() {
+        return statement;
+    }
+
+    @Override
+    public Completion execute(final JanitorScriptProcess process) throws JanitorRuntimeException {
+        process.trace(() -> "executing: " + statement);
+        final Completion completion = statement.execute(process);
+        if (completion.isAbrupt()) {
+            process.trace(() -> "completed: " + statement + " with " + completion);
+        }
+        return completion;
+    }
+
+    @Override
+    public String toString() {
+        return statement.toString();
+    }
+
+    @Override
+    public boolean isList() {
+        return statement.isList();
+    }
+
+    @Override
+    public boolean isObject() {
+        return statement.isObject();
+    }
+
+    @Override
+    public boolean isValue() {
+        return statement.isValue();
+    }
+
+    @Override
+    public boolean isDefaultOrEmpty() {
+        return statement.isDefaultOrEmpty();
+    }
+
+    @Override
+    public void writeJson(final JsonOutputStream producer) throws JsonException {
+        statement.writeJson(producer);
+    }
+
+}
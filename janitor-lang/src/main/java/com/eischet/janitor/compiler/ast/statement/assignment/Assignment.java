@@ -7,9 +7,11 @@ import com.eischet.janitor.api.scopes.Location;
 import com.eischet.janitor.api.scopes.Scope;
 import com.eischet.janitor.api.types.JAssignable;
 import com.eischet.janitor.api.types.JanitorObject;
+import com.eischet.janitor.compiler.SlotAddress;
 import com.eischet.janitor.runtime.JanitorSemantics;
 import com.eischet.janitor.compiler.ast.expression.Expression;
 import com.eischet.janitor.compiler.ast.expression.Identifier;
+import com.eischet.janitor.compiler.ast.statement.Completion;
 import com.eischet.janitor.compiler.ast.statement.Statement;
 import com.eischet.janitor.toolbox.json.api.JsonException;
 import com.eischet.janitor.toolbox.json.api.JsonExportableObject;
@@ -38,21 +40,23 @@ public abstract class Assignment extends Statement implements JsonExportableObje
     }
 
     @Override
-    public void execute(final JanitorScriptProcess process) throws JanitorRuntimeException {
+    public Completion execute(final JanitorScriptProcess process) throws JanitorRuntimeException {
         process.setCurrentLocation(getLocation());
-        process.trace(() -> "executing " + this + " with left " + left + " and right " + right);
         process.countInstruction();
-        if (left instanceof Identifier) {
-            final String id = ((Identifier) left).getText();
-            process.trace(() -> "assigning to identifier " + id);
+        if (left instanceof Identifier identifier) {
+            final String id = identifier.getText();
+            final SlotAddress address = identifier.getAddress();
+            if (address != null) {
+                final Scope frame = address.frameOf(process.getCurrentScope());
+                if (frame != null && frame.getSlot(address.getSlot()) != null) {
+                    frame.bindSlot(process, address.getSlot(), produce(left, right, process).janitorUnpack());
+                    return Completion.NORMAL;
+                }
+            }
 
             // LATER: turn into :   runningScript.lookupScopedVar(id);
 
             Scope scope = process.getCurrentScope();
-
-            final JanitorObject current = scope.lookupLocally(process, id);
-            process.trace(() -> "current value of " + id + " is " + current);
-
             while (scope != null && scope.lookupLocally(process, id) == null) {
                 scope = scope.getParent();
             }
@@ -62,24 +66,16 @@ public abstract class Assignment extends Statement implements JsonExportableObje
             // gute Idee, weil die Module in mehreren Skripten parallel im Einsatz sein könnten.
             JanitorObject valueToAssign = produce(left, right, process).janitorUnpack();
             if (scope == null) {
-                process.trace(() -> "  will assign " + id + " = " + valueToAssign + " in current scope of scritp = " + process.getCurrentScope());
                 process.getCurrentScope().bind(process, id, valueToAssign);
-                return;
+                return Completion.NORMAL;
             } else {
-                final Scope finalScope = scope;
-                process.trace(() -> "  will assign " + id + " = " + valueToAssign + " in its original scope " + finalScope);
-                if (scope.getParent() == null) {
-                    process.trace(() -> "warning: trying to assign something to the top level scope!");
-                }
                 scope.bind(process, id, valueToAssign);
-                return; // FEHLTE! dadurch wurden calls doppelt gemoppelt!!!
+                return Completion.NORMAL; // FEHLTE! dadurch wurden calls doppelt gemoppelt!!!
             }
         }
 
         final JanitorObject evalLeft = left.evaluate(process); // hier NICHT auspacken, weil wir sonst nicht mehr wissen, wohin wir zuweisen sollen!
         final JanitorObject evalRight = right.evaluate(process).janitorUnpack();
-
-        process.trace(() -> "assigning " + evalRight + " to " + evalLeft);
         if (evalLeft instanceof JAssignable assignable) {
             JanitorSemantics.assign(process, assignable, evalRight);
         } else {
@@ -95,6 +91,25 @@ public abstract class Assignment extends Statement implements JsonExportableObje
 
             // throw new JanitorAssignmentException(runningScript, "cannot assign rvalue " + evalRight + " to non-lvalue " + evalLeft + " in " + getClass().getSimpleName());
         }
+        return Completion.NORMAL;
+    }
+
+    /**
+     * Get the left operand, i.e. what is assigned to.
+     *
+     * @return the left operand
+     */
+    public Expression getLeft() {
+        return left;
+    }
+
+    /**
+     * Get the right operand.
+     *
+     * @return the right operand
+     */
+    public Expression getRight() {
+        return right;
     }
 
     protected abstract JanitorObject produce(final Expression left, final Expression right, final JanitorScriptProcess process) throws JanitorRuntimeException;
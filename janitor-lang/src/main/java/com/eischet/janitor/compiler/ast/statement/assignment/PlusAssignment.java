@@ -9,6 +9,7 @@ import com.eischet.janitor.compiler.ast.expression.Expression;
 
 /**
  * Plus assignment: foo += bar.
+ * Strings are appended to lazily and string builders in place, see {@link JanitorSemantics#addAssign(JanitorScriptProcess, JanitorObject, JanitorObject)}.
  */
 public class PlusAssignment extends Assignment {
     /**
@@ -23,6 +24,6 @@ public class PlusAssignment extends Assignment {
 
     @Override
     protected JanitorObject produce(final Expression left, final Expression right, final JanitorScriptProcess process) throws JanitorRuntimeException {
-        return JanitorSemantics.add(process, left.evaluate(process), right.evaluate(process).janitorUnpack());
+        return JanitorSemantics.addAssign(process, left.evaluate(process), right.evaluate(process).janitorUnpack());
     }
 }
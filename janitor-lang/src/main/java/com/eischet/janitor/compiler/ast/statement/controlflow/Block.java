@@ -1,9 +1,9 @@
 package com.eischet.janitor.compiler.ast.statement.controlflow;
 
 import com.eischet.janitor.api.JanitorScriptProcess;
-import com.eischet.janitor.api.errors.glue.JanitorControlFlowException;
 import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
 import com.eischet.janitor.api.scopes.Location;
+import com.eischet.janitor.compiler.ast.statement.Completion;
 import com.eischet.janitor.compiler.ast.statement.Statement;
 import com.eischet.janitor.toolbox.json.api.JsonException;
 import com.eischet.janitor.toolbox.json.api.JsonExportableList;
@@ -40,17 +40,19 @@ public class Block extends Statement implements JsonExportableList {
     }
 
     @Override
-    public void execute(final JanitorScriptProcess process) throws JanitorRuntimeException, JanitorControlFlowException {
+    public Completion execute(final JanitorScriptProcess process) throws JanitorRuntimeException {
         try {
             process.setCurrentLocation(getLocation());
             if (getLocation() != null) {
                 process.enterBlock(null); // TODO: why are we passing null?!
             }
-            process.trace(() -> "executing " + getStatements().size() + " statements...");
             for (final Statement statement : getStatements()) {
-                process.trace(() -> "executing: " + statement);
-                statement.execute(process);
+                final Completion completion = statement.execute(process);
+                if (completion.isAbrupt()) {
+                    return completion;
+                }
             }
+            return Completion.NORMAL;
         } finally {
             process.exitBlock();
         }
@@ -60,13 +62,17 @@ public class Block extends Statement implements JsonExportableList {
      * Execute the block as part of a function call, which means that the caller manages variables' nesting etc.!
      *
      * @param process the current script process
+     * @return how the block completed
      * @throws JanitorRuntimeException on errors
-     * @throws JanitorControlFlowException on errors
      */
-    public void executeFunctionCall(final JanitorScriptProcess process) throws JanitorRuntimeException, JanitorControlFlowException {
+    public Completion executeFunctionCall(final JanitorScriptProcess process) throws JanitorRuntimeException {
         for (final Statement statement : getStatements()) {
-            statement.execute(process);
+            final Completion completion = statement.execute(process);
+            if (completion.isAbrupt()) {
+                return completion;
+            }
         }
+        return Completion.NORMAL;
     }
 
 
@@ -1,15 +1,13 @@
 package com.eischet.janitor.compiler.ast.statement.controlflow;
 
 import com.eischet.janitor.api.JanitorScriptProcess;
-import com.eischet.janitor.api.errors.glue.JanitorControlFlowException;
 import com.eischet.janitor.api.scopes.Location;
+import com.eischet.janitor.compiler.ast.statement.Completion;
 import com.eischet.janitor.compiler.ast.statement.Statement;
 import com.eischet.janitor.toolbox.json.api.JsonException;
 import com.eischet.janitor.toolbox.json.api.JsonExportableObject;
 import com.eischet.janitor.toolbox.json.api.JsonOutputStream;
 
-import java.io.Serial;
-
 import static com.eischet.janitor.api.util.ObjectUtilities.simpleClassNameOf;
 
 /**
@@ -17,11 +15,6 @@ import static com.eischet.janitor.api.util.ObjectUtilities.simpleClassNameOf;
  */
 public class ContinueStatement extends Statement implements JsonExportableObject {
 
-    /**
-     * The continue control flow exception, singleton instance.
-     */
-    protected static final Continue CONTINUE = new Continue();
-
     /**
      * Constructor.
      *
@@ -32,9 +25,9 @@ public class ContinueStatement extends Statement implements JsonExportableObject
     }
 
     @Override
-    public void execute(final JanitorScriptProcess process) throws Continue {
+    public Completion execute(final JanitorScriptProcess process) {
         process.setCurrentLocation(getLocation());
-        throw CONTINUE;
+        return Completion.CONTINUE;
     }
 
     @Override
@@ -44,14 +37,4 @@ public class ContinueStatement extends Statement implements JsonExportableObject
                 .endObject();
     }
 
-    /**
-     * Continue control flow exception.
-     */
-    public static class Continue extends JanitorControlFlowException {
-        @Serial
-        private static final long serialVersionUID = 1;
-        private Continue() {
-        }
-    }
-
 }
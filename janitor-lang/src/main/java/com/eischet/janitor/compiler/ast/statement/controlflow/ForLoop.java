@@ -2,16 +2,18 @@ package com.eischet.janitor.compiler.ast.statement.controlflow;
 
 import com.eischet.janitor.api.JanitorScriptProcess;
 import com.eischet.janitor.api.errors.runtime.JanitorArgumentException;
-import com.eischet.janitor.api.errors.glue.JanitorControlFlowException;
 import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
+import com.eischet.janitor.api.scopes.FrameLayout;
 import com.eischet.janitor.api.scopes.Location;
 import com.eischet.janitor.api.types.JIterable;
 import com.eischet.janitor.api.types.JanitorObject;
 import com.eischet.janitor.compiler.ast.expression.Expression;
+import com.eischet.janitor.compiler.ast.statement.Completion;
 import com.eischet.janitor.compiler.ast.statement.Statement;
 import com.eischet.janitor.toolbox.json.api.JsonException;
 import com.eischet.janitor.toolbox.json.api.JsonExportableObject;
 import com.eischet.janitor.toolbox.json.api.JsonOutputStream;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Iterator;
 
@@ -22,6 +24,7 @@ import static com.eischet.janitor.api.util.ObjectUtilities.simpleClassNameOf;
  */
 public class ForLoop extends Statement implements JsonExportableObject {
     private final String loopVar;
+    private final @Nullable FrameLayout frameLayout;
     private final Expression expression;
     private final Block block;
 
@@ -33,40 +36,82 @@ public class ForLoop extends Statement implements JsonExportableObject {
      * @param block loop body
      */
     public ForLoop(final Location location, final String loopVar, final Expression expression, final Block block) {
+        this(location, loopVar, null, expression, block);
+    }
+
+    /**
+     * Constructor.
+     * @param location where
+     * @param loopVar loop variable
+     * @param frameLayout slot layout holding the loop variable, as resolved by the compiler, or null
+     * @param expression range expression
+     * @param block loop body
+     */
+    public ForLoop(final Location location, final String loopVar, final @Nullable FrameLayout frameLayout, final Expression expression, final Block block) {
         super(location);
         this.loopVar = loopVar;
+        this.frameLayout = frameLayout;
         this.expression = expression;
         this.block = block;
     }
 
     @Override
-    public void execute(final JanitorScriptProcess process) throws JanitorRuntimeException, JanitorControlFlowException {
-        try {
-            process.setCurrentLocation(getLocation());
-            final JanitorObject range = expression.evaluate(process).janitorUnpack();
-            if (range instanceof JIterable iterableRange) {
-                final Iterator<? extends JanitorObject> iterator = iterableRange.getIterator();
-                while (iterator.hasNext()) {
-                    try {
-                        process.enterBlock(getLocation());
-                        process.countInstruction();
-                        final JanitorObject next = iterator.next().janitorUnpack();
-                        process.getCurrentScope().bind(process, loopVar, next);
-                        try {
-                            block.execute(process);
-                        } catch (ContinueStatement.Continue ignored) {
-                        }
-                    } finally {
-                        process.exitBlock();
+    public Completion execute(final JanitorScriptProcess process) throws JanitorRuntimeException {
+        return execute(process, block);
+    }
+
+    /**
+     * Execute the loop with a replacement for the loop body.
+     * This is used by compiled code, which brings its own version of the body.
+     *
+     * @param process the running script
+     * @param body the loop body
+     * @return how the loop completed
+     * @throws JanitorRuntimeException on errors
+     */
+    public Completion execute(final JanitorScriptProcess process, final Statement body) throws JanitorRuntimeException {
+        process.setCurrentLocation(getLocation());
+        final JanitorObject range = expression.evaluate(process).janitorUnpack();
+        if (range instanceof JIterable iterableRange) {
+            final Iterator<? extends JanitorObject> iterator = iterableRange.getIterator();
+            while (iterator.hasNext()) {
+                try {
+                    enterIteration(process);
+                    process.countInstruction();
+                    final JanitorObject next = iterator.next().janitorUnpack();
+                    process.getCurrentScope().bindDeclared(process, frameLayout, 0, loopVar, next);
+                    final Completion completion = body.execute(process);
+                    if (completion.getKind() == Completion.Kind.BREAK) {
+                        break;
+                    } else if (completion.isReturn()) {
+                        return completion;
                     }
+                } finally {
+                    process.exitBlock();
                 }
-            } else {
-                throw new JanitorArgumentException(process, "invalid range: " + range + "is not iterable");
             }
-        } catch (BreakStatement.Break ignored) {
+        } else {
+            throw new JanitorArgumentException(process, "invalid range: " + range + "is not iterable");
+        }
+        return Completion.NORMAL;
+    }
+
+    private void enterIteration(final JanitorScriptProcess process) {
+        if (frameLayout != null) {
+            process.enterFrame(getLocation(), frameLayout);
+        } else {
+            process.enterBlock(getLocation());
         }
     }
 
+    /**
+     * Get the loop body.
+     * @return the loop body
+     */
+    public Block getBlock() {
+        return block;
+    }
+
     @Override
     public void writeJson(JsonOutputStream producer) throws JsonException {
         producer.beginObject()
@@ -3,16 +3,18 @@ package com.eischet.janitor.compiler.ast.statement.controlflow;
 import com.eischet.janitor.api.Janitor;
 import com.eischet.janitor.api.JanitorScriptProcess;
 import com.eischet.janitor.api.errors.runtime.JanitorArgumentException;
-import com.eischet.janitor.api.errors.glue.JanitorControlFlowException;
 import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
+import com.eischet.janitor.api.scopes.FrameLayout;
 import com.eischet.janitor.api.scopes.Location;
 import com.eischet.janitor.api.types.builtin.JInt;
 import com.eischet.janitor.api.types.JanitorObject;
 import com.eischet.janitor.compiler.ast.expression.Expression;
+import com.eischet.janitor.compiler.ast.statement.Completion;
 import com.eischet.janitor.compiler.ast.statement.Statement;
 import com.eischet.janitor.toolbox.json.api.JsonException;
 import com.eischet.janitor.toolbox.json.api.JsonExportableObject;
 import com.eischet.janitor.toolbox.json.api.JsonOutputStream;
+import org.jetbrains.annotations.Nullable;
 
 import static com.eischet.janitor.api.util.ObjectUtilities.simpleClassNameOf;
 
@@ -21,6 +23,7 @@ import static com.eischet.janitor.api.util.ObjectUtilities.simpleClassNameOf;
  */
 public class ForRangeLoop extends Statement implements JsonExportableObject {
     private final String loopVar;
+    private final @Nullable FrameLayout frameLayout;
     private final Block block;
     private final Expression from;
     private final Expression to;
@@ -39,39 +42,87 @@ public class ForRangeLoop extends Statement implements JsonExportableObject {
                         final Expression from,
                         final Expression to,
                         final Block block) {
+        this(location, loopVar, null, from, to, block);
+    }
+
+    /**
+     * Constructor.
+     * @param location where
+     * @param loopVar loop variable
+     * @param frameLayout slot layout holding the loop variable, as resolved by the compiler, or null
+     * @param from start of the range
+     * @param to end of the range
+     * @param block loop body
+     */
+    public ForRangeLoop(final Location location,
+                        final String loopVar,
+                        final @Nullable FrameLayout frameLayout,
+                        final Expression from,
+                        final Expression to,
+                        final Block block) {
         super(location);
         this.loopVar = loopVar;
+        this.frameLayout = frameLayout;
         this.from = from;
         this.to = to;
         this.block = block;
     }
 
     @Override
-    public void execute(final JanitorScriptProcess process) throws JanitorRuntimeException, JanitorControlFlowException {
-        try {
-            process.setCurrentLocation(getLocation());
-            final JanitorObject start = from.evaluate(process).janitorUnpack();
-            final JanitorObject end = to.evaluate(process).janitorUnpack();
-            if (start instanceof JInt startInt && end instanceof JInt endInt) {
-                final long endIntValue = endInt.getValue();
-                for (long i = startInt.getValue(); i <= endIntValue; i++) {
-                    try {
-                        process.enterBlock(getLocation());
-                        process.countInstruction();
-                        process.getCurrentScope().bind(process, loopVar, Janitor.integer(i));
-                        try {
-                            block.execute(process);
-                        } catch (ContinueStatement.Continue ignored) {
-                        }
-                    } finally {
-                        process.exitBlock();
+    public Completion execute(final JanitorScriptProcess process) throws JanitorRuntimeException {
+        return execute(process, block);
+    }
+
+    /**
+     * Execute the loop with a replacement for the loop body.
+     * This is used by compiled code, which brings its own version of the body.
+     *
+     * @param process the running script
+     * @param body the loop body
+     * @return how the loop completed
+     * @throws JanitorRuntimeException on errors
+     */
+    public Completion execute(final JanitorScriptProcess process, final Statement body) throws JanitorRuntimeException {
+        process.setCurrentLocation(getLocation());
+        final JanitorObject start = from.evaluate(process).janitorUnpack();
+        final JanitorObject end = to.evaluate(process).janitorUnpack();
+        if (start instanceof JInt startInt && end instanceof JInt endInt) {
+            final long endIntValue = endInt.getValue();
+            for (long i = startInt.getValue(); i <= endIntValue; i++) {
+                try {
+                    enterIteration(process);
+                    process.countInstruction();
+                    process.getCurrentScope().bindDeclared(process, frameLayout, 0, loopVar, Janitor.integer(i));
+                    final Completion completion = body.execute(process);
+                    if (completion.getKind() == Completion.Kind.BREAK) {
+                        break;
+                    } else if (completion.isReturn()) {
+                        return completion;
                     }
+                } finally {
+                    process.exitBlock();
                 }
-            } else {
-                throw new JanitorArgumentException(process, "invalid range: from " + start + " to " + end + ", expecting integer values for the range!");
             }
-        } catch (BreakStatement.Break ignored) {
+        } else {
+            throw new JanitorArgumentException(process, "invalid range: from " + start + " to " + end + ", expecting integer values for the range!");
         }
+        return Completion.NORMAL;
+    }
+
+    private void enterIteration(final JanitorScriptProcess process) {
+        if (frameLayout != null) {
+            process.enterFrame(getLocation(), frameLayout);
+        } else {
+            process.enterBlock(getLocation());
+        }
+    }
+
+    /**
+     * Get the loop body.
+     * @return the loop body
+     */
+    public Block getBlock() {
+        return block;
     }
 
     @Override
@@ -1,12 +1,12 @@
 package com.eischet.janitor.compiler.ast.statement.controlflow;
 
 import com.eischet.janitor.api.JanitorScriptProcess;
-import com.eischet.janitor.api.errors.glue.JanitorControlFlowException;
 import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
 import com.eischet.janitor.api.scopes.Location;
 import com.eischet.janitor.api.types.JanitorObject;
 import com.eischet.janitor.runtime.JanitorSemantics;
 import com.eischet.janitor.compiler.ast.expression.Expression;
+import com.eischet.janitor.compiler.ast.statement.Completion;
 import com.eischet.janitor.compiler.ast.statement.Statement;
 import com.eischet.janitor.toolbox.json.api.JsonException;
 import com.eischet.janitor.toolbox.json.api.JsonExportableObject;
@@ -37,17 +37,42 @@ public class IfStatement extends Statement implements JsonExportableObject {
     }
 
     @Override
-    public void execute(final JanitorScriptProcess process) throws JanitorRuntimeException, JanitorControlFlowException {
+    public Completion execute(final JanitorScriptProcess process) throws JanitorRuntimeException {
         process.setCurrentLocation(getLocation());
         final JanitorObject conditionValue = condition.evaluate(process);
         if (conditionValue == null) {
             process.trace(() -> "if condition evaluated to null: " + condition);
         }
         if (JanitorSemantics.isTruthy(conditionValue.janitorUnpack())) {
-            block.execute(process);
+            return block.execute(process);
         } else if (elseBlock != null) {
-            elseBlock.execute(process);
+            return elseBlock.execute(process);
         }
+        return Completion.NORMAL;
+    }
+
+    /**
+     * Get the condition.
+     * @return the condition
+     */
+    public Expression getCondition() {
+        return condition;
+    }
+
+    /**
+     * Get the then-block.
+     * @return the then-block
+     */
+    public Block getBlock() {
+        return block;
+    }
+
+    /**
+     * Get the else-block.
+     * @return the else-block, or null
+     */
+    public Block getElseBlock() {
+        return elseBlock;
     }
 
     @Override
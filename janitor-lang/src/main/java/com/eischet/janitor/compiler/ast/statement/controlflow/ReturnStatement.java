@@ -1,19 +1,16 @@
 package com.eischet.janitor.compiler.ast.statement.controlflow;
 
 import com.eischet.janitor.api.JanitorScriptProcess;
-import com.eischet.janitor.api.errors.glue.JanitorControlFlowException;
 import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
 import com.eischet.janitor.api.scopes.Location;
-import com.eischet.janitor.api.types.builtin.JNull;
 import com.eischet.janitor.api.types.JanitorObject;
 import com.eischet.janitor.compiler.ast.expression.Expression;
+import com.eischet.janitor.compiler.ast.statement.Completion;
 import com.eischet.janitor.compiler.ast.statement.Statement;
 import com.eischet.janitor.toolbox.json.api.JsonException;
 import com.eischet.janitor.toolbox.json.api.JsonExportableObject;
 import com.eischet.janitor.toolbox.json.api.JsonOutputStream;
 
-import java.io.Serial;
-
 import static com.eischet.janitor.api.util.ObjectUtilities.simpleClassNameOf;
 
 /**
@@ -21,28 +18,6 @@ import static com.eischet.janitor.api.util.ObjectUtilities.simpleClassNameOf;
  */
 public class ReturnStatement extends Statement implements JsonExportableObject {
 
-    /**
-     * Return control flow exception.
-     */
-    public static class Return extends JanitorControlFlowException {
-        @Serial
-        private static final long serialVersionUID = 1;
-        private final JanitorObject value;
-
-        public Return(final JanitorObject value) {
-            this.value = value;
-        }
-
-        public JanitorObject getValue() {
-            return value.janitorUnpack();
-        }
-    }
-
-    /**
-     * Return control flow exception, singleton instance for returning nothing ("void" does not exist, so we return NULL).
-     */
-    protected static final Return RETURN_NOTHING = new Return(JNull.NULL);
-
     private final Expression expression;
 
     /**
@@ -56,18 +31,24 @@ public class ReturnStatement extends Statement implements JsonExportableObject {
     }
 
     @Override
-    public void execute(final JanitorScriptProcess process) throws JanitorRuntimeException, Return {
+    public Completion execute(final JanitorScriptProcess process) throws JanitorRuntimeException {
         process.setCurrentLocation(getLocation());
         process.countInstruction();
         if (expression != null) {
-            final JanitorObject returnValue = expression.evaluate(process).janitorUnpack();
-            process.trace(() -> "return value: " + returnValue);
-            throw new Return(returnValue);
+            return Completion.returning(expression.evaluate(process).janitorUnpack());
         } else {
-            throw RETURN_NOTHING;
+            return Completion.RETURN_NOTHING;
         }
     }
 
+    /**
+     * Get the returned expression.
+     * @return the expression, or null for a plain "return;"
+     */
+    public Expression getExpression() {
+        return expression;
+    }
+
     @Override
     public void writeJson(JsonOutputStream producer) throws JsonException {
         producer.beginObject()
@@ -1,14 +1,16 @@
 package com.eischet.janitor.compiler.ast.statement.controlflow;
 
 import com.eischet.janitor.api.JanitorScriptProcess;
-import com.eischet.janitor.api.errors.glue.JanitorControlFlowException;
 import com.eischet.janitor.api.errors.runtime.JanitorNativeException;
 import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
+import com.eischet.janitor.api.scopes.FrameLayout;
 import com.eischet.janitor.api.scopes.Location;
+import com.eischet.janitor.compiler.ast.statement.Completion;
 import com.eischet.janitor.compiler.ast.statement.Statement;
 import com.eischet.janitor.toolbox.json.api.JsonException;
 import com.eischet.janitor.toolbox.json.api.JsonExportableObject;
 import com.eischet.janitor.toolbox.json.api.JsonOutputStream;
+import org.jetbrains.annotations.Nullable;
 
 import static com.eischet.janitor.api.util.ObjectUtilities.simpleClassNameOf;
 
@@ -20,6 +22,7 @@ public class TryCatchFinally extends Statement implements JsonExportableObject {
 
     private final Block tryBlock;
     private final String catchBind;
+    private final @Nullable FrameLayout catchFrameLayout;
     private final Block catchBlock;
     private final Block finallyBlock;
 
@@ -32,52 +35,83 @@ public class TryCatchFinally extends Statement implements JsonExportableObject {
      * @param finallyBlock finally block
      */
     public TryCatchFinally(final Location location, final Block tryBlock, final String catchBind, final Block catchBlock, final Block finallyBlock) {
+        this(location, tryBlock, catchBind, null, catchBlock, finallyBlock);
+    }
+
+    /**
+     * Constructor.
+     * @param location where
+     * @param tryBlock try block
+     * @param catchBind catch block binding "(e)"
+     * @param catchFrameLayout slot layout holding the catch binding, as resolved by the compiler, or null
+     * @param catchBlock catch block
+     * @param finallyBlock finally block
+     */
+    public TryCatchFinally(final Location location, final Block tryBlock, final String catchBind, final @Nullable FrameLayout catchFrameLayout, final Block catchBlock, final Block finallyBlock) {
         super(location);
         this.tryBlock = tryBlock;
         this.catchBind = catchBind;
+        this.catchFrameLayout = catchFrameLayout;
         this.catchBlock = catchBlock;
         this.finallyBlock = finallyBlock;
     }
 
     @Override
-    public void execute(final JanitorScriptProcess process) throws JanitorRuntimeException, JanitorControlFlowException {
+    public Completion execute(final JanitorScriptProcess process) throws JanitorRuntimeException {
         if (catchBlock != null) {
+            Completion completion;
             try {
                 try {
-                    tryBlock.execute(process);
+                    completion = tryBlock.execute(process);
                 } catch (RuntimeException runtimeException) {
                     throw new JanitorNativeException(process, runtimeException.getMessage(), runtimeException);
                 }
             } catch (JanitorRuntimeException e) {
                 try {
-                    process.enterBlock(null);
-                    process.getCurrentScope().bind(process, catchBind, e);
-                    catchBlock.execute(process);
+                    if (catchFrameLayout != null) {
+                        process.enterFrame(null, catchFrameLayout);
+                    } else {
+                        process.enterBlock(null);
+                    }
+                    process.getCurrentScope().bindDeclared(process, catchFrameLayout, 0, catchBind, e);
+                    completion = catchBlock.execute(process);
                 } finally {
                     process.exitBlock();
                 }
             }
             if (finallyBlock != null) {
-                finallyBlock.execute(process);
+                return afterFinally(completion, finallyBlock.execute(process));
             }
+            return completion;
         } else {
             JanitorRuntimeException error = null;
+            Completion completion = Completion.NORMAL;
             try {
                 try {
-                    tryBlock.execute(process);
+                    completion = tryBlock.execute(process);
                 } catch (RuntimeException runtimeException) {
                     throw new JanitorNativeException(process, runtimeException.getMessage(), runtimeException);
                 }
             } catch (JanitorRuntimeException e) {
                 error = e;
             }
-            finallyBlock.execute(process);
+            final Completion finallyCompletion = finallyBlock.execute(process);
             if (error != null) {
                 throw error;
             }
+            return afterFinally(completion, finallyCompletion);
         }
     }
 
+    /**
+     * A return, break or continue in the finally block overrides whatever happened before it, just like in Java.
+     * @param completion how the try or catch block completed
+     * @param finallyCompletion how the finally block completed
+     * @return the completion of the whole statement
+     */
+    private static Completion afterFinally(final Completion completion, final Completion finallyCompletion) {
+        return finallyCompletion.isAbrupt() ? finallyCompletion : completion;
+    }
 
     @Override
     public void writeJson(JsonOutputStream producer) throws JsonException {
@@ -1,11 +1,11 @@
 package com.eischet.janitor.compiler.ast.statement.controlflow;
 
 import com.eischet.janitor.api.JanitorScriptProcess;
-import com.eischet.janitor.api.errors.glue.JanitorControlFlowException;
 import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
 import com.eischet.janitor.api.scopes.Location;
 import com.eischet.janitor.runtime.JanitorSemantics;
 import com.eischet.janitor.compiler.ast.expression.Expression;
+import com.eischet.janitor.compiler.ast.statement.Completion;
 import com.eischet.janitor.compiler.ast.statement.Statement;
 import com.eischet.janitor.toolbox.json.api.JsonException;
 import com.eischet.janitor.toolbox.json.api.JsonExportableObject;
@@ -33,18 +33,34 @@ public class WhileLoop extends Statement implements JsonExportableObject {
     }
 
     @Override
-    public void execute(final JanitorScriptProcess process) throws JanitorRuntimeException, JanitorControlFlowException {
-        try {
-            process.setCurrentLocation(getLocation());
-            while (JanitorSemantics.isTruthy(expression.evaluate(process).janitorUnpack())) {
-                try {
-                    process.countInstruction();
-                    block.execute(process);
-                } catch (ContinueStatement.Continue ignored) {
-                }
+    public Completion execute(final JanitorScriptProcess process) throws JanitorRuntimeException {
+        process.setCurrentLocation(getLocation());
+        while (JanitorSemantics.isTruthy(expression.evaluate(process).janitorUnpack())) {
+            process.countInstruction();
+            final Completion completion = block.execute(process);
+            if (completion.getKind() == Completion.Kind.BREAK) {
+                break;
+            } else if (completion.isReturn()) {
+                return completion;
             }
-        } catch (BreakStatement.Break ignored) {
         }
+        return Completion.NORMAL;
+    }
+
+    /**
+     * Get the loop condition.
+     * @return the condition
+     */
+    public Expression getExpression() {
+        return expression;
+    }
+
+    /**
+     * Get the loop body.
+     * @return the loop body
+     */
+    public Block getBlock() {
+        return block;
     }
 
     @Override
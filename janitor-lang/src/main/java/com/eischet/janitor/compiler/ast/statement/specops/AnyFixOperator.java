@@ -2,13 +2,13 @@ package com.eischet.janitor.compiler.ast.statement.specops;
 
 import com.eischet.janitor.api.JanitorScriptProcess;
 import com.eischet.janitor.api.errors.runtime.JanitorArgumentException;
-import com.eischet.janitor.api.errors.glue.JanitorControlFlowException;
 import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
 import com.eischet.janitor.api.scopes.Location;
 import com.eischet.janitor.api.scopes.ResultAndScope;
 import com.eischet.janitor.api.types.JanitorObject;
 import com.eischet.janitor.compiler.ast.expression.Expression;
 import com.eischet.janitor.compiler.ast.expression.Identifier;
+import com.eischet.janitor.compiler.ast.statement.Completion;
 import com.eischet.janitor.compiler.ast.statement.Statement;
 import com.eischet.janitor.toolbox.json.api.JsonException;
 import com.eischet.janitor.toolbox.json.api.JsonExportableObject;
@@ -40,11 +40,10 @@ public abstract class AnyFixOperator extends Statement implements Expression, Js
     @Override
     public @NotNull JanitorObject evaluate(final JanitorScriptProcess process) throws JanitorRuntimeException {
         process.setCurrentLocation(getLocation());
-        process.trace(() -> this + " : expr=" + expr);
-        if (expr instanceof Identifier) {
+        if (expr instanceof Identifier identifier) {
             process.countInstruction();
-            final String id = ((Identifier) expr).getText();
-            final ResultAndScope scoped = process.lookupScopedVar(id);
+            final String id = identifier.getText();
+            final ResultAndScope scoped = identifier.lookupScoped(process);
             if (scoped == null) {
                 throw new JanitorArgumentException(process, "variable not bound: {}. cannot apply " + this + " to it.");
             }
@@ -78,9 +77,10 @@ public abstract class AnyFixOperator extends Statement implements Expression, Js
     protected abstract JanitorObject operate(final JanitorScriptProcess process, final JanitorObject currentValue) throws JanitorRuntimeException;
 
     @Override
-    public void execute(final JanitorScriptProcess process) throws JanitorRuntimeException, JanitorControlFlowException {
+    public Completion execute(final JanitorScriptProcess process) throws JanitorRuntimeException {
         process.setCurrentLocation(getLocation());
         evaluate(process); // just pass it on
+        return Completion.NORMAL;
     }
 
     @Override
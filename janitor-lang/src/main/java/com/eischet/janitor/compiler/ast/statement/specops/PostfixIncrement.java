@@ -2,7 +2,6 @@ package com.eischet.janitor.compiler.ast.statement.specops;
 
 import com.eischet.janitor.api.JanitorScriptProcess;
 import com.eischet.janitor.api.errors.runtime.JanitorArgumentException;
-import com.eischet.janitor.api.errors.glue.JanitorControlFlowException;
 import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
 import com.eischet.janitor.api.scopes.Location;
 import com.eischet.janitor.api.scopes.ResultAndScope;
@@ -10,6 +9,7 @@ import com.eischet.janitor.api.types.JanitorObject;
 import com.eischet.janitor.runtime.JanitorSemantics;
 import com.eischet.janitor.compiler.ast.expression.Expression;
 import com.eischet.janitor.compiler.ast.expression.Identifier;
+import com.eischet.janitor.compiler.ast.statement.Completion;
 import com.eischet.janitor.compiler.ast.statement.Statement;
 import com.eischet.janitor.toolbox.json.api.JsonException;
 import com.eischet.janitor.toolbox.json.api.JsonExportableObject;
@@ -38,11 +38,10 @@ public class PostfixIncrement extends Statement implements Expression, JsonExpor
     @Override
     public @NotNull JanitorObject evaluate(final JanitorScriptProcess process) throws JanitorRuntimeException {
         process.setCurrentLocation(getLocation());
-        process.trace(() -> "postfix increment: expr=" + expr);
         process.countInstruction();
-        if (expr instanceof Identifier) {
-            final String id = ((Identifier) expr).getText();
-            final ResultAndScope scoped = process.lookupScopedVar(id);
+        if (expr instanceof Identifier identifier) {
+            final String id = identifier.getText();
+            final ResultAndScope scoped = identifier.lookupScoped(process);
             if (scoped == null) {
                 throw new JanitorArgumentException(process, "variable not bound: '" + id + "'. cannot apply postfix++ to it.");
             }
@@ -56,8 +55,9 @@ public class PostfixIncrement extends Statement implements Expression, JsonExpor
     }
 
     @Override
-    public void execute(final JanitorScriptProcess process) throws JanitorRuntimeException, JanitorControlFlowException {
+    public Completion execute(final JanitorScriptProcess process) throws JanitorRuntimeException {
         evaluate(process); // just pass it on
+        return Completion.NORMAL;
     }
 
     @Override
@@ -0,0 +1,599 @@
+package com.eischet.janitor.compiler.bytecode;
+
+import com.eischet.janitor.api.Janitor;
+import com.eischet.janitor.api.JanitorScriptProcess;
+import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
+import com.eischet.janitor.api.scopes.Location;
+import com.eischet.janitor.api.types.JanitorObject;
+import com.eischet.janitor.api.types.builtin.JBool;
+import com.eischet.janitor.api.types.builtin.JNull;
+import com.eischet.janitor.compiler.ast.expression.Expression;
+import com.eischet.janitor.compiler.ast.expression.binary.BinaryOperation;
+import com.eischet.janitor.compiler.ast.expression.binary.LogicAnd;
+import com.eischet.janitor.compiler.ast.expression.literal.BooleanLiteral;
+import com.eischet.janitor.compiler.ast.expression.literal.FloatLiteral;
+import com.eischet.janitor.compiler.ast.expression.literal.IntegerLiteral;
+import com.eischet.janitor.compiler.ast.expression.literal.NullLiteral;
+import com.eischet.janitor.compiler.ast.expression.literal.StringLiteral;
+import com.eischet.janitor.compiler.ast.expression.ternary.IfThenElse;
+import com.eischet.janitor.compiler.ast.expression.unary.UnaryOperation;
+import com.eischet.janitor.compiler.ast.function.ScriptFunction;
+import com.eischet.janitor.compiler.ast.statement.Completion;
+import com.eischet.janitor.compiler.ast.statement.ExpressionStatement;
+import com.eischet.janitor.compiler.ast.statement.Script;
+import com.eischet.janitor.compiler.ast.statement.Statement;
+import com.eischet.janitor.compiler.ast.statement.assignment.RegularAssignment;
+import com.eischet.janitor.compiler.ast.statement.controlflow.Block;
+import com.eischet.janitor.compiler.ast.statement.controlflow.ForLoop;
+import com.eischet.janitor.compiler.ast.statement.controlflow.ForRangeLoop;
+import com.eischet.janitor.compiler.ast.statement.controlflow.IfStatement;
+import com.eischet.janitor.compiler.ast.statement.controlflow.ReturnStatement;
+import com.eischet.janitor.compiler.ast.statement.controlflow.WhileLoop;
+import com.eischet.janitor.logging.JanitorLogger;
+import com.eischet.janitor.runtime.JanitorSemantics;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Translates a script into JVM bytecode.
+ * <p>Each script becomes a hidden class implementing {@link CompiledCode}. Control flow (blocks, if, while), literals,
+ * and unary, binary and ternary operators are translated into bytecode that calls {@link JanitorSemantics} and the
+ * AST nodes' own helpers directly, so the operators behave exactly like in the interpreter.
+ * Everything else (variable lookups, assignments, calls, try/catch...) is left to the
+ * interpreter: the compiled code keeps a reference to the AST node and calls its evaluate or execute method.
+ * For loops run in the interpreter, but with their body compiled. Function declarations and lambdas that appear in
+ * compiled code get compiled bodies, too; lambdas nested inside interpreted expressions, e.g. call arguments, do not.</p>
+ * <p>Anything that goes wrong during compilation, including a missing ASM library, makes
+ * {@link #compileOrInterpret(Script)} fall back to the interpreter for the whole script, with a warning.</p>
+ */
+public final class BytecodeCompiler {
+
+    private static final JanitorLogger log = JanitorLogger.getLogger(BytecodeCompiler.class);
+
+    private static final String GENERATED_CLASS = Type.getInternalName(BytecodeCompiler.class) + "$Generated";
+    private static final String CONSTANTS = "constants";
+    private static final String CONSTANTS_DESCRIPTOR = Type.getDescriptor(Object[].class);
+    private static final String EXECUTE_DESCRIPTOR = Type.getMethodDescriptor(Type.getType(Completion.class), Type.getType(JanitorScriptProcess.class));
+
+    private static final MethodRef SET_CURRENT_LOCATION = MethodRef.of(JanitorScriptProcess.class, "setCurrentLocation", Location.class);
+    private static final MethodRef COUNT_INSTRUCTION = MethodRef.of(JanitorScriptProcess.class, "countInstruction");
+    private static final MethodRef SET_SCRIPT_RESULT = MethodRef.of(JanitorScriptProcess.class, "setScriptResult", JanitorObject.class);
+    private static final MethodRef ENTER_BLOCK = MethodRef.of(JanitorScriptProcess.class, "enterBlock", Location.class);
+    private static final MethodRef EXIT_BLOCK = MethodRef.of(JanitorScriptProcess.class, "exitBlock");
+    private static final MethodRef UNPACK = MethodRef.of(JanitorObject.class, "janitorUnpack");
+    private static final MethodRef IS_TRUTHY = MethodRef.of(JanitorSemantics.class, "isTruthy", JanitorObject.class);
+    private static final MethodRef TO_BOOL = MethodRef.of(Janitor.class, "toBool", boolean.class);
+    private static final MethodRef EVALUATE = MethodRef.of(Expression.class, "evaluate", JanitorScriptProcess.class);
+    private static final MethodRef EXECUTE = MethodRef.of(Statement.class, "execute", JanitorScriptProcess.class);
+    private static final MethodRef EXECUTE_FOR_LOOP = MethodRef.of(ForLoop.class, "execute", JanitorScriptProcess.class, Statement.class);
+    private static final MethodRef EXECUTE_FOR_RANGE_LOOP = MethodRef.of(ForRangeLoop.class, "execute", JanitorScriptProcess.class, Statement.class);
+    private static final MethodRef APPLY_BINARY = MethodRef.of(BinaryOperation.class, "apply", JanitorScriptProcess.class, JanitorObject.class, JanitorObject.class);
+    private static final MethodRef APPLY_UNARY = MethodRef.of(UnaryOperation.class, "apply", JanitorScriptProcess.class, JanitorObject.class);
+    private static final MethodRef IS_ABRUPT = MethodRef.of(Completion.class, "isAbrupt");
+    private static final MethodRef IS_RETURN = MethodRef.of(Completion.class, "isReturn");
+    private static final MethodRef GET_KIND = MethodRef.of(Completion.class, "getKind");
+    private static final MethodRef RETURNING = MethodRef.of(Completion.class, "returning", JanitorObject.class);
+    private static final FieldRef NORMAL = FieldRef.of(Completion.class, "NORMAL");
+    private static final FieldRef RETURN_NOTHING = FieldRef.of(Completion.class, "RETURN_NOTHING");
+    private static final FieldRef BREAK = FieldRef.of(Completion.Kind.class, "BREAK");
+    private static final FieldRef FALSE = FieldRef.of(JBool.class, "FALSE");
+    private static final FieldRef NULL = FieldRef.of(JNull.class, "NULL");
+
+    private static final int THIS = 0;
+    private static final int PROCESS = 1;
+
+    private final ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS) {
+        @Override
+        protected ClassLoader getClassLoader() {
+            return BytecodeCompiler.class.getClassLoader();
+        }
+    };
+    private final List<Object> constants = new ArrayList<>();
+    private final Map<Object, Integer> constantIndexes = new IdentityHashMap<>();
+    private final List<BlockEntry> blocks = new ArrayList<>();
+
+    private BytecodeCompiler() {
+    }
+
+    /**
+     * Compile a script to bytecode, or return it unchanged if that's not possible.
+     *
+     * @param script the script
+     * @return a compiled script, or the original script
+     */
+    public static @NotNull Script compileOrInterpret(final @NotNull Script script) {
+        try {
+            return compile(script);
+        } catch (RuntimeException | LinkageError e) {
+            log.warn("cannot compile script to bytecode, using the interpreter: {}", e.toString());
+            return script;
+        }
+    }
+
+    /**
+     * Compile a script to bytecode.
+     *
+     * @param script the script
+     * @return the compiled script
+     * @throws IllegalStateException when the generated class cannot be loaded
+     */
+    public static @NotNull CompiledScript compile(final @NotNull Script script) {
+        final BytecodeCompiler compiler = new BytecodeCompiler();
+        final byte[] bytes = compiler.generate(script);
+        final Object[] constants = compiler.constants.toArray();
+        final CompiledCode code;
+        try {
+            final Class<?> generated = MethodHandles.lookup().defineHiddenClass(bytes, true).lookupClass();
+            code = (CompiledCode) generated.getConstructor(Object[].class).newInstance((Object) constants);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("cannot load compiled script", e);
+        }
+        // The block placeholders can only be replaced now that we have the code instance.
+        // This is fine because the constants array is shared with the instance, and no code has run yet.
+        for (int i = 0; i < constants.length; i++) {
+            if (constants[i] instanceof PendingBlock pending) {
+                constants[i] = new CompiledBlock(code, pending.index(), pending.block());
+            } else if (constants[i] instanceof PendingFunction pending) {
+                final ScriptFunction function = pending.function().withBody(new CompiledBlock(code, pending.index(), pending.function().getBlock()));
+                constants[i] = pending.declaration() == null ? function
+                        : new RegularAssignment(pending.declaration().getLocation(), pending.declaration().getLeft(), function);
+            }
+        }
+        return new CompiledScript(script, code);
+    }
+
+    private byte[] generate(final Script script) {
+        writer.visit(V21, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, GENERATED_CLASS, null, Type.getInternalName(Object.class),
+                new String[]{Type.getInternalName(CompiledCode.class)});
+        writer.visitField(ACC_PRIVATE | ACC_FINAL, CONSTANTS, CONSTANTS_DESCRIPTOR, null, null).visitEnd();
+        generateConstructor();
+
+        final MethodVisitor execute = writer.visitMethod(ACC_PUBLIC, "execute", EXECUTE_DESCRIPTOR, null, null);
+        execute.visitCode();
+        new MethodCompiler(execute).statementsAndReturn(script.getStatements());
+        execute.visitMaxs(0, 0);
+        execute.visitEnd();
+
+        // compiling a block may discover further nested blocks, so the list grows while we're iterating it
+        for (int index = 0; index < blocks.size(); index++) {
+            generateBlock(index, blocks.get(index));
+        }
+        generateExecuteBlock();
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private void generateConstructor() {
+        final MethodVisitor mv = writer.visitMethod(ACC_PUBLIC, "<init>", Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(Object[].class)), null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, THIS);
+        mv.visitMethodInsn(INVOKESPECIAL, Type.getInternalName(Object.class), "<init>", "()V", false);
+        mv.visitVarInsn(ALOAD, THIS);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitFieldInsn(PUTFIELD, GENERATED_CLASS, CONSTANTS, CONSTANTS_DESCRIPTOR);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    /**
+     * Generate the two methods for a block: the body, and a wrapper that enters and leaves the block's scope like
+     * {@link Block#execute(JanitorScriptProcess)} does.
+     * Function bodies only get the body, because {@link ScriptFunction} sets up the function's scope itself.
+     */
+    private void generateBlock(final int index, final BlockEntry entry) {
+        final Block block = entry.block();
+        final MethodVisitor body = writer.visitMethod(ACC_PRIVATE, blockBodyName(index), EXECUTE_DESCRIPTOR, null, null);
+        body.visitCode();
+        new MethodCompiler(body).statementsAndReturn(block.getStatements());
+        body.visitMaxs(0, 0);
+        body.visitEnd();
+        if (entry.functionBody()) {
+            return;
+        }
+
+        final MethodVisitor mv = writer.visitMethod(ACC_PRIVATE, blockName(index), EXECUTE_DESCRIPTOR, null, null);
+        mv.visitCode();
+        final MethodCompiler wrapper = new MethodCompiler(mv);
+        wrapper.setCurrentLocation(block.getLocation());
+        if (block.getLocation() != null) {
+            mv.visitVarInsn(ALOAD, PROCESS);
+            mv.visitInsn(ACONST_NULL);
+            ENTER_BLOCK.invoke(mv);
+        }
+        final Label start = new Label();
+        final Label end = new Label();
+        final Label handler = new Label();
+        mv.visitTryCatchBlock(start, end, handler, null);
+        mv.visitLabel(start);
+        mv.visitVarInsn(ALOAD, THIS);
+        mv.visitVarInsn(ALOAD, PROCESS);
+        mv.visitMethodInsn(INVOKEVIRTUAL, GENERATED_CLASS, blockBodyName(index), EXECUTE_DESCRIPTOR, false);
+        mv.visitLabel(end);
+        mv.visitVarInsn(ASTORE, 2);
+        mv.visitVarInsn(ALOAD, PROCESS);
+        EXIT_BLOCK.invoke(mv);
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitInsn(ARETURN);
+        mv.visitLabel(handler);
+        mv.visitVarInsn(ASTORE, 2);
+        mv.visitVarInsn(ALOAD, PROCESS);
+        EXIT_BLOCK.invoke(mv);
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitInsn(ATHROW);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private void generateExecuteBlock() {
+        final MethodVisitor mv = writer.visitMethod(ACC_PUBLIC, "executeBlock",
+                Type.getMethodDescriptor(Type.getType(Completion.class), Type.INT_TYPE, Type.getType(JanitorScriptProcess.class)), null, null);
+        mv.visitCode();
+        final Label fail = new Label();
+        if (!blocks.isEmpty()) {
+            final Label[] labels = new Label[blocks.size()];
+            for (int i = 0; i < labels.length; i++) {
+                labels[i] = new Label();
+            }
+            mv.visitVarInsn(ILOAD, 1);
+            mv.visitTableSwitchInsn(0, labels.length - 1, fail, labels);
+            for (int i = 0; i < labels.length; i++) {
+                mv.visitLabel(labels[i]);
+                mv.visitVarInsn(ALOAD, THIS);
+                mv.visitVarInsn(ALOAD, 2);
+                mv.visitMethodInsn(INVOKEVIRTUAL, GENERATED_CLASS, blocks.get(i).functionBody() ? blockBodyName(i) : blockName(i), EXECUTE_DESCRIPTOR, false);
+                mv.visitInsn(ARETURN);
+            }
+        }
+        mv.visitLabel(fail);
+        final String exception = Type.getInternalName(IllegalArgumentException.class);
+        mv.visitTypeInsn(NEW, exception);
+        mv.visitInsn(DUP);
+        mv.visitMethodInsn(INVOKESPECIAL, exception, "<init>", "()V", false);
+        mv.visitInsn(ATHROW);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private int constant(final Object value) {
+        return constantIndexes.computeIfAbsent(value, v -> {
+            constants.add(v);
+            return constants.size() - 1;
+        });
+    }
+
+    private int block(final Block block, final boolean functionBody) {
+        blocks.add(new BlockEntry(block, functionBody));
+        return blocks.size() - 1;
+    }
+
+    private static String blockName(final int index) {
+        return "block" + index;
+    }
+
+    private static String blockBodyName(final int index) {
+        return "blockBody" + index;
+    }
+
+    private static boolean inheritsEvaluate(final Object node, final Class<?> declaringClass) {
+        try {
+            return node.getClass().getMethod("evaluate", JanitorScriptProcess.class).getDeclaringClass() == declaringClass;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Generates the code for a single method.
+     * Local variable 0 is "this", 1 is the running process, and everything after that is free for temporaries.
+     */
+    private final class MethodCompiler {
+        private final MethodVisitor mv;
+        private int nextLocal = 2;
+
+        private MethodCompiler(final MethodVisitor mv) {
+            this.mv = mv;
+        }
+
+        void statementsAndReturn(final List<Statement> statements) {
+            for (final Statement statement : statements) {
+                statement(statement);
+            }
+            NORMAL.get(mv);
+            mv.visitInsn(ARETURN);
+        }
+
+        /**
+         * Generate code for a statement. Abrupt completions are returned from the current method, normal completion
+         * falls through to the next statement.
+         */
+        void statement(final Statement statement) {
+            final Class<?> type = statement.getClass();
+            if (type == ExpressionStatement.class) {
+                final ExpressionStatement expressionStatement = (ExpressionStatement) statement;
+                setCurrentLocation(statement.getLocation());
+                countInstruction();
+                mv.visitVarInsn(ALOAD, PROCESS);
+                expression(expressionStatement.getExpression());
+                UNPACK.invoke(mv);
+                SET_SCRIPT_RESULT.invoke(mv);
+            } else if (type == ReturnStatement.class) {
+                final ReturnStatement returnStatement = (ReturnStatement) statement;
+                setCurrentLocation(statement.getLocation());
+                countInstruction();
+                if (returnStatement.getExpression() != null) {
+                    expression(returnStatement.getExpression());
+                    UNPACK.invoke(mv);
+                    RETURNING.invoke(mv);
+                } else {
+                    RETURN_NOTHING.get(mv);
+                }
+                mv.visitInsn(ARETURN);
+            } else if (type == IfStatement.class) {
+                final IfStatement ifStatement = (IfStatement) statement;
+                final Label elseLabel = new Label();
+                final Label end = new Label();
+                setCurrentLocation(statement.getLocation());
+                condition(ifStatement.getCondition());
+                mv.visitJumpInsn(IFEQ, elseLabel);
+                callBlock(ifStatement.getBlock());
+                returnIfAbrupt();
+                mv.visitJumpInsn(GOTO, end);
+                mv.visitLabel(elseLabel);
+                if (ifStatement.getElseBlock() != null) {
+                    callBlock(ifStatement.getElseBlock());
+                    returnIfAbrupt();
+                }
+                mv.visitLabel(end);
+            } else if (type == WhileLoop.class) {
+                final WhileLoop whileLoop = (WhileLoop) statement;
+                final Label next = new Label();
+                final Label end = new Label();
+                final int completion = nextLocal++;
+                setCurrentLocation(statement.getLocation());
+                mv.visitLabel(next);
+                condition(whileLoop.getExpression());
+                mv.visitJumpInsn(IFEQ, end);
+                countInstruction();
+                callBlock(whileLoop.getBlock());
+                mv.visitVarInsn(ASTORE, completion);
+                mv.visitVarInsn(ALOAD, completion);
+                GET_KIND.invoke(mv);
+                BREAK.get(mv);
+                mv.visitJumpInsn(IF_ACMPEQ, end);
+                mv.visitVarInsn(ALOAD, completion);
+                IS_RETURN.invoke(mv);
+                mv.visitJumpInsn(IFEQ, next);
+                mv.visitVarInsn(ALOAD, completion);
+                mv.visitInsn(ARETURN);
+                mv.visitLabel(end);
+            } else if (type == Block.class) {
+                callBlock((Block) statement);
+                returnIfAbrupt();
+            } else if (type == ForRangeLoop.class || type == ForLoop.class) {
+                final Block body = type == ForLoop.class ? ((ForLoop) statement).getBlock() : ((ForRangeLoop) statement).getBlock();
+                loadConstant(statement, type);
+                mv.visitVarInsn(ALOAD, PROCESS);
+                loadConstant(new PendingBlock(block(body, false), body), Statement.class);
+                (type == ForLoop.class ? EXECUTE_FOR_LOOP : EXECUTE_FOR_RANGE_LOOP).invoke(mv);
+                returnIfAbrupt();
+            } else if (type == RegularAssignment.class && ((RegularAssignment) statement).getRight() instanceof ScriptFunction function
+                       && function.getClass() == ScriptFunction.class) {
+                // function declarations: the assignment itself is interpreted, but it assigns a function with a compiled body
+                loadConstant(new PendingFunction(block(function.getBlock(), true), function, (RegularAssignment) statement), Statement.class);
+                mv.visitVarInsn(ALOAD, PROCESS);
+                EXECUTE.invoke(mv);
+                returnIfAbrupt();
+            } else {
+                loadConstant(statement, Statement.class);
+                mv.visitVarInsn(ALOAD, PROCESS);
+                EXECUTE.invoke(mv);
+                returnIfAbrupt();
+            }
+        }
+
+        /**
+         * Generate code that leaves the value of an expression on the stack.
+         */
+        void expression(final Expression expression) {
+            final Class<?> type = expression.getClass();
+            if (type == IntegerLiteral.class || type == FloatLiteral.class || type == StringLiteral.class
+                || type == BooleanLiteral.class || type == NullLiteral.class) {
+                try {
+                    loadConstant(expression.evaluate(null), JanitorObject.class); // literals evaluate to themselves, without a process
+                    return;
+                } catch (JanitorRuntimeException e) {
+                    // cannot happen for these literals, but let the interpreter deal with it if it does
+                }
+            }
+            if (expression instanceof BinaryOperation operation && inheritsEvaluate(operation, BinaryOperation.class)) {
+                setCurrentLocation(operation.getLocation());
+                countInstruction();
+                loadConstant(operation, BinaryOperation.class);
+                mv.visitVarInsn(ALOAD, PROCESS);
+                expression(operation.getLeft());
+                expression(operation.getRight());
+                APPLY_BINARY.invoke(mv);
+            } else if (expression instanceof UnaryOperation operation && inheritsEvaluate(operation, UnaryOperation.class)) {
+                loadConstant(operation, UnaryOperation.class);
+                mv.visitVarInsn(ALOAD, PROCESS);
+                expression(operation.getParameter());
+                UNPACK.invoke(mv);
+                APPLY_UNARY.invoke(mv);
+            } else if (type == LogicAnd.class) {
+                final LogicAnd and = (LogicAnd) expression;
+                final Label right = new Label();
+                final Label end = new Label();
+                setCurrentLocation(and.getLocation());
+                condition(and.getLeft());
+                mv.visitJumpInsn(IFNE, right);
+                FALSE.get(mv);
+                mv.visitJumpInsn(GOTO, end);
+                mv.visitLabel(right);
+                condition(and.getRight());
+                TO_BOOL.invoke(mv);
+                mv.visitLabel(end);
+            } else if (type == IfThenElse.class) {
+                final IfThenElse ifThenElse = (IfThenElse) expression;
+                final Label elseLabel = new Label();
+                final Label end = new Label();
+                setCurrentLocation(ifThenElse.getLocation());
+                condition(ifThenElse.getA());
+                mv.visitJumpInsn(IFEQ, elseLabel);
+                expression(ifThenElse.getB());
+                UNPACK.invoke(mv);
+                mv.visitJumpInsn(GOTO, end);
+                mv.visitLabel(elseLabel);
+                if (ifThenElse.getC() == null) {
+                    NULL.get(mv);
+                    mv.visitTypeInsn(CHECKCAST, Type.getInternalName(JanitorObject.class));
+                } else {
+                    expression(ifThenElse.getC());
+                    UNPACK.invoke(mv);
+                }
+                mv.visitLabel(end);
+            } else if (type == ScriptFunction.class) {
+                final ScriptFunction function = (ScriptFunction) expression;
+                loadConstant(new PendingFunction(block(function.getBlock(), true), function, null), Expression.class);
+                mv.visitVarInsn(ALOAD, PROCESS);
+                EVALUATE.invoke(mv);
+            } else {
+                loadConstant(expression, Expression.class);
+                mv.visitVarInsn(ALOAD, PROCESS);
+                EVALUATE.invoke(mv);
+            }
+        }
+
+        /**
+         * Generate code that leaves the truthiness of an expression on the stack, as an int.
+         */
+        void condition(final Expression expression) {
+            expression(expression);
+            UNPACK.invoke(mv);
+            IS_TRUTHY.invoke(mv);
+        }
+
+        void callBlock(final Block block) {
+            final int index = block(block, false);
+            mv.visitVarInsn(ALOAD, THIS);
+            mv.visitVarInsn(ALOAD, PROCESS);
+            mv.visitMethodInsn(INVOKEVIRTUAL, GENERATED_CLASS, blockName(index), EXECUTE_DESCRIPTOR, false);
+        }
+
+        /**
+         * Expects a completion on the stack, and returns it unless it's normal.
+         */
+        void returnIfAbrupt() {
+            final Label normal = new Label();
+            mv.visitInsn(DUP);
+            IS_ABRUPT.invoke(mv);
+            mv.visitJumpInsn(IFEQ, normal);
+            mv.visitInsn(ARETURN);
+            mv.visitLabel(normal);
+            mv.visitInsn(POP);
+        }
+
+        void setCurrentLocation(final Location location) {
+            mv.visitVarInsn(ALOAD, PROCESS);
+            loadConstant(location, Location.class);
+            SET_CURRENT_LOCATION.invoke(mv);
+        }
+
+        void countInstruction() {
+            mv.visitVarInsn(ALOAD, PROCESS);
+            COUNT_INSTRUCTION.invoke(mv);
+        }
+
+        void loadConstant(final Object value, final Class<?> type) {
+            if (value == null) {
+                mv.visitInsn(ACONST_NULL);
+                return;
+            }
+            mv.visitVarInsn(ALOAD, THIS);
+            mv.visitFieldInsn(GETFIELD, GENERATED_CLASS, CONSTANTS, CONSTANTS_DESCRIPTOR);
+            final int index = constant(value);
+            if (index <= Short.MAX_VALUE) {
+                mv.visitIntInsn(SIPUSH, index);
+            } else {
+                mv.visitLdcInsn(index);
+            }
+            mv.visitInsn(AALOAD);
+            mv.visitTypeInsn(CHECKCAST, Type.getInternalName(type));
+        }
+    }
+
+    /**
+     * Placeholder for a {@link CompiledBlock}, which can only be created after the generated class has been instantiated.
+     */
+    private record PendingBlock(int index, Block block) {
+    }
+
+    /**
+     * Placeholder for a function, or a function declaration, whose body is compiled into the block with the given index.
+     * It is replaced with a copy of the function that runs the compiled body.
+     */
+    private record PendingFunction(int index, ScriptFunction function, @Nullable RegularAssignment declaration) {
+    }
+
+    /**
+     * A block to generate methods for.
+     *
+     * @param block        the block
+     * @param functionBody true for function bodies, which run without entering a scope of their own
+     */
+    private record BlockEntry(Block block, boolean functionBody) {
+    }
+
+    /**
+     * A method called from generated code.
+     */
+    private record MethodRef(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+        static MethodRef of(final Class<?> owner, final String name, final Class<?>... parameterTypes) {
+            try {
+                final Method method = owner.getMethod(name, parameterTypes);
+                final int opcode = Modifier.isStatic(method.getModifiers()) ? INVOKESTATIC : owner.isInterface() ? INVOKEINTERFACE : INVOKEVIRTUAL;
+                return new MethodRef(opcode, Type.getInternalName(owner), name, Type.getMethodDescriptor(method), owner.isInterface());
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException("method not found: " + owner.getName() + "." + name, e);
+            }
+        }
+
+        void invoke(final MethodVisitor mv) {
+            mv.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+        }
+    }
+
+    /**
+     * A static field read by generated code.
+     */
+    private record FieldRef(String owner, String name, String descriptor) {
+        static FieldRef of(final Class<?> owner, final String name) {
+            try {
+                final Field field = owner.getField(name);
+                return new FieldRef(Type.getInternalName(owner), name, Type.getDescriptor(field.getType()));
+            } catch (NoSuchFieldException e) {
+                throw new IllegalStateException("field not found: " + owner.getName() + "." + name, e);
+            }
+        }
+
+        void get(final MethodVisitor mv) {
+            mv.visitFieldInsn(GETSTATIC, owner, name, descriptor);
+        }
+    }
+
+}
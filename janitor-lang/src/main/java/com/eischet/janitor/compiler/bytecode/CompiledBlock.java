@@ -0,0 +1,45 @@
+package com.eischet.janitor.compiler.bytecode;
+
+import com.eischet.janitor.api.JanitorScriptProcess;
+import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
+import com.eischet.janitor.compiler.ast.statement.Completion;
+import com.eischet.janitor.compiler.ast.statement.Statement;
+import com.eischet.janitor.compiler.ast.statement.controlflow.Block;
+import com.eischet.janitor.toolbox.json.api.JsonException;
+import com.eischet.janitor.toolbox.json.api.JsonExportableList;
+import com.eischet.janitor.toolbox.json.api.JsonOutputStream;
+
+/**
+ * A compiled block, handed to interpreted statements that need a loop body (for loops) or a function body (script functions).
+ */
+final class CompiledBlock extends Statement implements JsonExportableList {
+
+    private final CompiledCode code;
+    private final int index;
+    private final Block block;
+
+    /**
+     * Constructor.
+     *
+     * @param code  the compiled code
+     * @param index the block's index within the compiled code
+     * @param block the original block
+     */
+    CompiledBlock(final CompiledCode code, final int index, final Block block) {
+        super(block.getLocation());
+        this.code = code;
+        this.index = index;
+        this.block = block;
+    }
+
+    @Override
+    public Completion execute(final JanitorScriptProcess process) throws JanitorRuntimeException {
+        return code.executeBlock(index, process);
+    }
+
+    @Override
+    public void writeJson(final JsonOutputStream producer) throws JsonException {
+        block.writeJson(producer);
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.eischet.janitor.compiler.bytecode;
+
+import com.eischet.janitor.api.JanitorScriptProcess;
+import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
+import com.eischet.janitor.compiler.ast.statement.Completion;
+
+/**
+ * Implemented by the classes generated by the {@link BytecodeCompiler}.
+ */
+interface CompiledCode {
+
+    /**
+     * Execute the script's top-level statements.
+     *
+     * @param process the running script
+     * @return how the script completed
+     * @throws JanitorRuntimeException on errors
+     */
+    Completion execute(JanitorScriptProcess process) throws JanitorRuntimeException;
+
+    /**
+     * Execute one of the script's blocks, including entering and leaving its scope.
+     *
+     * @param index the block's index, as assigned by the compiler
+     * @param process the running script
+     * @return how the block completed
+     * @throws JanitorRuntimeException on errors
+     */
+    Completion executeBlock(int index, JanitorScriptProcess process) throws JanitorRuntimeException;
+
+}
@@ -0,0 +1,37 @@
+package com.eischet.janitor.compiler.bytecode;
+
+import com.eischet.janitor.api.JanitorScriptProcess;
+import com.eischet.janitor.api.errors.runtime.JanitorNativeException;
+import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
+import com.eischet.janitor.compiler.ast.statement.Completion;
+import com.eischet.janitor.compiler.ast.statement.Script;
+
+/**
+ * A script whose statements have been translated into JVM bytecode.
+ * <p>The original statements are kept, so JSON export, source access etc. work like for interpreted scripts.</p>
+ */
+public final class CompiledScript extends Script {
+
+    private final CompiledCode code;
+
+    /**
+     * Constructor.
+     *
+     * @param script the original script
+     * @param code   the compiled code
+     */
+    CompiledScript(final Script script, final CompiledCode code) {
+        super(script.getLocation(), script.getStatements(), script.getSource());
+        this.code = code;
+    }
+
+    @Override
+    public Completion execute(final JanitorScriptProcess process) throws JanitorRuntimeException {
+        try {
+            return code.execute(process);
+        } catch (RuntimeException runtimeException) {
+            throw new JanitorNativeException(process, runtimeException.getMessage(), runtimeException);
+        }
+    }
+
+}
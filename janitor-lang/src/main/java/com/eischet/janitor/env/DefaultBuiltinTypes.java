@@ -12,6 +12,8 @@ import com.eischet.janitor.api.types.wrapped.WrapperDispatchTable;
 import com.eischet.janitor.compiler.JanitorAntlrCompiler;
 import com.eischet.janitor.runtime.DateTimeUtilities;
 import com.eischet.janitor.toolbox.json.api.JsonException;
+import com.eischet.janitor.toolbox.memory.BoundedStringInterner;
+import com.eischet.janitor.toolbox.memory.StringInterner;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -35,10 +37,27 @@ public class DefaultBuiltinTypes implements BuiltinTypes {
      */
     private static final int MAX_INTERNED_LENGTH = 10;
 
+    /**
+     * String interning: number of slots of the default interner.
+     */
+    public static final int DEFAULT_INTERNER_CAPACITY = 4096;
+
+    /**
+     * Smallest integer kept in the small integer cache by default.
+     */
+    public static final int DEFAULT_SMALL_INTEGER_CACHE_LOW = -128;
+
+    /**
+     * Largest integer kept in the small integer cache by default.
+     * This is wider than the JDK's Long.valueOf cache, because scripts tend to count loops and list indexes well beyond 127.
+     */
+    public static final int DEFAULT_SMALL_INTEGER_CACHE_HIGH = 1024;
+
     protected final DispatchTable<JanitorObject> baseDispatcher = new DispatchTable<>(null);
 
     protected final WrapperDispatchTable<Map<JanitorObject, JanitorObject>> mapDispatcher = new WrapperDispatchTable<>(Janitor::map);
     protected final DispatchTable<JString> stringDispatcher = new DispatchTable<>(baseDispatcher, it -> it);
+    protected final DispatchTable<JStringBuilder> stringBuilderDispatcher = new DispatchTable<>(baseDispatcher, it -> it);
 
     // TODO: figure out why I cannot write Dispatcher<JMap> here. I keep forgetting the subleties of the Java generics system...
     // I'm sure it's something with blah super foo extends lalala that everybody but me knows about. ;-)
@@ -46,10 +65,11 @@ public class DefaultBuiltinTypes implements BuiltinTypes {
 
 
     protected final DispatchTable<JList> listDispatcher = new DispatchTable<>(baseDispatcher, it -> it);
+    protected final DispatchTable<JSequence> sequenceDispatcher = new DispatchTable<>(baseDispatcher, it -> it);
     protected final WrapperDispatchTable<Set<JanitorObject>> setDispatcher = new WrapperDispatchTable<>(baseDispatcher, it -> it);
-    protected final WrapperDispatchTable<Long> intDispatcher = new WrapperDispatchTable<>(baseDispatcher, it -> it);
+    protected final DispatchTable<JInt> intDispatcher = new DispatchTable<>(baseDispatcher, it -> it);
     protected final WrapperDispatchTable<byte[]> binaryDispatcher = new WrapperDispatchTable<>(baseDispatcher, it -> it);
-    protected final WrapperDispatchTable<Double> floatDispatcher = new WrapperDispatchTable<>(baseDispatcher, it -> it);
+    protected final DispatchTable<JFloat> floatDispatcher = new DispatchTable<>(baseDispatcher, it -> it);
     protected final WrapperDispatchTable<Pattern> regexDispatcher = new WrapperDispatchTable<>(baseDispatcher, it -> it);
     protected final DispatchTable<JDuration> durationDispatch = new DispatchTable<>(baseDispatcher, it -> it);
     protected final DispatchTable<JDateTime> dateTimeDispatch = new DispatchTable<>(baseDispatcher, it -> it);
@@ -57,13 +77,55 @@ public class DefaultBuiltinTypes implements BuiltinTypes {
 
 
     private final JString emptyString;
-    private final JInt zero;
+    private final int smallIntegerLow;
+    private final JInt[] smallIntegers;
+    private final StringInterner interner;
 
+    /**
+     * Constructor, using the default small integer cache range and the default string interner.
+     */
     public DefaultBuiltinTypes() {
+        this(DEFAULT_SMALL_INTEGER_CACHE_LOW, DEFAULT_SMALL_INTEGER_CACHE_HIGH);
+    }
+
+    /**
+     * Constructor, using the default small integer cache range.
+     *
+     * @param interner the strategy for interning short strings and variable names, see {@link #defaultInterner()}
+     */
+    public DefaultBuiltinTypes(final @NotNull StringInterner interner) {
+        this(DEFAULT_SMALL_INTEGER_CACHE_LOW, DEFAULT_SMALL_INTEGER_CACHE_HIGH, interner);
+    }
+
+    /**
+     * Constructor.
+     * Integers in the range from low to high (both inclusive) are preallocated once and shared, so that typical loop counters,
+     * indexes and arithmetic results do not allocate. JInt is immutable, so sharing instances is safe.
+     *
+     * @param smallIntegerLow  smallest cached integer
+     * @param smallIntegerHigh largest cached integer; pass a value below smallIntegerLow to disable the cache
+     */
+    public DefaultBuiltinTypes(final int smallIntegerLow, final int smallIntegerHigh) {
+        this(smallIntegerLow, smallIntegerHigh, defaultInterner());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param smallIntegerLow  smallest cached integer
+     * @param smallIntegerHigh largest cached integer; pass a value below smallIntegerLow to disable the cache
+     * @param interner         the strategy for interning short strings and variable names, see {@link #defaultInterner()}
+     */
+    public DefaultBuiltinTypes(final int smallIntegerLow, final int smallIntegerHigh, final @NotNull StringInterner interner) {
+        this.interner = interner;
         baseDispatcher.addStringProperty("class", JanitorObject::janitorClassName);
 
         emptyString = JString.newInstance(stringDispatcher, "", it -> it); // cannot pass this::intern here in a constructor, and "" is already interned anyway
-        zero = JInt.newInstance(intDispatcher, 0);
+        this.smallIntegerLow = smallIntegerLow;
+        this.smallIntegers = new JInt[Math.max(0, smallIntegerHigh - smallIntegerLow + 1)];
+        for (int i = 0; i < smallIntegers.length; i++) {
+            smallIntegers[i] = JInt.newInstance(intDispatcher, smallIntegerLow + i);
+        }
 
 
         stringDispatcher.setMetaData(Janitor.MetaData.HELP, JStringClass.STRING_CLASS);
@@ -109,6 +171,14 @@ public class DefaultBuiltinTypes implements BuiltinTypes {
         stringDispatcher.addMethod("toConstantCase", JStringClass::toConstantCase);
         stringDispatcher.addMethod(JanitorAntlrCompiler.INDEXED_GET_METHOD, JStringClass::indexedGet); // das lassen wir auch so: keine Zuweisung per Index an String-Teile, die sind ja immutable
 
+        stringBuilderDispatcher.setMetaData(Janitor.MetaData.HELP, JStringBuilderClass.STRING_BUILDER_CLASS);
+        stringBuilderDispatcher.addMethod("append", JStringBuilderClass::__append); // StringBuilder().append("a", 1).append("b").toString() == "a1b"
+        stringBuilderDispatcher.addMethod("insert", JStringBuilderClass::__insert); // StringBuilder("ac").insert(1, "b").toString() == "abc"
+        stringBuilderDispatcher.addMethod("length", JStringBuilderClass::__length);
+        stringBuilderDispatcher.addMethod("isEmpty", JStringBuilderClass::__isEmpty);
+        stringBuilderDispatcher.addMethod("clear", JStringBuilderClass::__clear);
+        stringBuilderDispatcher.addMethod("toString", JStringBuilderClass::__toString);
+
         mapDispatcher.addMethod("toJson", JMapClass::__toJson);
         mapDispatcher.addMethod("parseJson", JMapClass::__parseJson);
         mapDispatcher.addMethod("get", JMapClass::__get);
@@ -122,6 +192,7 @@ public class DefaultBuiltinTypes implements BuiltinTypes {
         mapDispatcher.addMethod("containsValue", JMapClass::__containsValue);
         mapDispatcher.addMethod("clear", JMapClass::__clear);
         mapDispatcher.addMethod("copy", JMapClass::__copy);
+        mapDispatcher.addMethod("stream", JMapClass::__stream); // {a: 1}.stream().map(e -> e.key + "=" + e.value).toList() == ["a=1"]
 
         listDispatcher.addMethod("toJson", JListClass::__toJson);
         listDispatcher.addMethod("parseJson", JListClass::__parseJson);
@@ -144,6 +215,10 @@ public class DefaultBuiltinTypes implements BuiltinTypes {
         listDispatcher.addMethod("remove", JListClass::__remove);
         listDispatcher.addMethod("removeAll", JListClass::__removeAll);
         listDispatcher.addMethod("clear", JListClass::__clear);
+        listDispatcher.addMethod("stream", JListClass::__stream); // [1, 2, 3].stream().filter(x -> x > 1).map(x -> x * 2).toList() == [4, 6]
+        listDispatcher.addMethod("parallelMap", JListClass::__parallelMap); // [1, 2, 3].parallelMap(x -> x * 2) == [2, 4, 6]
+        listDispatcher.addMethod("parallelFilter", JListClass::__parallelFilter); // [1, 2, 3].parallelFilter(x -> x > 1) == [2, 3]
+        listDispatcher.addMethod("parallelForEach", JListClass::__parallelForEach);
 
         setDispatcher.addMethod("add", JSetClass::__add);
         setDispatcher.addMethod("remove", JSetClass::__remove);
@@ -152,12 +227,30 @@ public class DefaultBuiltinTypes implements BuiltinTypes {
         setDispatcher.addMethod("toSet", JSetClass::__toSet); // copies the set
         setDispatcher.addMethod("size", JSetClass::__size);
         setDispatcher.addMethod("isEmpty", JSetClass::__isEmpty);
-
-        intDispatcher.addLongProperty("int", JanitorWrapper::janitorGetHostValue);
+        setDispatcher.addMethod("stream", JSetClass::__stream);
+        setDispatcher.addMethod("parallelMap", JSetClass::__parallelMap); // returns a list, in the order of iteration
+        setDispatcher.addMethod("parallelFilter", JSetClass::__parallelFilter);
+        setDispatcher.addMethod("parallelForEach", JSetClass::__parallelForEach);
+
+        sequenceDispatcher.addMethod("filter", JSequenceClass::__filter);
+        sequenceDispatcher.addMethod("map", JSequenceClass::__map);
+        sequenceDispatcher.addMethod("flatMap", JSequenceClass::__flatMap); // [[1, 2], [3]].stream().flatMap(x -> x).toList() == [1, 2, 3]
+        sequenceDispatcher.addMethod("take", JSequenceClass::__take);
+        sequenceDispatcher.addMethod("skip", JSequenceClass::__skip);
+        sequenceDispatcher.addMethod("toList", JSequenceClass::__toList);
+        sequenceDispatcher.addMethod("toSet", JSequenceClass::__toSet);
+        sequenceDispatcher.addMethod("count", JSequenceClass::__count);
+        sequenceDispatcher.addMethod("first", JSequenceClass::__first); // null if the sequence is empty
+        sequenceDispatcher.addMethod("any", JSequenceClass::__any);
+        sequenceDispatcher.addMethod("all", JSequenceClass::__all);
+        sequenceDispatcher.addMethod("reduce", JSequenceClass::__reduce); // [1, 2, 3].stream().reduce((a, b) -> a + b, 0) == 6
+        sequenceDispatcher.addMethod("forEach", JSequenceClass::__forEach);
+
+        intDispatcher.addLongProperty("int", JInt::getValue);
         // intDispatcher.addDateTimeProperty("epoch", wrapper -> DateTimeUtilities.localFromEpochSeconds(wrapper.janitorGetHostValue()));
-        intDispatcher.addObjectProperty("epoch", wrapper -> dateTime(DateTimeUtilities.localFromEpochSeconds(wrapper.janitorGetHostValue())));
+        intDispatcher.addObjectProperty("epoch", wrapper -> dateTime(DateTimeUtilities.localFromEpochSeconds(wrapper.getValue())));
 
-        floatDispatcher.addLongProperty("int", doubleJanitorWrapper -> doubleJanitorWrapper.janitorGetHostValue().longValue());
+        floatDispatcher.addLongProperty("int", JFloat::toLong);
 
         binaryDispatcher.addMethod("encodeBase64", JBinaryClass::__encodeBase64);
         binaryDispatcher.addMethod("decode", JBinaryClass::__toString);
@@ -259,20 +352,28 @@ public class DefaultBuiltinTypes implements BuiltinTypes {
         return JSet.newInstance(setDispatcher, new HashSet<>(stream.toList()));
     }
 
+    @Override
+    public @NotNull JSequence sequence(@NotNull final Iterable<? extends JanitorObject> source) {
+        return JSequence.newInstance(sequenceDispatcher, source);
+    }
+
+    @Override
+    public @NotNull JStringBuilder stringBuilder(@NotNull final String initial) {
+        return JStringBuilder.newInstance(stringBuilderDispatcher, initial);
+    }
+
     @Override
     public @NotNull JInt integer(final long value) {
-        if (value == 0) {
-            return zero;
+        final long index = value - smallIntegerLow;
+        if (index >= 0 && index < smallIntegers.length) {
+            return smallIntegers[(int) index];
         }
         return JInt.newInstance(intDispatcher, value);
     }
 
     @Override
     public @NotNull JInt integer(final int value) {
-        if (value == 0) {
-            return zero;
-        }
-        return JInt.newInstance(intDispatcher, value);
+        return integer((long) value);
     }
 
     @Override
@@ -280,10 +381,7 @@ public class DefaultBuiltinTypes implements BuiltinTypes {
         if (value == null) {
             return JNull.NULL;
         }
-        if (value.longValue() == 0) {
-            return zero;
-        }
-        return JInt.newInstance(intDispatcher, value.longValue());
+        return integer(value.longValue());
     }
 
     @Override
@@ -394,7 +492,17 @@ public class DefaultBuiltinTypes implements BuiltinTypes {
         }
 
         @Override
-        public WrapperDispatchTable<Long> getIntDispatcher() {
+        public DispatchTable<JSequence> getSequenceDispatcher() {
+            return sequenceDispatcher;
+        }
+
+        @Override
+        public DispatchTable<JStringBuilder> getStringBuilderDispatcher() {
+            return stringBuilderDispatcher;
+        }
+
+        @Override
+        public DispatchTable<JInt> getIntDispatcher() {
             return intDispatcher;
         }
 
@@ -404,7 +512,7 @@ public class DefaultBuiltinTypes implements BuiltinTypes {
         }
 
         @Override
-        public WrapperDispatchTable<Double> getFloatDispatcher() {
+        public DispatchTable<JFloat> getFloatDispatcher() {
             return floatDispatcher;
         }
 
@@ -556,21 +664,27 @@ public class DefaultBuiltinTypes implements BuiltinTypes {
     }
 
     /**
-     * Interns a string if it is short enough.
+     * Return a new instance of the default string interner: a {@link BoundedStringInterner} per environment for strings
+     * of up to 10 characters, which does not contend for the JVM's global string table like {@link String#intern()} does.
+     *
+     * @return a new interner
+     */
+    public static @NotNull StringInterner defaultInterner() {
+        return StringInterner.bounded(DEFAULT_INTERNER_CAPACITY, MAX_INTERNED_LENGTH);
+    }
+
+    /**
+     * Interns a string if it is short enough, using the interner passed to the constructor.
      * @param string the string to intern
      * @return the interned string, and/or the original string if it is too long
      */
     @Override
     public @Nullable String intern(@Nullable String string) {
-        if (string != null) {
-            if (string.length() <= MAX_INTERNED_LENGTH) {
-                return string.intern();
-            } else {
-                return string;
-            }
-        } else {
-            return null;
-        }
+        return interner.intern(string);
+    }
+
+    public @NotNull StringInterner getInterner() {
+        return interner;
     }
 
     @Override
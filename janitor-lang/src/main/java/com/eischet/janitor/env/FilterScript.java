@@ -6,7 +6,6 @@ package com.eischet.janitor.env;
 
 import com.eischet.janitor.api.FilterPredicate;
 import com.eischet.janitor.api.JanitorEnvironment;
-import com.eischet.janitor.api.RunnableScript;
 import com.eischet.janitor.api.errors.compiler.JanitorCompilerException;
 import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
 import com.eischet.janitor.api.scopes.Scope;
@@ -14,20 +13,32 @@ import com.eischet.janitor.api.types.builtin.JBool;
 import com.eischet.janitor.api.types.JanitorObject;
 import com.eischet.janitor.logging.JanitorLogger;
 import com.eischet.janitor.runtime.JanitorScript;
+import com.eischet.janitor.runtime.RunningScriptProcess;
 import com.eischet.janitor.runtime.SLFLoggingRuntime;
+import org.jetbrains.annotations.NotNull;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * A filter predicate implemented as a script.
  * This covers one majore use case of the Janitor language: applying user-supplied filters to Java streams/collections.
+ * <p>Each call to {@link #test(JanitorObject)} runs the script in a process of its own. The filter methods instead set up
+ * one process per thread and only rebind "value" and the implicit object for each element, which is much faster for large
+ * collections.</p>
  * @see FilterPredicate
  */
 public class FilterScript implements FilterPredicate {
 
     private static final JanitorLogger log = JanitorLogger.getLogger(FilterScript.class);
 
-    private final RunnableScript script;
+    private final JanitorScript script;
     private final SLFLoggingRuntime runtime;
     private final Consumer<Scope> globalsProvider;
     private final String name;
@@ -56,4 +67,85 @@ public class FilterScript implements FilterPredicate {
         }
     }
 
+    @Override
+    public <T extends JanitorObject> @NotNull List<T> filter(final @NotNull Collection<T> values) {
+        try (final Batch batch = new Batch()) {
+            return values.stream().filter(batch).toList();
+        }
+    }
+
+    /**
+     * Filter a stream, running the script in one process per thread that consumes the stream.
+     * <p>The returned stream must be closed, preferably with try-with-resources, to finish these processes: terminal
+     * operations like {@code toList()} do not close a stream. The stream may be parallel, or be turned into a parallel
+     * stream later, because the processes are only created when a thread tests its first element.</p>
+     *
+     * @param values the values to filter
+     * @param <T>    the type of values
+     * @return a stream of the values that pass the filter, which must be closed
+     */
+    @Override
+    public <T extends JanitorObject> @NotNull Stream<T> filter(final @NotNull Stream<T> values) {
+        final Batches batches = new Batches();
+        return values.filter(batches).onClose(batches::close);
+    }
+
+    @Override
+    public <T extends JanitorObject> @NotNull List<T> filterParallel(final @NotNull Collection<T> values, final @NotNull ForkJoinPool pool) {
+        try (final Batches batches = new Batches()) {
+            final FilterPredicate batched = batches::test;
+            return batched.filterParallel(values, pool);
+        }
+    }
+
+    /**
+     * Tests elements on any number of threads, with one {@link Batch} per thread, created when the thread tests its first element.
+     * The batches are kept here rather than in thread locals, so closing drops them, even on long-lived pool threads.
+     */
+    private final class Batches implements Predicate<JanitorObject>, AutoCloseable {
+        private final Map<Thread, Batch> perThread = new ConcurrentHashMap<>();
+
+        @Override
+        public boolean test(final JanitorObject t) {
+            return perThread.computeIfAbsent(Thread.currentThread(), thread -> new Batch()).test(t);
+        }
+
+        @Override
+        public void close() {
+            for (final Batch batch : perThread.values()) {
+                batch.close();
+            }
+            perThread.clear();
+        }
+    }
+
+    /**
+     * Tests any number of elements in one process, which is bound to the thread that created it.
+     */
+    private final class Batch implements Predicate<JanitorObject>, AutoCloseable {
+        private final RunningScriptProcess process = script.startProcess(g -> {
+            if (globalsProvider != null) {
+                globalsProvider.accept(g);
+            }
+        });
+
+        @Override
+        public boolean test(final JanitorObject t) {
+            try {
+                return JBool.TRUE == process.runAgain(block -> {
+                    block.bind("value", t);
+                    block.setImplicitObjectProvider(t.asImplicitObjectProvider());
+                });
+            } catch (JanitorRuntimeException e) {
+                log.warn("{}: filter script error: {}", name, e.getMessage());
+                return false;
+            }
+        }
+
+        @Override
+        public void close() {
+            process.finish();
+        }
+    }
+
 }
@@ -10,6 +10,7 @@ import com.eischet.janitor.api.types.builtin.*;
 import com.eischet.janitor.toolbox.json.api.JsonException;
 import com.eischet.janitor.api.types.functions.JCallable;
 import com.eischet.janitor.api.types.*;
+import com.eischet.janitor.runtime.ParallelCalls;
 import com.eischet.janitor.toolbox.json.api.JsonInputStream;
 import org.intellij.lang.annotations.Language;
 
@@ -111,6 +112,51 @@ public class JListClass {
         }
     }
 
+    /**
+     * Like map(), but calls the function for several elements at the same time, on the runtime's parallel executor.
+     * The result keeps the order of the list. Functions run concurrently, so they should not assign to outer variables.
+     *
+     * @param self      the list
+     * @param process   the running script
+     * @param arguments the mapping function
+     * @return a new list with the mapped elements
+     * @throws JanitorRuntimeException on errors
+     */
+    public static JList __parallelMap(final JList self, final JanitorScriptProcess process, final JCallArgs arguments) throws JanitorRuntimeException {
+        final JanitorObject[] mapped = ParallelCalls.callEach(process, "parallelMap", requireCallable(process, arguments, "parallelMap"), self.janitorGetHostValue());
+        return process.getBuiltins().list(Arrays.stream(mapped));
+    }
+
+    public static JList __parallelFilter(final JList self, final JanitorScriptProcess process, final JCallArgs arguments) throws JanitorRuntimeException {
+        final List<JanitorObject> elements = self.janitorGetHostValue();
+        final JanitorObject[] keep = ParallelCalls.callEach(process, "parallelFilter", requireCallable(process, arguments, "parallelFilter"), elements);
+        final JList result = process.getBuiltins().list();
+        for (int i = 0; i < keep.length; i++) {
+            if (keep[i].janitorIsTrue()) {
+                result.add(elements.get(i));
+            }
+        }
+        return result;
+    }
+
+    public static JNull __parallelForEach(final JList self, final JanitorScriptProcess process, final JCallArgs arguments) throws JanitorRuntimeException {
+        ParallelCalls.callEach(process, "parallelForEach", requireCallable(process, arguments, "parallelForEach"), self.janitorGetHostValue());
+        return JNull.NULL;
+    }
+
+    static JCallable requireCallable(final JanitorScriptProcess process, final JCallArgs arguments, final String operation) throws JanitorRuntimeException {
+        final JanitorObject callable = arguments.require(1).get(0);
+        if (callable instanceof JCallable func) {
+            return func;
+        }
+        throw new JanitorArgumentException(process, "invalid " + operation + " parameter: " + callable);
+    }
+
+    public static JSequence __stream(final JList self, final JanitorScriptProcess process, final JCallArgs arguments) throws JanitorRuntimeException {
+        arguments.require(0);
+        return process.getBuiltins().sequence(self); // not janitorGetHostValue(), which returns a copy
+    }
+
     public static JString __join(final JList self, final JanitorScriptProcess process, final JCallArgs arguments) throws JanitorRuntimeException {
         final String separator = arguments.getOptionalStringValue(0, " ");
         return Janitor.string(self.janitorGetHostValue().stream().map(JanitorObject::janitorToString).collect(Collectors.joining(separator)));
@@ -84,6 +84,28 @@ public class JMapClass {
         return Janitor.list(mapJanitorWrapper.janitorGetHostValue().values().stream());
     }
 
+    /**
+     * Stream the map's entries, as maps with the attributes "key" and "value".
+     * The entry maps are created lazily, while the sequence runs.
+     *
+     * @param mapJanitorWrapper the map
+     * @param process           the running script
+     * @param jCallArgs         no arguments
+     * @return a sequence of entries
+     * @throws JanitorRuntimeException on errors
+     */
+    public static JanitorObject __stream(JanitorWrapper<Map<JanitorObject, JanitorObject>> mapJanitorWrapper, JanitorScriptProcess process, JCallArgs jCallArgs) throws JanitorRuntimeException {
+        jCallArgs.require(0);
+        final Map<JanitorObject, JanitorObject> map = mapJanitorWrapper.janitorGetHostValue();
+        final BuiltinTypes builtins = process.getBuiltins();
+        return builtins.sequence(() -> map.entrySet().stream().<JanitorObject>map(entry -> {
+            final JMap result = builtins.map();
+            result.put("key", entry.getKey());
+            result.put("value", entry.getValue());
+            return result;
+        }).iterator());
+    }
+
     public static JanitorObject __containsKey(JanitorWrapper<Map<JanitorObject, JanitorObject>> mapJanitorWrapper, JanitorScriptProcess process, JCallArgs jCallArgs) throws JanitorRuntimeException {
         return Janitor.toBool(mapJanitorWrapper.janitorGetHostValue().containsKey(jCallArgs.require(1).get(0)));
     }
@@ -0,0 +1,261 @@
+package com.eischet.janitor.env;
+
+import com.eischet.janitor.api.Janitor;
+import com.eischet.janitor.api.JanitorScriptProcess;
+import com.eischet.janitor.api.errors.runtime.JanitorArgumentException;
+import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
+import com.eischet.janitor.api.types.JIterable;
+import com.eischet.janitor.api.types.JanitorObject;
+import com.eischet.janitor.api.types.builtin.*;
+import com.eischet.janitor.api.types.functions.EvaluatedArgument;
+import com.eischet.janitor.api.types.functions.JCallArgs;
+import com.eischet.janitor.api.types.functions.JCallable;
+import com.eischet.janitor.compiler.ast.function.ScriptClosure;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Operations for lazy sequences, as created by list.stream(), set.stream() and map.stream().
+ * <p>Intermediate operations (filter, map, flatMap, take, skip) return a new sequence; terminal operations (toList, toSet,
+ * count, first, any, all, reduce, forEach) run all stages in a single pass.</p>
+ * @see JSequence
+ */
+public class JSequenceClass {
+
+    public static JSequence __filter(final JSequence self, final JanitorScriptProcess process, final JCallArgs arguments) throws JanitorRuntimeException {
+        final JCallable predicate = requireCallable(process, arguments.require(1), 0, "filter");
+        return self.then((p, downstream) -> {
+            final Caller caller = new Caller(p, "filter", predicate, 1);
+            return element -> !caller.call(element).janitorIsTrue() || downstream.accept(element);
+        });
+    }
+
+    public static JSequence __map(final JSequence self, final JanitorScriptProcess process, final JCallArgs arguments) throws JanitorRuntimeException {
+        final JCallable mapping = requireCallable(process, arguments.require(1), 0, "map");
+        return self.then((p, downstream) -> {
+            final Caller caller = new Caller(p, "map", mapping, 1);
+            return element -> downstream.accept(caller.call(element));
+        });
+    }
+
+    public static JSequence __flatMap(final JSequence self, final JanitorScriptProcess process, final JCallArgs arguments) throws JanitorRuntimeException {
+        final JCallable mapping = requireCallable(process, arguments.require(1), 0, "flatMap");
+        return self.then((p, downstream) -> {
+            final Caller caller = new Caller(p, "flatMap", mapping, 1);
+            return element -> {
+                final JanitorObject mapped = caller.call(element);
+                if (mapped instanceof JSequence sequence) {
+                    final boolean[] more = {true};
+                    sequence.run(p, inner -> more[0] = downstream.accept(inner));
+                    return more[0];
+                }
+                if (!(mapped instanceof JIterable iterable)) {
+                    throw new JanitorArgumentException(p, "flatMap: the function must return a list, set or sequence, but returned " + mapped.janitorClassName());
+                }
+                final Iterator<? extends JanitorObject> iterator = iterable.getIterator();
+                while (iterator.hasNext()) {
+                    if (!downstream.accept(iterator.next())) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        });
+    }
+
+    public static JSequence __take(final JSequence self, final JanitorScriptProcess process, final JCallArgs arguments) throws JanitorRuntimeException {
+        final long limit = arguments.require(1).getRequiredLongValue(0);
+        if (limit <= 0) {
+            return process.getBuiltins().sequence(List.of()); // without asking the source for anything
+        }
+        return self.then((p, downstream) -> new JSequence.Sink() {
+            private long taken = 0;
+
+            @Override
+            public boolean accept(final JanitorObject element) throws JanitorRuntimeException {
+                return taken++ < limit && downstream.accept(element) && taken < limit;
+            }
+        });
+    }
+
+    public static JSequence __skip(final JSequence self, final JanitorScriptProcess process, final JCallArgs arguments) throws JanitorRuntimeException {
+        final long count = arguments.require(1).getRequiredLongValue(0);
+        return self.then((p, downstream) -> new JSequence.Sink() {
+            private long skipped = 0;
+
+            @Override
+            public boolean accept(final JanitorObject element) throws JanitorRuntimeException {
+                if (skipped < count) {
+                    ++skipped;
+                    return true;
+                }
+                return downstream.accept(element);
+            }
+        });
+    }
+
+    public static JList __toList(final JSequence self, final JanitorScriptProcess process, final JCallArgs arguments) throws JanitorRuntimeException {
+        arguments.require(0);
+        final JList result = process.getBuiltins().list();
+        self.run(process, element -> {
+            result.add(element);
+            return true;
+        });
+        return result;
+    }
+
+    public static JSet __toSet(final JSequence self, final JanitorScriptProcess process, final JCallArgs arguments) throws JanitorRuntimeException {
+        arguments.require(0);
+        final JSet result = process.getBuiltins().set();
+        self.run(process, element -> {
+            result.add(element);
+            return true;
+        });
+        return result;
+    }
+
+    public static JInt __count(final JSequence self, final JanitorScriptProcess process, final JCallArgs arguments) throws JanitorRuntimeException {
+        arguments.require(0);
+        final long[] count = {0};
+        self.run(process, element -> {
+            ++count[0];
+            return true;
+        });
+        return process.getBuiltins().integer(count[0]);
+    }
+
+    public static JanitorObject __first(final JSequence self, final JanitorScriptProcess process, final JCallArgs arguments) throws JanitorRuntimeException {
+        arguments.require(0);
+        final JanitorObject[] first = {JNull.NULL};
+        self.run(process, element -> {
+            first[0] = element;
+            return false;
+        });
+        return first[0];
+    }
+
+    public static JBool __any(final JSequence self, final JanitorScriptProcess process, final JCallArgs arguments) throws JanitorRuntimeException {
+        arguments.require(0, 1);
+        final Caller caller = arguments.size() == 0 ? null : new Caller(process, "any", requireCallable(process, arguments, 0, "any"), 1);
+        final boolean[] found = {false};
+        self.run(process, element -> {
+            found[0] = caller == null || caller.call(element).janitorIsTrue();
+            return !found[0];
+        });
+        return Janitor.toBool(found[0]);
+    }
+
+    public static JBool __all(final JSequence self, final JanitorScriptProcess process, final JCallArgs arguments) throws JanitorRuntimeException {
+        final Caller caller = new Caller(process, "all", requireCallable(process, arguments.require(1), 0, "all"), 1);
+        final boolean[] all = {true};
+        self.run(process, element -> {
+            all[0] = caller.call(element).janitorIsTrue();
+            return all[0];
+        });
+        return Janitor.toBool(all[0]);
+    }
+
+    /**
+     * Combine all elements into one, like JavaScript's Array.reduce: seq.reduce((sum, x) -> sum + x, 0).
+     * Without an initial value, the first element is used. An empty sequence without an initial value reduces to null.
+     *
+     * @param self      the sequence
+     * @param process   the running script
+     * @param arguments the reducing function, which receives the accumulated value and the next element, and an optional initial value
+     * @return the result
+     * @throws JanitorRuntimeException on errors
+     */
+    public static JanitorObject __reduce(final JSequence self, final JanitorScriptProcess process, final JCallArgs arguments) throws JanitorRuntimeException {
+        arguments.require(1, 2);
+        final Caller caller = new Caller(process, "reduce", requireCallable(process, arguments, 0, "reduce"), 2);
+        final JanitorObject[] accumulated = {arguments.size() > 1 ? arguments.get(1) : null};
+        self.run(process, element -> {
+            accumulated[0] = accumulated[0] == null ? element : caller.call(accumulated[0], element);
+            return true;
+        });
+        return accumulated[0] == null ? JNull.NULL : accumulated[0];
+    }
+
+    public static JNull __forEach(final JSequence self, final JanitorScriptProcess process, final JCallArgs arguments) throws JanitorRuntimeException {
+        final Caller caller = new Caller(process, "forEach", requireCallable(process, arguments.require(1), 0, "forEach"), 1);
+        self.run(process, element -> {
+            caller.call(element);
+            return true;
+        });
+        return JNull.NULL;
+    }
+
+    private static JCallable requireCallable(final JanitorScriptProcess process, final JCallArgs arguments, final int position, final String operation) throws JanitorRuntimeException {
+        final JanitorObject callable = arguments.get(position);
+        if (callable instanceof JCallable func) {
+            return func;
+        }
+        throw new JanitorArgumentException(process, "invalid sequence::" + operation + " parameter: " + callable);
+    }
+
+    /**
+     * Calls a function once per element. For script closures, the same argument objects are reused for every call instead
+     * of allocating new ones, which is safe because closures copy their arguments into their own scope when called.
+     * Other callables, e.g. host functions, may keep their arguments, so they get new ones for every call.
+     */
+    private static final class Caller {
+        private final JanitorScriptProcess process;
+        private final String name;
+        private final JCallable function;
+        private final ReusableArgument[] holders;
+        private final JCallArgs arguments;
+
+        private Caller(final JanitorScriptProcess process, final String name, final JCallable function, final int arity) {
+            this.process = process;
+            this.name = name;
+            this.function = function;
+            if (function instanceof ScriptClosure) {
+                this.holders = new ReusableArgument[arity];
+                for (int i = 0; i < arity; i++) {
+                    holders[i] = new ReusableArgument();
+                }
+                this.arguments = new JCallArgs(process, name, List.<EvaluatedArgument>of(holders));
+            } else {
+                this.holders = null;
+                this.arguments = null;
+            }
+        }
+
+        private JanitorObject call(final JanitorObject argument) throws JanitorRuntimeException {
+            if (holders == null) {
+                return function.call(process, new JCallArgs(process, name, List.of(new EvaluatedArgument(null, argument))));
+            }
+            holders[0].current = argument;
+            return function.call(process, arguments);
+        }
+
+        private JanitorObject call(final JanitorObject first, final JanitorObject second) throws JanitorRuntimeException {
+            if (holders == null) {
+                return function.call(process, new JCallArgs(process, name, List.of(new EvaluatedArgument(null, first), new EvaluatedArgument(null, second))));
+            }
+            holders[0].current = first;
+            holders[1].current = second;
+            return function.call(process, arguments);
+        }
+    }
+
+    private static final class ReusableArgument extends EvaluatedArgument {
+        private JanitorObject current = JNull.NULL;
+
+        private ReusableArgument() {
+            super(null, JNull.NULL);
+        }
+
+        @Override
+        public JanitorObject getValue() {
+            return current;
+        }
+
+        @Override
+        public String toString() {
+            return current.toString();
+        }
+    }
+
+}
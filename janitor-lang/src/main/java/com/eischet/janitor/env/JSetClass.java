@@ -7,10 +7,15 @@ import com.eischet.janitor.api.types.JanitorObject;
 import com.eischet.janitor.api.types.builtin.JBool;
 import com.eischet.janitor.api.types.builtin.JInt;
 import com.eischet.janitor.api.types.builtin.JList;
+import com.eischet.janitor.api.types.builtin.JNull;
+import com.eischet.janitor.api.types.builtin.JSequence;
 import com.eischet.janitor.api.types.builtin.JSet;
 import com.eischet.janitor.api.types.functions.JCallArgs;
 import com.eischet.janitor.api.types.wrapped.JanitorWrapper;
+import com.eischet.janitor.runtime.ParallelCalls;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -45,6 +50,37 @@ public class JSetClass {
         return process.getBuiltins().list(self.janitorGetHostValue().stream());
     }
 
+    public static JSequence __stream(final JanitorWrapper<Set<JanitorObject>> _self, final JanitorScriptProcess process, final JCallArgs arguments) throws JanitorRuntimeException {
+        final JSet self = ((JSet) _self);
+        arguments.require(0);
+        return process.getBuiltins().sequence(self.janitorGetHostValue());
+    }
+
+    public static JList __parallelMap(final JanitorWrapper<Set<JanitorObject>> _self, final JanitorScriptProcess process, final JCallArgs arguments) throws JanitorRuntimeException {
+        final JSet self = ((JSet) _self);
+        final JanitorObject[] mapped = ParallelCalls.callEach(process, "parallelMap", JListClass.requireCallable(process, arguments, "parallelMap"), List.copyOf(self.janitorGetHostValue()));
+        return process.getBuiltins().list(Arrays.stream(mapped));
+    }
+
+    public static JSet __parallelFilter(final JanitorWrapper<Set<JanitorObject>> _self, final JanitorScriptProcess process, final JCallArgs arguments) throws JanitorRuntimeException {
+        final JSet self = ((JSet) _self);
+        final List<JanitorObject> elements = List.copyOf(self.janitorGetHostValue());
+        final JanitorObject[] keep = ParallelCalls.callEach(process, "parallelFilter", JListClass.requireCallable(process, arguments, "parallelFilter"), elements);
+        final JSet result = process.getBuiltins().set();
+        for (int i = 0; i < keep.length; i++) {
+            if (keep[i].janitorIsTrue()) {
+                result.add(elements.get(i));
+            }
+        }
+        return result;
+    }
+
+    public static JNull __parallelForEach(final JanitorWrapper<Set<JanitorObject>> _self, final JanitorScriptProcess process, final JCallArgs arguments) throws JanitorRuntimeException {
+        final JSet self = ((JSet) _self);
+        ParallelCalls.callEach(process, "parallelForEach", JListClass.requireCallable(process, arguments, "parallelForEach"), List.copyOf(self.janitorGetHostValue()));
+        return JNull.NULL;
+    }
+
     public static JInt __size(final JanitorWrapper<Set<JanitorObject>> _self, final JanitorScriptProcess process, final JCallArgs arguments) throws JanitorRuntimeException {
         final JSet self = ((JSet) _self);
         arguments.require(0);
@@ -0,0 +1,75 @@
+package com.eischet.janitor.env;
+
+import com.eischet.janitor.api.Janitor;
+import com.eischet.janitor.api.JanitorScriptProcess;
+import com.eischet.janitor.api.errors.runtime.JanitorArgumentException;
+import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
+import com.eischet.janitor.api.types.JanitorObject;
+import com.eischet.janitor.api.types.builtin.JInt;
+import com.eischet.janitor.api.types.builtin.JStringBuilder;
+import com.eischet.janitor.api.types.functions.JCallArgs;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Operations for StringBuilder objects.
+ *
+ * {@see com.eischet.janitor.env.DefaultBuiltinTypes}
+ */
+public class JStringBuilderClass {
+
+    public static final String STRING_BUILDER_CLASS = """
+            A StringBuilder collects a string piece by piece, e.g. sb = StringBuilder(); sb.append("a", 1).append("b").
+
+            Unlike strings, string builders are changed in place, so building a long string does not copy it over and over.
+            Call toString() to get the string.
+            """;
+
+    /**
+     * Create a new string builder; the optional argument is the initial contents.
+     */
+    public static JanitorObject __new(final @NotNull JanitorScriptProcess process, final @NotNull JCallArgs arguments) throws JanitorRuntimeException {
+        arguments.require(0, 1);
+        return process.getBuiltins().stringBuilder(arguments.size() == 0 ? "" : JStringBuilder.toText(arguments.get(0)));
+    }
+
+    /**
+     * Append all arguments, e.g. sb.append("a", 1) appends "a1".
+     */
+    public static JStringBuilder __append(final @NotNull JStringBuilder self, final @NotNull JanitorScriptProcess process, final @NotNull JCallArgs arguments) throws JanitorRuntimeException {
+        arguments.requireAtLeast(1);
+        for (int i = 0; i < arguments.size(); i++) {
+            self.append(arguments.get(i));
+        }
+        return self;
+    }
+
+    public static JStringBuilder __insert(final @NotNull JStringBuilder self, final @NotNull JanitorScriptProcess process, final @NotNull JCallArgs arguments) throws JanitorRuntimeException {
+        arguments.require(2);
+        final long offset = arguments.getInt(0).getValue();
+        if (offset < 0 || offset > self.length()) {
+            throw new JanitorArgumentException(process, "insert: offset " + offset + " is outside of 0.." + self.length());
+        }
+        return self.insert((int) offset, arguments.get(1));
+    }
+
+    public static JInt __length(final @NotNull JStringBuilder self, final @NotNull JanitorScriptProcess process, final @NotNull JCallArgs arguments) throws JanitorRuntimeException {
+        arguments.require(0);
+        return process.getBuiltins().integer(self.length());
+    }
+
+    public static JanitorObject __isEmpty(final @NotNull JStringBuilder self, final @NotNull JanitorScriptProcess process, final @NotNull JCallArgs arguments) throws JanitorRuntimeException {
+        arguments.require(0);
+        return Janitor.toBool(self.length() == 0);
+    }
+
+    public static JStringBuilder __clear(final @NotNull JStringBuilder self, final @NotNull JanitorScriptProcess process, final @NotNull JCallArgs arguments) throws JanitorRuntimeException {
+        arguments.require(0);
+        return self.clear();
+    }
+
+    public static JanitorObject __toString(final @NotNull JStringBuilder self, final @NotNull JanitorScriptProcess process, final @NotNull JCallArgs arguments) throws JanitorRuntimeException {
+        arguments.require(0);
+        return process.getBuiltins().string(self.janitorToString());
+    }
+
+}
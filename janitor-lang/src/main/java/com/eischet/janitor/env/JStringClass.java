@@ -42,7 +42,7 @@ public class JStringClass {
 
     public static @NotNull JanitorObject length(final @NotNull JString self, final @NotNull JanitorScriptProcess process, final @NotNull JCallArgs arguments) throws JanitorRuntimeException {
         arguments.require(0);
-        return process.getBuiltins().integer(self.janitorGetHostValue().length());
+        return process.getBuiltins().integer(self.length());
     }
 
     public static final String STRING_TRIM = "String.trim(): Returns the String with leading and trailing spaces removed";
@@ -10,7 +10,6 @@ import com.eischet.janitor.api.types.dispatch.HasDispatcher;
 import com.eischet.janitor.api.types.functions.JCallArgs;
 import com.eischet.janitor.api.errors.compiler.JanitorCompilerException;
 import com.eischet.janitor.api.errors.runtime.JanitorAssertionException;
-import com.eischet.janitor.api.errors.runtime.JanitorNameException;
 import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
 import com.eischet.janitor.api.i18n.JanitorFormatting;
 import com.eischet.janitor.api.modules.JanitorModule;
@@ -33,6 +32,7 @@ import com.eischet.janitor.api.modules.ModuleResolver;
 import com.eischet.janitor.toolbox.json.api.JsonException;
 import com.eischet.janitor.toolbox.json.api.JsonInputStream;
 import com.eischet.janitor.toolbox.json.api.JsonWriter;
+import com.eischet.janitor.toolbox.memory.StringInterner;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -54,8 +54,7 @@ public abstract class JanitorDefaultEnvironment implements JanitorEnvironment {
     public static final FilterPredicate NUMB = x -> true;
     protected final DefaultBuiltinTypes builtins;
     private final JanitorFormatting formatting;
-    private final List<JanitorModuleRegistration> moduleRegistrations = new ArrayList<>();
-    private final List<ModuleResolver> resolvers = new ArrayList<>();
+    private final ModuleRegistry modules = new ModuleRegistry();
     protected @Nullable Scope.ImplicitObjectProvider implicitTemplateObjectProvider = null;
 
     private final Scope builtinScope = Scope.createBuiltinScope(this, Location.virtual(ScriptModule.builtin()));
@@ -63,6 +62,7 @@ public abstract class JanitorDefaultEnvironment implements JanitorEnvironment {
     {
         builtinScope.bindF("print", (rs, args) -> rs.getRuntime().print(rs, args));
         builtinScope.bindF("assert", JanitorDefaultEnvironment::doAssert);
+        builtinScope.bindF("StringBuilder", JStringBuilderClass::__new);
         builtinScope.bind("__builtin__", builtinScope); // not sure if this is actually a good idea, because that's a perfect circle of references.
 
         // Very experimental... and will not yet work like it does in Python, if ever.
@@ -101,6 +101,19 @@ public abstract class JanitorDefaultEnvironment implements JanitorEnvironment {
         this.builtins = new DefaultBuiltinTypes();
     }
 
+    /**
+     * Constructor with a custom string interning strategy.
+     * <p>Each environment has its own interner. Pass {@link StringInterner#NONE} for environments whose scripts
+     * rarely repeat strings, or {@link StringInterner#bounded(int, int)} with a larger capacity for those that do.</p>
+     *
+     * @param formatting the formatting rules
+     * @param interner   interns variable names and short strings
+     */
+    public JanitorDefaultEnvironment(JanitorFormatting formatting, StringInterner interner) {
+        this.formatting = formatting;
+        this.builtins = new DefaultBuiltinTypes(interner);
+    }
+
     public static JanitorDefaultEnvironment create(final JanitorFormatting formatting, final Consumer<String> warningEmitter) {
         return new JanitorDefaultEnvironment(formatting) {
             @Override
@@ -259,7 +272,7 @@ public abstract class JanitorDefaultEnvironment implements JanitorEnvironment {
 
     @Override
     public void addModule(final @NotNull JanitorModuleRegistration registration) {
-        moduleRegistrations.add(registration);
+        modules.add(registration);
     }
 
     public void autoDiscoverModules() {
@@ -273,12 +286,7 @@ public abstract class JanitorDefaultEnvironment implements JanitorEnvironment {
 
     @Override
     public @NotNull JanitorModule getModuleByQualifier(final JanitorScriptProcess process, final String name) throws JanitorRuntimeException {
-        for (final JanitorModuleRegistration moduleRegistration : moduleRegistrations) {
-            if (Objects.equals(name, moduleRegistration.getQualifiedName())) {
-                return moduleRegistration.getModuleSupplier().get();
-            }
-        }
-        throw new JanitorNameException(process, "Module not found: " + name);
+        return modules.getByQualifier(process, name);
     }
 
 
@@ -290,18 +298,21 @@ public abstract class JanitorDefaultEnvironment implements JanitorEnvironment {
      */
     @Override
     public void addModuleResolver(final ModuleResolver resolver) {
-        resolvers.add(0, resolver);
+        modules.addResolver(resolver);
     }
 
     @Override
     public @NotNull JanitorModule getModuleByStringName(final JanitorScriptProcess process, final String name) throws JanitorRuntimeException {
-        for (final ModuleResolver resolver : resolvers) {
-            final JanitorModule module = resolver.resolveModuleByStringName(process, name);
-            if (module != null) {
-                return module;
-            }
-        }
-        throw new JanitorNameException(process, "Module not found: '" + name + "'");
+        return modules.getByStringName(process, name);
+    }
+
+    /**
+     * Return the environment's modules, e.g. to switch on module caching or to invalidate cached script modules.
+     *
+     * @return the module registry
+     */
+    public @NotNull ModuleRegistry getModuleRegistry() {
+        return modules;
     }
 
     @Override
@@ -0,0 +1,217 @@
+package com.eischet.janitor.env;
+
+import com.eischet.janitor.api.JanitorScriptProcess;
+import com.eischet.janitor.api.errors.runtime.JanitorNameException;
+import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
+import com.eischet.janitor.api.modules.JanitorModule;
+import com.eischet.janitor.api.modules.JanitorModuleRegistration;
+import com.eischet.janitor.api.modules.ModuleResolver;
+import com.eischet.janitor.runtime.ScriptCache;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The modules of an environment: registered modules, which scripts import by qualified name, and module resolvers, which
+ * provide modules imported by string names.
+ * <p>Registrations are indexed by name. Two caches can be switched on per environment:</p>
+ * <ul>
+ *     <li>{@link #setStatelessModuleCaching(boolean) stateless module caching} creates a single instance of each module
+ *     whose registration is {@link JanitorModuleRegistration#isStateless() stateless}, and hands that to every import;</li>
+ *     <li>the {@link #setResolvedModuleCacheSize(int) resolved module cache} keeps the modules returned by resolvers, e.g.
+ *     modules compiled from scripts, by name. Before a cached module is reused, its resolver is asked whether it is
+ *     {@link ModuleResolver#isModuleCurrent(String, JanitorModule) still current}, and hosts can
+ *     {@link #invalidate(String) invalidate} modules explicitly when their sources change.</li>
+ * </ul>
+ * <p>Both caches are off by default, so every import gets a fresh module, as it always did.</p>
+ */
+public final class ModuleRegistry {
+
+    private record Resolved(@NotNull ModuleResolver resolver, @NotNull JanitorModule module) {
+    }
+
+    private final Map<String, JanitorModuleRegistration> registrations = new ConcurrentHashMap<>();
+    private final Map<String, JanitorModule> statelessModules = new ConcurrentHashMap<>();
+    private final List<ModuleResolver> resolvers = new CopyOnWriteArrayList<>();
+    private final Map<String, Resolved> resolved;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private volatile boolean statelessModuleCaching = false;
+    private volatile int resolvedModuleCacheSize = 0;
+
+    public ModuleRegistry() {
+        this.resolved = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Resolved> eldest) {
+                if (size() > resolvedModuleCacheSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Register a module. When several modules are registered under the same name, the first one wins.
+     *
+     * @param registration the module's registration
+     */
+    public void add(final @NotNull JanitorModuleRegistration registration) {
+        registrations.putIfAbsent(registration.getQualifiedName(), registration);
+    }
+
+    /**
+     * Add a module resolver. Resolvers are asked in reverse order of addition, so later resolvers can override earlier ones.
+     *
+     * @param resolver the resolver
+     */
+    public void addResolver(final @NotNull ModuleResolver resolver) {
+        resolvers.add(0, resolver);
+    }
+
+    /**
+     * Look up a registered module.
+     *
+     * @param name the qualified name
+     * @return the registration, or null if there is none
+     */
+    public @Nullable JanitorModuleRegistration getRegistration(final @NotNull String name) {
+        return registrations.get(name);
+    }
+
+    /**
+     * Return the module registered under a qualified name.
+     *
+     * @param process the running script
+     * @param name    the qualified name
+     * @return a fresh module, or the shared instance of a stateless module when stateless module caching is on
+     * @throws JanitorRuntimeException if there is no such module
+     */
+    public @NotNull JanitorModule getByQualifier(final JanitorScriptProcess process, final String name) throws JanitorRuntimeException {
+        final JanitorModuleRegistration registration = name == null ? null : registrations.get(name);
+        if (registration == null) {
+            throw new JanitorNameException(process, "Module not found: " + name);
+        }
+        if (statelessModuleCaching && registration.isStateless()) {
+            return statelessModules.computeIfAbsent(name, key -> registration.getModuleSupplier().get());
+        }
+        return registration.getModuleSupplier().get();
+    }
+
+    /**
+     * Return the module for a string name, asking the resolvers unless the resolved module cache has a current module.
+     *
+     * @param process the running script
+     * @param name    the module name
+     * @return the module
+     * @throws JanitorRuntimeException if no resolver knows the module, or on resolver errors
+     */
+    public @NotNull JanitorModule getByStringName(final JanitorScriptProcess process, final String name) throws JanitorRuntimeException {
+        if (resolvedModuleCacheSize > 0) {
+            final Resolved cached;
+            synchronized (resolved) {
+                cached = resolved.get(name);
+            }
+            if (cached != null && cached.resolver().isModuleCurrent(name, cached.module())) {
+                hits.increment();
+                return cached.module();
+            }
+            misses.increment();
+        }
+        for (final ModuleResolver resolver : resolvers) {
+            final JanitorModule module = resolver.resolveModuleByStringName(process, name);
+            if (module != null) {
+                if (resolvedModuleCacheSize > 0) {
+                    synchronized (resolved) {
+                        resolved.put(name, new Resolved(resolver, module));
+                    }
+                }
+                return module;
+            }
+        }
+        throw new JanitorNameException(process, "Module not found: '" + name + "'");
+    }
+
+    /**
+     * Drop a module from the caches, so the next import creates or resolves it again, e.g. after its script source has changed.
+     *
+     * @param name the module name
+     * @return true if a cached module was dropped
+     */
+    public boolean invalidate(final @NotNull String name) {
+        final boolean stateless = statelessModules.remove(name) != null;
+        synchronized (resolved) {
+            return resolved.remove(name) != null || stateless;
+        }
+    }
+
+    /**
+     * Drop all cached modules.
+     */
+    public void invalidateAll() {
+        statelessModules.clear();
+        synchronized (resolved) {
+            resolved.clear();
+        }
+    }
+
+    public boolean isStatelessModuleCaching() {
+        return statelessModuleCaching;
+    }
+
+    /**
+     * Share a single instance of each stateless module between all imports, or stop doing so.
+     *
+     * @param statelessModuleCaching true to share stateless modules
+     */
+    public void setStatelessModuleCaching(final boolean statelessModuleCaching) {
+        this.statelessModuleCaching = statelessModuleCaching;
+        if (!statelessModuleCaching) {
+            statelessModules.clear();
+        }
+    }
+
+    public int getResolvedModuleCacheSize() {
+        return resolvedModuleCacheSize;
+    }
+
+    /**
+     * Set the maximum number of modules from resolvers to keep, dropping the least recently used ones first.
+     *
+     * @param resolvedModuleCacheSize the maximum number of cached modules; 0 disables the cache
+     */
+    public void setResolvedModuleCacheSize(final int resolvedModuleCacheSize) {
+        if (resolvedModuleCacheSize < 0) {
+            throw new IllegalArgumentException("invalid maximum size: " + resolvedModuleCacheSize);
+        }
+        synchronized (resolved) {
+            this.resolvedModuleCacheSize = resolvedModuleCacheSize;
+            while (resolved.size() > resolvedModuleCacheSize) {
+                resolved.remove(resolved.keySet().iterator().next());
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Return statistics of the resolved module cache.
+     *
+     * @return the statistics
+     */
+    public @NotNull ScriptCache.Statistics getStatistics() {
+        final int size;
+        synchronized (resolved) {
+            size = resolved.size();
+        }
+        return new ScriptCache.Statistics(hits.sum(), misses.sum(), evictions.sum(), size);
+    }
+
+}
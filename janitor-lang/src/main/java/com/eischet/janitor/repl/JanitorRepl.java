@@ -1,7 +1,6 @@
 package com.eischet.janitor.repl;
 
 import com.eischet.janitor.api.JanitorRuntime;
-import com.eischet.janitor.api.errors.glue.JanitorControlFlowException;
 import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
 import com.eischet.janitor.api.scopes.Location;
 import com.eischet.janitor.api.scopes.Scope;
@@ -11,18 +10,23 @@ import com.eischet.janitor.api.types.builtin.JNull;
 import com.eischet.janitor.compiler.CompilerError;
 import com.eischet.janitor.compiler.JanitorAntlrCompiler;
 import com.eischet.janitor.compiler.ast.Ast;
+import com.eischet.janitor.compiler.ast.statement.Completion;
 import com.eischet.janitor.compiler.ast.statement.Script;
 import com.eischet.janitor.compiler.ast.statement.Statement;
-import com.eischet.janitor.compiler.ast.statement.controlflow.ReturnStatement;
 import com.eischet.janitor.lang.JanitorLexer;
 import com.eischet.janitor.lang.JanitorParser;
+import com.eischet.janitor.runtime.BaseRuntime;
 import com.eischet.janitor.runtime.RunningScriptProcess;
+import com.eischet.janitor.runtime.ScriptProfiler;
 import org.antlr.v4.runtime.*;
 import org.antlr.v4.runtime.atn.ATNConfigSet;
 import org.antlr.v4.runtime.dfa.DFA;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.BitSet;
 import java.util.List;
 
@@ -35,6 +39,7 @@ public class JanitorRepl {
 
     private static final String DEFAULT_PROMPT = "janitor> ";
     private static final String CONTINUE_PROMPT = "... ";
+    private static final int DEFAULT_REPORT_SIZE = 10;
 
     // figlet -f small janitor
     private static final String LOGO = """
@@ -55,6 +60,7 @@ public class JanitorRepl {
     private String defaultPrompt = DEFAULT_PROMPT;
     private String continuePrompt = CONTINUE_PROMPT;
     private boolean quit;
+    private @Nullable ScriptProfiler profiler;
     final StringBuilder buffer = new StringBuilder();
     String prompt = defaultPrompt;
 
@@ -144,7 +150,7 @@ public class JanitorRepl {
         return new Fragment(scriptContext);
     }
 
-    public PartialParseResult parse(final String text) throws JanitorControlFlowException, JanitorRuntimeException, CompilerError {
+    public PartialParseResult parse(final String text) throws JanitorRuntimeException, CompilerError {
         if (hasUnclosedMultilineString(text) || hasUnclosedBrackets(text)) {
             io.verbose("looks incomplete");
             return PartialParseResult.INCOMPLETE;
@@ -168,22 +174,29 @@ public class JanitorRepl {
 
 
         final ScriptModule module = new ScriptModule("repl", text);
-        final JanitorAntlrCompiler compiler = new JanitorAntlrCompiler(runtime.getEnvironment(), module, false, text);
+        final boolean tracing = runtime instanceof BaseRuntime baseRuntime && baseRuntime.isTracing();
+        final JanitorAntlrCompiler compiler = new JanitorAntlrCompiler(runtime.getEnvironment(), module, false, text, tracing);
         io.verbose("start compile");
         final Ast compiledText = compiler.visit(fragment.getScriptContext());
         if (compiledText instanceof Statement compiledStatement) {
             final Location loc = Location.startOf(module);
             final Script partialScript = new Script(loc, List.of(compiledStatement), text);
             final RunningScriptProcess process = new RunningScriptProcess(runtime, globalScope, module.getName(), partialScript);
+            final Completion completion;
+            process.startProfiling();
             try {
-                partialScript.execute(process);
+                completion = partialScript.execute(process);
+            } finally {
+                process.stopProfiling();
+            }
+            if (completion.isReturn()) {
+                final JanitorObject returnResult = completion.getValue();
+                io.println("Return Result: " + returnResult);
+            } else {
                 final JanitorObject result = process.getScriptResult();
                 if (result != JNull.NULL) {
                     io.println(String.valueOf(result));
                 }
-            } catch (ReturnStatement.Return ret) {
-                final JanitorObject returnResult = ret.getValue();
-                io.println("Return Result: " + returnResult);
             }
             // Catch all the globals defined by this script and stuff them into our global scope, making them available for the next round:
             globalScope.replEatScope(process.getMainScope());
@@ -252,6 +265,10 @@ public class JanitorRepl {
             quit = true; // EOF (Ctrl+D)
         }
         try {
+            if (buffer.isEmpty() && text != null && text.startsWith(":")) {
+                command(text.trim());
+                return;
+            }
             buffer.append(text).append("\n");
             PartialParseResult result = parse(buffer.toString());
             if (result == PartialParseResult.OK) {
@@ -269,6 +286,56 @@ public class JanitorRepl {
     }
 
 
+    /**
+     * Run a REPL command, which starts with a colon.
+     * <ul>
+     *     <li>:profile start|stop|reset — control the script profiler</li>
+     *     <li>:profile report [n] — print the top n lines and functions</li>
+     *     <li>:profile save &lt;file&gt; — write the time samples as collapsed stacks, for flame graph tools</li>
+     * </ul>
+     *
+     * @param command the command line
+     * @throws IOException when saving fails
+     */
+    private void command(final String command) throws IOException {
+        final String[] words = command.split("\\s+");
+        if (!words[0].equals(":profile") || words.length < 2) {
+            io.error("Unknown command: " + command + "; try :profile start|stop|reset|report [n]|save <file>");
+            return;
+        }
+        if (!(runtime instanceof BaseRuntime baseRuntime)) {
+            io.error("This runtime does not support profiling.");
+            return;
+        }
+        if (profiler == null) {
+            profiler = new ScriptProfiler();
+            baseRuntime.setProfiler(profiler);
+        }
+        switch (words[1]) {
+            case "start" -> {
+                profiler.start();
+                io.println("profiler started");
+            }
+            case "stop" -> {
+                profiler.stop();
+                io.println("profiler stopped");
+            }
+            case "reset" -> profiler.reset();
+            case "report" -> io.print(profiler.report(words.length > 2 ? Integer.parseInt(words[2]) : DEFAULT_REPORT_SIZE));
+            case "save" -> {
+                if (words.length < 3) {
+                    io.error("Usage: :profile save <file>");
+                    return;
+                }
+                try (final Writer writer = Files.newBufferedWriter(Path.of(words[2]))) {
+                    profiler.writeCollapsedStacks(writer, ScriptProfiler.Metric.TIME);
+                }
+                io.println("saved to " + words[2]);
+            }
+            default -> io.error("Unknown profiler command: " + words[1]);
+        }
+    }
+
     public String getLogo() {
         return logo;
     }
@@ -6,6 +6,7 @@ import com.eischet.janitor.api.JanitorScriptProcess;
 import com.eischet.janitor.api.types.JanitorCleanupRequired;
 import com.eischet.janitor.api.types.functions.JCallArgs;
 import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
+import com.eischet.janitor.api.scopes.FrameLayout;
 import com.eischet.janitor.api.scopes.Location;
 import com.eischet.janitor.api.scopes.ResultAndScope;
 import com.eischet.janitor.api.scopes.Scope;
@@ -15,6 +16,7 @@ import com.eischet.janitor.api.types.JanitorObject;
 import com.eischet.janitor.logging.JanitorLogger;
 import com.eischet.janitor.template.TemplateParser;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.LinkedList;
@@ -26,12 +28,14 @@ public abstract class AbstractScriptProcess implements JanitorScriptProcess {
 
     private final JanitorRuntime runtime;
     private final Scope mainScope;
-    private final List<Scope> closureScopes = new LinkedList<>();
+    private final List<Scope> closureScopes = new ArrayList<>();
     private final @NotNull String processName;
     private Scope currentScope;
     private final LinkedList<JanitorCleanupRequired> cleanupList = new LinkedList<>();
 
     private JanitorObject scriptResult = JNull.NULL;
+    private @Nullable ScriptProfiler profiler;
+    private int profilerCountdown;
 
     /**
      * Constructor.
@@ -134,6 +138,11 @@ public abstract class AbstractScriptProcess implements JanitorScriptProcess {
         this.currentScope = Scope.createFreshBlockScope(location, currentScope);
     }
 
+    @Override
+    public void enterFrame(final Location location, final FrameLayout frameLayout) {
+        this.currentScope = Scope.createFreshFrameScope(location, currentScope, frameLayout);
+    }
+
     @Override
     public void exitBlock() {
         currentScope.janitorLeaveScope();
@@ -204,10 +213,42 @@ public abstract class AbstractScriptProcess implements JanitorScriptProcess {
         }
     }
 
+    /**
+     * Register this process with the runtime's profiler, if there is one, until {@link #stopProfiling()} is called.
+     */
+    public void startProfiling() {
+        if (profiler == null && getRuntime() instanceof BaseRuntime baseRuntime && baseRuntime.getProfiler() != null) {
+            profiler = baseRuntime.getProfiler();
+            profilerCountdown = profiler.getInstructionInterval();
+            profiler.register(this);
+        }
+    }
+
+    /**
+     * Unregister this process from the profiler, if it has been registered.
+     */
+    public void stopProfiling() {
+        if (profiler != null) {
+            profiler.unregister(this);
+            profiler = null;
+        }
+    }
+
+    /**
+     * Let the profiler sample this process's call stack every so many instructions; to be called by {@link #countInstruction()}.
+     */
+    protected final void profileInstruction() {
+        if (profiler != null && --profilerCountdown == 0) {
+            profilerCountdown = profiler.getInstructionInterval();
+            profiler.sampleInstructions(this);
+        }
+    }
+
     protected void processCleanups() {
         for (final JanitorCleanupRequired janitorCleanupRequired : cleanupList) {
             janitorCleanupRequired.janitorCleanup();
         }
+        cleanupList.clear();
     }
 
 }
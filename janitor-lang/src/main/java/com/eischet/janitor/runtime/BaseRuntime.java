@@ -8,26 +8,129 @@ import com.eischet.janitor.api.scopes.Scope;
 import com.eischet.janitor.api.types.JanitorObject;
 import com.eischet.janitor.api.types.functions.JCallable;
 import com.eischet.janitor.compiler.ast.statement.Script;
+import com.eischet.janitor.template.TemplateCache;
 import org.intellij.lang.annotations.Language;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 public abstract class BaseRuntime implements JanitorRuntime {
 
+    /**
+     * Default number of compiled scripts kept in a runtime's script cache.
+     */
+    public static final int DEFAULT_SCRIPT_CACHE_SIZE = 256;
+
     private final JanitorEnvironment enviroment;
+    private final ScriptCache scriptCache;
+    private final TemplateCache templateCache;
     private Consumer<String> traceListener;
+    private @NotNull Executor parallelExecutor = ForkJoinPool.commonPool();
+    private @Nullable ScriptProfiler profiler;
+    private @NotNull CompilationMode defaultCompilationMode = CompilationMode.INTERPRETER;
 
     public BaseRuntime(final JanitorEnvironment environment) {
+        this(environment, DEFAULT_SCRIPT_CACHE_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param environment     the environment
+     * @param scriptCacheSize the maximum number of compiled scripts, and of compiled templates, to cache; 0 disables the caches
+     */
+    public BaseRuntime(final JanitorEnvironment environment, final int scriptCacheSize) {
         this.enviroment = environment;
+        this.scriptCache = new ScriptCache(scriptCacheSize);
+        this.templateCache = new TemplateCache(this, scriptCacheSize);
+    }
+
+    /**
+     * Return the cache used by {@link #compile(String, String)}, e.g. to look at its statistics or to invalidate scripts.
+     *
+     * @return the script cache
+     */
+    public @NotNull ScriptCache getScriptCache() {
+        return scriptCache;
+    }
+
+    /**
+     * Return the cache used when expanding templates.
+     *
+     * @return the template cache
+     */
+    public @NotNull TemplateCache getTemplateCache() {
+        return templateCache;
+    }
+
+    @Override
+    public @NotNull Executor getParallelExecutor() {
+        return parallelExecutor;
+    }
+
+    /**
+     * Set the executor used by parallel operations like list.parallelMap(), e.g. a pool dedicated to scripts.
+     * The executor should not run the submitted tasks in the calling thread, or the operations are not parallel at all.
+     *
+     * @param parallelExecutor the executor for parallel operations
+     */
+    public void setParallelExecutor(final @NotNull Executor parallelExecutor) {
+        this.parallelExecutor = parallelExecutor;
+    }
+
+    public @Nullable ScriptProfiler getProfiler() {
+        return profiler;
     }
 
-    public void setTraceListener(final Consumer<String> listener) {
+    /**
+     * Set a profiler, which samples all scripts run by this runtime from now on while it is started, or null to stop profiling.
+     * Scripts that are already running when the profiler is set are not sampled.
+     *
+     * @param profiler the profiler, or null
+     */
+    public void setProfiler(final @Nullable ScriptProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    public @NotNull CompilationMode getDefaultCompilationMode() {
+        return defaultCompilationMode;
+    }
+
+    /**
+     * Set how scripts compiled without an explicit mode, i.e. through {@link #compile(String, String)}, are executed.
+     *
+     * @param defaultCompilationMode the compilation mode; the default is {@link CompilationMode#INTERPRETER}
+     */
+    public void setDefaultCompilationMode(final @NotNull CompilationMode defaultCompilationMode) {
+        this.defaultCompilationMode = defaultCompilationMode;
+    }
+
+    /**
+     * Set a listener for trace messages, or null to stop tracing.
+     * <p>Tracing is a compile time option: scripts compiled while a listener is set are instrumented to report their
+     * statements and function calls, and are not cached. Scripts compiled without a listener, including those already in the
+     * script cache, do not trace at all, so the regular execution path does not spend anything on tracing.</p>
+     *
+     * @param listener the listener, or null
+     */
+    public void setTraceListener(final @Nullable Consumer<String> listener) {
         this.traceListener = listener;
     }
 
+    /**
+     * Check whether a trace listener is set, so newly compiled scripts will be instrumented for tracing.
+     *
+     * @return true if tracing
+     */
+    public boolean isTracing() {
+        return traceListener != null;
+    }
+
     @Override
     public void trace(final Supplier<String> traceMessageSupplier) {
         if (traceListener != null) {
@@ -41,10 +144,32 @@ public abstract class BaseRuntime implements JanitorRuntime {
         return enviroment;
     }
 
+    /**
+     * Compile a script, or return a cached copy if the same module has been compiled from the same source before.
+     * <p>Compiled scripts can be shared, so callers can rely on the cache instead of keeping compiled scripts around themselves.</p>
+     *
+     * @param moduleName the module name
+     * @param source the source code
+     * @return the compiled script
+     * @throws JanitorCompilerException on errors
+     */
     @Override
     public RunnableScript compile(String moduleName, @Language("Janitor") String source) throws JanitorCompilerException {
+        return compile(moduleName, source, defaultCompilationMode);
+    }
+
+    @Override
+    public RunnableScript compile(final String moduleName, @Language("Janitor") final String source, final CompilationMode mode) throws JanitorCompilerException {
+        if (isTracing()) {
+            // instrumented scripts must not end up in the cache, where they would keep tracing after the listener is gone
+            return compileUncached(moduleName, source == null ? "" : source, mode);
+        }
+        return scriptCache.get(moduleName, source == null ? "" : source, mode, this::compileUncached);
+    }
+
+    private RunnableScript compileUncached(final String moduleName, final String source, final CompilationMode mode) throws JanitorCompilerException {
         try {
-            return new JanitorScript(this, moduleName, source == null ? "" : source);
+            return new JanitorScript(this, moduleName, source, false, false, mode);
         } catch (RuntimeException e) {
             throw new JanitorCompilerException("Compiler Error", e);
         }
@@ -1,5 +1,6 @@
 package com.eischet.janitor.runtime;
 
+import com.eischet.janitor.api.CompilationMode;
 import com.eischet.janitor.api.Janitor;
 import com.eischet.janitor.api.JanitorRuntime;
 import com.eischet.janitor.api.RunnableScript;
@@ -12,6 +13,8 @@ import com.eischet.janitor.api.types.builtin.JNull;
 import com.eischet.janitor.api.types.JanitorObject;
 import com.eischet.janitor.compiler.CompilerError;
 import com.eischet.janitor.compiler.JanitorCompiler;
+import com.eischet.janitor.compiler.bytecode.BytecodeCompiler;
+import com.eischet.janitor.compiler.bytecode.CompiledScript;
 import com.eischet.janitor.compiler.ast.statement.Script;
 import com.eischet.janitor.lang.JanitorLexer;
 import com.eischet.janitor.lang.JanitorParser;
@@ -35,6 +38,8 @@ public class JanitorScript implements RunnableScript, JsonExportableObject {
     private final @NotNull ScriptModule module;
     private final @Nullable Script scriptObject;
     private final @NotNull List<String> issues;
+    private final @NotNull CompilationMode compilationMode;
+    private final boolean traced;
     private @Nullable Exception compilerException;
 
 
@@ -49,7 +54,51 @@ public class JanitorScript implements RunnableScript, JsonExportableObject {
                          final @NotNull String source,
                          final boolean checking,
                          final boolean verbose) throws JanitorCompilerException {
+        this(runtime, moduleName, source, checking, verbose, CompilationMode.INTERPRETER);
+    }
+
+    /**
+     * Constructor.
+     * The script is instrumented for tracing when the runtime is tracing, see {@link BaseRuntime#isTracing()}.
+     *
+     * @param runtime       the runtime
+     * @param moduleName    the module name
+     * @param source        the source code
+     * @param checking      only check the script, recording errors instead of throwing them
+     * @param verbose       turn on verbose / debugging compiler output
+     * @param requestedMode how to execute the script
+     * @throws JanitorCompilerException on errors
+     */
+    public JanitorScript(final @NotNull JanitorRuntime runtime,
+                         final @NotNull String moduleName,
+                         final @NotNull String source,
+                         final boolean checking,
+                         final boolean verbose,
+                         final @NotNull CompilationMode requestedMode) throws JanitorCompilerException {
+        this(runtime, moduleName, source, checking, verbose, requestedMode, runtime instanceof BaseRuntime baseRuntime && baseRuntime.isTracing());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param runtime       the runtime
+     * @param moduleName    the module name
+     * @param source        the source code
+     * @param checking      only check the script, recording errors instead of throwing them
+     * @param verbose       turn on verbose / debugging compiler output
+     * @param requestedMode how to execute the script; instrumented scripts always run in the interpreter
+     * @param tracing       instrument the script, so it reports its statements and function calls to the runtime's trace listener
+     * @throws JanitorCompilerException on errors
+     */
+    public JanitorScript(final @NotNull JanitorRuntime runtime,
+                         final @NotNull String moduleName,
+                         final @NotNull String source,
+                         final boolean checking,
+                         final boolean verbose,
+                         final @NotNull CompilationMode requestedMode,
+                         final boolean tracing) throws JanitorCompilerException {
         this.runtime = runtime;
+        this.traced = tracing;
         this.module = new ScriptModule(moduleName, source);
 
         final JanitorANTLRErrorListener recorder = new JanitorANTLRErrorListener(source);
@@ -75,17 +124,39 @@ public class JanitorScript implements RunnableScript, JsonExportableObject {
         }
 
         if (!checking) {
-            scriptObject = JanitorCompiler.build(runtime.getEnvironment(), module, script, source, verbose);
+            final Script built = JanitorCompiler.build(runtime.getEnvironment(), module, script, source, verbose, tracing);
+            scriptObject = requestedMode == CompilationMode.BYTECODE && !tracing ? BytecodeCompiler.compileOrInterpret(built) : built;
         } else {
             Script myScript = null;
             try {
-                myScript = JanitorCompiler.build(runtime.getEnvironment(), module, script, source, verbose);
+                myScript = JanitorCompiler.build(runtime.getEnvironment(), module, script, source, verbose, tracing);
             } catch (RuntimeException compilerException) {
                 this.compilerException = compilerException;
                 log.info("compiler check error in script {}", moduleName, compilerException);
             }
             scriptObject = myScript;
         }
+        compilationMode = scriptObject instanceof CompiledScript ? CompilationMode.BYTECODE : CompilationMode.INTERPRETER;
+    }
+
+    /**
+     * Return how this script is actually executed.
+     * This can be {@link CompilationMode#INTERPRETER} even when bytecode was requested, because we fall back to the interpreter
+     * when the script cannot be compiled.
+     *
+     * @return the effective compilation mode
+     */
+    public @NotNull CompilationMode getCompilationMode() {
+        return compilationMode;
+    }
+
+    /**
+     * Check whether this script has been instrumented for tracing.
+     *
+     * @return true if the script reports its statements and function calls to the runtime's trace listener
+     */
+    public boolean isTraced() {
+        return traced;
     }
 
     // LATER: eigentlich ist es bescheuert, die Exception beim Check nicht zu werfen, denn es ist ja trotzdem ein Fehler
@@ -153,6 +224,20 @@ public class JanitorScript implements RunnableScript, JsonExportableObject {
         }
     }
 
+    /**
+     * Create a process for running this script many times with the same globals, via {@link RunningScriptProcess#runAgain(Consumer)}.
+     * This saves setting up a global scope and a process for each run, e.g. when a filter script is applied to every element of a
+     * large collection. The process is not thread safe; use one per thread.
+     *
+     * @param prepareGlobals binds the globals shared by all runs
+     * @return a process, which the caller must {@link RunningScriptProcess#finish() finish} after the last run
+     */
+    public @NotNull RunningScriptProcess startProcess(final @NotNull Consumer<Scope> prepareGlobals) {
+        final Scope globalScope = Scope.createGlobalScope(runtime.getEnvironment(), module);
+        prepareGlobals.accept(globalScope);
+        return new RunningScriptProcess(runtime, globalScope, module.getName(), scriptObject);
+    }
+
     @Override
     public @NotNull JanitorObject runInScope(final @NotNull Consumer<Scope> prepareGlobals, final Scope parentScope) throws JanitorRuntimeException {
         final Scope globalScope = Scope.createMainScope(parentScope); // GlobalScope(module); // new Scope(Location.at(module, 0, 0), parentScope, null);
@@ -18,6 +18,8 @@ import org.jetbrains.annotations.Nullable;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.LongBinaryOperator;
 
 /**
  * The semantics of the Janitor language.
@@ -30,7 +32,7 @@ public class JanitorSemantics {
 
     static {
         POSSIBLE_COMPARISONS = List.of(
-                new JanitorComparison<>(JInt.class, JInt.class, (left, right) -> ComparisonResult.adaptJava(Long.compare(left.janitorGetHostValue(), right.janitorGetHostValue()))),
+                new JanitorComparison<>(JInt.class, JInt.class, (left, right) -> ComparisonResult.adaptJava(Long.compare(left.getValue(), right.getValue()))),
                 new JanitorComparison<>(JDuration.class, JDuration.class, (left, right) -> ComparisonResult.adaptJava(Long.compare(left.toSeconds(), right.toSeconds()))),
                 new JanitorComparison<>(JDateTime.class, JDateTime.class, (left, right) -> ComparisonResult.adaptJava(Long.compare(left.getInternalRepresentation(), right.getInternalRepresentation()))),
                 new JanitorComparison<>(JDate.class, JDate.class, (left, right) -> ComparisonResult.adaptJava(Long.compare(left.getInternalRepresentation(), right.getInternalRepresentation()))),
@@ -103,6 +105,8 @@ public class JanitorSemantics {
     /**
      * Perform a numeric operation on two objects.
      * This is really like the "center of math" in the current implementation.
+     * The most common cases, int op int and float op float, are handled by fast paths in the individual operations
+     * before they end up here; the integer and float operations work on primitives, so there's no boxing involved either way.
      *
      * @param process            the process
      * @param name               name of the operation
@@ -119,8 +123,8 @@ public class JanitorSemantics {
      */
     private static JanitorObject numericOperation(final JanitorScriptProcess process, final String name,
                                                   final JanitorObject leftValue, final JanitorObject rightValue,
-                                                  final BinOp<Long, Long, Long> intOp,
-                                                  final BinOp<Double, Double, Double> floatOp,
+                                                  final LongBinaryOperator intOp,
+                                                  final DoubleBinaryOperator floatOp,
                                                   final BinOp<JDate, JDuration, JanitorObject> dateOp,
                                                   final BinOp<JDateTime, JDuration, JanitorObject> dateTimeOp,
                                                   final BinOp<JDate, JDate, JanitorObject> dateDateOp,
@@ -131,13 +135,13 @@ public class JanitorSemantics {
     ) throws JanitorRuntimeException {
         try {
             if (leftValue instanceof JInt leftInteger && rightValue instanceof JInt rightInteger) {
-                return Janitor.integer(intOp.apply(process, leftInteger.getValue(), rightInteger.getValue()));
+                return Janitor.integer(intOp.applyAsLong(leftInteger.getValue(), rightInteger.getValue()));
             } else if (leftValue instanceof JFloat leftFloat && rightValue instanceof JFloat rightFloat) {
-                return Janitor.floatingPoint(floatOp.apply(process, leftFloat.getValue(), rightFloat.getValue()));
+                return Janitor.floatingPoint(floatOp.applyAsDouble(leftFloat.getValue(), rightFloat.getValue()));
             } else if (leftValue instanceof JInt leftInteger && rightValue instanceof JFloat rightFloat) {
-                return Janitor.floatingPoint(floatOp.apply(process, leftInteger.getAsDouble(), rightFloat.getValue()));
+                return Janitor.floatingPoint(floatOp.applyAsDouble(leftInteger.getAsDouble(), rightFloat.getValue()));
             } else if (leftValue instanceof JFloat leftFloat && rightValue instanceof JInt rightInteger) {
-                return Janitor.floatingPoint(floatOp.apply(process, leftFloat.getValue(), rightInteger.getAsDouble()));
+                return Janitor.floatingPoint(floatOp.applyAsDouble(leftFloat.getValue(), rightInteger.getAsDouble()));
             } else if (dateOp != null && leftValue instanceof JDateTime leftDate && rightValue instanceof JDateTime rightDate) {
                 return dateTimeDateTimeOp.apply(process, leftDate, rightDate);
             } else if (dateOp != null && leftValue instanceof JDate leftDate && rightValue instanceof JDate rightDate) {
@@ -174,7 +178,11 @@ public class JanitorSemantics {
      * @throws JanitorRuntimeException on errors
      */
     public static @NotNull JanitorObject multiply(JanitorScriptProcess process, final JanitorObject leftValue, final JanitorObject rightValue) throws JanitorRuntimeException {
-        if (leftValue instanceof JString leftString && rightValue instanceof JInt rightInt) {
+        if (leftValue instanceof JInt leftInt && rightValue instanceof JInt rightInt) {
+            return Janitor.integer(leftInt.getValue() * rightInt.getValue());
+        } else if (leftValue instanceof JFloat leftFloat && rightValue instanceof JFloat rightFloat) {
+            return Janitor.floatingPoint(leftFloat.getValue() * rightFloat.getValue());
+        } else if (leftValue instanceof JString leftString && rightValue instanceof JInt rightInt) {
             return Janitor.string(repeat(leftString.janitorGetHostValue(), rightInt.getValue()));
         } else if (leftValue instanceof JInt leftInt && rightValue instanceof JString rightString) {
             return Janitor.string(repeat(rightString.janitorGetHostValue(), leftInt.getValue()));
@@ -183,8 +191,8 @@ public class JanitorSemantics {
                 "multiply",
                 leftValue,
                 rightValue,
-                (p, a, b) -> a * b,
-                (p, a, b) -> a * b,
+                (a, b) -> a * b,
+                (a, b) -> a * b,
                 null,
                 null,
                 null,
@@ -203,12 +211,17 @@ public class JanitorSemantics {
      * @throws JanitorRuntimeException on errors
      */
     public static @NotNull JanitorObject divide(final JanitorScriptProcess process, final JanitorObject leftValue, final JanitorObject rightValue) throws JanitorRuntimeException {
+        if (leftValue instanceof JInt leftInt && rightValue instanceof JInt rightInt && rightInt.getValue() != 0) {
+            return Janitor.integer(leftInt.getValue() / rightInt.getValue());
+        } else if (leftValue instanceof JFloat leftFloat && rightValue instanceof JFloat rightFloat) {
+            return Janitor.floatingPoint(leftFloat.getValue() / rightFloat.getValue());
+        }
         return numericOperation(process,
                 "divide",
                 leftValue,
                 rightValue,
-                (p, a, b) -> a / b,
-                (p, a, b) -> a / b,
+                (a, b) -> a / b,
+                (a, b) -> a / b,
                 null,
                 null,
                 null,
@@ -227,13 +240,16 @@ public class JanitorSemantics {
      * @throws JanitorRuntimeException on errors
      */
     public static @NotNull JanitorObject modulo(JanitorScriptProcess process, final JanitorObject leftValue, final JanitorObject rightValue) throws JanitorRuntimeException {
+        if (leftValue instanceof JInt leftInt && rightValue instanceof JInt rightInt && rightInt.getValue() != 0) {
+            return Janitor.integer(leftInt.getValue() % rightInt.getValue());
+        }
         return numericOperation(
                 process,
                 "modulo",
                 leftValue,
                 rightValue,
-                (p, a, b) -> a % b,
-                (p, a, b) -> a % b,
+                (a, b) -> a % b,
+                (a, b) -> a % b,
                 null,
                 null,
                 null,
@@ -252,12 +268,17 @@ public class JanitorSemantics {
      * @throws JanitorRuntimeException on errors
      */
     public static @NotNull JanitorObject subtract(JanitorScriptProcess process, final JanitorObject leftValue, final JanitorObject rightValue) throws JanitorRuntimeException {
+        if (leftValue instanceof JInt leftInt && rightValue instanceof JInt rightInt) {
+            return Janitor.integer(leftInt.getValue() - rightInt.getValue());
+        } else if (leftValue instanceof JFloat leftFloat && rightValue instanceof JFloat rightFloat) {
+            return Janitor.floatingPoint(leftFloat.getValue() - rightFloat.getValue());
+        }
         return numericOperation(process,
                 "subtract",
                 leftValue,
                 rightValue,
-                (p, a, b) -> a - b,
-                (p, a, b) -> a - b,
+                (a, b) -> a - b,
+                (a, b) -> a - b,
                 JDuration::subtract,
                 JDuration::subtract,
                 (proc, jDate, jDate2) -> durationBetween(jDate, jDate2),
@@ -348,6 +369,11 @@ public class JanitorSemantics {
      * @throws JanitorRuntimeException on errors
      */
     public static @NotNull JanitorObject lessThan(JanitorScriptProcess process, final JanitorObject leftValue, final JanitorObject rightValue) throws JanitorRuntimeException {
+        if (leftValue instanceof JInt leftInt && rightValue instanceof JInt rightInt) {
+            return Janitor.toBool(leftInt.getValue() < rightInt.getValue());
+        } else if (leftValue instanceof JFloat leftFloat && rightValue instanceof JFloat rightFloat) {
+            return Janitor.toBool(Double.compare(leftFloat.getValue(), rightFloat.getValue()) < 0);
+        }
         final ComparisonResult result = bestEffortComparison(leftValue, rightValue);
         if (result != null) {
             return result.isLessThan();
@@ -383,6 +409,11 @@ public class JanitorSemantics {
      * @throws JanitorRuntimeException on errors
      */
     public static @NotNull JanitorObject lessThanOrEquals(JanitorScriptProcess process, final JanitorObject leftValue, final JanitorObject rightValue) throws JanitorRuntimeException {
+        if (leftValue instanceof JInt leftInt && rightValue instanceof JInt rightInt) {
+            return Janitor.toBool(leftInt.getValue() <= rightInt.getValue());
+        } else if (leftValue instanceof JFloat leftFloat && rightValue instanceof JFloat rightFloat) {
+            return Janitor.toBool(Double.compare(leftFloat.getValue(), rightFloat.getValue()) <= 0);
+        }
         final ComparisonResult result = bestEffortComparison(leftValue, rightValue);
         if (result != null) {
             return result.isLessThanOrEquals();
@@ -400,6 +431,11 @@ public class JanitorSemantics {
      * @throws JanitorRuntimeException on errors
      */
     public static @NotNull JanitorObject greaterThan(JanitorScriptProcess process, final JanitorObject _leftValue, final JanitorObject _rightValue) throws JanitorRuntimeException {
+        if (_leftValue instanceof JInt leftInt && _rightValue instanceof JInt rightInt) {
+            return Janitor.toBool(leftInt.getValue() > rightInt.getValue());
+        } else if (_leftValue instanceof JFloat leftFloat && _rightValue instanceof JFloat rightFloat) {
+            return Janitor.toBool(Double.compare(leftFloat.getValue(), rightFloat.getValue()) > 0);
+        }
         final ComparisonResult result = bestEffortComparison(_leftValue, _rightValue);
         if (result != null) {
             return result.isGreaterThan();
@@ -407,6 +443,34 @@ public class JanitorSemantics {
         throw new JanitorNotImplementedException(process, String.format("cannot compare: left=%s [%s], right=%s [%s]", _leftValue, ObjectUtilities.simpleClassNameOf(_leftValue), _rightValue, ObjectUtilities.simpleClassNameOf(_rightValue)));
     }
 
+    /**
+     * Strings at least this long are concatenated lazily, see {@link JString#append(String)}, so that s = s + x in a loop
+     * does not copy the whole string each time once it has grown. Shorter strings are simply concatenated, which is
+     * cheaper for the typical one-off "a" + b.
+     */
+    public static final int LAZY_CONCATENATION_LENGTH = 256;
+
+    /**
+     * Add a value to a variable's current value, i.e. foo += bar.
+     * <p>Strings are appended to lazily, see {@link JString#append(String)}, so building a string in a loop does not
+     * copy it over and over, and string builders are appended to in place. Everything else works like
+     * {@link #add(JanitorScriptProcess, JanitorObject, JanitorObject)}.</p>
+     *
+     * @param process      the running script process
+     * @param currentValue the current value
+     * @param value        the value to add
+     * @return the new value
+     * @throws JanitorRuntimeException on errors
+     */
+    public static @NotNull JanitorObject addAssign(JanitorScriptProcess process, final JanitorObject currentValue, final JanitorObject value) throws JanitorRuntimeException {
+        if (currentValue instanceof JString currentString) {
+            return currentString.append(String.valueOf(value.janitorGetHostValue()));
+        } else if (currentValue instanceof JStringBuilder builder) {
+            return builder.append(value);
+        }
+        return add(process, currentValue, value);
+    }
+
     /**
      * Add two values.
      *
@@ -417,15 +481,21 @@ public class JanitorSemantics {
      * @throws JanitorRuntimeException on errors
      */
     public static @NotNull JanitorObject add(JanitorScriptProcess process, final JanitorObject leftValue, final JanitorObject rightValue) throws JanitorRuntimeException {
-        if (leftValue instanceof JString || rightValue instanceof JString) {
+        if (leftValue instanceof JInt leftInt && rightValue instanceof JInt rightInt) {
+            return Janitor.integer(leftInt.getValue() + rightInt.getValue());
+        } else if (leftValue instanceof JFloat leftFloat && rightValue instanceof JFloat rightFloat) {
+            return Janitor.floatingPoint(leftFloat.getValue() + rightFloat.getValue());
+        } else if (leftValue instanceof JString leftString && (leftString.isAppended() || leftString.length() >= LAZY_CONCATENATION_LENGTH)) {
+            return leftString.append(String.valueOf(rightValue.janitorGetHostValue()));
+        } else if (leftValue instanceof JString || rightValue instanceof JString) {
             return Janitor.string(leftValue.janitorGetHostValue() + String.valueOf(rightValue.janitorGetHostValue()));
         }
         return numericOperation(process,
                 "add",
                 leftValue,
                 rightValue,
-                longSum,
-                doubleSum,
+                Long::sum,
+                Double::sum,
                 JDuration::add,
                 JDuration::add,
                 null,
@@ -434,9 +504,6 @@ public class JanitorSemantics {
                 null, false);
     }
 
-    private static final BinOp<Long, Long, Long> longSum = BinOp.adapt(Long::sum);
-    private static final BinOp<Double, Double, Double> doubleSum = BinOp.adapt(Double::sum);
-
 
     /**
      * Increment a value.
@@ -480,6 +547,11 @@ public class JanitorSemantics {
      * @throws JanitorRuntimeException on errors
      */
     public static @NotNull JanitorObject greaterThanOrEquals(JanitorScriptProcess process, final JanitorObject leftValue, final JanitorObject rightValue) throws JanitorRuntimeException {
+        if (leftValue instanceof JInt leftInt && rightValue instanceof JInt rightInt) {
+            return Janitor.toBool(leftInt.getValue() >= rightInt.getValue());
+        } else if (leftValue instanceof JFloat leftFloat && rightValue instanceof JFloat rightFloat) {
+            return Janitor.toBool(Double.compare(leftFloat.getValue(), rightFloat.getValue()) >= 0);
+        }
         final ComparisonResult result = bestEffortComparison(leftValue, rightValue);
         if (result != null) {
             return result.isGreaterThanOrEquals();
@@ -1,7 +1,10 @@
 package com.eischet.janitor.runtime;
 
+import com.eischet.janitor.api.CompilationMode;
 import com.eischet.janitor.api.JanitorEnvironment;
 import com.eischet.janitor.api.JanitorScriptProcess;
+import com.eischet.janitor.api.RunnableScript;
+import com.eischet.janitor.api.errors.compiler.JanitorCompilerException;
 import com.eischet.janitor.api.types.functions.JCallArgs;
 import com.eischet.janitor.api.types.builtin.JNull;
 import com.eischet.janitor.api.types.JanitorObject;
@@ -12,6 +15,22 @@ import java.util.function.Consumer;
 
 public class OutputCatchingTestRuntime extends BaseRuntime {
 
+    /**
+     * System property that selects how test runtimes compile scripts by default: INTERPRETER or BYTECODE.
+     * <p>With BYTECODE, scripts that fall back to the interpreter are reported as errors instead, so test suites run
+     * with that setting really exercise the bytecode compiler.</p>
+     */
+    public static final String COMPILATION_MODE_PROPERTY = "janitor.test.compilationMode";
+
+    /**
+     * Return the compilation mode selected by the {@link #COMPILATION_MODE_PROPERTY} system property.
+     *
+     * @return the compilation mode for tests
+     */
+    public static CompilationMode testCompilationMode() {
+        return CompilationMode.valueOf(System.getProperty(COMPILATION_MODE_PROPERTY, CompilationMode.INTERPRETER.name()));
+    }
+
     public static OutputCatchingTestRuntime fresh() {
         return fresh(null);
     }
@@ -34,6 +53,17 @@ public class OutputCatchingTestRuntime extends BaseRuntime {
 
     private OutputCatchingTestRuntime(final JanitorEnvironment ENV) {
         super(ENV);
+        setDefaultCompilationMode(testCompilationMode());
+    }
+
+    @Override
+    public RunnableScript compile(final String moduleName, final String source, final CompilationMode mode) throws JanitorCompilerException {
+        final RunnableScript script = super.compile(moduleName, source, mode);
+        if (mode == CompilationMode.BYTECODE && !isTracing() && script instanceof JanitorScript janitorScript
+            && janitorScript.getCompilationMode() != CompilationMode.BYTECODE) {
+            throw new IllegalStateException("script " + moduleName + " fell back to the interpreter instead of being compiled to bytecode");
+        }
+        return script;
     }
 
     @Override
@@ -0,0 +1,112 @@
+package com.eischet.janitor.runtime;
+
+import com.eischet.janitor.api.JanitorScriptProcess;
+import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
+import com.eischet.janitor.api.types.JanitorObject;
+import com.eischet.janitor.api.types.functions.JCallArgs;
+import com.eischet.janitor.api.types.functions.JCallable;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Calls a function once per element on the runtime's {@linkplain com.eischet.janitor.api.JanitorRuntime#getParallelExecutor() parallel executor},
+ * as used by list.parallelMap(), list.parallelFilter() and list.parallelForEach().
+ * <p>The elements are split into contiguous chunks, and each chunk is processed by its own {@link WorkerScriptProcess}, so
+ * workers never share a current scope. The results are returned in the order of the elements, no matter in which order the
+ * workers finish. The calling process waits for all workers, and the instruction limit of the calling process applies to
+ * all workers together.</p>
+ * <p>Functions run concurrently, so they should not assign to variables outside of their own body.
+ * Calls made from within a worker, i.e. nested parallel operations, run sequentially in that worker.</p>
+ */
+public final class ParallelCalls {
+
+    /**
+     * Number of chunks per thread of the executor; more chunks balance uneven work better, fewer cost less overhead.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private ParallelCalls() {
+    }
+
+    /**
+     * Call the function once for each element.
+     *
+     * @param process  the running script
+     * @param name     the name of the operation, for error messages
+     * @param function the function, which receives one element
+     * @param elements the elements
+     * @return the results, in the order of the elements
+     * @throws JanitorRuntimeException if any call fails; when several calls fail, one of the errors is thrown
+     */
+    public static @NotNull JanitorObject[] callEach(final @NotNull JanitorScriptProcess process,
+                                                    final @NotNull String name,
+                                                    final @NotNull JCallable function,
+                                                    final @NotNull List<? extends JanitorObject> elements) throws JanitorRuntimeException {
+        final JanitorObject[] results = new JanitorObject[elements.size()];
+        if (!(process instanceof RunningScriptProcess parent) || elements.size() < 2) {
+            callRange(process, name, function, elements, results, 0, elements.size(), null);
+            return results;
+        }
+        final Executor executor = process.getRuntime().getParallelExecutor();
+        final int threads = executor instanceof ForkJoinPool pool ? pool.getParallelism() : Runtime.getRuntime().availableProcessors();
+        final int chunks = Math.min(elements.size(), Math.max(1, threads) * CHUNKS_PER_THREAD);
+        final AtomicBoolean failed = new AtomicBoolean(false);
+        final CompletableFuture<?>[] futures = new CompletableFuture<?>[chunks];
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            final int from = (int) ((long) elements.size() * chunk / chunks);
+            final int to = (int) ((long) elements.size() * (chunk + 1) / chunks);
+            futures[chunk] = CompletableFuture.runAsync(() -> {
+                final WorkerScriptProcess worker = new WorkerScriptProcess(parent);
+                try {
+                    callRange(worker, name, function, elements, results, from, to, failed);
+                } catch (JanitorRuntimeException e) {
+                    failed.set(true);
+                    throw new CompletionException(e);
+                } catch (RuntimeException | Error e) {
+                    failed.set(true);
+                    throw e;
+                } finally {
+                    worker.finish();
+                }
+            }, executor);
+        }
+        // wait for all workers, even after a failure, so no worker still runs when we return:
+        Throwable failure = null;
+        for (final CompletableFuture<?> future : futures) {
+            try {
+                future.join();
+            } catch (CompletionException e) {
+                if (failure == null) {
+                    failure = e.getCause();
+                }
+            }
+        }
+        if (failure instanceof JanitorRuntimeException runtimeException) {
+            throw runtimeException;
+        } else if (failure instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        } else if (failure instanceof Error error) {
+            throw error;
+        }
+        return results;
+    }
+
+    private static void callRange(final JanitorScriptProcess process, final String name, final JCallable function,
+                                  final List<? extends JanitorObject> elements, final JanitorObject[] results,
+                                  final int from, final int to, final AtomicBoolean failed) throws JanitorRuntimeException {
+        for (int i = from; i < to; i++) {
+            if (failed != null && failed.get()) {
+                return; // another worker failed, so the results are not needed anymore
+            }
+            results[i] = function.call(process, new JCallArgs(name, process, Collections.singletonList(elements.get(i))));
+        }
+    }
+
+}
@@ -1,21 +1,24 @@
 package com.eischet.janitor.runtime;
 
 import com.eischet.janitor.api.JanitorRuntime;
-import com.eischet.janitor.api.errors.glue.JanitorControlFlowException;
 import com.eischet.janitor.api.errors.runtime.JanitorInstructionLimitExceededException;
 import com.eischet.janitor.api.errors.runtime.JanitorInternalException;
 import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
 import com.eischet.janitor.api.scopes.Scope;
 import com.eischet.janitor.api.types.JanitorObject;
+import com.eischet.janitor.api.types.builtin.JNull;
+import com.eischet.janitor.compiler.ast.statement.Completion;
 import com.eischet.janitor.compiler.ast.statement.Script;
-import com.eischet.janitor.compiler.ast.statement.controlflow.ReturnStatement;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.function.Consumer;
+
 public class RunningScriptProcess extends AbstractScriptProcess {
 
     private final Script script;
     private long instructionCounter = 0;
     private long maxInstructionCount = 0;
+    private int reservations = 0;
 
     public RunningScriptProcess(final JanitorRuntime runtime, final Scope parentScope, final @NotNull String processName, final Script script, final boolean wrapScope) {
         super(runtime, wrapScope ? Scope.createMainScope(parentScope) : parentScope, processName);
@@ -32,6 +35,7 @@ public class RunningScriptProcess extends AbstractScriptProcess {
         if (maxInstructionCount > 0 && instructionCounter > maxInstructionCount) {
             throw new JanitorInstructionLimitExceededException(this, maxInstructionCount);
         }
+        profileInstruction();
     }
 
     public long getInstructionCounter() {
@@ -47,6 +51,56 @@ public class RunningScriptProcess extends AbstractScriptProcess {
         this.maxInstructionCount = maxInstructionCount;
     }
 
+    /**
+     * Take instructions from this process's budget for a worker running on its behalf, e.g. in list.parallelMap().
+     * Workers count the instructions they execute against the instructions they have reserved, so the instruction limit
+     * is enforced across all workers without them having to synchronize on every instruction.
+     * When the budget is exhausted while other workers still hold reserved instructions, this waits until they have used
+     * or released them, so the limit is neither exceeded nor hit early.
+     * This process must not run any code of its own while workers are active.
+     *
+     * @param wanted    the number of instructions wanted
+     * @param exhausted true if the worker has used up all instructions of a previous reservation
+     * @return the number of instructions granted, which is 0 when the budget is exhausted
+     */
+    synchronized long reserveInstructions(final long wanted, final boolean exhausted) {
+        if (exhausted) {
+            --reservations;
+            notifyAll();
+        }
+        while (true) {
+            final long granted = maxInstructionCount > 0 ? Math.max(0, Math.min(wanted, maxInstructionCount - instructionCounter)) : wanted;
+            if (granted > 0) {
+                instructionCounter += granted;
+                ++reservations;
+                return granted;
+            }
+            if (reservations == 0) {
+                return 0;
+            }
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Give back instructions reserved by a worker, but not used.
+     *
+     * @param unused  the number of instructions to give back
+     * @param holding true if the worker still holds a reservation, even when all of it has been used
+     */
+    synchronized void releaseInstructions(final long unused, final boolean holding) {
+        instructionCounter -= unused;
+        if (holding) {
+            --reservations;
+        }
+        notifyAll();
+    }
+
     @Override
     public void warn(String warning) {
         getRuntime().warn(warning);
@@ -54,18 +108,60 @@ public class RunningScriptProcess extends AbstractScriptProcess {
 
     public @NotNull JanitorObject run() throws JanitorRuntimeException {
         try {
-            script.execute(this);
-            return getScriptResult();
-        } catch (ReturnStatement.Return e) {
-            return e.getValue();
-        } catch (JanitorControlFlowException e) {
-            throw new JanitorInternalException(this, "invalid control flow: exited script at top level", e);
+            return execute();
+        } finally {
+            finish();
+        }
+    }
+
+    /**
+     * Run the script in a fresh block scope below the main scope, keeping the main scope for the next run.
+     * This lets callers run the same script many times, e.g. once per element when filtering a collection, while binding
+     * the globals only once. Call {@link #finish()} after the last run.
+     *
+     * @param prepareBlock binds the variables for this run into the block scope
+     * @return the script's result
+     * @throws JanitorRuntimeException on errors
+     */
+    public @NotNull JanitorObject runAgain(final @NotNull Consumer<Scope> prepareBlock) throws JanitorRuntimeException {
+        final Scope mainScope = getMainScope();
+        enterBlock(script.getLocation());
+        try {
+            prepareBlock.accept(getCurrentScope());
+            setScriptResult(JNull.NULL);
+            return execute();
         } finally {
-            getMainScope().janitorLeaveScope();
+            // an exception may leave nested blocks behind, so unwind all of them:
+            while (getCurrentScope() != mainScope) {
+                exitBlock();
+            }
             processCleanups();
         }
     }
 
+    /**
+     * Release the main scope and clean up, after the last call to {@link #runAgain(Consumer)}.
+     */
+    public void finish() {
+        getMainScope().janitorLeaveScope();
+        processCleanups();
+    }
+
+    private @NotNull JanitorObject execute() throws JanitorRuntimeException {
+        startProfiling();
+        try {
+            final Completion completion = script.execute(this);
+            if (completion.isReturn()) {
+                return completion.getValue();
+            } else if (completion.isAbrupt()) {
+                throw new JanitorInternalException(this, "invalid control flow: exited script at top level: " + completion);
+            }
+            return getScriptResult();
+        } finally {
+            stopProfiling();
+        }
+    }
+
 
     @Override
     public String getSource() {
@@ -0,0 +1,198 @@
+package com.eischet.janitor.runtime;
+
+import com.eischet.janitor.api.CompilationMode;
+import com.eischet.janitor.api.RunnableScript;
+import com.eischet.janitor.api.errors.compiler.JanitorCompilerException;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of compiled scripts, keyed by module name, compilation mode and a digest of the source code.
+ * <p>Hosts often compile the same source again and again, e.g. user-configured rules that are compiled once per request.
+ * Compiled scripts are immutable and can be run by several threads at the same time, so we can hand out the same script
+ * instance for the same source.</p>
+ * <p>The least recently used script is evicted when the cache is full. Compiling happens outside the cache's lock, so a slow
+ * compilation does not block lookups of other scripts. When two threads compile the same source at the same time, both
+ * compile it, but only the first result is kept and returned to both.</p>
+ * <p>Scripts that fail to compile are not cached.</p>
+ */
+public final class ScriptCache {
+
+    /**
+     * Compiles a script on a cache miss.
+     */
+    @FunctionalInterface
+    public interface Compiler {
+        /**
+         * Compile a script.
+         *
+         * @param moduleName the module name
+         * @param source     the source code
+         * @param mode       the compilation mode
+         * @return the compiled script
+         * @throws JanitorCompilerException on errors
+         */
+        RunnableScript compile(String moduleName, String source, CompilationMode mode) throws JanitorCompilerException;
+    }
+
+    /**
+     * A snapshot of the cache's statistics.
+     *
+     * @param hits      number of lookups that found a cached script
+     * @param misses    number of lookups that had to compile the script
+     * @param evictions number of scripts removed because the cache was full
+     * @param size      number of scripts currently in the cache
+     */
+    public record Statistics(long hits, long misses, long evictions, int size) {
+        /**
+         * Return the share of lookups that found a cached script.
+         *
+         * @return the hit rate, between 0 and 1, or 0 if there were no lookups yet
+         */
+        public double hitRate() {
+            final long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+    }
+
+    private record Key(String moduleName, CompilationMode mode, String digest) {
+    }
+
+    private final int maximumSize;
+    private final Map<Key, RunnableScript> scripts;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param maximumSize the maximum number of scripts kept; 0 disables caching
+     */
+    public ScriptCache(final int maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("invalid maximum size: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        this.scripts = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, RunnableScript> eldest) {
+                if (size() > ScriptCache.this.maximumSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Return the cached script for the source, compiling and caching it if necessary.
+     *
+     * @param moduleName the module name
+     * @param source     the source code
+     * @param mode       the compilation mode
+     * @param compiler   compiles the script on a cache miss
+     * @return the compiled script
+     * @throws JanitorCompilerException when the script does not compile
+     */
+    public @NotNull RunnableScript get(final String moduleName, final @NotNull String source, final @NotNull CompilationMode mode,
+                                       final @NotNull Compiler compiler) throws JanitorCompilerException {
+        if (maximumSize == 0) {
+            misses.increment();
+            return compiler.compile(moduleName, source, mode);
+        }
+        final Key key = new Key(moduleName, mode, digest(source));
+        synchronized (scripts) {
+            final RunnableScript cached = scripts.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+        misses.increment();
+        final RunnableScript compiled = compiler.compile(moduleName, source, mode);
+        synchronized (scripts) {
+            final RunnableScript concurrentlyCompiled = scripts.putIfAbsent(key, compiled);
+            return concurrentlyCompiled != null ? concurrentlyCompiled : compiled;
+        }
+    }
+
+    /**
+     * Remove all cached versions of a module, e.g. after its source has been changed.
+     *
+     * @param moduleName the module name
+     * @return the number of scripts removed
+     */
+    public int invalidate(final @NotNull String moduleName) {
+        synchronized (scripts) {
+            final int before = scripts.size();
+            scripts.keySet().removeIf(key -> Objects.equals(key.moduleName, moduleName));
+            return before - scripts.size();
+        }
+    }
+
+    /**
+     * Remove a module's cached script for one particular source, in all compilation modes.
+     *
+     * @param moduleName the module name
+     * @param source     the source code
+     * @return the number of scripts removed
+     */
+    public int invalidate(final @NotNull String moduleName, final @NotNull String source) {
+        final String digest = digest(source);
+        synchronized (scripts) {
+            final int before = scripts.size();
+            scripts.keySet().removeIf(key -> Objects.equals(key.moduleName, moduleName) && key.digest.equals(digest));
+            return before - scripts.size();
+        }
+    }
+
+    /**
+     * Remove all cached scripts. The statistics are kept.
+     */
+    public void invalidateAll() {
+        synchronized (scripts) {
+            scripts.clear();
+        }
+    }
+
+    /**
+     * Return the maximum number of scripts kept.
+     *
+     * @return the maximum size
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Return the current statistics.
+     *
+     * @return a snapshot of the statistics
+     */
+    public @NotNull Statistics getStatistics() {
+        final int size;
+        synchronized (scripts) {
+            size = scripts.size();
+        }
+        return new Statistics(hits.sum(), misses.sum(), evictions.sum(), size);
+    }
+
+    private static String digest(final String source) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e); // every JVM is required to provide it
+        }
+    }
+
+}
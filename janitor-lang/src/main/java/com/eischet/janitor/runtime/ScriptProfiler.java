@@ -0,0 +1,374 @@
+package com.eischet.janitor.runtime;
+
+import com.eischet.janitor.api.scopes.Location;
+import com.eischet.janitor.api.scopes.Scope;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * A sampling profiler that attributes the time and the instructions spent in scripts to script functions and lines.
+ * <p>Attach the profiler to a runtime with {@link BaseRuntime#setProfiler(ScriptProfiler)}; the runtime's processes then register
+ * with it while they run. While the profiler is {@link #start() started}, it takes two kinds of samples:</p>
+ * <ul>
+ *     <li>a daemon thread looks at the call stack of every registered process once per sampling interval, which shows where the
+ *     wall clock time goes, including time spent in builtins and in host code called by the scripts;</li>
+ *     <li>each process records its own call stack every {@link #getInstructionInterval() n} instructions, which shows where the
+ *     interpreter does its work.</li>
+ * </ul>
+ * <p>The sampling thread reads the stacks of running processes without synchronizing with them, so a sample can be off by a
+ * statement when a process moves on at the same moment. That is the usual price of a sampling profiler, and it averages out.
+ * Processes of runtimes without a profiler pay nothing but a null check per instruction.</p>
+ * <p>Results are available as a top-N report, see {@link #report(int)}, and as collapsed stacks, see
+ * {@link #writeCollapsedStacks(Appendable, Metric)}, which flame graph tools like flamegraph.pl or speedscope read directly.</p>
+ */
+public final class ScriptProfiler implements AutoCloseable {
+
+    public static final Duration DEFAULT_SAMPLING_INTERVAL = Duration.ofMillis(1);
+    public static final int DEFAULT_INSTRUCTION_INTERVAL = 1000;
+
+    private static final String SCRIPT_FUNCTION = "script";
+
+    /**
+     * What to attribute samples by.
+     */
+    public enum Metric {
+        /**
+         * Wall clock time, from the samples of the sampling thread.
+         */
+        TIME,
+        /**
+         * Executed instructions, from the samples taken by the processes themselves.
+         */
+        INSTRUCTIONS
+    }
+
+    /**
+     * A call stack entry: the line a function is currently executing.
+     *
+     * @param module   the module name
+     * @param function the function name, "lambda" for lambdas, or "script" for the top level of a script
+     * @param line     the line number
+     */
+    public record Frame(@NotNull String module, @NotNull String function, int line) {
+        @Override
+        public String toString() {
+            return function + " (" + module + ":" + line + ")";
+        }
+    }
+
+    /**
+     * An entry of the top-N lists.
+     *
+     * @param name              a line or a function
+     * @param selfNanos         time spent right there
+     * @param totalNanos        time spent there, including the functions it called
+     * @param selfInstructions  instructions executed right there, estimated from the samples
+     * @param totalInstructions instructions executed there, including the functions it called
+     */
+    public record Entry(@NotNull String name, long selfNanos, long totalNanos, long selfInstructions, long totalInstructions) {
+        long self(final Metric metric) {
+            return metric == Metric.TIME ? selfNanos : selfInstructions;
+        }
+
+        long total(final Metric metric) {
+            return metric == Metric.TIME ? totalNanos : totalInstructions;
+        }
+    }
+
+    private static final class Counters {
+        private final LongAdder timeSamples = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder instructions = new LongAdder();
+    }
+
+    private final long samplingIntervalNanos;
+    private final int instructionInterval;
+    private final Set<AbstractScriptProcess> processes = ConcurrentHashMap.newKeySet();
+    private final Map<List<Frame>, Counters> stacks = new ConcurrentHashMap<>();
+    private volatile boolean running;
+    private @Nullable Thread sampler;
+
+    /**
+     * Constructor, using the default intervals.
+     */
+    public ScriptProfiler() {
+        this(DEFAULT_SAMPLING_INTERVAL, DEFAULT_INSTRUCTION_INTERVAL);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param samplingInterval    how often the sampling thread looks at the running processes
+     * @param instructionInterval how many instructions a process executes between two of its own samples
+     */
+    public ScriptProfiler(final @NotNull Duration samplingInterval, final int instructionInterval) {
+        if (samplingInterval.isNegative() || samplingInterval.isZero()) {
+            throw new IllegalArgumentException("invalid sampling interval: " + samplingInterval);
+        }
+        if (instructionInterval < 1) {
+            throw new IllegalArgumentException("invalid instruction interval: " + instructionInterval);
+        }
+        this.samplingIntervalNanos = samplingInterval.toNanos();
+        this.instructionInterval = instructionInterval;
+    }
+
+    public int getInstructionInterval() {
+        return instructionInterval;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Start taking samples. Samples taken before are kept; call {@link #reset()} to discard them.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        final Thread thread = new Thread(this::sample, "janitor-profiler");
+        thread.setDaemon(true);
+        thread.start();
+        sampler = thread;
+    }
+
+    /**
+     * Stop taking samples, keeping the samples taken so far.
+     */
+    public synchronized void stop() {
+        running = false;
+        final Thread thread = sampler;
+        sampler = null;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+
+    /**
+     * Discard all samples taken so far.
+     */
+    public void reset() {
+        stacks.clear();
+    }
+
+    void register(final @NotNull AbstractScriptProcess process) {
+        processes.add(process);
+    }
+
+    void unregister(final @NotNull AbstractScriptProcess process) {
+        processes.remove(process);
+    }
+
+    /**
+     * Called by a process every {@link #getInstructionInterval()} instructions, from the process's own thread.
+     *
+     * @param process the process
+     */
+    void sampleInstructions(final @NotNull AbstractScriptProcess process) {
+        if (running) {
+            counters(stackOf(process)).instructions.add(instructionInterval);
+        }
+    }
+
+    private void sample() {
+        long last = System.nanoTime();
+        while (running) {
+            LockSupport.parkNanos(samplingIntervalNanos);
+            final long now = System.nanoTime();
+            final long elapsed = now - last;
+            last = now;
+            if (!running) {
+                break;
+            }
+            for (final AbstractScriptProcess process : processes) {
+                final Counters counters = counters(stackOf(process));
+                counters.timeSamples.increment();
+                counters.nanos.add(elapsed);
+            }
+        }
+    }
+
+    private @NotNull Counters counters(final @NotNull List<Frame> stack) {
+        return stacks.computeIfAbsent(stack, key -> new Counters());
+    }
+
+    /**
+     * Build the call stack of a process from its scopes, outermost frame first.
+     * Function calls enter a scope with a {@link Location#nested(String) nested} location, and the innermost
+     * instruction pointer below such a scope is the line the function is executing.
+     */
+    static @NotNull List<Frame> stackOf(final @NotNull AbstractScriptProcess process) {
+        final List<Frame> frames = new ArrayList<>();
+        Location ip = null;
+        Location outermost = null;
+        Scope scope = process.getCurrentScope();
+        while (scope != null) {
+            if (ip == null) {
+                ip = scope.getIp();
+            }
+            final Location location = scope.getLocation();
+            if (location != null && location.getModule() != null) {
+                outermost = location;
+            }
+            final String function = location == null ? null : location.getNesting();
+            if (function != null) {
+                final Location where = ip != null ? ip : location;
+                frames.add(new Frame(moduleName(where, process), function, where.getLine()));
+                ip = null;
+            }
+            scope = scope.getParent();
+        }
+        final Location where = ip != null ? ip : outermost;
+        frames.add(new Frame(moduleName(where, process), SCRIPT_FUNCTION, where != null ? where.getLine() : 0));
+        Collections.reverse(frames);
+        return List.copyOf(frames);
+    }
+
+    private static @NotNull String moduleName(final @Nullable Location location, final @NotNull AbstractScriptProcess process) {
+        return location != null && location.getModule() != null ? location.getModule().getName() : process.getProcessName();
+    }
+
+    /**
+     * Return the lines where the most time was spent, or the most instructions were executed.
+     *
+     * @param limit  the maximum number of entries
+     * @param metric what to sort by
+     * @return the top lines, by their self value
+     */
+    public @NotNull List<Entry> topLines(final int limit, final @NotNull Metric metric) {
+        return top(limit, metric, Frame::toString, false);
+    }
+
+    /**
+     * Return the functions where the most time was spent, or the most instructions were executed, including the functions they called.
+     *
+     * @param limit  the maximum number of entries
+     * @param metric what to sort by
+     * @return the top functions, by their total value
+     */
+    public @NotNull List<Entry> topFunctions(final int limit, final @NotNull Metric metric) {
+        return top(limit, metric, frame -> frame.function() + " (" + frame.module() + ")", true);
+    }
+
+    private @NotNull List<Entry> top(final int limit, final @NotNull Metric metric, final Function<Frame, String> naming, final boolean byTotal) {
+        final Map<String, long[]> sums = new HashMap<>();
+        for (final Map.Entry<List<Frame>, Counters> stack : stacks.entrySet()) {
+            final long nanos = stack.getValue().nanos.sum();
+            final long instructions = stack.getValue().instructions.sum();
+            final List<Frame> frames = stack.getKey();
+            // recursive calls must only count once towards the totals:
+            final Set<String> seen = new HashSet<>();
+            for (int i = 0; i < frames.size(); i++) {
+                final String name = naming.apply(frames.get(i));
+                final long[] sum = sums.computeIfAbsent(name, key -> new long[4]);
+                if (i == frames.size() - 1) {
+                    sum[0] += nanos;
+                    sum[2] += instructions;
+                }
+                if (seen.add(name)) {
+                    sum[1] += nanos;
+                    sum[3] += instructions;
+                }
+            }
+        }
+        final Comparator<Entry> order = byTotal
+                ? Comparator.comparingLong((Entry entry) -> entry.total(metric)).thenComparingLong(entry -> entry.self(metric))
+                : Comparator.comparingLong((Entry entry) -> entry.self(metric)).thenComparingLong(entry -> entry.total(metric));
+        return sums.entrySet().stream()
+                .map(sum -> new Entry(sum.getKey(), sum.getValue()[0], sum.getValue()[1], sum.getValue()[2], sum.getValue()[3]))
+                .filter(entry -> (byTotal ? entry.total(metric) : entry.self(metric)) > 0)
+                .sorted(order.reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Write the samples in the "collapsed stack" format: one line per distinct call stack, with the frames separated by
+     * semicolons, followed by a space and the number of samples (for {@link Metric#TIME}) or of instructions.
+     *
+     * @param out    where to write to
+     * @param metric what to count
+     * @throws IOException on write errors
+     */
+    public void writeCollapsedStacks(final @NotNull Appendable out, final @NotNull Metric metric) throws IOException {
+        final List<String> lines = new ArrayList<>();
+        for (final Map.Entry<List<Frame>, Counters> stack : stacks.entrySet()) {
+            final long value = metric == Metric.TIME ? stack.getValue().timeSamples.sum() : stack.getValue().instructions.sum();
+            if (value > 0) {
+                final StringJoiner joiner = new StringJoiner(";", "", " " + value);
+                for (final Frame frame : stack.getKey()) {
+                    joiner.add(frame.toString().replace(';', ','));
+                }
+                lines.add(joiner.toString());
+            }
+        }
+        Collections.sort(lines);
+        for (final String line : lines) {
+            out.append(line).append('\n');
+        }
+    }
+
+    /**
+     * Return a readable report of the top lines and functions, by time and by instructions.
+     *
+     * @param limit the maximum number of entries per list
+     * @return the report
+     */
+    public @NotNull String report(final int limit) {
+        long samples = 0;
+        long nanos = 0;
+        long instructions = 0;
+        for (final Counters counters : stacks.values()) {
+            samples += counters.timeSamples.sum();
+            nanos += counters.nanos.sum();
+            instructions += counters.instructions.sum();
+        }
+        final StringBuilder report = new StringBuilder();
+        report.append("profile: %d samples, %.1f ms, ~%d instructions%n".formatted(samples, nanos / 1e6, instructions));
+        appendTable(report, "lines by time", topLines(limit, Metric.TIME), Metric.TIME, nanos);
+        appendTable(report, "functions by time", topFunctions(limit, Metric.TIME), Metric.TIME, nanos);
+        appendTable(report, "lines by instructions", topLines(limit, Metric.INSTRUCTIONS), Metric.INSTRUCTIONS, instructions);
+        appendTable(report, "functions by instructions", topFunctions(limit, Metric.INSTRUCTIONS), Metric.INSTRUCTIONS, instructions);
+        return report.toString();
+    }
+
+    private static void appendTable(final StringBuilder report, final String title, final List<Entry> entries, final Metric metric, final long all) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        report.append(title).append(":\n");
+        final String unit = metric == Metric.TIME ? "ms" : "instr";
+        report.append("  %7s %12s %7s %12s  %s%n".formatted("self%", "self " + unit, "total%", "total " + unit, "where"));
+        for (final Entry entry : entries) {
+            final long self = entry.self(metric);
+            final long total = entry.total(metric);
+            report.append("  %6.1f%% %12s %6.1f%% %12s  %s%n".formatted(
+                    100.0 * self / all, format(self, metric), 100.0 * total / all, format(total, metric), entry.name()));
+        }
+    }
+
+    private static String format(final long value, final Metric metric) {
+        return metric == Metric.TIME ? "%.1f".formatted(value / 1e6) : Long.toString(value);
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.eischet.janitor.runtime;
+
+import com.eischet.janitor.api.errors.runtime.JanitorInstructionLimitExceededException;
+import com.eischet.janitor.api.errors.runtime.JanitorInternalException;
+import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
+import com.eischet.janitor.api.scopes.Scope;
+import com.eischet.janitor.api.types.JanitorObject;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A child process that runs functions on behalf of a parent process in another thread, e.g. for list.parallelMap().
+ * <p>Each worker has its own scopes, so calls in different workers do not race on the current scope. The worker's main
+ * scope sits on top of the parent's current scope, so functions see the same variables as in the parent.</p>
+ * <p>Instructions are reserved from the parent's budget in chunks of {@link #INSTRUCTION_CHUNK}, so the parent's instruction
+ * limit applies to the sum of all workers. A worker that runs out of budget waits for instructions still reserved by other
+ * workers before giving up.</p>
+ */
+final class WorkerScriptProcess extends AbstractScriptProcess {
+
+    /**
+     * Number of instructions a worker reserves from its parent at a time.
+     */
+    static final long INSTRUCTION_CHUNK = 1024;
+
+    private final RunningScriptProcess parent;
+    private long reserved = 0;
+    private boolean holding = false;
+
+    WorkerScriptProcess(final @NotNull RunningScriptProcess parent) {
+        super(parent.getRuntime(), Scope.createMainScope(parent.getCurrentScope()), parent.getProcessName() + "/worker");
+        this.parent = parent;
+        startProfiling();
+    }
+
+    @Override
+    public void countInstruction() throws JanitorRuntimeException {
+        if (reserved == 0) {
+            reserved = parent.reserveInstructions(INSTRUCTION_CHUNK, holding);
+            holding = reserved > 0;
+            if (reserved == 0) {
+                throw new JanitorInstructionLimitExceededException(this, parent.getMaxInstructionCount());
+            }
+        }
+        --reserved;
+        profileInstruction();
+    }
+
+    @Override
+    public void setMaxInstructionCount(final long maxInstructionCount) {
+        // the budget belongs to the parent process
+    }
+
+    @Override
+    public void warn(final String warning) {
+        getRuntime().warn(warning);
+    }
+
+    @Override
+    public String getSource() {
+        return parent.getSource();
+    }
+
+    @Override
+    public JanitorObject run() throws JanitorRuntimeException {
+        throw new JanitorInternalException(this, "worker processes do not run scripts of their own");
+    }
+
+    /**
+     * Release the worker's scopes and cleanables, and give unused instructions back to the parent.
+     */
+    void finish() {
+        stopProfiling();
+        while (getCurrentScope() != getMainScope()) {
+            exitBlock();
+        }
+        getMainScope().janitorLeaveScope();
+        processCleanups();
+        parent.releaseInstructions(reserved, holding);
+        reserved = 0;
+        holding = false;
+    }
+
+}
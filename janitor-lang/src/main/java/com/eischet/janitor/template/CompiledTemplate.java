@@ -0,0 +1,174 @@
+package com.eischet.janitor.template;
+
+import com.eischet.janitor.api.JanitorRuntime;
+import com.eischet.janitor.api.JanitorScriptProcess;
+import com.eischet.janitor.api.RunnableScript;
+import com.eischet.janitor.api.errors.compiler.JanitorCompilerException;
+import com.eischet.janitor.api.errors.runtime.JanitorArgumentException;
+import com.eischet.janitor.api.errors.runtime.JanitorNativeException;
+import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
+import com.eischet.janitor.api.scopes.Scope;
+import com.eischet.janitor.api.types.JanitorObject;
+import com.eischet.janitor.api.types.builtin.JNull;
+import com.eischet.janitor.api.types.functions.JCallArgs;
+import org.intellij.lang.annotations.Language;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.stream.Collectors;
+
+/**
+ * A template that has been parsed and compiled into a script, ready to be rendered any number of times.
+ * <p>Templates consisting of plain text only are not compiled at all; rendering them simply copies the text.</p>
+ * <p>Like compiled scripts, compiled templates are immutable and can be rendered by several threads at the same time.</p>
+ * <p>Output is written to the given {@link Appendable} as it is produced, so rendering into a {@link Writer} or
+ * {@link OutputStream} streams large documents without holding them in memory.</p>
+ */
+public final class CompiledTemplate {
+
+    /**
+     * Size of the buffer used when rendering into an OutputStream.
+     */
+    public static final int STREAM_BUFFER_SIZE = 8192;
+
+    private final @Nullable RunnableScript script;
+    private final @NotNull String text;
+
+    private CompiledTemplate(final @Nullable RunnableScript script, final @NotNull String text) {
+        this.script = script;
+        this.text = text;
+    }
+
+    /**
+     * Compile a template.
+     *
+     * @param runtime the runtime to compile the template's script in
+     * @param text    the template text
+     * @return the compiled template
+     * @throws JanitorCompilerException if the template is invalid or its code does not compile
+     */
+    public static @NotNull CompiledTemplate compile(final @NotNull JanitorRuntime runtime, final @NotNull String text) throws JanitorCompilerException {
+        final TemplateParser parser = new TemplateParser(text);
+        if (!parser.isValid()) {
+            throw new JanitorCompilerException("invalid template");
+        }
+        if (parser.isPure()) {
+            return new CompiledTemplate(null, parser.getBlocks().stream().map(TemplateBlock::getSource).collect(Collectors.joining()));
+        }
+        @Language("Janitor") final String scriptSource = parser.toScript(TemplateParser::plainRenderer);
+        return new CompiledTemplate(runtime.compile("TEMPLATE", scriptSource), text);
+    }
+
+    /**
+     * Render the template.
+     *
+     * @param process the running script, whose current scope is visible to the template code
+     * @param values  an object whose attributes are visible as variables in the template, or null
+     * @param out     where to write the output
+     * @throws JanitorRuntimeException on errors in the template code, or when writing the output fails
+     */
+    public void render(final @NotNull JanitorScriptProcess process, final @Nullable JanitorObject values, final @NotNull Appendable out) throws JanitorRuntimeException {
+        if (script == null) {
+            try {
+                out.append(text);
+            } catch (IOException e) {
+                throw new JanitorNativeException(process, "cannot write template output", e);
+            }
+            return;
+        }
+        final Output output = new Output(out);
+        script.runInScope(g -> prepare(g, values, output), process.getCurrentScope());
+    }
+
+    private static void prepare(final Scope globals, final @Nullable JanitorObject values, final Output output) {
+        globals.bindF("__POP__", output::pop);
+        globals.bindF("__OUT__", output::write);
+        if (values != null) {
+            globals.setImplicitObjectProvider(values.asImplicitObjectProvider());
+        } else {
+            // we only look up the environment's implicit object provide when a provider is attached,
+            // so in this case here attach the NONE dummy provider to trigger that behaviour:
+            globals.setImplicitObjectProvider(Scope.ImplicitObjectProvider.NONE);
+        }
+    }
+
+    /**
+     * Render the template from host code, outside any running script.
+     *
+     * @param values an object whose attributes are visible as variables in the template, or null
+     * @param out    where to write the output; the caller is responsible for buffering and closing it
+     * @throws JanitorRuntimeException on errors in the template code, or when writing the output fails
+     * @throws IOException             when writing the output of a plain text template fails
+     */
+    public void render(final @Nullable JanitorObject values, final @NotNull Appendable out) throws JanitorRuntimeException, IOException {
+        if (script == null) {
+            out.append(text);
+            return;
+        }
+        script.run(g -> prepare(g, values, new Output(out)));
+    }
+
+    /**
+     * Render the template from host code into an OutputStream, through a buffer of {@link #STREAM_BUFFER_SIZE} characters.
+     * The stream is flushed, but not closed.
+     *
+     * @param values  an object whose attributes are visible as variables in the template, or null
+     * @param out     where to write the output
+     * @param charset the charset used to encode the output
+     * @throws JanitorRuntimeException on errors in the template code, or when writing the output fails
+     * @throws IOException             when writing the output of a plain text template, or flushing, fails
+     */
+    public void render(final @Nullable JanitorObject values, final @NotNull OutputStream out, final @NotNull Charset charset) throws JanitorRuntimeException, IOException {
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(out, charset), STREAM_BUFFER_SIZE);
+        render(values, writer);
+        writer.flush();
+    }
+
+    /**
+     * Return whether the template is plain text, which is rendered without running any code.
+     *
+     * @return true if the template contains no code
+     */
+    public boolean isPure() {
+        return script == null;
+    }
+
+    /**
+     * Receives the template's output, as written by the __OUT__ and __POP__ functions of the generated script.
+     */
+    private static final class Output {
+        private final Appendable out;
+
+        private Output(final Appendable out) {
+            this.out = out;
+        }
+
+        private JanitorObject write(final JanitorScriptProcess process, final JCallArgs arguments) throws JanitorRuntimeException {
+            try {
+                for (final JanitorObject jObj : arguments.requireArgListOnly()) {
+                    if (jObj != JNull.NULL) {
+                        out.append(jObj.janitorToString());
+                    }
+                }
+            } catch (IOException e) {
+                throw new JanitorNativeException(process, "cannot write template output", e);
+            }
+            return JNull.NULL;
+        }
+
+        private JanitorObject pop(final JanitorScriptProcess process, final JCallArgs arguments) throws JanitorRuntimeException {
+            if (!(out instanceof StringBuilder stringBuilder)) {
+                throw new JanitorArgumentException(process, "__POP__ is only supported when rendering into a StringBuilder");
+            }
+            stringBuilder.setLength((int) (stringBuilder.length() - arguments.getRequiredLongValue(0)));
+            return JNull.NULL;
+        }
+    }
+
+}
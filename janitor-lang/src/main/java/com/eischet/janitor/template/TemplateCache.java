@@ -0,0 +1,102 @@
+package com.eischet.janitor.template;
+
+import com.eischet.janitor.api.JanitorRuntime;
+import com.eischet.janitor.api.errors.compiler.JanitorCompilerException;
+import com.eischet.janitor.runtime.BaseRuntime;
+import com.eischet.janitor.runtime.ScriptCache;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of compiled templates, keyed by the template text.
+ * <p>Templates are typically expanded many times with different values, e.g. once per row in a mail merge, so parsing and
+ * compiling them again for each expansion is a waste. The least recently used template is evicted when the cache is full.
+ * Like in {@link ScriptCache}, compiling happens outside the lock, and invalid templates are not cached.</p>
+ */
+public final class TemplateCache {
+
+    private final int maximumSize;
+    private final JanitorRuntime runtime;
+    private final Map<String, CompiledTemplate> templates;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param runtime     the runtime used to compile templates
+     * @param maximumSize the maximum number of templates kept; 0 disables caching
+     */
+    public TemplateCache(final @NotNull JanitorRuntime runtime, final int maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("invalid maximum size: " + maximumSize);
+        }
+        this.runtime = runtime;
+        this.maximumSize = maximumSize;
+        this.templates = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, CompiledTemplate> eldest) {
+                if (size() > TemplateCache.this.maximumSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Return the compiled template for the text, compiling and caching it if necessary.
+     *
+     * @param text the template text
+     * @return the compiled template
+     * @throws JanitorCompilerException if the template is invalid or its code does not compile
+     */
+    public @NotNull CompiledTemplate get(final @NotNull String text) throws JanitorCompilerException {
+        if (maximumSize == 0 || runtime instanceof BaseRuntime baseRuntime && baseRuntime.isTracing()) {
+            // instrumented templates are not cached, like instrumented scripts
+            misses.increment();
+            return CompiledTemplate.compile(runtime, text);
+        }
+        synchronized (templates) {
+            final CompiledTemplate cached = templates.get(text);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+        misses.increment();
+        final CompiledTemplate compiled = CompiledTemplate.compile(runtime, text);
+        synchronized (templates) {
+            final CompiledTemplate concurrentlyCompiled = templates.putIfAbsent(text, compiled);
+            return concurrentlyCompiled != null ? concurrentlyCompiled : compiled;
+        }
+    }
+
+    /**
+     * Remove all cached templates. The statistics are kept.
+     */
+    public void invalidateAll() {
+        synchronized (templates) {
+            templates.clear();
+        }
+    }
+
+    /**
+     * Return the current statistics.
+     *
+     * @return a snapshot of the statistics
+     */
+    public @NotNull ScriptCache.Statistics getStatistics() {
+        final int size;
+        synchronized (templates) {
+            size = templates.size();
+        }
+        return new ScriptCache.Statistics(hits.sum(), misses.sum(), evictions.sum(), size);
+    }
+
+}
@@ -3,17 +3,13 @@ package com.eischet.janitor.template;
 import com.eischet.janitor.api.Janitor;
 import com.eischet.janitor.api.JanitorRuntime;
 import com.eischet.janitor.api.JanitorScriptProcess;
-import com.eischet.janitor.api.RunnableScript;
-import com.eischet.janitor.api.scopes.Scope;
 import com.eischet.janitor.api.types.functions.JCallArgs;
 import com.eischet.janitor.api.errors.compiler.JanitorCompilerException;
 import com.eischet.janitor.api.errors.runtime.JanitorArgumentException;
 import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
-import com.eischet.janitor.api.types.functions.JCallable;
-import com.eischet.janitor.api.types.builtin.JNull;
 import com.eischet.janitor.api.types.builtin.JString;
 import com.eischet.janitor.api.types.JanitorObject;
-import org.intellij.lang.annotations.Language;
+import com.eischet.janitor.runtime.BaseRuntime;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -139,50 +135,25 @@ public class TemplateParser {
      * @throws JanitorRuntimeException on errors
      */
     public static JString expand(final JanitorRuntime runtime, JanitorScriptProcess process, final JString templateString, final JCallArgs arguments) throws JanitorRuntimeException {
-        final TemplateParser parser = new TemplateParser(templateString.janitorToString());
-
-        if (!parser.isValid()) {
-            throw new JanitorArgumentException(process, "invalid template");
-        }
+        final CompiledTemplate template = compile(runtime, process, templateString.janitorToString());
+        arguments.require(0, 1);
+        final JanitorObject values = arguments.size() > 0 ? arguments.get(0) : null;
+        final StringBuilder stringBuilder = new StringBuilder();
+        template.render(process, values, stringBuilder);
+        return Janitor.string(stringBuilder.toString());
+    }
 
+    /**
+     * Compile a template, using the runtime's template cache if it has one.
+     * @param runtime the runtime
+     * @param process the running script
+     * @param text the template text
+     * @return the compiled template
+     * @throws JanitorArgumentException if the template is invalid
+     */
+    public static @NotNull CompiledTemplate compile(final JanitorRuntime runtime, final JanitorScriptProcess process, final String text) throws JanitorArgumentException {
         try {
-            @Language("Janitor") final String scriptSource = parser.toScript(TemplateParser::plainRenderer);
-            RunnableScript script = runtime.compile("TEMPLATE", scriptSource);
-            arguments.require(0, 1);
-            final JanitorObject values = arguments.size() > 0 ? arguments.get(0) : null;
-
-            final StringBuilder stringBuilder = new StringBuilder();
-
-            final JCallable writer = (runningScript, arguments1) -> {
-                for (final JanitorObject jObj : arguments1.requireArgListOnly()) {
-                    if (jObj != JNull.NULL) {
-                        stringBuilder.append(jObj.janitorToString());
-                    }
-                }
-                return JNull.NULL;
-            };
-            final JCallable popper = (rs, args1) -> {
-                stringBuilder.setLength((int) (stringBuilder.length() - args1.getRequiredLongValue(0)));
-                return JNull.NULL;
-            };
-
-
-
-            script.runInScope(g -> {
-                        g.bind("__POP__", popper.asObject("__POP__"));
-                        g.bind("__OUT__", writer.asObject("__OUT__"));
-                        if (values != null) {
-                            System.err.println("setting implicit object provider to values=" + values);
-                            g.setImplicitObjectProvider(values.asImplicitObjectProvider());
-                        } else {
-                            System.err.println("setting implcit object provider to NONE");
-                            // we only look up the environment's implicit object provide when a provider is attached,
-                            // so in this case here attach the NONE dummy provider to trigger that behaviour:
-                            g.setImplicitObjectProvider(Scope.ImplicitObjectProvider.NONE);
-                        }
-                    }, process.getCurrentScope()
-            );
-            return Janitor.string(stringBuilder.toString());
+            return runtime instanceof BaseRuntime baseRuntime ? baseRuntime.getTemplateCache().get(text) : CompiledTemplate.compile(runtime, text);
         } catch (JanitorCompilerException e) {
             throw new JanitorArgumentException(process, "invalid template", e);
         }
@@ -6,7 +6,6 @@ import com.eischet.janitor.api.types.JanitorObject;
 import com.eischet.janitor.api.types.builtin.JList;
 import com.eischet.janitor.api.types.builtin.JNull;
 import com.eischet.janitor.api.types.functions.JCallable;
-import com.eischet.janitor.compiler.ast.function.ScriptFunction;
 import com.eischet.janitor.lang.JNativeMethod;
 import com.eischet.janitor.maven.env.MavenScriptingEnv;
 import com.eischet.janitor.api.JanitorRuntime;
@@ -9,7 +9,7 @@ import org.commonmark.parser.Parser;
 public class CommonMarkModule extends JanitorComposed<CommonMarkModule> implements JanitorModule {
 
     private static final DispatchTable<CommonMarkModule> dispatch = new DispatchTable<>(CommonMarkModule::new);
-    public static final JanitorModuleRegistration REGISTRATION = new JanitorModuleRegistration("commonmark", CommonMarkModule::new);
+    public static final JanitorModuleRegistration REGISTRATION = new JanitorModuleRegistration("commonmark", CommonMarkModule::new, true);
 
     static {
         // Factory methods for the various node types
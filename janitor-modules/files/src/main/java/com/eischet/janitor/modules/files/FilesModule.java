@@ -18,10 +18,13 @@ import com.eischet.janitor.api.types.functions.JCallArgs;
 import com.eischet.janitor.env.JElement;
 import com.eischet.janitor.env.JanitorXmlParser;
 import com.eischet.janitor.runtime.DateTimeUtilities;
+import com.eischet.janitor.template.CompiledTemplate;
+import com.eischet.janitor.template.TemplateParser;
 
 import javax.xml.stream.XMLStreamException;
 import java.io.File;
 import java.io.IOException;
+import java.io.Writer;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -30,11 +33,12 @@ import java.time.LocalDateTime;
 public class FilesModule extends JanitorComposed<FilesModule> implements JanitorModule {
 
     private static final DispatchTable<FilesModule> dispatcher = new DispatchTable<>(FilesModule::new);
-    public static final JanitorModuleRegistration REGISTRATION = new JanitorModuleRegistration("files", FilesModule::new);
+    public static final JanitorModuleRegistration REGISTRATION = new JanitorModuleRegistration("files", FilesModule::new, true);
 
     static {
         dispatcher.addMethod("exists", FilesModule::fileExists);
         dispatcher.addMethod("write", FilesModule::writeString);
+        dispatcher.addMethod("writeTemplate", FilesModule::writeTemplate);
         dispatcher.addMethod("read", FilesModule::readString);
         dispatcher.addMethod("readXml", FilesModule::readXml);
         dispatcher.addMethod("writeBinary", FilesModule::writeBinary);
@@ -84,6 +88,28 @@ public class FilesModule extends JanitorComposed<FilesModule> implements Janitor
         }
     }
 
+    /**
+     * Render a template straight into a file, without building the whole document in memory first.
+     * Usage: files.writeTemplate(fileName, template, [values], [charset]).
+     *
+     * @param process   the running script
+     * @param arguments file name, template text, optional values for the template and optional charset (default UTF-8)
+     * @return NULL
+     * @throws JanitorRuntimeException on errors in the template, or when writing the file fails
+     */
+    public JNull writeTemplate(final JanitorScriptProcess process, final JCallArgs arguments) throws JanitorRuntimeException {
+        arguments.require(2, 4);
+        final String fileName = arguments.getRequiredStringValue(0);
+        final CompiledTemplate template = TemplateParser.compile(process.getRuntime(), process, arguments.getRequiredStringValue(1));
+        final JanitorObject values = arguments.size() > 2 && arguments.get(2) != JNull.NULL ? arguments.get(2) : null;
+        try (final Writer writer = Files.newBufferedWriter(Path.of(fileName), Charset.forName(arguments.getOptionalStringValue(3, "UTF-8")))) {
+            template.render(process, values, writer);
+        } catch (IOException e) {
+            throw new JanitorNativeException(process, "error writing to file", e);
+        }
+        return JNull.NULL;
+    }
+
     public JanitorObject readString(final JanitorScriptProcess runningScript, final JCallArgs arguments) throws JanitorRuntimeException {
         try {
             return runningScript.getBuiltins().nullableString(
@@ -14,7 +14,10 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 
 public interface Dao<T extends OrmEntity> extends JanitorObject {
 
@@ -60,6 +63,48 @@ public interface Dao<T extends OrmEntity> extends JanitorObject {
     void delete(@NotNull DatabaseConnection conn,
                 @NotNull T record) throws DatabaseError;
 
+    /**
+     * Insert several records.
+     * The default implementation inserts them one by one; DAOs may send them to the database in batches.
+     *
+     * @param conn    the database connection
+     * @param records the records to insert
+     * @throws DatabaseError on database errors
+     */
+    default void insertAll(@NotNull DatabaseConnection conn, @NotNull Collection<? extends T> records) throws DatabaseError {
+        for (final T record : records) {
+            insert(conn, record);
+        }
+    }
+
+    /**
+     * Update several records.
+     * The default implementation updates them one by one; DAOs may send them to the database in batches.
+     *
+     * @param conn    the database connection
+     * @param records the records to update
+     * @throws DatabaseError on database errors
+     */
+    default void updateAll(@NotNull DatabaseConnection conn, @NotNull Collection<? extends T> records) throws DatabaseError {
+        for (final T record : records) {
+            update(conn, record);
+        }
+    }
+
+    /**
+     * Delete several records.
+     * The default implementation deletes them one by one; DAOs may send them to the database in batches.
+     *
+     * @param conn    the database connection
+     * @param records the records to delete
+     * @throws DatabaseError on database errors
+     */
+    default void deleteAll(@NotNull DatabaseConnection conn, @NotNull Collection<? extends T> records) throws DatabaseError {
+        for (final T record : records) {
+            delete(conn, record);
+        }
+    }
+
     /**
      * Returns all records where the given column has the given value.
      *
@@ -87,6 +132,40 @@ public interface Dao<T extends OrmEntity> extends JanitorObject {
     @Nullable T lazyLoadById(long id);
     @Nullable T lazyLoadByKey(String key);
 
+    /**
+     * Returns all records with the given ids.
+     * The default implementation runs one query per id; implementations should use as few queries as possible instead.
+     *
+     * @param conn the database connection
+     * @param ids the ids to look up
+     * @return the records found, in no particular order; ids without a record are skipped
+     * @throws DatabaseError if there is an error while executing the query
+     */
+    @NotNull
+    @Unmodifiable
+    default List<T> findByIds(final @NotNull DatabaseConnection conn, final @NotNull Collection<Long> ids) throws DatabaseError {
+        final List<T> results = new ArrayList<>(ids.size());
+        for (final Long id : ids) {
+            final @Nullable T result = findById(conn, id);
+            if (result != null) {
+                results.add(result);
+            }
+        }
+        return List.copyOf(results);
+    }
+
+    /**
+     * Like findByIds, but automatically creates a database transaction, like lazyLoadById.
+     *
+     * @param ids the ids to look up
+     * @return the records found, in no particular order; ids without a record are skipped
+     */
+    @NotNull
+    @Unmodifiable
+    default List<T> lazyLoadByIds(final @NotNull Collection<Long> ids) {
+        return ids.stream().map(this::lazyLoadById).filter(Objects::nonNull).toList();
+    }
+
     // TODO: should lazyLoadByAssociation better throw an exception on errors?
 
     void setLogging(final DaoLogging logging);
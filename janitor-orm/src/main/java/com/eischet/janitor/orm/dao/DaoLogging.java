@@ -3,6 +3,7 @@ package com.eischet.janitor.orm.dao;
 import com.eischet.janitor.orm.entity.OrmEntity;
 import com.eischet.janitor.orm.entity.OrmObject;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface DaoLogging {
@@ -10,4 +11,13 @@ public interface DaoLogging {
     void lazyLoadedForeignKey(String entityClass, Object identifier, OrmObject result);
 
     void lazyLoadedAssociation(String entityClass, String keyColumn, long parentId, List<? extends OrmEntity> results);
+
+    default void prefetchedForeignKeys(String entityClass, Collection<Long> identifiers, List<? extends OrmEntity> results) {
+    }
+
+    default void cacheHit(String entityClass, Object identifier) {
+    }
+
+    default void cacheMiss(String entityClass, Object identifier) {
+    }
 }
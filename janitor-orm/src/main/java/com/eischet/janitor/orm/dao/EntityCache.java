@@ -0,0 +1,384 @@
+package com.eischet.janitor.orm.dao;
+
+import com.eischet.dbxs.DatabaseConnection;
+import com.eischet.janitor.orm.entity.OrmEntity;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * An optional entity cache for a {@link GenericDao}, see {@link GenericDao#setCache(EntityCache)}.
+ * <p>The cache has two levels:</p>
+ * <ul>
+ *     <li>an identity map per transaction, i.e. per {@link DatabaseConnection#getTransactionOwner() owning connection}, which
+ *     nested transactions share: looking up the same id or key twice in one transaction returns the same instance, without
+ *     asking the database again</li>
+ *     <li>a bounded cache shared by all transactions, which evicts the least recently used entity when it is full,
+ *     and entities that have been loaded longer ago than the time to live</li>
+ * </ul>
+ * <p>The shared cache hands out the same instance to all transactions, so it suits small reference tables that rarely
+ * change and whose entities are not modified in place, e.g. countries, currencies or categories.</p>
+ * <p>The DAO reports its changes to the cache: inserted, updated and deleted entities are removed from both levels, so
+ * the next lookup reads them from the database again. Entities loaded by a transaction that has modified the table are
+ * kept in that transaction's identity map only, so uncommitted changes never reach the shared cache.
+ * Other transactions may still read the old row until the change is committed, so changed entities are not shared while the
+ * changing transaction is open, and they are removed once more when it ends, see {@link DatabaseConnection#afterCompletion(Runnable)}.
+ * This leaves a small window: a transaction that reads the old row just before the commit, and adds it just after the changing
+ * transaction has ended, puts the old entity back into the shared cache, where it stays until it is changed again or expires.
+ * Use a time to live if that matters.
+ * Changes made by other applications, or by plain SQL, are only picked up after the time to live has passed.</p>
+ * <p>Keys are taken from {@link OrmEntity#getKey()}.</p>
+ *
+ * @param <T> the entity type
+ */
+public final class EntityCache<T extends OrmEntity> implements EntityChangeListener<T> {
+
+    /**
+     * A snapshot of the cache's statistics.
+     *
+     * @param hits          number of lookups answered by the cache, in either level
+     * @param misses        number of lookups that had to ask the database
+     * @param evictions     number of entities removed from the shared cache because it was full or they had expired
+     * @param invalidations number of entities removed from the shared cache because they have been changed
+     * @param size          number of entities currently in the shared cache
+     */
+    public record Statistics(long hits, long misses, long evictions, long invalidations, int size) {
+        /**
+         * Return the share of lookups answered by the cache.
+         *
+         * @return the hit rate, between 0 and 1, or 0 if there were no lookups yet
+         */
+        public double hitRate() {
+            final long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+    }
+
+    private record Entry<T>(T entity, @Nullable String key, long loadedAt) {
+    }
+
+    /**
+     * The identity map of a single transaction.
+     */
+    private static final class Transaction<T> {
+        private final Map<Long, T> byId = new HashMap<>();
+        private final Map<String, T> byKey = new HashMap<>();
+        private final Set<Long> changed = new HashSet<>();
+        private boolean modified;
+    }
+
+    private final int maximumSize;
+    private final long timeToLiveNanos;
+    private final LongSupplier clock;
+    private final Map<Long, Entry<T>> shared;
+    private final Map<String, Long> sharedKeys = new HashMap<>();
+    private final Map<Long, Integer> pending = new HashMap<>();
+    private final Map<DatabaseConnection, Transaction<T>> transactions = new WeakHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param maximumSize the maximum number of entities in the shared cache; 0 keeps the identity maps only
+     * @param timeToLive  how long entities are kept in the shared cache, or null to keep them until they are evicted or changed
+     */
+    public EntityCache(final int maximumSize, final @Nullable Duration timeToLive) {
+        this(maximumSize, timeToLive, System::nanoTime);
+    }
+
+    /**
+     * Constructor, with a clock for checking the time to live.
+     *
+     * @param maximumSize the maximum number of entities in the shared cache; 0 keeps the identity maps only
+     * @param timeToLive  how long entities are kept in the shared cache, or null to keep them until they are evicted or changed
+     * @param clock       returns the current time in nanoseconds, like {@link System#nanoTime()}
+     */
+    public EntityCache(final int maximumSize, final @Nullable Duration timeToLive, final @NotNull LongSupplier clock) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("invalid maximum size: " + maximumSize);
+        }
+        if (timeToLive != null && (timeToLive.isNegative() || timeToLive.isZero())) {
+            throw new IllegalArgumentException("invalid time to live: " + timeToLive);
+        }
+        this.maximumSize = maximumSize;
+        this.timeToLiveNanos = timeToLive == null ? Long.MAX_VALUE : timeToLive.toNanos();
+        this.clock = clock;
+        this.shared = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Long, Entry<T>> eldest) {
+                if (size() > EntityCache.this.maximumSize) {
+                    evictions.increment();
+                    forgetKey(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Look up an entity by id.
+     *
+     * @param conn the connection of the current transaction
+     * @param id   the id
+     * @return the cached entity, or null if the caller has to ask the database
+     */
+    public @Nullable T getById(final @NotNull DatabaseConnection conn, final long id) {
+        final Transaction<T> transaction = transaction(conn);
+        T entity;
+        synchronized (transactions) {
+            entity = transaction.byId.get(id);
+        }
+        if (entity == null) {
+            entity = getShared(id);
+            if (entity != null) {
+                remember(transaction, entity);
+            }
+        }
+        count(entity);
+        return entity;
+    }
+
+    /**
+     * Look up an entity by key.
+     *
+     * @param conn the connection of the current transaction
+     * @param key  the key
+     * @return the cached entity, or null if the caller has to ask the database
+     */
+    public @Nullable T getByKey(final @NotNull DatabaseConnection conn, final @NotNull String key) {
+        final Transaction<T> transaction = transaction(conn);
+        T entity;
+        synchronized (transactions) {
+            entity = transaction.byKey.get(key);
+        }
+        if (entity == null) {
+            final @Nullable Long id;
+            synchronized (shared) {
+                id = sharedKeys.get(key);
+            }
+            entity = id == null ? null : getShared(id);
+            if (entity != null) {
+                remember(transaction, entity);
+            }
+        }
+        count(entity);
+        return entity;
+    }
+
+    /**
+     * Add an entity that has just been loaded from the database.
+     *
+     * @param conn   the connection of the current transaction
+     * @param entity the entity
+     */
+    public void put(final @NotNull DatabaseConnection conn, final @NotNull T entity) {
+        final Transaction<T> transaction = transaction(conn);
+        final boolean modified;
+        synchronized (transactions) {
+            remember(transaction, entity);
+            modified = transaction.modified;
+        }
+        if (maximumSize > 0 && !modified) {
+            final Entry<T> entry = new Entry<>(entity, entity.getKey(), clock.getAsLong());
+            synchronized (shared) {
+                if (pending.containsKey(entity.getId())) {
+                    return; // changed by a transaction that is still open
+                }
+                final @Nullable Entry<T> replaced = shared.put(entity.getId(), entry);
+                if (replaced != null) {
+                    forgetKey(replaced);
+                }
+                if (entry.key != null) {
+                    sharedKeys.put(entry.key, entity.getId());
+                }
+            }
+        }
+    }
+
+    /**
+     * Note that a transaction modifies the table, so entities it loads afterwards are not shared with other transactions.
+     *
+     * @param conn the connection of the current transaction
+     */
+    public void modified(final @NotNull DatabaseConnection conn) {
+        synchronized (transactions) {
+            transaction(conn).modified = true;
+        }
+    }
+
+    /**
+     * Note that a transaction has inserted, updated or deleted an entity.
+     * The entity is removed from the cache now, is not shared with other transactions until the changing transaction has ended,
+     * and is removed again when it ends.
+     *
+     * @param conn   the connection of the current transaction
+     * @param entity the entity
+     */
+    public void changed(final @NotNull DatabaseConnection conn, final @NotNull T entity) {
+        final Transaction<T> transaction = transaction(conn);
+        final long id = entity.getId();
+        final boolean first;
+        final boolean added;
+        synchronized (transactions) {
+            transaction.modified = true;
+            first = transaction.changed.isEmpty();
+            added = transaction.changed.add(id);
+        }
+        if (added) {
+            synchronized (shared) {
+                pending.merge(id, 1, Integer::sum);
+            }
+        }
+        invalidate(id);
+        if (first) {
+            conn.afterCompletion(() -> completed(transaction));
+        }
+    }
+
+    @Override
+    public void onChange(final Type type, final T entity) {
+        invalidate(entity.getId());
+    }
+
+    /**
+     * Remove an entity from the shared cache and from all identity maps.
+     *
+     * @param id the entity's id
+     */
+    public void invalidate(final long id) {
+        synchronized (shared) {
+            final @Nullable Entry<T> removed = shared.remove(id);
+            if (removed != null) {
+                invalidations.increment();
+                forgetKey(removed);
+            }
+        }
+        synchronized (transactions) {
+            for (final Transaction<T> transaction : transactions.values()) {
+                final @Nullable T removed = transaction.byId.remove(id);
+                if (removed != null && removed.getKey() != null) {
+                    transaction.byKey.remove(removed.getKey());
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove all entities from the shared cache and from all identity maps, e.g. after the table has been changed by plain SQL.
+     * The statistics are kept.
+     */
+    public void invalidateAll() {
+        synchronized (shared) {
+            invalidations.add(shared.size());
+            shared.clear();
+            sharedKeys.clear();
+        }
+        synchronized (transactions) {
+            for (final Transaction<T> transaction : transactions.values()) {
+                transaction.byId.clear();
+                transaction.byKey.clear();
+            }
+        }
+    }
+
+    /**
+     * Return the maximum number of entities in the shared cache.
+     *
+     * @return the maximum size
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Return the current statistics.
+     *
+     * @return a snapshot of the statistics
+     */
+    public @NotNull Statistics getStatistics() {
+        final int size;
+        synchronized (shared) {
+            size = shared.size();
+        }
+        return new Statistics(hits.sum(), misses.sum(), evictions.sum(), invalidations.sum(), size);
+    }
+
+    private @NotNull Transaction<T> transaction(final @NotNull DatabaseConnection conn) {
+        synchronized (transactions) {
+            return transactions.computeIfAbsent(conn.getTransactionOwner(), c -> new Transaction<>());
+        }
+    }
+
+    private void completed(final @NotNull Transaction<T> transaction) {
+        final List<Long> ids;
+        synchronized (transactions) {
+            ids = List.copyOf(transaction.changed);
+            transaction.changed.clear();
+        }
+        synchronized (shared) {
+            for (final Long id : ids) {
+                pending.computeIfPresent(id, (key, count) -> count == 1 ? null : count - 1);
+            }
+        }
+        for (final Long id : ids) {
+            invalidate(id);
+        }
+    }
+
+    private void remember(final @NotNull Transaction<T> transaction, final @NotNull T entity) {
+        synchronized (transactions) {
+            transaction.byId.put(entity.getId(), entity);
+            if (entity.getKey() != null) {
+                transaction.byKey.put(entity.getKey(), entity);
+            }
+        }
+    }
+
+    private @Nullable T getShared(final long id) {
+        synchronized (shared) {
+            final @Nullable Entry<T> entry = shared.get(id);
+            if (entry == null) {
+                return null;
+            }
+            if (clock.getAsLong() - entry.loadedAt > timeToLiveNanos) {
+                shared.remove(id);
+                forgetKey(entry);
+                evictions.increment();
+                return null;
+            }
+            return entry.entity;
+        }
+    }
+
+    /**
+     * Remove the key index entry of an entry that is no longer cached. The caller must hold the lock on the shared cache.
+     */
+    private void forgetKey(final @NotNull Entry<T> entry) {
+        if (entry.key != null) {
+            sharedKeys.remove(entry.key, entry.entity.getId());
+        }
+    }
+
+    private void count(final @Nullable T entity) {
+        if (entity != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+    }
+
+}
@@ -15,8 +15,10 @@ import com.eischet.janitor.api.errors.runtime.JanitorError;
 import com.eischet.janitor.api.errors.runtime.JanitorNativeException;
 import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
 import com.eischet.janitor.api.types.JAssignable;
+import com.eischet.janitor.api.types.JIterable;
 import com.eischet.janitor.api.types.JanitorObject;
 import com.eischet.janitor.api.types.builtin.JMap;
+import com.eischet.janitor.api.types.builtin.JNumber;
 import com.eischet.janitor.api.types.builtin.JString;
 import com.eischet.janitor.api.types.composed.JanitorComposed;
 import com.eischet.janitor.api.types.dispatch.DispatchTable;
@@ -30,6 +32,8 @@ import com.eischet.janitor.orm.entity.OrmEntity;
 import com.eischet.janitor.orm.filter.FilterOperator;
 import com.eischet.janitor.orm.filter.MalformedExpression;
 import com.eischet.janitor.orm.meta.EntityIndex;
+import com.eischet.janitor.orm.ref.ForeignKey;
+import com.eischet.janitor.orm.ref.ForeignKeyPrefetch;
 import com.eischet.janitor.orm.sql.ColumnTypeHint;
 import com.eischet.janitor.orm.sql.StatementCreator;
 import com.eischet.janitor.toolbox.json.api.JsonException;
@@ -56,6 +60,7 @@ public abstract class GenericDao<T extends OrmEntity> extends JanitorComposed<Ge
     // TOOD: cache the database version after first retrieving it
 
     public static final DispatchTable<GenericDao<?>> DISPATCH = new DispatchTable<>();
+    public static final int DEFAULT_BATCH_SIZE = 500;
     private static final Predicate<String> INVALID_FIELD = Pattern.compile("[a-zA-Z0-9_@-]+").asMatchPredicate().negate();
 
     static {
@@ -98,6 +103,12 @@ public abstract class GenericDao<T extends OrmEntity> extends JanitorComposed<Ge
         DISPATCH.addMethod("findById", GenericDao::scriptFindById);
         DISPATCH.addMethod("findByKey", GenericDao::scriptFindByKey);
         DISPATCH.addMethod("queryForEach", GenericDao::scriptQueryForEach);
+        DISPATCH.addMethod("prefetch", GenericDao::scriptPrefetch);
+        DISPATCH.addMethod("cursor", GenericDao::scriptCursor);
+        DISPATCH.addMethod("insertAll", GenericDao::scriptInsertAll);
+        DISPATCH.addMethod("updateAll", GenericDao::scriptUpdateAll);
+        DISPATCH.addMethod("deleteAll", GenericDao::scriptDeleteAll);
+        DISPATCH.addIntegerProperty("batchSize", GenericDao::getBatchSize, GenericDao::setBatchSize);
 
         DISPATCH.addStringProperty("jsonSchema", self -> Janitor.current().writeJson(self.entityDispatch::writeSchemaToJson));
     }
@@ -117,7 +128,11 @@ public abstract class GenericDao<T extends OrmEntity> extends JanitorComposed<Ge
     protected final String className;
     protected final @NotNull Class<T> entityClass;
     protected boolean verbose = false;
+    protected int batchSize = DEFAULT_BATCH_SIZE;
     protected @Nullable DaoLogging logging;
+    protected @Nullable EntityCache<T> cache;
+    private @Nullable ListenerRegistration cacheRegistration;
+    private volatile @Nullable StatementPlan<T> statementPlan;
 
     public GenericDao(
             final @NotNull DispatchTable<? extends GenericDao<T>> childDispatch,
@@ -161,6 +176,65 @@ public abstract class GenericDao<T extends OrmEntity> extends JanitorComposed<Ge
      */
     protected abstract DataManager getDataManager();
 
+    /**
+     * Return the SQL statements and column metadata of this DAO, which are computed on first use and then reused,
+     * until the data manager's dialect changes.
+     *
+     * @return the statement plan
+     */
+    protected @NotNull StatementPlan<T> getStatementPlan() {
+        final DatabaseDialect dialect = getDataManager().getDialect();
+        @Nullable StatementPlan<T> plan = statementPlan;
+        if (plan == null || plan.getDialect() != dialect) {
+            plan = new StatementPlan<>(dialect, entityDispatch, tableName, idColumn, keyColumn, columns, fieldForColumn);
+            statementPlan = plan;
+        }
+        return plan;
+    }
+
+    /**
+     * Cache the entities found by id or key, see {@link EntityCache}.
+     * The cache is invalidated by this DAO's change events, so it replaces any cache set before.
+     *
+     * @param cache the cache, or null to stop caching
+     */
+    public void setCache(final @Nullable EntityCache<T> cache) {
+        if (cacheRegistration != null) {
+            cacheRegistration.remove();
+            cacheRegistration = null;
+        }
+        this.cache = cache;
+        if (cache != null) {
+            cacheRegistration = addChangeListener(cache);
+        }
+    }
+
+    public @Nullable EntityCache<T> getCache() {
+        return cache;
+    }
+
+    /**
+     * Return the maximum number of statements that insertAll, updateAll and deleteAll send to the database at once.
+     *
+     * @return the batch size
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Set the maximum number of statements that insertAll, updateAll and deleteAll send to the database at once.
+     * Ids for inserted records are fetched from the sequence in blocks of the same size.
+     *
+     * @param batchSize the batch size, at least 1
+     */
+    public void setBatchSize(final int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("invalid batch size: " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
     public boolean isChangeTracked() {
         return false;
     }
@@ -211,28 +285,134 @@ public abstract class GenericDao<T extends OrmEntity> extends JanitorComposed<Ge
             }
             return null;
         }
-        final StatementCreator creator = new StatementCreator(getDataManager().getDialect());
-        final SelectStatement select = SelectStatement.of(creator.createSelectStatement(tableName, columns, keyColumn));
+        if (cache != null) {
+            final @Nullable T cached = cache.getByKey(conn, key);
+            countCacheLookup(key, cached);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        final SelectStatement select = Objects.requireNonNull(getStatementPlan().getSelectByKey());
         if (verbose) {
             log.info("{}::findByKey(key='{}'): running {}", className, key, select);
         }
-        return conn.queryForObject(select, stmt -> stmt.addString(key), rs -> readAllProperties(conn, rs));
+        return cached(conn, conn.queryForObject(select, stmt -> stmt.addString(key), rs -> readAllProperties(conn, rs)));
     }
 
     @Override
     public @Nullable T findById(final @NotNull DatabaseConnection conn, final long id) throws DatabaseError {
-        final StatementCreator creator = new StatementCreator(getDataManager().getDialect());
-        final SelectStatement select = SelectStatement.of(creator.createSelectStatement(tableName, columns, idColumn));
+        if (cache != null) {
+            final @Nullable T cached = cache.getById(conn, id);
+            countCacheLookup(id, cached);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        final SelectStatement select = getStatementPlan().getSelectById();
         if (verbose) {
             log.info("{}::findById(id={}): running {}", className, id, select);
         }
-        return conn.queryForObject(select, stmt -> stmt.addLong(id), rs -> readAllProperties(conn, rs));
+        return cached(conn, conn.queryForObject(select, stmt -> stmt.addLong(id), rs -> readAllProperties(conn, rs)));
+    }
+
+    /**
+     * Returns all records with the given ids, using "where id in (...)" queries.
+     * The ids are split into chunks of at most {@link DatabaseDialect#getMaxInListSize()} elements, so this works for any number of ids.
+     * With a {@linkplain #setCache(EntityCache) cache}, only the ids not found in the cache are queried.
+     *
+     * @param conn the database connection
+     * @param ids the ids to look up
+     * @return the records found, in no particular order; ids without a record are skipped
+     * @throws DatabaseError if there is an error while executing the query
+     */
+    @Override
+    public @NotNull @Unmodifiable List<T> findByIds(final @NotNull DatabaseConnection conn, final @NotNull Collection<Long> ids) throws DatabaseError {
+        final List<T> results = new ArrayList<>(ids.size());
+        final List<Long> missing = new ArrayList<>(ids.size());
+        for (final Long id : new LinkedHashSet<>(ids)) {
+            if (id == null || id <= 0) {
+                continue;
+            }
+            if (cache != null) {
+                final @Nullable T cached = cache.getById(conn, id);
+                countCacheLookup(id, cached);
+                if (cached != null) {
+                    results.add(cached);
+                    continue;
+                }
+            }
+            missing.add(id);
+        }
+        if (missing.isEmpty()) {
+            return Collections.unmodifiableList(results);
+        }
+        final StatementCreator creator = getStatementPlan().getCreator();
+        final int chunkSize = Math.max(1, conn.getDialect().getMaxInListSize());
+        for (int from = 0; from < missing.size(); from += chunkSize) {
+            final List<Long> chunk = missing.subList(from, Math.min(from + chunkSize, missing.size()));
+            final SelectStatement select = SelectStatement.of(creator.createSelectInStatement(tableName, columns, idColumn, chunk.size()));
+            if (verbose) {
+                log.info("{}::findByIds({} ids): running {}", className, chunk.size(), select);
+            }
+            for (final T loaded : conn.queryForList(select, stmt -> {
+                for (final Long id : chunk) {
+                    stmt.addLong(id);
+                }
+            }, rs -> readAllProperties(conn, rs))) {
+                results.add(cached(conn, loaded));
+            }
+        }
+        return Collections.unmodifiableList(results);
+    }
+
+    /**
+     * Resolve a foreign key property of many records at once.
+     * <p>Instead of loading the referenced entity separately for each record when the property is first read, the
+     * ids of all unresolved keys are collected and loaded with as few queries as possible, see {@link #findByIds(DatabaseConnection, Collection)}.</p>
+     *
+     * @param conn the database connection
+     * @param records the records, which must be of this DAO's entity type
+     * @param field the name of a foreign key property of the entity, e.g. "customer"
+     * @return the number of keys that have been resolved
+     * @throws DatabaseError if the field is not a foreign key, or there is an error while executing the queries
+     */
+    public int prefetch(final @NotNull DatabaseConnection conn, final @NotNull Collection<? extends T> records, final @NotNull String field) throws DatabaseError {
+        if (entityDispatch.getMetaData(field, Janitor.MetaData.REF) == null) {
+            throw new DatabaseError(className + "." + field + " is not a foreign key");
+        }
+        final List<ForeignKey<?>> keys;
+        try {
+            keys = ForeignKeyPrefetch.collect(entityDispatch, records, field);
+        } catch (IllegalArgumentException e) {
+            throw new DatabaseError(e.getMessage(), e);
+        }
+        final int resolved = ForeignKeyPrefetch.resolveAll(conn, keys);
+        if (verbose) {
+            log.info("{}::prefetch(field={}): resolved {} of {} keys for {} records", className, field, resolved, keys.size(), records.size());
+        }
+        return resolved;
+    }
+
+    private void countCacheLookup(final @NotNull Object identifier, final @Nullable T cached) {
+        if (logging != null) {
+            if (cached != null) {
+                logging.cacheHit(className, identifier);
+            } else {
+                logging.cacheMiss(className, identifier);
+            }
+        }
+    }
+
+    private @Nullable T cached(final @NotNull DatabaseConnection conn, final @Nullable T loaded) {
+        if (cache != null && loaded != null) {
+            cache.put(conn, loaded);
+        }
+        return loaded;
     }
 
     @Override
     public @NotNull List<T> findAll(final @NotNull DatabaseConnection conn, final @Nullable Integer limit) throws DatabaseError {
-        final StatementCreator creator = new StatementCreator(getDataManager().getDialect());
-        final SelectStatement select = SelectStatement.of(creator.createSelectAllStatement(tableName, columns));
+        final SelectStatement select = getStatementPlan().getSelectAll();
         if (verbose) {
             log.info("{}::findAll(): running {}, limit={}", className, select, limit);
         }
@@ -411,11 +591,10 @@ public abstract class GenericDao<T extends OrmEntity> extends JanitorComposed<Ge
 
     @Override
     public int countByFilter(@NotNull final DatabaseConnection conn, @Nullable final FilterExpression filterExpression) throws DatabaseError {
-        final StatementCreator creator = new StatementCreator(getDataManager().getDialect());
         final List<Prepper> preppers = new LinkedList<>();
+        final String count = getStatementPlan().getCount();
         @Language("SQL") final String sql =
-                filterExpression == null ? creator.createCountStatement(tableName) :
-                        creator.createCountStatement(tableName) + "\nWHERE\n  " + expressionToSql(filterExpression, preppers::add);
+                filterExpression == null ? count : count + "\nWHERE\n  " + expressionToSql(filterExpression, preppers::add);
         if (verbose) {
             log.info("countByFilter, sql: {}, preppers: {}", sql, preppers);
         }
@@ -431,8 +610,8 @@ public abstract class GenericDao<T extends OrmEntity> extends JanitorComposed<Ge
 
     @Override
     public @NotNull List<T> findByAssociation(final @NotNull DatabaseConnection conn, final String foreignKeyColumn, final long foreignKeyValue) throws DatabaseError {
-        final StatementCreator creator = new StatementCreator(getDataManager().getDialect());
-        @Language("SQL") final String sql = creator.createSelectAllStatement(tableName, columns) + "\nWHERE\n  " + getDataManager().getDialect().quoteColumn(foreignKeyColumn) + " = ?";
+        final StatementPlan<T> plan = getStatementPlan();
+        @Language("SQL") final String sql = plan.getSelectAll().getSql() + "\nWHERE\n  " + plan.getDialect().quoteColumn(foreignKeyColumn) + " = ?";
         if (verbose) {
             log.info("findByAssociation, sql: {}, fk = {}", sql, foreignKeyValue);
         }
@@ -477,8 +656,7 @@ public abstract class GenericDao<T extends OrmEntity> extends JanitorComposed<Ge
         final @Nullable String orderBy = filterQuery.getOrderByClause();
         final @Nullable Integer limit = filterQuery.getMaxRows();
         final @NotNull String finalOrderBy = orderBy == null ? "order by 2" : orderBy;
-        final StatementCreator creator = new StatementCreator(getDataManager().getDialect());
-        @Language("SQL") final String sql = creator.createSelectAllStatement(tableName, columns) + "\nWHERE\n  " + expressionToSql(filterQuery.filterExpression, preppers::add);
+        @Language("SQL") final String sql = getStatementPlan().getSelectAll().getSql() + "\nWHERE\n  " + expressionToSql(filterQuery.filterExpression, preppers::add);
         @NotNull final DatabaseVersion databaseVersion = DatabaseVersion.getDatabaseVersion(getDataManager());
         if (limit != null && limit > 0 && getDataManager().getDialect().canLimitAndOffset(databaseVersion)) {
             SelectStatement limited = filterQuery.rewriteQuery(getDataManager().getDialect().addLimitAndOffset(SelectStatement.of(sql + " " + finalOrderBy)));
@@ -491,44 +669,83 @@ public abstract class GenericDao<T extends OrmEntity> extends JanitorComposed<Ge
     @Override
     public @NotNull @Unmodifiable List<T> findByFilter(@NotNull final DatabaseConnection conn, @NotNull final FilterQuery filterQuery) throws DatabaseError {
         final LimitedSelectStatement q = createFindByFilterQuery(filterQuery);
-        return conn.queryForList(
-            q,
-            stmt -> {
-                if (filterQuery.getQueryTimeout() != null) {
-                    stmt.setQueryTimeout(filterQuery.getQueryTimeout());
-                }
-                for (final Prepper prepper : q.getPreppers()) {
-                    prepper.prepare(conn, stmt);
-                }
-                if (q.getRowLimit() != null) {
-                    getDataManager().getDialect().addLimitAndOffset(stmt, q.getRowLimit(), 0);
-                }
-            },
-            rs -> readAllProperties(conn, rs));
+        return conn.queryForList(q, filterConfigurator(conn, filterQuery, q), rs -> readAllProperties(conn, rs));
+    }
+
+    /**
+     * Like findByFilter, but returns a cursor that reads the records while iterating instead of a list.
+     * The cursor must be closed before the transaction ends.
+     *
+     * @param conn        the database connection
+     * @param filterQuery the filter
+     * @return an open cursor
+     * @throws DatabaseError if the query cannot be executed
+     */
+    public @NotNull QueryCursor<T> openCursor(@NotNull final DatabaseConnection conn, @NotNull final FilterQuery filterQuery) throws DatabaseError {
+        final LimitedSelectStatement q = createFindByFilterQuery(filterQuery);
+        return conn.openCursor(q, filterConfigurator(conn, filterQuery, q), rs -> readAllProperties(conn, rs));
+    }
+
+    /**
+     * Open a cursor over the records returned by a query, which must select this DAO's columns in order, like findByQuery.
+     * The cursor must be closed before the transaction ends.
+     *
+     * @param conn   the database connection
+     * @param select the query; set a fetch size on it to override the dialect's default for cursors
+     * @param sc     the statement configurator
+     * @return an open cursor
+     * @throws DatabaseError if the query cannot be executed
+     */
+    public @NotNull QueryCursor<T> openCursor(@NotNull final DatabaseConnection conn, @NotNull final SelectStatement select, @NotNull final StatementConfigurator sc) throws DatabaseError {
+        return conn.openCursor(select, sc, rs -> readAllProperties(conn, rs));
+    }
+
+    /**
+     * Like openCursor, but the cursor gets a connection of its own, like lazyLoadById does, which is closed together
+     * with the cursor. The caller has to close the cursor.
+     *
+     * @param select the query; set a fetch size on it to override the dialect's default for cursors
+     * @param sc     the statement configurator
+     * @return an open cursor
+     * @throws DatabaseError if the query cannot be executed
+     */
+    public @NotNull QueryCursor<T> lazyOpenCursor(@NotNull final SelectStatement select, @NotNull final StatementConfigurator sc) throws DatabaseError {
+        return getDataManager().openCursor(select, sc, rs -> readAllProperties(rs.getConnection(), rs));
+    }
+
+    private @NotNull StatementConfigurator filterConfigurator(@NotNull final DatabaseConnection conn, @NotNull final FilterQuery filterQuery, @NotNull final LimitedSelectStatement q) {
+        return stmt -> {
+            if (filterQuery.getQueryTimeout() != null) {
+                stmt.setQueryTimeout(filterQuery.getQueryTimeout());
+            }
+            for (final Prepper prepper : q.getPreppers()) {
+                prepper.prepare(conn, stmt);
+            }
+            if (q.getRowLimit() != null) {
+                getDataManager().getDialect().addLimitAndOffset(stmt, q.getRowLimit(), 0);
+            }
+        };
     }
 
     protected T readAllProperties(final DatabaseConnection conn, final SimpleResultSet rs) throws DatabaseError {
         final T value = newValue.get();
-        int columnIndex = 0;
-        for (final String column : columns) {
-            ++columnIndex;
-            String field = Objects.requireNonNull(fieldForColumn.get(column));
-            final @NotNull ColumnTypeHint columnTypeHint = Objects.requireNonNull(entityDispatch.getMetaData(field, JanitorOrm.MetaData.COLUMN_TYPE));
-            final @Nullable String lookupType = entityDispatch.getMetaData(field, Janitor.MetaData.REF);
-            final @Nullable Boolean hostNullable = entityDispatch.getMetaData(field, Janitor.MetaData.HOST_NULLABLE);
+        final List<StatementPlan.Column<T>> planned = getStatementPlan().getAllColumns();
+        for (int i = 0; i < planned.size(); i++) {
+            final StatementPlan.Column<T> column = planned.get(i);
+            final @NotNull ColumnTypeHint columnTypeHint = Objects.requireNonNull(column.typeHint());
             try {
-                final JanitorObject propertyValue = Objects.requireNonNull(entityDispatch.get(field).lookupAttribute(value));
+                final JanitorObject propertyValue = Objects.requireNonNull(Objects.requireNonNull(column.accessor()).lookupAttribute(value));
                 if (propertyValue instanceof JAssignable assignableProperty) {
-                    CommonDao.readProperty(entityIndex, column, conn, assignableProperty, rs, columnTypeHint, lookupType, hostNullable);
+                    CommonDao.readProperty(entityIndex, column.name(), conn, assignableProperty, rs, columnTypeHint, column.lookupType(), column.hostNullable());
                 } else {
-                    throw new DatabaseError("invalid field '" + field + "' / column '" + column + "' is not assignable");
+                    throw new DatabaseError("invalid field '" + column.field() + "' / column '" + column.name() + "' is not assignable");
                 }
             } catch (SQLException e) {
-                log.warn("SQL exception on class '{}', column #{} = '{}', field '{}', type hint '{}', column order: {}", className, columnIndex, column, field, columnTypeHint, columns, e);
-                final String message = String.format("SQL exception on class '%s', column '%s', field '%s', type hint '%s'", className, column, field, columnTypeHint);
+                log.warn("SQL exception on class '{}', column #{} = '{}', field '{}', type hint '{}', column order: {}", className, i + 1, column.name(), column.field(), columnTypeHint, columns, e);
+                final String message = String.format("SQL exception on class '%s', column '%s', field '%s', type hint '%s'", className, column.name(), column.field(), columnTypeHint);
                 throw new DatabaseError(message, e);
             } catch (Exception e) {
-                throw new DatabaseError("invalid field '" + field + "' caused an exception", e);
+                throw new DatabaseError("invalid field '" + column.field() + "' caused an exception", e);
             }
         }
         return value;
@@ -537,61 +754,194 @@ public abstract class GenericDao<T extends OrmEntity> extends JanitorComposed<Ge
 
     @Override
     public void insert(@NotNull DatabaseConnection conn, @NotNull T record) throws DatabaseError {
-        final StatementCreator creator = new StatementCreator(getDataManager().getDialect());
-        final List<String> insertingColumns = columns.stream().toList();
-        final UpdateStatement insertStatement = UpdateStatement.of(creator.createInsertStatement(tableName, insertingColumns));
+        final StatementPlan<T> plan = getStatementPlan();
+        final UpdateStatement insertStatement = plan.getInsert();
         final String sequence = Objects.requireNonNull(entityDispatch.getMetaData(JanitorOrm.MetaData.ID_SEQUENCE));
         final SelectStatement nextIdQuery = Objects.requireNonNull(conn.getDialect().getNextValueQuery(sequence));
         final long generatedId = conn.queryForLong(nextIdQuery);
         record.setId(generatedId);
         if (verbose) {
-            log.info("{}::insert() with new id {}, running {} on columns {}", className, generatedId, insertStatement, insertingColumns);
+            log.info("{}::insert() with new id {}, running {} on columns {}", className, generatedId, insertStatement, columns);
         }
         record.beforeInsert();
         conn.update(insertStatement, ps -> {
             // unsinnig / schädlich: ps.addLong(generatedId);
-            writeAllColumns(conn, record, insertingColumns, ps);
+            writeColumns(conn, record, plan.getAllColumns(), ps);
         });
+        if (cache != null) {
+            cache.changed(conn, record);
+        }
         entityChangeListeners.fire(listener -> listener.onChange(EntityChangeListener.Type.INSERT, record));
     }
 
     @Override
     public void update(@NotNull DatabaseConnection conn, @NotNull T record) throws DatabaseError {
-        final StatementCreator creator = new StatementCreator(getDataManager().getDialect());
-        final List<String> updatingColumns = columns.stream().filter(field -> !Objects.equals(field, idColumn)).toList();
-        final UpdateStatement updateStatement = UpdateStatement.of(creator.createUpdateStatement(tableName, updatingColumns, idColumn));
+        final StatementPlan<T> plan = getStatementPlan();
+        final UpdateStatement updateStatement = requireUpdate(plan);
         record.beforeUpdate();
         conn.update(updateStatement, ps -> {
-            writeAllColumns(conn, record, updatingColumns, ps);
+            writeColumns(conn, record, plan.getUpdatingColumns(), ps);
             ps.addLong(record.getId());
         });
+        if (cache != null) {
+            cache.changed(conn, record);
+        }
         entityChangeListeners.fire(listener -> listener.onChange(EntityChangeListener.Type.UPDATE, record));
     }
 
     @Override
     public void delete(@NotNull final DatabaseConnection conn, @NotNull final T record) throws DatabaseError {
-        final StatementCreator creator = new StatementCreator(getDataManager().getDialect());
-        final UpdateStatement updateStatement = UpdateStatement.of(creator.createDeleteStatement(tableName, idColumn));
-        conn.update(updateStatement, ps -> ps.addLong(record.getId()));
+        conn.update(getStatementPlan().getDelete(), ps -> ps.addLong(record.getId()));
+        if (cache != null) {
+            cache.changed(conn, record);
+        }
         entityChangeListeners.fire(listener -> listener.onChange(EntityChangeListener.Type.DELETE, record));
     }
 
+    /**
+     * Insert several records, using JDBC batches of {@link #getBatchSize()} statements.
+     * The ids are fetched from the sequence in blocks, with a single query per block where the dialect supports it,
+     * see {@link DatabaseConnection#queryForNextValues(String, String, int)}.
+     *
+     * @param conn    the database connection
+     * @param records the records to insert
+     * @throws DatabaseError on database errors
+     */
+    @Override
+    public void insertAll(final @NotNull DatabaseConnection conn, final @NotNull Collection<? extends T> records) throws DatabaseError {
+        if (records.isEmpty()) {
+            return;
+        }
+        final StatementPlan<T> plan = getStatementPlan();
+        final UpdateStatement insertStatement = plan.getInsert();
+        final String sequence = Objects.requireNonNull(entityDispatch.getMetaData(JanitorOrm.MetaData.ID_SEQUENCE));
+        final List<? extends T> pending = List.copyOf(records);
+        for (int start = 0; start < pending.size(); start += batchSize) {
+            final List<? extends T> block = pending.subList(start, Math.min(start + batchSize, pending.size()));
+            final long[] generatedIds = conn.queryForNextValues(null, sequence, block.size());
+            for (int i = 0; i < block.size(); i++) {
+                block.get(i).setId(generatedIds[i]);
+                block.get(i).beforeInsert();
+            }
+            if (verbose) {
+                log.info("{}::insertAll() with {} new ids, running {} on columns {}", className, block.size(), insertStatement, columns);
+            }
+            conn.executeBatch(insertStatement, block, batchSize, (ps, record) -> writeColumns(conn, record, plan.getAllColumns(), ps));
+        }
+        afterWrite(conn, records, EntityChangeListener.Type.INSERT);
+    }
+
+    /**
+     * Update several records, using JDBC batches of {@link #getBatchSize()} statements.
+     *
+     * @param conn    the database connection
+     * @param records the records to update
+     * @throws DatabaseError on database errors
+     */
+    @Override
+    public void updateAll(final @NotNull DatabaseConnection conn, final @NotNull Collection<? extends T> records) throws DatabaseError {
+        if (records.isEmpty()) {
+            return;
+        }
+        final StatementPlan<T> plan = getStatementPlan();
+        final UpdateStatement updateStatement = requireUpdate(plan);
+        for (final T record : records) {
+            record.beforeUpdate();
+        }
+        conn.executeBatch(updateStatement, records, batchSize, (ps, record) -> {
+            writeColumns(conn, record, plan.getUpdatingColumns(), ps);
+            ps.addLong(record.getId());
+        });
+        afterWrite(conn, records, EntityChangeListener.Type.UPDATE);
+    }
+
+    /**
+     * Delete several records, using JDBC batches of {@link #getBatchSize()} statements.
+     *
+     * @param conn    the database connection
+     * @param records the records to delete
+     * @throws DatabaseError on database errors
+     */
+    @Override
+    public void deleteAll(final @NotNull DatabaseConnection conn, final @NotNull Collection<? extends T> records) throws DatabaseError {
+        if (records.isEmpty()) {
+            return;
+        }
+        conn.executeBatch(getStatementPlan().getDelete(), records, batchSize, (ps, record) -> ps.addLong(record.getId()));
+        afterWrite(conn, records, EntityChangeListener.Type.DELETE);
+    }
+
+    /**
+     * Tell the cache and the change listeners that records have been written.
+     *
+     * @param conn    the connection of the current transaction
+     * @param records the records written
+     * @param type    the kind of change
+     */
+    protected void afterWrite(final @NotNull DatabaseConnection conn, final @NotNull Collection<? extends T> records, final EntityChangeListener.Type type) {
+        for (final T record : records) {
+            if (cache != null) {
+                cache.changed(conn, record);
+            }
+            entityChangeListeners.fire(listener -> listener.onChange(type, record));
+        }
+    }
+
+    /**
+     * Write the values of the given columns into a statement's parameters, in order.
+     *
+     * @param conn            the database connection
+     * @param record          the record
+     * @param updatingColumns the column names
+     * @param ps              the statement
+     * @throws SQLException on errors
+     * @deprecated the DAO's own inserts and updates no longer call this method, so overriding it has no effect on them;
+     * override {@link #writeColumns(DatabaseConnection, OrmEntity, List, SimplePreparedStatement)} instead.
+     */
+    @Deprecated(forRemoval = true)
     protected void writeAllColumns(final DatabaseConnection conn, final T record, final List<String> updatingColumns, final SimplePreparedStatement ps) throws SQLException {
+        final StatementPlan<T> plan = getStatementPlan();
+        final List<StatementPlan.Column<T>> planned = new ArrayList<>(updatingColumns.size());
+        for (final String column : updatingColumns) {
+            planned.add(Objects.requireNonNull(plan.getColumn(column), () -> "unknown column '" + column + "'"));
+        }
+        writeColumns(conn, record, planned, ps);
+    }
+
+    /**
+     * Write the values of the given columns into a statement's parameters, in order.
+     * All inserts and updates of this DAO write their values through this method, so subclasses can override it to change
+     * how values are written.
+     *
+     * @param conn    the database connection
+     * @param record  the record
+     * @param planned the columns, from the {@linkplain #getStatementPlan() statement plan}
+     * @param ps      the statement
+     * @throws SQLException on errors
+     */
+    protected void writeColumns(final DatabaseConnection conn, final T record, final List<StatementPlan.Column<T>> planned, final SimplePreparedStatement ps) throws SQLException {
         if (verbose) {
-            log.info("writeAllColumns({})", updatingColumns);
+            log.info("writeColumns({})", planned.stream().map(StatementPlan.Column::name).toList());
         }
-        for (final String column : updatingColumns) {
-            String field = Objects.requireNonNull(fieldForColumn.get(column));
+        for (final StatementPlan.Column<T> column : planned) {
             try {
-                final JanitorObject propertyValue = Objects.requireNonNull(entityDispatch.get(field).lookupAttribute(record), "no value for field '" + field + "' in record " + record + " / column '" + column + "'");
-                final @NotNull ColumnTypeHint columnTypeHint = Objects.requireNonNull(entityDispatch.getMetaData(field, JanitorOrm.MetaData.COLUMN_TYPE), "no column type hint for field '" + field + "' in record " + record + " / column '" + column + "'");
-                CommonDao.writeProperty(conn, className, column, field, propertyValue.janitorUnpack(), ps, columnTypeHint);
+                final JanitorObject propertyValue = Objects.requireNonNull(Objects.requireNonNull(column.accessor()).lookupAttribute(record), "no value for field '" + column.field() + "' in record " + record + " / column '" + column.name() + "'");
+                final @NotNull ColumnTypeHint columnTypeHint = Objects.requireNonNull(column.typeHint(), "no column type hint for field '" + column.field() + "' in record " + record + " / column '" + column.name() + "'");
+                CommonDao.writeProperty(conn, className, column.name(), column.field(), propertyValue.janitorUnpack(), ps, columnTypeHint);
             } catch (Exception e) {
-                throw new SQLException("error writing column '" + column + "' / field '" + field + "' into the database", e);
+                throw new SQLException("error writing column '" + column.name() + "' / field '" + column.field() + "' into the database", e);
             }
         }
     }
 
+    private @NotNull UpdateStatement requireUpdate(final @NotNull StatementPlan<T> plan) throws DatabaseError {
+        final @Nullable UpdateStatement update = plan.getUpdate();
+        if (update == null) {
+            throw new DatabaseError("no columns to update in table '" + tableName + "'");
+        }
+        return update;
+    }
+
     @SuppressWarnings("unused") // it's used, the IDE just can't see it.
     protected void unsupported(final String what) throws DatabaseError {
         throw new DatabaseError("Nicht unterstützte Funktion für " + getClass().getSimpleName() + ": " + what);
@@ -629,6 +979,19 @@ public abstract class GenericDao<T extends OrmEntity> extends JanitorComposed<Ge
         }
     }
 
+    @Override
+    public @NotNull @Unmodifiable List<T> lazyLoadByIds(final @NotNull Collection<Long> ids) {
+        try {
+            final @NotNull List<T> results = getDataManager().callTransaction(conn -> findByIds(conn, ids));
+            if (logging != null) {
+                logging.prefetchedForeignKeys(className, ids, results);
+            }
+            return results;
+        } catch (DatabaseError e) {
+            throw new JanitorError("failed to load " + className + " by " + ids.size() + " ids", e);
+        }
+    }
+
     @Override
     public @Nullable T lazyLoadByKey(final String key) {
         try {
@@ -747,23 +1110,129 @@ public abstract class GenericDao<T extends OrmEntity> extends JanitorComposed<Ge
         try {
             @Language("SQL") final String sql = arguments.require(2).getString(0).janitorGetHostValue();
             final JCallable callback = (JCallable) arguments.get(1);
-            final List<Long> identifiers = getDataManager().callTransaction(conn -> conn.queryForList(new SelectStatement(sql), SimpleResultSet::getLong));
             long count = 0;
-            for (final Long identifier : identifiers) {
-                final T obj = identifier == null ? null : getDataManager().callTransaction(conn -> findById(conn, identifier));
-                if (obj != null) {
-                    ++count;
-                    callback.call(process, new JCallArgs("callback", process, List.of(obj, Janitor.nullableInteger(identifier))));
-                } else {
-                    log.warn("queryForEach: object not found for identifier {}", identifier);
+            // the identifiers are streamed, so huge results do not have to fit into memory; the objects are loaded
+            // on the cursor's own connection, because checking out a second one per row can starve a small pool:
+            try (final QueryCursor<Found<T>> rows = getDataManager().openCursor(new SelectStatement(sql), ps -> {}, rs -> {
+                final long identifier = rs.getLong();
+                return new Found<>(identifier, findById(rs.getConnection(), identifier));
+            })) {
+                while (rows.hasNext()) {
+                    final Found<T> row = rows.next();
+                    if (row.object() != null) {
+                        ++count;
+                        callback.call(process, new JCallArgs("callback", process, List.of(row.object(), Janitor.integer(row.identifier()))));
+                    } else {
+                        log.warn("queryForEach: object not found for identifier {}", row.identifier());
+                    }
                 }
             }
             return Janitor.integer(count);
         } catch (DatabaseError e) {
             throw new JanitorNativeException(process, e.getMessage(), e);
+        } catch (QueryCursor.CursorError e) {
+            throw new JanitorNativeException(process, e.getMessage(), e.getCause());
         }
     }
 
+    public JanitorObject scriptInsertAll(final JanitorScriptProcess process, final JCallArgs arguments) throws JanitorRuntimeException {
+        return scriptWriteAll(process, arguments, this::insertAll);
+    }
+
+    public JanitorObject scriptUpdateAll(final JanitorScriptProcess process, final JCallArgs arguments) throws JanitorRuntimeException {
+        return scriptWriteAll(process, arguments, this::updateAll);
+    }
+
+    public JanitorObject scriptDeleteAll(final JanitorScriptProcess process, final JCallArgs arguments) throws JanitorRuntimeException {
+        return scriptWriteAll(process, arguments, this::deleteAll);
+    }
+
+    /**
+     * Run insertAll, updateAll or deleteAll for scripts, in a new transaction.
+     * The records may be entities or maps, which are applied to new entities like calling the DAO with a map does.
+     */
+    private JanitorObject scriptWriteAll(final JanitorScriptProcess process, final JCallArgs arguments, final BulkWriter<T> writer) throws JanitorRuntimeException {
+        final JanitorObject argument = arguments.require(1).get(0);
+        for (final JanitorObject object : argument.janitorUnpackAll()) {
+            if (object instanceof JIterable iterable) {
+                final List<T> records = new ArrayList<>();
+                final Iterator<? extends JanitorObject> iterator = iterable.getIterator();
+                while (iterator.hasNext()) {
+                    final JanitorObject element = iterator.next().janitorUnpack();
+                    if (element instanceof JMap janitorMap) {
+                        final T instance = newValue.get();
+                        janitorMap.applyTo(process, instance);
+                        records.add(instance);
+                    } else if (entityClass.isInstance(element)) {
+                        records.add(entityClass.cast(element));
+                    } else {
+                        throw new JanitorArgumentException(process, "invalid element " + element + " [" + simpleClassNameOf(element) + "], expecting map or " + entityClass.getSimpleName());
+                    }
+                }
+                callScriptTransaction(process, conn -> {
+                    writer.writeAll(conn, records);
+                    return null;
+                });
+                return Janitor.list(new ArrayList<>(records));
+            }
+        }
+        throw new JanitorArgumentException(process, "invalid argument " + argument + " [" + simpleClassNameOf(argument) + "], expecting a list of maps or " + entityClass.getSimpleName());
+    }
+
+    @FunctionalInterface
+    private interface BulkWriter<T> {
+        void writeAll(@NotNull DatabaseConnection conn, @NotNull Collection<? extends T> records) throws DatabaseError;
+    }
+
+    /**
+     * Open a cursor for scripts: cursor() iterates over all records, cursor(sql) over the records returned by a query that
+     * selects this DAO's columns in order. An optional last argument sets the fetch size.
+     */
+    public JanitorObject scriptCursor(final JanitorScriptProcess process, final JCallArgs arguments) throws JanitorRuntimeException {
+        arguments.require(0, 2);
+        SelectStatement select = getStatementPlan().getSelectAll();
+        int fetchSizeArgument = 0;
+        if (arguments.size() > 0 && !(arguments.get(0).janitorUnpack() instanceof JNumber)) {
+            select = new SelectStatement(arguments.getRequiredStringValue(0));
+            fetchSizeArgument = 1;
+        }
+        if (arguments.size() > fetchSizeArgument) {
+            final int fetchSize = arguments.getRequiredIntValue(fetchSizeArgument);
+            if (fetchSize < 1) {
+                throw new JanitorArgumentException(process, "invalid fetch size: " + fetchSize);
+            }
+            select = select.withFetchSize(fetchSize);
+        }
+        try {
+            final ScriptCursor cursor = new ScriptCursor(lazyOpenCursor(select, ps -> {}));
+            process.registerCleanable(cursor);
+            return cursor;
+        } catch (DatabaseError e) {
+            throw new JanitorNativeException(process, e.getMessage(), e);
+        }
+    }
+
+    public JanitorObject scriptPrefetch(final JanitorScriptProcess process, final JCallArgs arguments) throws JanitorRuntimeException {
+        arguments.require(2);
+        final String field = arguments.getRequiredStringValue(1);
+        final List<T> records = new ArrayList<>();
+        for (final JanitorObject object : arguments.get(0).janitorUnpackAll()) {
+            if (object instanceof JIterable iterable) {
+                final Iterator<? extends JanitorObject> iterator = iterable.getIterator();
+                while (iterator.hasNext()) {
+                    final JanitorObject element = iterator.next();
+                    if (entityClass.isInstance(element)) {
+                        records.add(entityClass.cast(element));
+                    } else if (element != Janitor.NULL) {
+                        throw new JanitorArgumentException(process, "invalid element " + element + " [" + simpleClassNameOf(element) + "], expecting " + entityClass.getSimpleName());
+                    }
+                }
+                return Janitor.integer(callScriptTransaction(process, conn -> prefetch(conn, records, field)));
+            }
+        }
+        throw new JanitorArgumentException(process, "invalid argument " + arguments.get(0) + " [" + simpleClassNameOf(arguments.get(0)) + "], expecting a list of " + entityClass.getSimpleName());
+    }
+
     /**
      * Equality check.
      * Note that this is based on the table name by default, which should be reasonable for many use cases.
@@ -791,4 +1260,10 @@ public abstract class GenericDao<T extends OrmEntity> extends JanitorComposed<Ge
         return entityChangeListeners.add(listener);
     }
 
+    /**
+     * A row of {@link #scriptQueryForEach}: the identifier read from the query and the object loaded for it, if any.
+     */
+    private record Found<T>(long identifier, @Nullable T object) {
+    }
+
 }
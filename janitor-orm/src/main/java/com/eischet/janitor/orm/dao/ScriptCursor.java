@@ -0,0 +1,79 @@
+package com.eischet.janitor.orm.dao;
+
+import com.eischet.dbxs.QueryCursor;
+import com.eischet.janitor.api.errors.runtime.JanitorError;
+import com.eischet.janitor.api.types.JIterable;
+import com.eischet.janitor.api.types.JanitorCleanupRequired;
+import com.eischet.janitor.api.types.JanitorObject;
+import com.eischet.janitor.api.types.composed.JanitorComposed;
+import com.eischet.janitor.api.types.dispatch.DispatchTable;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Iterator;
+
+/**
+ * A {@link QueryCursor} for scripts, e.g. returned by dao.cursor().
+ * <p>Scripts iterate over it with a for loop, which reads the rows from the database one fetch at a time, so even
+ * huge results never have to fit into memory. A cursor can be iterated only once.</p>
+ * <p>The cursor is closed when all rows have been read, when the script calls close(), or at the latest when the
+ * script process ends, because it is registered for {@linkplain JanitorCleanupRequired cleanup}.</p>
+ */
+public class ScriptCursor extends JanitorComposed<ScriptCursor> implements JIterable, JanitorCleanupRequired {
+
+    public static final DispatchTable<ScriptCursor> DISPATCH = new DispatchTable<>();
+
+    static {
+        DISPATCH.addVoidMethod("close", (self, process, args) -> self.close());
+        DISPATCH.addLongProperty("rows", self -> self.cursor.getReadRows());
+        DISPATCH.addBooleanProperty("closed", ScriptCursor::isClosed);
+    }
+
+    private final QueryCursor<? extends JanitorObject> cursor;
+
+    public ScriptCursor(final @NotNull QueryCursor<? extends JanitorObject> cursor) {
+        super(DISPATCH);
+        this.cursor = cursor;
+    }
+
+    @Override
+    public Iterator<? extends JanitorObject> getIterator() {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                try {
+                    return cursor.hasNext();
+                } catch (QueryCursor.CursorError e) {
+                    throw new JanitorError(e.getMessage(), e.getCause());
+                }
+            }
+
+            @Override
+            public JanitorObject next() {
+                try {
+                    return cursor.next();
+                } catch (QueryCursor.CursorError e) {
+                    throw new JanitorError(e.getMessage(), e.getCause());
+                }
+            }
+        };
+    }
+
+    public void close() {
+        cursor.close();
+    }
+
+    public boolean isClosed() {
+        return cursor.isClosed();
+    }
+
+    @Override
+    public void janitorCleanup() {
+        cursor.close();
+    }
+
+    @Override
+    public String toString() {
+        return "ScriptCursor{rows=" + cursor.getReadRows() + ", closed=" + cursor.isClosed() + "}";
+    }
+
+}
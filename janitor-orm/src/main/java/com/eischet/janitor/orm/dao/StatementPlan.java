@@ -0,0 +1,183 @@
+package com.eischet.janitor.orm.dao;
+
+import com.eischet.dbxs.dialects.DatabaseDialect;
+import com.eischet.dbxs.statements.SelectStatement;
+import com.eischet.dbxs.statements.UpdateStatement;
+import com.eischet.janitor.api.Janitor;
+import com.eischet.janitor.api.types.JanitorObject;
+import com.eischet.janitor.api.types.dispatch.AttributeLookupHandler;
+import com.eischet.janitor.api.types.dispatch.DispatchTable;
+import com.eischet.janitor.orm.JanitorOrm;
+import com.eischet.janitor.orm.sql.ColumnTypeHint;
+import com.eischet.janitor.orm.sql.StatementCreator;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The SQL statements and column metadata of a {@link GenericDao}, computed once per DAO and dialect.
+ * <p>Reading and writing a row only iterates over the precomputed columns, instead of looking up the field, the property
+ * accessor and the column type hint in the entity's dispatch table for each column of each row.</p>
+ *
+ * @param <T> the entity type
+ */
+public final class StatementPlan<T extends JanitorObject> {
+
+    /**
+     * A mapped column.
+     *
+     * @param name         the column name
+     * @param field        the name of the property backed by the column
+     * @param accessor     looks up the property on an entity, or null if the dispatch table has no such property
+     * @param typeHint     the column type, or null if the metadata is missing
+     * @param lookupType   the referenced entity class for foreign keys, or null
+     * @param hostNullable whether the Java property accepts null values
+     * @param <T>          the entity type
+     */
+    public record Column<T extends JanitorObject>(@NotNull String name,
+                                                  @NotNull String field,
+                                                  @Nullable AttributeLookupHandler<T> accessor,
+                                                  @Nullable ColumnTypeHint typeHint,
+                                                  @Nullable String lookupType,
+                                                  @Nullable Boolean hostNullable) {
+    }
+
+    private final DatabaseDialect dialect;
+    private final StatementCreator creator;
+    private final @Unmodifiable List<Column<T>> allColumns;
+    private final @Unmodifiable List<Column<T>> updatingColumns;
+    private final Map<String, Column<T>> columnsByName = new HashMap<>();
+    private final SelectStatement selectAll;
+    private final SelectStatement selectById;
+    private final @Nullable SelectStatement selectByKey;
+    private final UpdateStatement insert;
+    private final @Nullable UpdateStatement update;
+    private final UpdateStatement delete;
+    private final @NotNull String count;
+
+    /**
+     * Constructor.
+     *
+     * @param dialect        the dialect used to generate the SQL
+     * @param entityDispatch the entity's dispatch table
+     * @param tableName      the table name
+     * @param idColumn       the id column
+     * @param keyColumn      the key column, or null
+     * @param columns        all mapped columns, in the order they are selected and inserted
+     * @param fieldForColumn maps column names to property names
+     */
+    public StatementPlan(final @NotNull DatabaseDialect dialect,
+                         final @NotNull DispatchTable<T> entityDispatch,
+                         final @NotNull String tableName,
+                         final @NotNull String idColumn,
+                         final @Nullable String keyColumn,
+                         final @NotNull @Unmodifiable List<String> columns,
+                         final @NotNull Map<String, String> fieldForColumn) {
+        this.dialect = dialect;
+        this.creator = new StatementCreator(dialect);
+        final List<String> updating = columns.stream().filter(column -> !Objects.equals(column, idColumn)).toList();
+        final List<Column<T>> allPlanned = new ArrayList<>(columns.size());
+        final List<Column<T>> updatingPlanned = new ArrayList<>(updating.size());
+        for (final String column : columns) {
+            final String field = Objects.requireNonNull(fieldForColumn.get(column));
+            final Column<T> planned = new Column<>(column, field, entityDispatch.get(field),
+                    entityDispatch.getMetaData(field, JanitorOrm.MetaData.COLUMN_TYPE),
+                    entityDispatch.getMetaData(field, Janitor.MetaData.REF),
+                    entityDispatch.getMetaData(field, Janitor.MetaData.HOST_NULLABLE));
+            allPlanned.add(planned);
+            if (!Objects.equals(column, idColumn)) {
+                updatingPlanned.add(planned);
+            }
+            columnsByName.put(column, planned);
+        }
+        this.allColumns = List.copyOf(allPlanned);
+        this.updatingColumns = List.copyOf(updatingPlanned);
+        this.selectAll = SelectStatement.of(creator.createSelectAllStatement(tableName, columns));
+        this.selectById = SelectStatement.of(creator.createSelectStatement(tableName, columns, idColumn));
+        this.selectByKey = keyColumn == null ? null : SelectStatement.of(creator.createSelectStatement(tableName, columns, keyColumn));
+        this.insert = UpdateStatement.of(creator.createInsertStatement(tableName, columns));
+        this.update = updating.isEmpty() ? null : UpdateStatement.of(creator.createUpdateStatement(tableName, updating, idColumn));
+        this.delete = UpdateStatement.of(creator.createDeleteStatement(tableName, idColumn));
+        this.count = creator.createCountStatement(tableName);
+    }
+
+    public @NotNull DatabaseDialect getDialect() {
+        return dialect;
+    }
+
+    /**
+     * Return the statement creator for SQL that depends on the call, e.g. IN lists or filters.
+     *
+     * @return the statement creator for this plan's dialect
+     */
+    public @NotNull StatementCreator getCreator() {
+        return creator;
+    }
+
+    /**
+     * Return all mapped columns, in the order they are selected and inserted.
+     *
+     * @return all columns
+     */
+    public @NotNull @Unmodifiable List<Column<T>> getAllColumns() {
+        return allColumns;
+    }
+
+    /**
+     * Return all mapped columns except the id, in the order they are updated.
+     *
+     * @return the columns written by UPDATE statements
+     */
+    public @NotNull @Unmodifiable List<Column<T>> getUpdatingColumns() {
+        return updatingColumns;
+    }
+
+    public @Nullable Column<T> getColumn(final @NotNull String name) {
+        return columnsByName.get(name);
+    }
+
+    public @NotNull SelectStatement getSelectAll() {
+        return selectAll;
+    }
+
+    public @NotNull SelectStatement getSelectById() {
+        return selectById;
+    }
+
+    public @Nullable SelectStatement getSelectByKey() {
+        return selectByKey;
+    }
+
+    public @NotNull UpdateStatement getInsert() {
+        return insert;
+    }
+
+    /**
+     * Return the UPDATE statement for all columns except the id.
+     *
+     * @return the statement, or null if the table has no other columns
+     */
+    public @Nullable UpdateStatement getUpdate() {
+        return update;
+    }
+
+    public @NotNull UpdateStatement getDelete() {
+        return delete;
+    }
+
+    /**
+     * Return the "select count(*)" statement, without a where clause.
+     *
+     * @return the SQL
+     */
+    public @NotNull String getCount() {
+        return count;
+    }
+
+}
@@ -9,6 +9,7 @@ import com.eischet.janitor.api.types.dispatch.DispatchTable;
 import com.eischet.janitor.orm.dao.Dao;
 import com.eischet.janitor.orm.dao.Uplink;
 import com.eischet.janitor.orm.meta.EntityWrangler;
+import com.eischet.janitor.orm.ref.ForeignKeyPrefetch;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
@@ -28,6 +29,7 @@ public class AssociatedList<T extends OrmEntity, U extends Uplink> implements As
     protected @Nullable List<T> list;
     protected boolean loaded = false;
     protected @Nullable Comparator<? super T> sorter;
+    protected @NotNull List<String> prefetchedFields = Collections.emptyList();
 
     public AssociatedList(final OrmEntity parent,
                           final Class<T> entityClass,
@@ -51,6 +53,19 @@ public class AssociatedList<T extends OrmEntity, U extends Uplink> implements As
         this(parent, entityClass, foreignKeyColumn, wrangler, uplinkSupplier, null);
     }
 
+    /**
+     * Prefetch foreign keys when the list is loaded.
+     * <p>For each of the given properties, the keys of all loaded entities are resolved together, using as few queries as
+     * possible, instead of one query per entity when the property is first read.</p>
+     *
+     * @param fields names of foreign key properties of the associated entities
+     * @return this list
+     */
+    public AssociatedList<T, U> prefetchOnLoad(final @NotNull String... fields) {
+        this.prefetchedFields = List.of(fields);
+        return this;
+    }
+
     public boolean isLoaded() {
         return loaded;
     }
@@ -67,6 +82,9 @@ public class AssociatedList<T extends OrmEntity, U extends Uplink> implements As
             if (sorter != null) {
                 items.sort(sorter);
             }
+            for (final String field : prefetchedFields) {
+                ForeignKeyPrefetch.lazyResolveAll(ForeignKeyPrefetch.collect(wrangler.getDispatchTable(), items, field));
+            }
             ensureList().addAll(items);
             loaded = true;
         }
@@ -1,14 +1,51 @@
 package com.eischet.janitor.orm.entity;
 
+import com.eischet.dbxs.DatabaseConnection;
+import com.eischet.dbxs.exceptions.DatabaseError;
+import com.eischet.dbxs.results.SimpleResultSet;
+import com.eischet.dbxs.statements.UpdateStatement;
 import com.eischet.janitor.api.types.dispatch.DispatchTable;
+import com.eischet.janitor.orm.dao.EntityChangeListener;
 import com.eischet.janitor.orm.dao.GenericDao;
+import com.eischet.janitor.orm.dao.StatementPlan;
 import com.eischet.janitor.orm.meta.EntityIndex;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
 
+import java.util.*;
 import java.util.function.Supplier;
 
+/**
+ * A DAO for {@link ChangeTrackedOrmEntity} implementations that updates only the columns of modified fields.
+ * <p>
+ *     Updating an entity without modified fields does not touch the database at all. The UPDATE statements are cached
+ *     per set of modified columns, so flipping the same status flag on many entities builds the SQL only once, see {@link StatementPlan}.
+ * </p>
+ * <p>
+ *     Entities get a fresh change tracker after they have been loaded, inserted or updated by this DAO, see {@link #newChangeTracker()}.
+ * </p>
+ *
+ * @param <T> the entity type
+ */
 public abstract class GenericChangeTrackedDao<T extends ChangeTrackedOrmEntity> extends GenericDao<T> {
 
+    private static final int MAX_UPDATE_SHAPES = 64;
+
+    /**
+     * An UPDATE statement for a set of modified columns, and the planned columns it writes.
+     */
+    private record UpdateShape<T extends ChangeTrackedOrmEntity>(UpdateStatement statement, List<StatementPlan.Column<T>> columns) {
+    }
+
+    private final Map<List<String>, UpdateShape<T>> updateShapes = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<List<String>, UpdateShape<T>> eldest) {
+            return size() > MAX_UPDATE_SHAPES;
+        }
+    };
+    private @Nullable StatementPlan<T> updateShapesPlan;
+
     public GenericChangeTrackedDao(
         final @NotNull DispatchTable<? extends GenericDao<T>> childDispatch,
         final @NotNull EntityIndex entityIndex,
@@ -24,4 +61,118 @@ public abstract class GenericChangeTrackedDao<T extends ChangeTrackedOrmEntity>
         return true;
     }
 
+    /**
+     * Create the change tracker handed to entities after they have been loaded or written.
+     *
+     * @return a new change tracker without modified fields
+     */
+    protected @NotNull ChangeTracker newChangeTracker() {
+        return new SimpleChangeTracker();
+    }
+
+    @Override
+    protected T readAllProperties(final DatabaseConnection conn, final SimpleResultSet rs) throws DatabaseError {
+        final T value = super.readAllProperties(conn, rs);
+        value.setChangeTracker(newChangeTracker());
+        return value;
+    }
+
+    @Override
+    public void insert(final @NotNull DatabaseConnection conn, final @NotNull T record) throws DatabaseError {
+        super.insert(conn, record);
+        record.setChangeTracker(newChangeTracker());
+    }
+
+    @Override
+    public void insertAll(final @NotNull DatabaseConnection conn, final @NotNull Collection<? extends T> records) throws DatabaseError {
+        super.insertAll(conn, records);
+        for (final T record : records) {
+            record.setChangeTracker(newChangeTracker());
+        }
+    }
+
+    @Override
+    public void update(final @NotNull DatabaseConnection conn, final @NotNull T record) throws DatabaseError {
+        record.beforeUpdate();
+        final List<String> changed = changedColumns(record);
+        if (changed.isEmpty()) {
+            if (verbose) {
+                log.info("{}::update() skipped for unmodified record {}", className, record.getId());
+            }
+            return;
+        }
+        final UpdateShape<T> shape = updateShapeFor(changed);
+        conn.update(shape.statement(), ps -> {
+            writeColumns(conn, record, shape.columns(), ps);
+            ps.addLong(record.getId());
+        });
+        record.setChangeTracker(newChangeTracker());
+        afterWrite(conn, List.of(record), EntityChangeListener.Type.UPDATE);
+    }
+
+    /**
+     * Update several records, using one JDBC batch per set of modified columns. Unmodified records are skipped.
+     *
+     * @param conn    the database connection
+     * @param records the records to update
+     * @throws DatabaseError on database errors
+     */
+    @Override
+    public void updateAll(final @NotNull DatabaseConnection conn, final @NotNull Collection<? extends T> records) throws DatabaseError {
+        final Map<List<String>, List<T>> byShape = new LinkedHashMap<>();
+        for (final T record : records) {
+            record.beforeUpdate();
+            final List<String> changed = changedColumns(record);
+            if (!changed.isEmpty()) {
+                byShape.computeIfAbsent(changed, key -> new ArrayList<>()).add(record);
+            }
+        }
+        final List<T> updated = new ArrayList<>();
+        for (final Map.Entry<List<String>, List<T>> shape : byShape.entrySet()) {
+            final UpdateShape<T> planned = updateShapeFor(shape.getKey());
+            conn.executeBatch(planned.statement(), shape.getValue(), batchSize, (ps, record) -> {
+                writeColumns(conn, record, planned.columns(), ps);
+                ps.addLong(record.getId());
+            });
+            updated.addAll(shape.getValue());
+        }
+        for (final T record : updated) {
+            record.setChangeTracker(newChangeTracker());
+        }
+        if (!updated.isEmpty()) {
+            afterWrite(conn, updated, EntityChangeListener.Type.UPDATE);
+        }
+    }
+
+    /**
+     * Map the modified fields of a record to their columns, in the order of the DAO's columns, so records with the same
+     * modified fields share the same UPDATE statement.
+     */
+    private @NotNull @Unmodifiable List<String> changedColumns(final @NotNull T record) {
+        final Set<String> modifiedFields = record.getChangeTracker().getModifiedFields();
+        if (modifiedFields.isEmpty()) {
+            return List.of();
+        }
+        final List<String> changed = new ArrayList<>(modifiedFields.size());
+        for (final String column : columns) {
+            if (!Objects.equals(column, idColumn) && modifiedFields.contains(fieldForColumn.get(column))) {
+                changed.add(column);
+            }
+        }
+        return List.copyOf(changed);
+    }
+
+    private @NotNull UpdateShape<T> updateShapeFor(final @NotNull @Unmodifiable List<String> changed) {
+        final StatementPlan<T> plan = getStatementPlan();
+        synchronized (updateShapes) {
+            if (updateShapesPlan != plan) {
+                updateShapes.clear();
+                updateShapesPlan = plan;
+            }
+            return updateShapes.computeIfAbsent(changed, key -> new UpdateShape<>(
+                    UpdateStatement.of(plan.getCreator().createUpdateStatement(tableName, key, idColumn)),
+                    key.stream().map(column -> Objects.requireNonNull(plan.getColumn(column))).toList()));
+        }
+    }
+
 }
@@ -12,6 +12,7 @@ import com.eischet.janitor.api.types.functions.JCallArgs;
 import com.eischet.janitor.orm.dao.JoinDao;
 import com.eischet.janitor.orm.dao.Uplink;
 import com.eischet.janitor.orm.ref.ForeignKey;
+import com.eischet.janitor.orm.ref.ForeignKeyPrefetch;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
@@ -35,6 +36,7 @@ public class JoinedList<T extends OrmJoined, U extends Uplink, V extends JoinDao
     private final Function<T, ForeignKey<W>> plucker;
     protected @Nullable List<T> list;
     protected boolean loaded = false;
+    protected boolean prefetching = false;
 
     public JoinedList(final OrmEntity parent,
                       final Class<T> entityClass,
@@ -50,6 +52,18 @@ public class JoinedList<T extends OrmJoined, U extends Uplink, V extends JoinDao
         this.plucker = plucker;
     }
 
+    /**
+     * Prefetch the joined entities when the list is loaded.
+     * <p>When enabled, the foreign keys of all loaded join records are resolved together, in the same transaction, using as few
+     * queries as possible, instead of one query per join record when the joined entity is first read.</p>
+     *
+     * @param prefetching true to enable prefetching
+     * @return this list
+     */
+    public JoinedList<T, U, V, W> setPrefetching(final boolean prefetching) {
+        this.prefetching = prefetching;
+        return this;
+    }
 
     public boolean isLoaded() {
         return loaded;
@@ -63,7 +77,13 @@ public class JoinedList<T extends OrmJoined, U extends Uplink, V extends JoinDao
         if (!loaded) {
             final U uplink = uplinkSupplier.get();
             final V dao = daoRetriever.apply(uplink);
-            @NotNull @Unmodifiable final List<T> items = dao.callLazyTransaction(conn -> loader.load(conn, dao));
+            @NotNull @Unmodifiable final List<T> items = dao.callLazyTransaction(conn -> {
+                final List<T> loadedItems = loader.load(conn, dao);
+                if (prefetching) {
+                    ForeignKeyPrefetch.resolveAll(conn, loadedItems.stream().map(plucker).toList());
+                }
+                return loadedItems;
+            });
             ensureList().addAll(items);
             loaded = true;
         }
@@ -0,0 +1,33 @@
+package com.eischet.janitor.orm.entity;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A plain {@link ChangeTracker} that remembers the names of the modified fields.
+ * {@link GenericChangeTrackedDao} hands a fresh instance to each entity it has loaded or written.
+ */
+public class SimpleChangeTracker implements ChangeTracker {
+
+    private final Set<String> modifiedFields = new LinkedHashSet<>();
+
+    @Override
+    public void setModified(final @NotNull String fieldName) {
+        modifiedFields.add(fieldName);
+    }
+
+    @Override
+    public @Unmodifiable @NotNull Set<String> getModifiedFields() {
+        return Collections.unmodifiableSet(modifiedFields);
+    }
+
+    @Override
+    public String toString() {
+        return "SimpleChangeTracker" + modifiedFields;
+    }
+
+}
@@ -47,6 +47,30 @@ public final class ForeignKeyInteger<T extends OrmEntity> implements ForeignKey<
         return Optional.ofNullable(resolved);
     }
 
+    /**
+     * Check whether the referenced entity has been loaded already.
+     * @return true if resolving this key does not need the database anymore
+     */
+    public boolean isResolved() {
+        return resolved != null;
+    }
+
+    /**
+     * Return the DAO that loads the referenced entity.
+     * @return the DAO of the referenced entity
+     */
+    public @NotNull Dao<T> getDao() {
+        return dao;
+    }
+
+    /**
+     * Set the referenced entity, after it has been loaded together with others by {@link ForeignKeyPrefetch}.
+     * @param entity the referenced entity
+     */
+    void prefetched(final @NotNull T entity) {
+        resolved = entity;
+    }
+
     @Override
     public void preResolve(@NotNull DatabaseConnection conn) throws DatabaseError {
         if (resolved == null) {
@@ -0,0 +1,132 @@
+package com.eischet.janitor.orm.ref;
+
+import com.eischet.dbxs.DatabaseConnection;
+import com.eischet.dbxs.exceptions.DatabaseError;
+import com.eischet.janitor.api.types.JanitorObject;
+import com.eischet.janitor.api.types.TemporaryAssignable;
+import com.eischet.janitor.api.types.dispatch.AttributeLookupHandler;
+import com.eischet.janitor.api.types.dispatch.DispatchTable;
+import com.eischet.janitor.orm.dao.Dao;
+import com.eischet.janitor.orm.entity.OrmEntity;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Resolves many foreign keys at once.
+ * <p>Resolving foreign keys one by one, e.g. touching order.customer for each of 5000 orders, runs one query per key.
+ * Prefetching collects the ids of all unresolved keys, loads them per DAO with {@link Dao#findByIds(DatabaseConnection, Collection)},
+ * which uses chunked "where id in (...)" queries, and hands the loaded entities to the keys. Keys pointing to the same id
+ * share the same entity afterwards.</p>
+ * <p>Only {@link ForeignKeyInteger} keys need resolving; all other kinds of keys are resolved already, null, or looked up by key.</p>
+ */
+public final class ForeignKeyPrefetch {
+
+    private ForeignKeyPrefetch() {
+    }
+
+    /**
+     * Resolve all given keys that are not resolved yet, using the given connection.
+     *
+     * @param conn the database connection
+     * @param keys the foreign keys; any kind of key may be passed, but only unresolved {@link ForeignKeyInteger} keys are looked up
+     * @return the number of keys that have been resolved
+     * @throws DatabaseError on database errors
+     */
+    public static int resolveAll(final @NotNull DatabaseConnection conn, final @NotNull Iterable<? extends ForeignKey<?>> keys) throws DatabaseError {
+        int resolved = 0;
+        for (final Map.Entry<Dao<?>, Map<Long, List<ForeignKeyInteger<?>>>> entry : pendingByDao(keys).entrySet()) {
+            resolved += resolveGroup(conn, entry.getKey(), entry.getValue());
+        }
+        return resolved;
+    }
+
+    /**
+     * Resolve all given keys that are not resolved yet, letting each DAO open its own transaction like {@link Dao#lazyLoadById(long)} does.
+     *
+     * @param keys the foreign keys; any kind of key may be passed, but only unresolved {@link ForeignKeyInteger} keys are looked up
+     * @return the number of keys that have been resolved
+     */
+    public static int lazyResolveAll(final @NotNull Iterable<? extends ForeignKey<?>> keys) {
+        int resolved = 0;
+        for (final Map.Entry<Dao<?>, Map<Long, List<ForeignKeyInteger<?>>>> entry : pendingByDao(keys).entrySet()) {
+            resolved += lazyResolveGroup(entry.getKey(), entry.getValue());
+        }
+        return resolved;
+    }
+
+    /**
+     * Collect the foreign keys stored in a property of several entities.
+     *
+     * @param dispatcher the dispatcher of the entities
+     * @param records    the entities
+     * @param field      the name of a foreign key property
+     * @param <X>        the entity type
+     * @return the foreign keys, with null keys and other values skipped
+     * @throws IllegalArgumentException if the entities do not have such a property
+     */
+    public static <X extends JanitorObject> @NotNull List<ForeignKey<?>> collect(final @NotNull DispatchTable<X> dispatcher,
+                                                                               final @NotNull Iterable<? extends X> records,
+                                                                               final @NotNull String field) throws IllegalArgumentException {
+        final @Nullable AttributeLookupHandler<X> attribute = dispatcher.get(field);
+        if (attribute == null) {
+            throw new IllegalArgumentException("unknown property '" + field + "'");
+        }
+        final List<ForeignKey<?>> keys = new ArrayList<>();
+        for (final X record : records) {
+            JanitorObject value;
+            try {
+                value = attribute.lookupAttribute(record);
+            } catch (Exception e) {
+                throw new IllegalArgumentException("cannot read property '" + field + "' of " + record, e);
+            }
+            if (value instanceof TemporaryAssignable assignable) {
+                value = assignable.getValue();
+            }
+            if (value instanceof ForeignKey<?> key && key.isNonNull()) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    private static @NotNull Map<Dao<?>, Map<Long, List<ForeignKeyInteger<?>>>> pendingByDao(final @NotNull Iterable<? extends ForeignKey<?>> keys) {
+        final Map<Dao<?>, Map<Long, List<ForeignKeyInteger<?>>>> pending = new LinkedHashMap<>();
+        for (final ForeignKey<?> key : keys) {
+            if (key instanceof ForeignKeyInteger<?> integerKey && !integerKey.isEmpty() && !integerKey.isResolved()) {
+                pending.computeIfAbsent(integerKey.getDao(), dao -> new LinkedHashMap<>())
+                        .computeIfAbsent(integerKey.getId(), id -> new ArrayList<>())
+                        .add(integerKey);
+            }
+        }
+        return pending;
+    }
+
+    private static <T extends OrmEntity> int resolveGroup(final @NotNull DatabaseConnection conn,
+                                                          final @NotNull Dao<T> dao,
+                                                          final @NotNull Map<Long, List<ForeignKeyInteger<?>>> keysById) throws DatabaseError {
+        return distribute(dao.findByIds(conn, keysById.keySet()), keysById);
+    }
+
+    private static <T extends OrmEntity> int lazyResolveGroup(final @NotNull Dao<T> dao,
+                                                              final @NotNull Map<Long, List<ForeignKeyInteger<?>>> keysById) {
+        return distribute(dao.lazyLoadByIds(keysById.keySet()), keysById);
+    }
+
+    @SuppressWarnings("unchecked") // all keys in a group share the same DAO, and therefore the same entity type
+    private static <T extends OrmEntity> int distribute(final @NotNull List<T> entities, final @NotNull Map<Long, List<ForeignKeyInteger<?>>> keysById) {
+        int resolved = 0;
+        for (final T entity : entities) {
+            final List<ForeignKeyInteger<?>> keys = keysById.get(entity.getId());
+            if (keys != null) {
+                for (final ForeignKeyInteger<?> key : keys) {
+                    ((ForeignKeyInteger<T>) key).prefetched(entity);
+                    ++resolved;
+                }
+            }
+        }
+        return resolved;
+    }
+
+}
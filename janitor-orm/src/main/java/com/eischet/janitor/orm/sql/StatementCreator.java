@@ -65,6 +65,38 @@ public class StatementCreator {
         return "select " + String.join(", ", quoteAllFields(fields)) + " from " + table + " where " + dialect.quoteColumn(whereField) + " = ?";
     }
 
+    /**
+     * Create a select statement that looks up several rows at once: "select ... from table where whereField in (?, ?, ...)".
+     *
+     * @param table      table name
+     * @param fields     list of fields to select
+     * @param whereField the field to look up, usually the id column
+     * @param count      the number of "?" placeholders in the IN list
+     * @return a valid SQL statement
+     * @throws IllegalArgumentException when the list of fields is empty, the table name is blank or the count is not positive
+     */
+    @NotNull
+    @Language("sql")
+    public String createSelectInStatement(final @NotNull String table,
+                                          final @NotNull @Unmodifiable List<String> fields,
+                                          final @NotNull String whereField,
+                                          final int count) throws IllegalArgumentException {
+        if (count < 1) {
+            throw new IllegalArgumentException("the IN list must have at least one element");
+        }
+        final String select = createSelectAllStatement(table, fields);
+        if (whereField.isBlank()) {
+            throw new IllegalArgumentException("the 'where' field must not be blank");
+        }
+        final StringBuilder out = new StringBuilder(select.length() + whereField.length() + 12 + 3 * count);
+        out.append(select).append(" where ").append(dialect.quoteColumn(whereField)).append(" in (?");
+        for (int i = 1; i < count; i++) {
+            out.append(", ?");
+        }
+        out.append(")");
+        return out.toString();
+    }
+
     /**
      * Create an insert statement, with "?" placeholders, from the table name and the list of fields.
      *
@@ -0,0 +1,255 @@
+package com.eischet.dbxs;
+
+import com.eischet.dbxs.dialects.DatabaseDialectH2;
+import com.eischet.dbxs.dialects.DatabaseDialectSqlite;
+import com.eischet.dbxs.exceptions.DatabaseError;
+import com.eischet.dbxs.statements.SelectStatement;
+import com.eischet.dbxs.statements.UpdateStatement;
+import com.eischet.janitor.JanitorTest;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sqlite.SQLiteDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The connection pool and prepared statement cache of SimpleDataManager.
+ */
+public class ConnectionPoolTestCase extends JanitorTest {
+
+    private static final AtomicInteger DATABASE_COUNTER = new AtomicInteger();
+    private static final SelectStatement COUNT = SelectStatement.of("select count(*) from items where item_group = ?");
+    private static final UpdateStatement INSERT = UpdateStatement.of("insert into items (item_id, item_group) values (?, ?)");
+
+    /**
+     * Counts physical connections, statements created for init statements, and prepared statements.
+     */
+    private static final class CountingDataSource {
+        private final AtomicInteger connections = new AtomicInteger();
+        private final AtomicInteger initStatements = new AtomicInteger();
+        private final AtomicInteger prepared = new AtomicInteger();
+        private final DataSource dataSource;
+
+        private CountingDataSource(final DataSource target) {
+            this.dataSource = (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{DataSource.class}, (proxy, method, args) -> {
+                final Object result = invoke(target, method, args);
+                if (method.getName().equals("getConnection")) {
+                    connections.incrementAndGet();
+                    return counting((Connection) result);
+                }
+                return result;
+            });
+        }
+
+        private Connection counting(final Connection target) {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                if (method.getName().equals("prepareStatement")) {
+                    prepared.incrementAndGet();
+                } else if (method.getName().equals("createStatement")) {
+                    initStatements.incrementAndGet();
+                }
+                return invoke(target, method, args);
+            });
+        }
+
+        private static Object invoke(final Object target, final java.lang.reflect.Method method, final Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    @Test
+    public void h2ReusesConnectionsAndStatements() throws Exception {
+        final JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:pool" + DATABASE_COUNTER.incrementAndGet() + ";DB_CLOSE_DELAY=-1");
+        h2.setUser("sa");
+        final CountingDataSource counting = new CountingDataSource(h2);
+        final SimpleDataManager dm = new SimpleDataManager("pool", counting.dataSource, new DatabaseDialectH2(), null,
+                List.of("set lock_timeout 1000"), ConnectionPool.Settings.of(2));
+        createTable(dm);
+        reuseConnectionsAndStatements(dm, counting);
+    }
+
+    @Test
+    public void sqliteReusesConnectionsAndStatements(@TempDir final Path directory) throws Exception {
+        final SQLiteDataSource sqlite = new SQLiteDataSource();
+        sqlite.setUrl("jdbc:sqlite:" + directory.resolve("pool.db"));
+        final CountingDataSource counting = new CountingDataSource(sqlite);
+        final SimpleDataManager dm = new SimpleDataManager("pool", counting.dataSource, new DatabaseDialectSqlite(), null,
+                List.of("pragma foreign_keys = on"), ConnectionPool.Settings.of(2));
+        createTable(dm);
+        reuseConnectionsAndStatements(dm, counting);
+        dm.getPool().close();
+        assertEquals(0, dm.getPool().getStatistics().size());
+    }
+
+    private void createTable(final SimpleDataManager dm) throws DatabaseError {
+        dm.executeTransaction(conn -> conn.update(UpdateStatement.of("create table items (item_id bigint primary key, item_group varchar(10))")));
+    }
+
+    private void reuseConnectionsAndStatements(final SimpleDataManager dm, final CountingDataSource counting) throws DatabaseError {
+        final int preparedBefore = counting.prepared.get();
+        for (int i = 0; i < 10; i++) {
+            final long id = i;
+            dm.executeTransaction(conn -> conn.update(INSERT, ps -> ps.addLong(id).addString(id % 2 == 0 ? "even" : "odd")));
+            assertEquals((id + 2) / 2, (long) dm.callTransaction(conn -> conn.queryForLong(COUNT, ps -> ps.addString("even"))));
+        }
+        // one physical connection, initialized once, and each statement prepared once:
+        assertEquals(1, counting.connections.get());
+        assertEquals(1, counting.initStatements.get());
+        assertEquals(2, counting.prepared.get() - preparedBefore);
+
+        // the cursor takes the idle connection, so the queries inside the loop open a second one:
+        final List<Long> counts = new ArrayList<>();
+        try (final QueryCursor<String> groups = dm.openCursor(SelectStatement.of("select distinct item_group from items order by item_group"), ps -> {}, rs -> rs.getString())) {
+            while (groups.hasNext()) {
+                final String group = groups.next();
+                counts.add(dm.callTransaction(conn -> conn.queryForLong(COUNT, ps -> ps.addString(group))));
+            }
+        }
+        assertEquals(List.of(5L, 5L), counts);
+        assertEquals(2, counting.connections.get());
+
+        final ConnectionPool.Statistics statistics = dm.getPool().getStatistics();
+        assertEquals(2, statistics.size());
+        assertEquals(2, statistics.idle());
+        assertEquals(24, statistics.checkouts());
+        assertEquals(2, statistics.opened());
+        assertEquals(19, statistics.statementHits());
+        assertTrue(statistics.totalCheckoutNanos() > 0);
+        assertTrue(dm.getStatistics().startsWith("pool: 2 connections (2 idle), 24 checkouts"), dm.getStatistics());
+    }
+
+    @Test
+    public void statementCacheEvictsLeastRecentlyUsed() throws Exception {
+        final ConnectionPool pool = new ConnectionPool(h2(), ConnectionPool.Settings.of(1).withStatementCacheSize(2), conn -> {});
+        final ConnectionPool.PooledConnection conn = pool.checkout();
+        final List<PreparedStatement> statements = new ArrayList<>();
+        for (final String sql : List.of("select 1", "select 2", "select 3")) {
+            final PreparedStatement stmt = conn.prepareStatement(sql);
+            statements.add(stmt);
+            conn.releaseStatement(sql, stmt);
+        }
+        assertEquals(2, conn.getCachedStatements());
+        assertTrue(statements.get(0).isClosed());
+        assertSame(statements.get(2), conn.prepareStatement("select 3"));
+        assertNotSame(statements.get(0), conn.prepareStatement("select 1"));
+        pool.checkin(conn);
+        assertEquals(1, pool.getStatistics().statementHits());
+        assertEquals(4, pool.getStatistics().statementMisses());
+        pool.close();
+    }
+
+    @Test
+    public void checkoutWaitsUntilTimeout() throws Exception {
+        final SimpleDataManager dm = new SimpleDataManager("pool", h2(), new DatabaseDialectH2(), null, null,
+                ConnectionPool.Settings.of(1).withCheckoutTimeout(Duration.ofMillis(50)));
+        try (final QueryCursor<Long> cursor = dm.openCursor(SelectStatement.of("select 1"), ps -> {}, rs -> rs.getLong())) {
+            assertTrue(cursor.hasNext());
+            assertThrows(DatabaseError.class, () -> dm.callTransaction(conn -> conn.queryForLong(SelectStatement.of("select 2"))));
+        }
+        assertEquals(2, (long) dm.callTransaction(conn -> conn.queryForLong(SelectStatement.of("select 2"))));
+        final ConnectionPool.Statistics statistics = dm.getPool().getStatistics();
+        assertEquals(1, statistics.timeouts());
+        assertEquals(1, statistics.opened());
+    }
+
+    @Test
+    public void idleConnectionsAreEvictedAndValidated() throws Exception {
+        final AtomicLong now = new AtomicLong();
+        final AtomicInteger initialized = new AtomicInteger();
+        final ConnectionPool pool = new ConnectionPool(h2(), ConnectionPool.Settings.of(2).withMaximumIdleTime(Duration.ofMinutes(1)),
+                conn -> initialized.incrementAndGet(), now::get);
+
+        final ConnectionPool.PooledConnection first = pool.checkout();
+        final ConnectionPool.PooledConnection second = pool.checkout();
+        pool.checkin(first);
+        now.addAndGet(Duration.ofSeconds(50).toNanos());
+        pool.checkin(second);
+        now.addAndGet(Duration.ofSeconds(20).toNanos());
+        assertEquals(1, pool.evictIdle());
+        assertEquals(1, pool.getStatistics().size());
+
+        // a broken connection is replaced when it is validated:
+        second.getConnection().close();
+        final ConnectionPool.PooledConnection third = pool.checkout();
+        assertNotSame(second, third);
+        pool.checkin(third);
+
+        // a connection validated recently is handed out without asking the database, and replaced when it cannot be reset:
+        third.getConnection().close();
+        assertSame(third, pool.checkout());
+        pool.checkin(third);
+        final ConnectionPool.PooledConnection fourth = pool.checkout();
+        assertNotSame(third, fourth);
+        assertFalse(fourth.getConnection().isClosed());
+
+        final ConnectionPool.Statistics statistics = pool.getStatistics();
+        assertEquals(4, statistics.opened());
+        assertEquals(4, initialized.get());
+        assertEquals(1, statistics.evicted());
+        assertEquals(2, statistics.invalidated());
+        assertEquals(1, statistics.size());
+        pool.checkin(fourth);
+        pool.close();
+        assertThrows(SQLException.class, pool::checkout);
+    }
+
+    @Test
+    public void forgottenConnectionsStayOpen() throws Exception {
+        final ConnectionPool pool = new ConnectionPool(h2(), ConnectionPool.Settings.of(1).withCheckoutTimeout(Duration.ofMillis(50)), conn -> {});
+        final ConnectionPool.PooledConnection abandoned = pool.checkout();
+        pool.forget(abandoned);
+        // its owner can still use it:
+        assertFalse(abandoned.getConnection().isClosed());
+        assertTrue(abandoned.getConnection().isValid(1));
+        // and its place is free again:
+        final ConnectionPool.PooledConnection next = pool.checkout();
+        assertNotSame(abandoned, next);
+        pool.checkin(next);
+        final ConnectionPool.Statistics statistics = pool.getStatistics();
+        assertEquals(1, statistics.size());
+        assertEquals(0, statistics.timeouts());
+        abandoned.getConnection().close();
+        pool.close();
+    }
+
+    @Test
+    public void closingTheDataManagerClosesItsPool() throws Exception {
+        final SimpleDataManager dm;
+        try (final SimpleDataManager closing = new SimpleDataManager("pool", h2(), new DatabaseDialectH2(), null, null, ConnectionPool.Settings.of(2))) {
+            dm = closing;
+            assertEquals(1, (long) dm.callTransaction(conn -> conn.queryForLong(SelectStatement.of("select 1"))));
+            assertEquals(1, dm.getPool().getStatistics().idle());
+        }
+        assertEquals(0, dm.getPool().getStatistics().size());
+        assertThrows(DatabaseError.class, () -> dm.callTransaction(conn -> conn.queryForLong(SelectStatement.of("select 1"))));
+        // without a pool, there is nothing to close:
+        new SimpleDataManager("plain", h2(), new DatabaseDialectH2(), null, null).close();
+    }
+
+    private static DataSource h2() {
+        final JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:pool" + DATABASE_COUNTER.incrementAndGet() + ";DB_CLOSE_DELAY=-1");
+        h2.setUser("sa");
+        return h2;
+    }
+
+}
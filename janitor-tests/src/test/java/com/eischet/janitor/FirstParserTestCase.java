@@ -61,7 +61,7 @@ public class FirstParserTestCase extends JanitorTest {
         final String source = "print('hello, world');";
         final JanitorParser.ScriptContext script = JanitorScript.parseScript(source);
         final ScriptModule module = ScriptModule.unnamed(source);
-        final Script scriptObject = JanitorCompiler.build(TestEnv.env, module, script, source);
+        final Script scriptObject = build(module, script, source, false);
         final OutputCatchingTestRuntime runtime = OutputCatchingTestRuntime.fresh();
 
         final Scope globalScope = Scope.createGlobalScope(runtime.getEnvironment(), module); // new Scope(null, JanitorScript.BUILTIN_SCOPE, null);
@@ -76,7 +76,7 @@ public class FirstParserTestCase extends JanitorTest {
         final String source = "if (x > 10) { print('high'); } else { print('low'); }";
         final JanitorParser.ScriptContext script = JanitorScript.parseScript(source);
         final ScriptModule module = ScriptModule.unnamed(source);
-        final Script scriptObject = JanitorCompiler.build(TestEnv.env, module, script, source);
+        final Script scriptObject = build(module, script, source, false);
         final OutputCatchingTestRuntime runtime = OutputCatchingTestRuntime.fresh();
 
         final Scope globalScope = Scope.createGlobalScope(runtime.getEnvironment(), module); // new Scope(null, JanitorScript.BUILTIN_SCOPE, null);
@@ -1,5 +1,6 @@
 package com.eischet.janitor;
 
+import com.eischet.janitor.api.CompilationMode;
 import com.eischet.janitor.api.Janitor;
 import com.eischet.janitor.api.JanitorEnvironment;
 import com.eischet.janitor.api.JanitorEnvironmentProvider;
@@ -12,6 +13,7 @@ import com.eischet.janitor.api.types.JanitorObject;
 import com.eischet.janitor.compiler.CompilerError;
 import com.eischet.janitor.compiler.JanitorCompiler;
 import com.eischet.janitor.compiler.ast.statement.Script;
+import com.eischet.janitor.compiler.bytecode.BytecodeCompiler;
 import com.eischet.janitor.json.impl.DateTimeUtils;
 import com.eischet.janitor.lang.JanitorParser;
 import com.eischet.janitor.logging.JanitorLogger;
@@ -30,8 +32,28 @@ public abstract class JanitorTest {
     public static final Consumer<Scope> NO_GLOBALS = globals -> {
     };
 
+    /**
+     * How the tests run scripts, see {@link OutputCatchingTestRuntime#COMPILATION_MODE_PROPERTY}.
+     */
+    public static final CompilationMode COMPILATION_MODE = OutputCatchingTestRuntime.testCompilationMode();
+
     protected final JanitorLogger log = JanitorLogger.getLogger(getClass());
 
+    /**
+     * Build a script in the {@link #COMPILATION_MODE} the tests run in.
+     * In bytecode mode, scripts that cannot be compiled fail instead of falling back to the interpreter.
+     *
+     * @param module the module
+     * @param script the parsed script
+     * @param source the source code
+     * @param verbose turn on verbose compiler output
+     * @return the script
+     */
+    public static Script build(final ScriptModule module, final JanitorParser.ScriptContext script, final @Nullable String source, final boolean verbose) {
+        final Script built = JanitorCompiler.build(TestEnv.env, module, script, source, verbose);
+        return COMPILATION_MODE == CompilationMode.BYTECODE ? BytecodeCompiler.compile(built) : built;
+    }
+
     @BeforeAll
     static void setUp() {
         JanitorUnitTestLogging.setup();
@@ -63,7 +85,7 @@ public abstract class JanitorTest {
         log.debug("parsing: {}\n", scriptSource);
         final JanitorParser.ScriptContext script = JanitorScript.parseScript(scriptSource);
         final ScriptModule module = ScriptModule.unnamed(scriptSource);
-        final Script scriptObject = JanitorCompiler.build(TestEnv.env, module, script, scriptSource, verbose);
+        final Script scriptObject = build(module, script, scriptSource, verbose);
         final OutputCatchingTestRuntime runtime = OutputCatchingTestRuntime.fresh();
 
         final Scope globalScope = Scope.createGlobalScope(runtime.getEnvironment(), module); // new Scope(null, JanitorScript.BUILTIN_SCOPE, null);
@@ -88,7 +110,7 @@ public abstract class JanitorTest {
         final JanitorParser.ScriptContext script = JanitorScript.parseScript(expressionSource);
         final ScriptModule module = ScriptModule.unnamed(expressionSource);
         try {
-            final Script scriptObject = JanitorCompiler.build(TestEnv.env, module, script, expressionSource);
+            final Script scriptObject = build(module, script, expressionSource, false);
             final OutputCatchingTestRuntime runtime = OutputCatchingTestRuntime.fresh(environmentConfigurer);
 
             final Scope globalScope = Scope.createGlobalScope(runtime.getEnvironment(), module); // new Scope(null, JanitorScript.BUILTIN_SCOPE, null);
@@ -109,7 +131,7 @@ public abstract class JanitorTest {
         final JanitorParser.ScriptContext script = JanitorScript.parseScript(expressionSource);
         final ScriptModule module = ScriptModule.unnamed(expressionSource);
         try {
-            final Script scriptObject = JanitorCompiler.build(TestEnv.env, module, script, expressionSource);
+            final Script scriptObject = build(module, script, expressionSource, false);
             final OutputCatchingTestRuntime runtime = OutputCatchingTestRuntime.fresh();
 
             final Scope globalScope = Scope.createGlobalScope(runtime.getEnvironment(), module); // new Scope(null, JanitorScript.BUILTIN_SCOPE, null);
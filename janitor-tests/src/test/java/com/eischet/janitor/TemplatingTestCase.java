@@ -1,14 +1,24 @@
 package com.eischet.janitor;
 
 import com.eischet.janitor.api.Janitor;
+import com.eischet.janitor.api.RunnableScript;
 import com.eischet.janitor.api.errors.compiler.JanitorCompilerException;
+import com.eischet.janitor.api.errors.runtime.JanitorArgumentException;
 import com.eischet.janitor.api.errors.runtime.JanitorNameException;
 import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
+import com.eischet.janitor.api.types.builtin.JMap;
 import com.eischet.janitor.api.types.functions.JCallable;
+import com.eischet.janitor.runtime.OutputCatchingTestRuntime;
+import com.eischet.janitor.runtime.ScriptCache;
+import com.eischet.janitor.template.CompiledTemplate;
 import com.eischet.janitor.template.TemplateParser;
 import org.junit.jupiter.api.Test;
 
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 public class TemplatingTestCase extends JanitorTest {
 
@@ -43,6 +53,69 @@ public class TemplatingTestCase extends JanitorTest {
         }), g -> {});
     }
 
+    @Test
+    void compiledTemplatesAreCached() throws Exception {
+        final OutputCatchingTestRuntime runtime = OutputCatchingTestRuntime.fresh();
+        final RunnableScript script = runtime.compile("mailMerge", """
+                rows = [{name: "Ann", n: 1}, {name: "Bob", n: 2}, {name: "Cy", n: 3}];
+                out = "";
+                for (row in rows) {
+                    out = out + "Dear ${name}, you have <%= n %> <% if (n == 1) { %>message<% } else { %>messages<% } %>.\\n".expand(row);
+                }
+                return out;
+                """);
+        assertEquals("Dear Ann, you have 1 message.\nDear Bob, you have 2 messages.\nDear Cy, you have 3 messages.\n",
+                script.run(g -> {}).janitorGetHostValue());
+        final ScriptCache.Statistics statistics = runtime.getTemplateCache().getStatistics();
+        assertEquals(1, statistics.misses());
+        assertEquals(2, statistics.hits());
+        assertEquals(1, statistics.size());
+    }
+
+    @Test
+    void renderIntoAppendable() throws Exception {
+        final OutputCatchingTestRuntime runtime = OutputCatchingTestRuntime.fresh();
+        final StringWriter writer = new StringWriter();
+        final CompiledTemplate template = runtime.getTemplateCache().get("<% for (i from 1 to 3) { %>${i}<% } %>|");
+        final CompiledTemplate pure = runtime.getTemplateCache().get("just text");
+        assertFalse(template.isPure());
+        assertTrue(pure.isPure());
+        runtime.compile("render", "render(); render();").run(g -> g.bindF("render", (process, arguments) -> {
+            template.render(process, null, writer);
+            pure.render(process, null, writer);
+            return Janitor.NULL;
+        }));
+        assertEquals("123|just text123|just text", writer.toString());
+    }
+
+    @Test
+    void streamIntoOutputStream() throws Exception {
+        final OutputCatchingTestRuntime runtime = OutputCatchingTestRuntime.fresh();
+        final CompiledTemplate csv = runtime.getTemplateCache().get("""
+                id;name
+                <% for (i from 1 to count) { %>${i};Zoë ${i}
+                <% } %>""");
+        final JMap values = Janitor.map();
+        values.put("count", 10000);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        csv.render(values, bytes, StandardCharsets.UTF_8);
+        final String[] lines = bytes.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(10001, lines.length);
+        assertEquals("id;name", lines[0]);
+        assertEquals("10000;Zoë 10000", lines[10000]);
+
+        final StringWriter writer = new StringWriter();
+        runtime.getTemplateCache().get("plain").render(null, writer);
+        assertEquals("plain", writer.toString());
+    }
+
+    @Test
+    void invalidTemplates() {
+        assertThrows(JanitorArgumentException.class, () -> evaluate("return '<%= unterminated'.expand()"));
+        assertThrows(JanitorArgumentException.class, () -> evaluate("return '<%= ( %>'.expand()"));
+    }
+
+
 
 
 
@@ -12,6 +12,10 @@ import org.junit.jupiter.api.Test;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -101,4 +105,73 @@ public class FilterScriptTestCase extends JanitorTest {
 
     }
 
+    /**
+     * Filtering whole collections at once sets up the script's process once, instead of once per element,
+     * but must give the same results as applying the predicate element by element.
+     */
+    @Test
+    public void batchFiltering() {
+        final OutputCatchingTestRuntime rt = OutputCatchingTestRuntime.fresh();
+        final List<JanitorObject> numbers = IntStream.range(0, 10000).mapToObj(Janitor::integer).collect(Collectors.toList());
+        final @NotNull FilterPredicate multiples = rt.getEnvironment().filterScript("multiples", "doubled = value * 2; doubled % factor == 0",
+                globals -> globals.bind("factor", 6));
+
+        final List<JanitorObject> expected = numbers.stream().filter(multiples).toList();
+        assertEquals(3334, expected.size());
+        assertEquals(expected, multiples.filter(numbers));
+        assertEquals(expected, multiples.filter(numbers.stream()).toList());
+        assertEquals(expected, multiples.filterParallel(numbers));
+        try (final ForkJoinPool pool = new ForkJoinPool(3)) {
+            assertEquals(expected, multiples.filterParallel(numbers, pool));
+        }
+
+        final Dog snoopy = new Dog();
+        snoopy.setName("Snoopy");
+        final Dog jane = new Dog();
+        jane.setName("Jane");
+        final @NotNull FilterPredicate implicit = rt.getEnvironment().filterScript("implicit", "name.startsWith('J')", null);
+        assertEquals(List.of(jane), implicit.filter(List.of(snoopy, jane)));
+
+        // errors are logged and the element does not pass, just like with test():
+        final @NotNull FilterPredicate broken = rt.getEnvironment().filterScript("broken", "value / (value - 3) > 0", null);
+        assertEquals(List.of(4L, 5L), broken.filter(numbers.subList(0, 6)).stream().map(JanitorObject::janitorGetHostValue).toList());
+    }
+
+    /**
+     * Filtered streams run one process per thread, even when they are turned parallel after filtering,
+     * and closing the stream finishes all of these processes.
+     */
+    @Test
+    public void streamFiltering() {
+        final OutputCatchingTestRuntime rt = OutputCatchingTestRuntime.fresh();
+        final List<JanitorObject> numbers = IntStream.range(0, 10000).mapToObj(Janitor::integer).collect(Collectors.toList());
+        final AtomicInteger entered = new AtomicInteger();
+        final AtomicInteger left = new AtomicInteger();
+        final JanitorObject factor = new JanitorObject() {
+            @Override
+            public void janitorEnterScope() {
+                entered.incrementAndGet();
+            }
+
+            @Override
+            public void janitorLeaveScope() {
+                left.incrementAndGet();
+            }
+        };
+        final @NotNull FilterPredicate even = rt.getEnvironment().filterScript("even", "factor; value % 2 == 0", globals -> globals.bind("factor", factor));
+        final List<JanitorObject> expected = numbers.stream().filter(element -> ((Long) element.janitorGetHostValue()) % 2 == 0).toList();
+
+        try (final Stream<JanitorObject> filtered = even.filter(numbers.stream())) {
+            assertEquals(expected, filtered.parallel().toList());
+            assertTrue(entered.get() > 0);
+            assertEquals(0, left.get(), "the processes are still open");
+        }
+        assertEquals(entered.get(), left.get(), "closing the stream finishes every process");
+
+        try (final Stream<JanitorObject> filtered = even.filter(numbers.stream())) {
+            assertEquals(expected, filtered.toList());
+        }
+        assertEquals(entered.get(), left.get());
+    }
+
 }
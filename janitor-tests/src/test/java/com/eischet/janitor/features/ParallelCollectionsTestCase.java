@@ -0,0 +1,102 @@
+package com.eischet.janitor.features;
+
+import com.eischet.janitor.JanitorTest;
+import com.eischet.janitor.api.Janitor;
+import com.eischet.janitor.api.JanitorScriptProcess;
+import com.eischet.janitor.api.errors.runtime.JanitorArgumentException;
+import com.eischet.janitor.api.errors.runtime.JanitorInstructionLimitExceededException;
+import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
+import com.eischet.janitor.runtime.BaseRuntime;
+import com.eischet.janitor.runtime.RunningScriptProcess;
+import org.intellij.lang.annotations.Language;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * list.parallelMap(), list.parallelFilter(), list.parallelForEach() and the same for sets.
+ */
+public class ParallelCollectionsTestCase extends JanitorTest {
+
+    private static final @Language("Janitor") String BUSY_NUMBERS = """
+            numbers = [];
+            for (i from 1 to 100) {
+                numbers.add(i);
+            }
+            busy = x -> {
+                n = 0;
+                while (n < 20) {
+                    n++;
+                }
+                return x * n;
+            };
+            """;
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void resultsKeepTheirOrder() throws Exception {
+        assertEquals("[2, 4, 6]\n", getOutput("print([1, 2, 3].parallelMap(x -> x * 2));"));
+        assertEquals("[]\n", getOutput("print([].parallelMap(x -> x * 2));"));
+        assertEquals("[2, 3]\n", getOutput("print([1, 2, 3].parallelFilter(x -> x > 1));"));
+        assertEquals("true\n", getOutput(BUSY_NUMBERS + "print(numbers.parallelMap(busy) == numbers.map(busy));"));
+        assertEquals("50\n", getOutput(BUSY_NUMBERS + "print(numbers.parallelFilter(x -> x % 2 == 0).size());"));
+        assertEquals(Janitor.TRUE, evaluateWithConfigurableProcess(BUSY_NUMBERS + "return numbers.parallelMap(busy) == numbers.map(busy);", this::usePool));
+    }
+
+    @Test
+    public void forEach() throws Exception {
+        assertEquals("6\n", getOutput("""
+                import collections;
+                s = collections.set(1, 2, 3);
+                total = s.parallelMap(x -> x * 2).size();
+                s.parallelForEach(x -> x * 2);
+                print(total + s.parallelFilter(x -> x < 4).size());
+                """));
+        assertEquals("1\n", getOutput("[1].parallelForEach(x -> print(x));"));
+    }
+
+    /**
+     * All workers share the instruction budget of the calling process, and count exactly like a sequential map().
+     */
+    @Test
+    public void instructionLimitAppliesToAllWorkers() throws Exception {
+        final long sequential = countInstructions(BUSY_NUMBERS + "numbers.map(busy);", 0);
+        final long parallel = countInstructions(BUSY_NUMBERS + "numbers.parallelMap(busy);", 0);
+        assertEquals(sequential, parallel);
+        assertEquals(parallel, countInstructions(BUSY_NUMBERS + "numbers.parallelMap(busy);", parallel));
+        assertThrows(JanitorInstructionLimitExceededException.class, () -> countInstructions(BUSY_NUMBERS + "numbers.parallelMap(busy);", parallel - 1));
+        assertThrows(JanitorInstructionLimitExceededException.class, () -> countInstructions(BUSY_NUMBERS + "numbers.parallelMap(busy);", parallel / 2));
+    }
+
+    @Test
+    public void errorsArePropagated() {
+        assertThrows(JanitorRuntimeException.class, () -> getOutput(BUSY_NUMBERS + "numbers.parallelMap(x -> x == 77 ? x.noSuchMethod() : x);"));
+        assertThrows(JanitorArgumentException.class, () -> getOutput("[1, 2].parallelMap(17);"));
+    }
+
+    private long countInstructions(final @Language("Janitor") String script, final long limit) throws Exception {
+        final RunningScriptProcess[] running = {null};
+        evaluateWithConfigurableProcess(script, process -> {
+            usePool(process);
+            process.setMaxInstructionCount(limit);
+            running[0] = (RunningScriptProcess) process;
+        });
+        return running[0].getInstructionCounter();
+    }
+
+    private void usePool(final JanitorScriptProcess process) {
+        ((BaseRuntime) process.getRuntime()).setParallelExecutor(pool);
+    }
+
+}
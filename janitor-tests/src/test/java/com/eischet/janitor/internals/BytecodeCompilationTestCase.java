@@ -0,0 +1,150 @@
+package com.eischet.janitor.internals;
+
+import com.eischet.janitor.JanitorTest;
+import com.eischet.janitor.TestEnv;
+import com.eischet.janitor.api.CompilationMode;
+import com.eischet.janitor.api.errors.runtime.JanitorArithmeticException;
+import com.eischet.janitor.api.errors.runtime.JanitorInstructionLimitExceededException;
+import com.eischet.janitor.api.scopes.ScriptModule;
+import com.eischet.janitor.api.scopes.Scope;
+import com.eischet.janitor.compiler.JanitorCompiler;
+import com.eischet.janitor.compiler.ast.statement.Script;
+import com.eischet.janitor.compiler.bytecode.BytecodeCompiler;
+import com.eischet.janitor.runtime.JanitorScript;
+import com.eischet.janitor.runtime.OutputCatchingTestRuntime;
+import com.eischet.janitor.runtime.RunningScriptProcess;
+import org.intellij.lang.annotations.Language;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Scripts compiled to bytecode must behave exactly like interpreted scripts.
+ */
+public class BytecodeCompilationTestCase extends JanitorTest {
+
+    private static String run(final CompilationMode mode, final @Language("Janitor") String source) throws Exception {
+        final OutputCatchingTestRuntime runtime = OutputCatchingTestRuntime.fresh();
+        final JanitorScript script = (JanitorScript) runtime.compile("test", source, mode);
+        assertEquals(mode, script.getCompilationMode());
+        final String result = script.run(NO_GLOBALS).janitorToString();
+        return runtime.getAllOutput() + "=> " + result;
+    }
+
+    private static void assertSameBehaviour(final @Language("Janitor") String source) throws Exception {
+        assertEquals(run(CompilationMode.INTERPRETER, source), run(CompilationMode.BYTECODE, source));
+    }
+
+    @Test
+    public void arithmeticAndLogic() throws Exception {
+        assertSameBehaviour("""
+                a = 3;
+                b = 4.5;
+                print(a + b, a * 2 - 1, -a, not true, a < b and b < 5, a > b or b > 4, a == 3 ? "yes" : "no");
+                a + 1;
+                """);
+    }
+
+    @Test
+    public void controlFlow() throws Exception {
+        assertSameBehaviour("""
+                total = 0;
+                i = 0;
+                while (i < 100) {
+                    i = i + 1;
+                    if (i % 2 == 0) {
+                        continue;
+                    } else if (i > 50) {
+                        break;
+                    }
+                    total = total + i;
+                }
+                for (x in [1, 2, 3]) {
+                    if (x == 2) { continue; }
+                    total = total + x;
+                }
+                for (j from 0 to 10) {
+                    if (j == 5) { break; }
+                    total = total + j;
+                }
+                print(total, i);
+                """);
+    }
+
+    @Test
+    public void returnsAndFunctions() throws Exception {
+        assertSameBehaviour("""
+                function fib(n) {
+                    if (n < 2) { return n; }
+                    return fib(n - 1) + fib(n - 2);
+                }
+                for (x in [1, 2, 3]) {
+                    while (true) {
+                        if (x == 2) {
+                            return fib(10) + x;
+                        }
+                        break;
+                    }
+                }
+                print("unreachable");
+                """);
+    }
+
+    @Test
+    public void functionBodiesAndLambdas() throws Exception {
+        assertSameBehaviour("""
+                function counter(start) {
+                    n = start;
+                    return () -> {
+                        n = n + 1;
+                        return n;
+                    };
+                }
+                function sum(limit) {
+                    total = 0;
+                    i = 0;
+                    while (true) {
+                        i = i + 1;
+                        if (i > limit) { break; }
+                        if (i % 3 == 0) { continue; }
+                        total = total + i;
+                    }
+                    return total;
+                }
+                c = counter(10);
+                c();
+                twice = x -> x * 2;
+                print(c(), sum(20), twice(21), [1, 2, 3].map(x -> x + 1));
+                """);
+    }
+
+    @Test
+    public void errorsLeaveBlocksCleanly() throws Exception {
+        assertSameBehaviour("""
+                x = "outer";
+                try {
+                    if (true) {
+                        x = 1 / 0;
+                    }
+                } catch (e) {
+                    print("caught", x);
+                }
+                print(x);
+                """);
+        final OutputCatchingTestRuntime runtime = OutputCatchingTestRuntime.fresh();
+        assertThrows(JanitorArithmeticException.class, () -> runtime.compile("test", "if (true) { return 1 / 0; }", CompilationMode.BYTECODE).run(NO_GLOBALS));
+    }
+
+    @Test
+    public void instructionLimit() throws Exception {
+        final String source = "i = 0; while (true) { i = i + 1; }";
+        final ScriptModule module = ScriptModule.unnamed(source);
+        final Script compiled = BytecodeCompiler.compile(JanitorCompiler.build(TestEnv.env, module, JanitorScript.parseScript(source), source));
+        final OutputCatchingTestRuntime runtime = OutputCatchingTestRuntime.fresh();
+        final RunningScriptProcess process = new RunningScriptProcess(runtime, Scope.createGlobalScope(runtime.getEnvironment(), module), "manual", compiled);
+        process.setMaxInstructionCount(1000);
+        assertThrows(JanitorInstructionLimitExceededException.class, process::run);
+    }
+
+}
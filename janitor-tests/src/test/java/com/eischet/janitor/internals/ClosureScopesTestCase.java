@@ -3,7 +3,6 @@ package com.eischet.janitor.internals;
 import com.eischet.janitor.JanitorTest;
 import com.eischet.janitor.api.RunnableScript;
 import com.eischet.janitor.runtime.OutputCatchingTestRuntime;
-import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -42,7 +41,6 @@ public class ClosureScopesTestCase extends JanitorTest {
     }
 
     @Test
-    @Disabled // TODO: re-enable this; multiple invocations of function that return functions do not work correctly... clobbered scopes!?
     public void testFreshScopePerInvocation() throws Exception {
         final OutputCatchingTestRuntime runtime = OutputCatchingTestRuntime.fresh();
         final RunnableScript script = runtime.compile("capturing", """
@@ -53,7 +51,7 @@ public class ClosureScopesTestCase extends JanitorTest {
                 print(pa("x"));
                 pb = foo("b");
                 print(pb("x"));
-                print(pa("x")); // Problem: returns bx at the moment, instead of ba.
+                print(pa("x"));
                 """);
         script.run();
         assertEquals("ax\nbx\nax\n", runtime.getAllOutput());
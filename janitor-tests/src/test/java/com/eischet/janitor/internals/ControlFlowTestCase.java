@@ -0,0 +1,83 @@
+package com.eischet.janitor.internals;
+
+import com.eischet.janitor.JanitorTest;
+import com.eischet.janitor.api.errors.runtime.JanitorInternalException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Return, break and continue are passed between statements as completion values.
+ */
+public class ControlFlowTestCase extends JanitorTest {
+
+    @Test
+    public void breakAndContinueInForLoops() throws Exception {
+        assertEquals("1\n3\n", getOutput("""
+                for (i from 1 to 10) {
+                    if (i == 2) { continue; }
+                    if (i == 4) { break; }
+                    print(i);
+                }
+                """));
+        assertEquals("a\nc\n", getOutput("""
+                for (s in ["a", "b", "c", "d"]) {
+                    if (s == "b") { continue; }
+                    print(s);
+                    if (s == "c") { break; }
+                }
+                """));
+    }
+
+    @Test
+    public void breakOnlyLeavesInnermostLoop() throws Exception {
+        assertEquals("1:1\n2:1\n", getOutput("""
+                for (i from 1 to 2) {
+                    for (j from 1 to 5) {
+                        if (j > 1) { break; }
+                        print(i + ":" + j);
+                    }
+                }
+                """));
+    }
+
+    @Test
+    public void returnFromNestedLoops() throws Exception {
+        assertEquals("10\n", getOutput("""
+                function find(limit) {
+                    i = 0;
+                    while (true) {
+                        for (j from 0 to 10) {
+                            if (i * j >= limit) {
+                                return i + j;
+                            }
+                        }
+                        i++;
+                    }
+                }
+                print(find(9));
+                """));
+    }
+
+    @Test
+    public void finallyRunsOnReturn() throws Exception {
+        assertEquals("finally\n1\n", getOutput("""
+                function f() {
+                    try {
+                        return 1;
+                    } finally {
+                        print("finally");
+                    }
+                }
+                print(f());
+                """));
+    }
+
+    @Test
+    public void breakOutsideOfLoops() {
+        assertThrows(JanitorInternalException.class, () -> getOutput("break;"));
+        assertThrows(JanitorInternalException.class, () -> getOutput("function f() { continue; } f();"));
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.eischet.janitor.internals;
+
+import com.eischet.janitor.JanitorTest;
+import com.eischet.janitor.api.RunnableScript;
+import com.eischet.janitor.api.errors.runtime.JanitorNameException;
+import com.eischet.janitor.api.types.composed.JanitorComposed;
+import com.eischet.janitor.api.types.dispatch.DispatchTable;
+import com.eischet.janitor.runtime.OutputCatchingTestRuntime;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Member access and member call sites cache the attributes they resolve per dispatcher.
+ */
+public class InlineCacheTestCase extends JanitorTest {
+
+    @Test
+    public void polymorphicCallSite() throws Exception {
+        assertEquals("3\n1\n1\n0\n0\n", getOutput("""
+                for (x in [[1, 2, 3], {"a": 1}, [1].toSet(), [], {}]) {
+                    print(x.size());
+                }
+                """));
+    }
+
+    @Test
+    public void megamorphicCallSite() throws Exception {
+        assertEquals("string list map set int float string \n", getOutput("""
+                out = "";
+                for (x in ["a", [1], {"a": 1}, [1].toSet(), 2, 3.0, "b"]) {
+                    out = out + x.class + " ";
+                }
+                print(out);
+                """));
+    }
+
+    @Test
+    public void cacheIsInvalidatedWhenTheTableChanges() throws Exception {
+        final DispatchTable<Counter> parent = new DispatchTable<>();
+        parent.addMethod("value", (self, process, args) -> process.getEnvironment().getBuiltinTypes().integer(self.value));
+        final DispatchTable<Counter> child = new DispatchTable<>(parent, it -> it);
+        final Counter counter = new Counter(child, 21);
+
+        final OutputCatchingTestRuntime runtime = OutputCatchingTestRuntime.fresh();
+        final RunnableScript call = runtime.compile("call", "return obj.value();");
+        final RunnableScript access = runtime.compile("access", "return obj.label;");
+
+        assertEquals(21L, call.run(g -> g.bind("obj", counter)).janitorGetHostValue());
+        assertThrows(JanitorNameException.class, () -> access.run(g -> g.bind("obj", counter)));
+
+        // override the parent's method in the child, and add a new property to the parent
+        child.addMethod("value", (self, process, args) -> process.getEnvironment().getBuiltinTypes().integer(self.value * 2));
+        parent.addStringProperty("label", self -> "counter");
+
+        assertEquals(42L, call.run(g -> g.bind("obj", counter)).janitorGetHostValue());
+        assertEquals("counter", access.run(g -> g.bind("obj", counter)).janitorGetHostValue());
+
+        // changes to the parent must be seen through the child, too
+        parent.addStringProperty("label", self -> "changed");
+        assertEquals("changed", access.run(g -> g.bind("obj", counter)).janitorGetHostValue());
+    }
+
+    private static class Counter extends JanitorComposed<Counter> {
+        private final long value;
+
+        Counter(final DispatchTable<Counter> dispatcher, final long value) {
+            super(dispatcher);
+            this.value = value;
+        }
+    }
+
+}
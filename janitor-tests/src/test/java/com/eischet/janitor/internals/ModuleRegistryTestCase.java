@@ -0,0 +1,142 @@
+package com.eischet.janitor.internals;
+
+import com.eischet.janitor.JanitorTest;
+import com.eischet.janitor.api.JanitorScriptProcess;
+import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
+import com.eischet.janitor.api.modules.JanitorModule;
+import com.eischet.janitor.api.modules.JanitorModuleRegistration;
+import com.eischet.janitor.api.modules.ModuleResolver;
+import com.eischet.janitor.api.types.JanitorObject;
+import com.eischet.janitor.env.JanitorDefaultEnvironment;
+import com.eischet.janitor.env.ModuleRegistry;
+import com.eischet.janitor.runtime.OutputCatchingTestRuntime;
+import com.eischet.janitor.runtime.modules.CollectionsModule;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Module lookup through the module registry, and its opt-in caches.
+ */
+public class ModuleRegistryTestCase extends JanitorTest {
+
+    private static class CountedModule implements JanitorModule {
+    }
+
+    /**
+     * Resolves every name starting with "script" to a new module, tracking a version number per name like a host
+     * would track file modification times.
+     */
+    private static class VersionedResolver implements ModuleResolver {
+        private final AtomicInteger resolved = new AtomicInteger();
+        private final Map<String, Integer> versions = new HashMap<>();
+        private final Map<JanitorModule, Integer> resolvedVersions = new HashMap<>();
+
+        @Override
+        public @Nullable JanitorModule resolveModuleByStringName(final JanitorScriptProcess process, final String name) {
+            if (!name.startsWith("script")) {
+                return null;
+            }
+            resolved.incrementAndGet();
+            final JanitorModule module = new CountedModule();
+            resolvedVersions.put(module, versions.getOrDefault(name, 0));
+            return module;
+        }
+
+        @Override
+        public boolean isModuleCurrent(final String name, final JanitorModule module) {
+            return resolvedVersions.get(module).equals(versions.getOrDefault(name, 0));
+        }
+    }
+
+    private static JanitorObject importQualified(final OutputCatchingTestRuntime runtime, final String name) throws Exception {
+        return runtime.compile("test", "import " + name + "; return " + name + ";").run();
+    }
+
+    private static JanitorObject importString(final OutputCatchingTestRuntime runtime, final String name) throws Exception {
+        return runtime.compile("test", "import \"" + name + "\" as m; return m;").run();
+    }
+
+    private static ModuleRegistry modules(final OutputCatchingTestRuntime runtime) {
+        return ((JanitorDefaultEnvironment) runtime.getEnvironment()).getModuleRegistry();
+    }
+
+    @Test
+    public void statelessModules() throws Exception {
+        final OutputCatchingTestRuntime runtime = OutputCatchingTestRuntime.fresh();
+        final AtomicInteger created = new AtomicInteger();
+        runtime.getEnvironment().addModule(new JanitorModuleRegistration("counted", () -> {
+            created.incrementAndGet();
+            return new CountedModule();
+        }));
+        runtime.getEnvironment().addModule(new JanitorModuleRegistration("counted", () -> fail("the first registration wins")));
+        runtime.getEnvironment().addModule(CollectionsModule.REGISTRATION);
+
+        // by default, every import creates a new module:
+        assertNotSame(importQualified(runtime, "collections"), importQualified(runtime, "collections"));
+
+        modules(runtime).setStatelessModuleCaching(true);
+        final JanitorObject collections = importQualified(runtime, "collections");
+        assertSame(collections, importQualified(runtime, "collections"));
+        // modules that are not declared stateless are still created for every import:
+        assertNotSame(importQualified(runtime, "counted"), importQualified(runtime, "counted"));
+        assertEquals(2, created.get());
+
+        assertTrue(modules(runtime).invalidate("collections"));
+        assertNotSame(collections, importQualified(runtime, "collections"));
+
+        assertThrows(JanitorRuntimeException.class, () -> importQualified(runtime, "missing"));
+    }
+
+    @Test
+    public void resolvedModules() throws Exception {
+        final OutputCatchingTestRuntime runtime = OutputCatchingTestRuntime.fresh();
+        final VersionedResolver resolver = new VersionedResolver();
+        runtime.getEnvironment().addModuleResolver(resolver);
+
+        // by default, the resolver is asked on every import:
+        assertNotSame(importString(runtime, "script1"), importString(runtime, "script1"));
+        assertEquals(2, resolver.resolved.get());
+
+        modules(runtime).setResolvedModuleCacheSize(2);
+        final JanitorObject first = importString(runtime, "script1");
+        assertSame(first, importString(runtime, "script1"));
+        assertEquals(3, resolver.resolved.get());
+
+        // the resolver reports that the source has changed:
+        resolver.versions.put("script1", 1);
+        final JanitorObject second = importString(runtime, "script1");
+        assertNotSame(first, second);
+        assertSame(second, importString(runtime, "script1"));
+        assertEquals(4, resolver.resolved.get());
+
+        // the host drops the module explicitly:
+        assertTrue(modules(runtime).invalidate("script1"));
+        assertFalse(modules(runtime).invalidate("script1"));
+        assertNotSame(second, importString(runtime, "script1"));
+        assertEquals(5, resolver.resolved.get());
+
+        // failed lookups are not cached, so resolvers added later can still provide the module:
+        assertThrows(JanitorRuntimeException.class, () -> importString(runtime, "other"));
+        runtime.getEnvironment().addModuleResolver(new ModuleResolver() {
+            @Override
+            public @Nullable JanitorModule resolveModuleByStringName(final JanitorScriptProcess process, final @NotNull String name) {
+                return "other".equals(name) ? new CountedModule() : null;
+            }
+        });
+        assertNotNull(importString(runtime, "other"));
+
+        importString(runtime, "script2");
+        importString(runtime, "script3");
+        assertEquals(2, modules(runtime).getStatistics().size());
+        assertTrue(modules(runtime).getStatistics().evictions() >= 1);
+        assertEquals(2, modules(runtime).getStatistics().hits());
+    }
+
+}
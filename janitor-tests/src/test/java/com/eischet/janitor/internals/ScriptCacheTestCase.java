@@ -0,0 +1,133 @@
+package com.eischet.janitor.internals;
+
+import com.eischet.janitor.JanitorTest;
+import com.eischet.janitor.api.CompilationMode;
+import com.eischet.janitor.api.RunnableScript;
+import com.eischet.janitor.api.errors.compiler.JanitorCompilerException;
+import com.eischet.janitor.runtime.OutputCatchingTestRuntime;
+import com.eischet.janitor.runtime.ScriptCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The runtime caches compiled scripts by module name and source.
+ */
+public class ScriptCacheTestCase extends JanitorTest {
+
+    @Test
+    public void sameSourceIsCompiledOnce() throws Exception {
+        final OutputCatchingTestRuntime runtime = OutputCatchingTestRuntime.fresh();
+        runtime.setDefaultCompilationMode(CompilationMode.INTERPRETER); // the bytecode version must be a separate cache entry
+        final RunnableScript first = runtime.compile("rule", "return 1 + 2;");
+        assertSame(first, runtime.compile("rule", "return 1 + 2;"));
+        assertNotSame(first, runtime.compile("rule", "return 1 + 3;"));
+        assertNotSame(first, runtime.compile("other", "return 1 + 2;"));
+        assertNotSame(first, runtime.compile("rule", "return 1 + 2;", CompilationMode.BYTECODE));
+        assertEquals(3L, runtime.compile("rule", "return 1 + 2;").run(NO_GLOBALS).janitorGetHostValue());
+
+        final ScriptCache.Statistics statistics = runtime.getScriptCache().getStatistics();
+        assertEquals(2, statistics.hits());
+        assertEquals(4, statistics.misses());
+        assertEquals(4, statistics.size());
+    }
+
+    @Test
+    public void failuresAreNotCached() {
+        final OutputCatchingTestRuntime runtime = OutputCatchingTestRuntime.fresh();
+        assertThrows(JanitorCompilerException.class, () -> runtime.compile("broken", "return (;"));
+        assertThrows(JanitorCompilerException.class, () -> runtime.compile("broken", "return (;"));
+        assertEquals(0, runtime.getScriptCache().getStatistics().size());
+    }
+
+    @Test
+    public void leastRecentlyUsedScriptsAreEvicted() throws Exception {
+        final ScriptCache cache = new ScriptCache(2);
+        final AtomicInteger compilations = new AtomicInteger();
+        final OutputCatchingTestRuntime runtime = OutputCatchingTestRuntime.fresh();
+        final ScriptCache.Compiler compiler = (moduleName, source, mode) -> {
+            compilations.incrementAndGet();
+            return runtime.checkCompile(moduleName, source);
+        };
+        cache.get("a", "1;", CompilationMode.INTERPRETER, compiler);
+        cache.get("b", "2;", CompilationMode.INTERPRETER, compiler);
+        cache.get("a", "1;", CompilationMode.INTERPRETER, compiler); // "b" is now the least recently used script
+        cache.get("c", "3;", CompilationMode.INTERPRETER, compiler);
+        assertEquals(3, compilations.get());
+        cache.get("a", "1;", CompilationMode.INTERPRETER, compiler);
+        assertEquals(3, compilations.get());
+        cache.get("b", "2;", CompilationMode.INTERPRETER, compiler);
+        assertEquals(4, compilations.get());
+
+        final ScriptCache.Statistics statistics = cache.getStatistics();
+        assertEquals(2, statistics.hits());
+        assertEquals(4, statistics.misses());
+        assertEquals(2, statistics.evictions());
+        assertEquals(2, statistics.size());
+        assertEquals(1.0 / 3, statistics.hitRate(), 0.0001);
+    }
+
+    @Test
+    public void invalidation() throws Exception {
+        final OutputCatchingTestRuntime runtime = OutputCatchingTestRuntime.fresh();
+        runtime.setDefaultCompilationMode(CompilationMode.INTERPRETER);
+        final ScriptCache cache = runtime.getScriptCache();
+        final RunnableScript v1 = runtime.compile("rule", "return 1;");
+        runtime.compile("rule", "return 2;");
+        runtime.compile("rule", "return 1;", CompilationMode.BYTECODE);
+        runtime.compile("other", "return 1;");
+
+        assertEquals(2, cache.invalidate("rule", "return 1;"));
+        assertNotSame(v1, runtime.compile("rule", "return 1;"));
+        assertEquals(2, cache.invalidate("rule"));
+        assertEquals(1, cache.getStatistics().size());
+        cache.invalidateAll();
+        assertEquals(0, cache.getStatistics().size());
+    }
+
+    @Test
+    public void disabledCache() throws Exception {
+        final ScriptCache cache = new ScriptCache(0);
+        final OutputCatchingTestRuntime runtime = OutputCatchingTestRuntime.fresh();
+        final ScriptCache.Compiler compiler = (moduleName, source, mode) -> runtime.checkCompile(moduleName, source);
+        assertNotSame(cache.get("a", "1;", CompilationMode.INTERPRETER, compiler), cache.get("a", "1;", CompilationMode.INTERPRETER, compiler));
+        assertEquals(0, cache.getStatistics().size());
+        assertEquals(2, cache.getStatistics().misses());
+    }
+
+    @Test
+    public void concurrentCompilationsReturnTheSameScript() throws Exception {
+        final int threads = 8;
+        final OutputCatchingTestRuntime runtime = OutputCatchingTestRuntime.fresh();
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<RunnableScript>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    final RunnableScript script = runtime.compile("shared", "return x * 2;");
+                    assertEquals(42L, script.run(globals -> globals.bind("x", 21)).janitorGetHostValue());
+                    return script;
+                }));
+            }
+            start.countDown();
+            final RunnableScript first = futures.get(0).get();
+            for (final Future<RunnableScript> future : futures) {
+                assertSame(first, future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, runtime.getScriptCache().getStatistics().size());
+    }
+
+}
@@ -0,0 +1,137 @@
+package com.eischet.janitor.internals;
+
+import com.eischet.janitor.JanitorTest;
+import com.eischet.janitor.api.errors.compiler.JanitorCompilerException;
+import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
+import com.eischet.janitor.api.types.JanitorObject;
+import com.eischet.janitor.repl.JanitorRepl;
+import com.eischet.janitor.repl.ReplIO;
+import com.eischet.janitor.runtime.OutputCatchingTestRuntime;
+import com.eischet.janitor.runtime.ScriptProfiler;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The sampling script profiler.
+ */
+public class ScriptProfilerTestCase extends JanitorTest {
+
+    private static final String SCRIPT = """
+            function inner(n) {
+                total = 0;
+                i = 0;
+                while (i < n) {
+                    total = total + i;
+                    i = i + 1;
+                }
+                return total;
+            }
+            function outer(n) {
+                return inner(n);
+            }
+            return outer(count);
+            """;
+
+    private static JanitorObject run(final OutputCatchingTestRuntime runtime, final long count) throws JanitorCompilerException, JanitorRuntimeException {
+        return runtime.compile("profiled", SCRIPT).run(globals -> globals.bind("count", count));
+    }
+
+    @Test
+    public void instructionSamples() throws Exception {
+        final OutputCatchingTestRuntime runtime = OutputCatchingTestRuntime.fresh();
+        // sample every instruction, and practically never by time:
+        try (final ScriptProfiler profiler = new ScriptProfiler(Duration.ofHours(1), 1)) {
+            runtime.setProfiler(profiler);
+            run(runtime, 100);
+            assertTrue(profiler.topLines(10, ScriptProfiler.Metric.INSTRUCTIONS).isEmpty(), "nothing is sampled before the profiler is started");
+
+            profiler.start();
+            assertEquals(4950L, run(runtime, 100).janitorGetHostValue());
+            profiler.stop();
+
+            final List<ScriptProfiler.Entry> functions = profiler.topFunctions(10, ScriptProfiler.Metric.INSTRUCTIONS);
+            assertEquals("script (profiled)", functions.get(0).name());
+            assertEquals("outer (profiled)", functions.get(1).name());
+            assertEquals("inner (profiled)", functions.get(2).name());
+            assertTrue(functions.get(2).totalInstructions() > 300);
+            assertEquals(functions.get(0).totalInstructions(), functions.get(0).selfInstructions() + functions.get(1).totalInstructions());
+
+            final ScriptProfiler.Entry hottest = profiler.topLines(1, ScriptProfiler.Metric.INSTRUCTIONS).get(0);
+            assertTrue(hottest.name().startsWith("inner (profiled:"), hottest.name());
+
+            final StringBuilder stacks = new StringBuilder();
+            profiler.writeCollapsedStacks(stacks, ScriptProfiler.Metric.INSTRUCTIONS);
+            assertTrue(stacks.toString().contains("script (profiled:13);outer (profiled:11);inner (profiled:5) "), stacks.toString());
+
+            profiler.reset();
+            assertTrue(profiler.topLines(10, ScriptProfiler.Metric.INSTRUCTIONS).isEmpty());
+        }
+    }
+
+    @Test
+    public void timeSamples() throws Exception {
+        final OutputCatchingTestRuntime runtime = OutputCatchingTestRuntime.fresh();
+        try (final ScriptProfiler profiler = new ScriptProfiler()) {
+            runtime.setProfiler(profiler);
+            profiler.start();
+            final long until = System.nanoTime() + 50_000_000L;
+            while (System.nanoTime() < until) {
+                run(runtime, 1000);
+            }
+            profiler.stop();
+            final List<ScriptProfiler.Entry> functions = profiler.topFunctions(10, ScriptProfiler.Metric.TIME);
+            assertFalse(functions.isEmpty());
+            assertTrue(functions.get(0).totalNanos() > 0);
+            final String report = profiler.report(5);
+            assertTrue(report.contains("functions by time:"), report);
+            assertTrue(report.contains("lines by instructions:"), report);
+        }
+    }
+
+    @Test
+    public void replCommands() {
+        final OutputCatchingTestRuntime runtime = OutputCatchingTestRuntime.fresh();
+        final StringBuilder printed = new StringBuilder();
+        final JanitorRepl repl = new JanitorRepl(runtime, new ReplIO() {
+            @Override
+            public String readLine(final String prompt) throws IOException {
+                return null;
+            }
+
+            @Override
+            public void print(final String text) {
+                printed.append(text);
+            }
+
+            @Override
+            public void println(final String text) {
+                printed.append(text).append('\n');
+            }
+
+            @Override
+            public void error(final String text) {
+                fail(text);
+            }
+
+            @Override
+            public void exception(final Exception e) {
+                fail(e);
+            }
+        });
+        repl.acceptText(":profile start");
+        repl.acceptText("function f(n) { i = 0; while (i < n) { i = i + 1; } return i; }");
+        repl.acceptText("f(5000);");
+        repl.acceptText(":profile stop");
+        printed.setLength(0);
+        repl.acceptText(":profile report 3");
+        assertTrue(printed.toString().contains("f (repl)"), printed.toString());
+        assertNotNull(runtime.getProfiler());
+        assertFalse(runtime.getProfiler().isRunning());
+    }
+
+}
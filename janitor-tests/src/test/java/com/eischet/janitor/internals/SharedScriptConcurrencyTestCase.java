@@ -0,0 +1,69 @@
+package com.eischet.janitor.internals;
+
+import com.eischet.janitor.JanitorTest;
+import com.eischet.janitor.api.RunnableScript;
+import com.eischet.janitor.api.types.JanitorObject;
+import com.eischet.janitor.runtime.OutputCatchingTestRuntime;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A compiled script is immutable, so many processes can run it at the same time.
+ */
+public class SharedScriptConcurrencyTestCase extends JanitorTest {
+
+    private static final int THREADS = 8;
+    private static final int RUNS_PER_THREAD = 200;
+
+    @Test
+    public void runOneCompiledScriptOnManyThreads() throws Exception {
+        final OutputCatchingTestRuntime runtime = OutputCatchingTestRuntime.fresh();
+        final RunnableScript script = runtime.compile("shared", """
+                function adder(n) {
+                    return x -> x + n;
+                }
+                function sum(fn, count) {
+                    total = 0;
+                    for (i from 1 to count) {
+                        total = total + fn(i);
+                    }
+                    return total;
+                }
+                addSeed = adder(seed);
+                addOne = adder(1);
+                return sum(addSeed, 10) * 1000 + sum(addOne, 10);
+                """);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                final long seed = t;
+                futures.add(executor.submit(() -> {
+                    for (int run = 0; run < RUNS_PER_THREAD; run++) {
+                        final JanitorObject result = script.run(globals -> globals.bind("seed", seed));
+                        // sum(i + seed) for i in 1..10 = 55 + 10 * seed; sum(i + 1) = 65
+                        assertEquals((55 + 10 * seed) * 1000 + 65, result.janitorGetHostValue());
+                    }
+                    return null;
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        }
+    }
+
+}
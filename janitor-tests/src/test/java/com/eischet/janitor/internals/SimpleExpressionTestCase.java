@@ -9,7 +9,6 @@ import com.eischet.janitor.api.scopes.Scope;
 import com.eischet.janitor.api.scopes.ScriptModule;
 import com.eischet.janitor.api.types.builtin.JBool;
 import com.eischet.janitor.api.types.JanitorObject;
-import com.eischet.janitor.compiler.JanitorCompiler;
 import com.eischet.janitor.compiler.ast.statement.Script;
 import com.eischet.janitor.lang.JanitorParser;
 import com.eischet.janitor.runtime.*;
@@ -30,7 +29,7 @@ public class SimpleExpressionTestCase extends JanitorTest {
         // log.info("parsing: " + expressionSource + "\n");
         final JanitorParser.ScriptContext script = JanitorScript.parseScript(expressionSource);
         final ScriptModule module = ScriptModule.unnamed(expressionSource);
-        final Script scriptObject = JanitorCompiler.build(TestEnv.env, module, script, null);
+        final Script scriptObject = build(module, script, null, false);
         final OutputCatchingTestRuntime runtime = OutputCatchingTestRuntime.fresh();
 
         final Scope globalScope = Scope.createGlobalScope(runtime.getEnvironment(), module); // new Scope(root, null, null);
@@ -0,0 +1,107 @@
+package com.eischet.janitor.internals;
+
+import com.eischet.janitor.JanitorTest;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Parameters, loop variables and catch variables are resolved to frame slots at compile time.
+ * These tests make sure that reading and writing them still behaves like the name-based lookup.
+ */
+public class SlotResolutionTestCase extends JanitorTest {
+
+    @Test
+    public void parametersShadowOuterVariables() throws Exception {
+        assertEquals("3\n5\n", getOutput("""
+                x = 5;
+                function f(x) { if (true) { return x; } }
+                print(f(3));
+                print(x);
+                """));
+    }
+
+    @Test
+    public void assignToParameters() throws Exception {
+        assertEquals("11\n12\n13\n14\n1\n", getOutput("""
+                a = 1;
+                function f(a) {
+                    a = a + 10;
+                    print(a);
+                    a++;
+                    print(a);
+                    ++a;
+                    print(a);
+                    a += 1;
+                    print(a);
+                }
+                f(a);
+                print(a);
+                """));
+    }
+
+    @Test
+    public void nestedLoops() throws Exception {
+        assertEquals("0:a 0:b 1:a 1:b \n", getOutput("""
+                function f(n, letters) {
+                    out = "";
+                    for (i from 0 to n) {
+                        for (letter in letters) {
+                            out = out + i + ":" + letter + " ";
+                        }
+                    }
+                    return out;
+                }
+                print(f(1, ["a", "b"]));
+                """));
+    }
+
+    @Test
+    public void recursion() throws Exception {
+        assertEquals("120\n", getOutput("""
+                function fac(n) {
+                    if (n <= 1) {
+                        return 1;
+                    } else if (n > 1) {
+                        return n * fac(n - 1);
+                    }
+                }
+                print(fac(5));
+                """));
+    }
+
+    @Test
+    public void callParameters() throws Exception {
+        assertEquals("6\n", getOutput("""
+                function apply(fn, value) {
+                    return fn(value);
+                }
+                print(apply(x -> x * 2, 3));
+                """));
+    }
+
+    @Test
+    public void catchVariable() throws Exception {
+        assertEquals("caught\n", getOutput("""
+                function f() {
+                    try {
+                        x = 1 / 0;
+                    } catch (e) {
+                        if (e) { print("caught"); }
+                    }
+                }
+                f();
+                """));
+    }
+
+    @Test
+    public void defaultParametersSeeEarlierParameters() throws Exception {
+        assertEquals("3\n", getOutput("""
+                function f(a, b = a + 1) {
+                    return b;
+                }
+                print(f(2));
+                """));
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.eischet.janitor.internals;
+
+import com.eischet.janitor.JanitorTest;
+import com.eischet.janitor.api.types.builtin.JString;
+import com.eischet.janitor.env.DefaultBuiltinTypes;
+import com.eischet.janitor.toolbox.memory.BoundedStringInterner;
+import com.eischet.janitor.toolbox.memory.Interner;
+import com.eischet.janitor.toolbox.memory.StringInterner;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The string interning strategies, and the numeric caches of the toolbox Interner.
+ */
+public class StringInternerTestCase extends JanitorTest {
+
+    @Test
+    public void boundedInterner() {
+        final BoundedStringInterner interner = new BoundedStringInterner(100, 5);
+        assertEquals(128, interner.getCapacity());
+        final String first = interner.intern(new String("hello"));
+        assertSame(first, interner.intern(new String("hello")));
+        final String tooLong = new String("hello world");
+        assertSame(tooLong, interner.intern(tooLong));
+        assertNull(interner.intern(null));
+
+        // a single slot keeps only the latest string:
+        final BoundedStringInterner tiny = new BoundedStringInterner(1, 10);
+        final String a = tiny.intern(new String("a"));
+        tiny.intern("b");
+        final String a2 = new String("a");
+        assertSame(a2, tiny.intern(a2));
+        assertNotSame(a, a2);
+        assertThrows(IllegalArgumentException.class, () -> new BoundedStringInterner(0, 10));
+    }
+
+    @Test
+    public void strategiesPerBuiltinTypes() {
+        final DefaultBuiltinTypes none = new DefaultBuiltinTypes(StringInterner.NONE);
+        final String name = new String("name");
+        assertSame(name, none.intern(name));
+        assertNotSame(none.string(new String("x")).janitorGetHostValue(), none.string(new String("x")).janitorGetHostValue());
+
+        final DefaultBuiltinTypes bounded = new DefaultBuiltinTypes();
+        final JString first = bounded.string(new String("short"));
+        assertSame(first.janitorGetHostValue(), bounded.string(new String("short")).janitorGetHostValue());
+        assertNotSame(bounded.string(new String("longer than ten")).janitorGetHostValue(), bounded.string(new String("longer than ten")).janitorGetHostValue());
+
+        final DefaultBuiltinTypes jvm = new DefaultBuiltinTypes(StringInterner.jvm(10));
+        assertSame("short", jvm.intern(new String("short")));
+    }
+
+    @Test
+    public void numericCachesAreFilledOnDemand() {
+        final Integer first = Interner.maybeIntern(Integer.valueOf(140000));
+        assertSame(first, Interner.maybeIntern(Integer.valueOf(140000)));
+        final Long firstLong = Interner.maybeIntern(Long.valueOf(140000));
+        assertSame(firstLong, Interner.maybeIntern(Long.valueOf(140000)));
+        assertEquals(Interner.INTERNED_INTS, (int) Interner.maybeIntern(Interner.INTERNED_INTS));
+        assertEquals(-1L, (long) Interner.maybeIntern(-1L));
+        assertNull(Interner.maybeIntern((Integer) null));
+
+        final StringInterner previous = Interner.getStringInterner();
+        try {
+            Interner.setStringInterner(StringInterner.NONE);
+            final String value = new String("value");
+            assertSame(value, Interner.maybeIntern(value));
+        } finally {
+            Interner.setStringInterner(previous);
+        }
+    }
+
+}
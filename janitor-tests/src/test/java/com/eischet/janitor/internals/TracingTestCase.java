@@ -0,0 +1,55 @@
+package com.eischet.janitor.internals;
+
+import com.eischet.janitor.JanitorTest;
+import com.eischet.janitor.api.RunnableScript;
+import com.eischet.janitor.runtime.JanitorScript;
+import com.eischet.janitor.runtime.OutputCatchingTestRuntime;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tracing is a compile time option: only scripts compiled while a trace listener is set are instrumented.
+ */
+public class TracingTestCase extends JanitorTest {
+
+    private static final String SCRIPT = """
+            function twice(x) {
+                return 2 * x;
+            }
+            y = twice(21);
+            return y;
+            """;
+
+    @Test
+    public void instrumentedOnlyWhileTracing() throws Exception {
+        final OutputCatchingTestRuntime runtime = OutputCatchingTestRuntime.fresh();
+        final List<String> messages = new ArrayList<>();
+
+        final RunnableScript plain = runtime.compile("plain", SCRIPT);
+        assertFalse(((JanitorScript) plain).isTraced());
+
+        runtime.setTraceListener(messages::add);
+        assertTrue(runtime.isTracing());
+
+        // scripts compiled before the listener was set do not trace at all:
+        assertEquals(42L, plain.run().janitorGetHostValue());
+        assertTrue(messages.isEmpty(), messages.toString());
+
+        final RunnableScript traced = runtime.compile("plain", SCRIPT);
+        assertTrue(((JanitorScript) traced).isTraced());
+        assertNotSame(plain, traced);
+        assertEquals(42L, traced.run().janitorGetHostValue());
+        assertTrue(messages.stream().anyMatch(message -> message.startsWith("executing: ")), messages.toString());
+        assertTrue(messages.contains("function call result: 42"), messages.toString());
+        assertTrue(messages.stream().anyMatch(message -> message.startsWith("completed: ") && message.endsWith("Completion{RETURN 42}")), messages.toString());
+
+        // instrumented scripts do not go into the cache:
+        runtime.setTraceListener(null);
+        assertSame(plain, runtime.compile("plain", SCRIPT));
+    }
+
+}
@@ -0,0 +1,446 @@
+package com.eischet.janitor.orm;
+
+import com.eischet.dbxs.ConnectionPool;
+import com.eischet.dbxs.DataManager;
+import com.eischet.dbxs.SimpleDataManager;
+import com.eischet.dbxs.dialects.DatabaseDialect;
+import com.eischet.dbxs.dialects.DatabaseDialectH2;
+import com.eischet.janitor.api.Janitor;
+import com.eischet.janitor.api.types.composed.JanitorComposed;
+import com.eischet.janitor.api.types.dispatch.DispatchTable;
+import com.eischet.janitor.orm.dao.GenericDao;
+import com.eischet.janitor.orm.dao.Uplink;
+import com.eischet.janitor.orm.entity.ChangeTrackedOrmEntity;
+import com.eischet.janitor.orm.entity.ChangeTracker;
+import com.eischet.janitor.orm.entity.GenericChangeTrackedDao;
+import com.eischet.janitor.orm.entity.OrmEntity;
+import com.eischet.janitor.orm.entity.OrmObject;
+import com.eischet.janitor.orm.entity.SimpleChangeTracker;
+import com.eischet.janitor.orm.meta.EntityIndex;
+import com.eischet.janitor.orm.meta.EntityWrangler;
+import com.eischet.janitor.orm.meta.SimpleWrangler;
+import com.eischet.janitor.orm.ref.ForeignKey;
+import com.eischet.janitor.orm.ref.ForeignKeyNull;
+import org.h2.jdbcx.JdbcDataSource;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A tiny in-memory shop database for the ORM tests: customers, orders referring to customers, and change-tracked products.
+ * <p>Every SQL statement prepared by the DAOs is recorded, so tests can check how many queries have been run.</p>
+ */
+public class TestShop implements Uplink {
+
+    private static final AtomicInteger DATABASE_COUNTER = new AtomicInteger();
+
+    private final List<String> preparedStatements = new CopyOnWriteArrayList<>();
+    private final SimpleDataManager dataManager;
+    private final EntityIndex entityIndex = new EntityIndex();
+    public final CustomerDao customers;
+    public final OrderDao orders;
+    public final ProductDao products;
+
+    public TestShop() throws SQLException {
+        this(new DatabaseDialectH2());
+    }
+
+    public TestShop(final @NotNull DatabaseDialect dialect) throws SQLException {
+        this(dialect, null);
+    }
+
+    public TestShop(final @NotNull DatabaseDialect dialect, final @Nullable ConnectionPool.Settings poolSettings) throws SQLException {
+        final JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:shop" + DATABASE_COUNTER.incrementAndGet() + ";DB_CLOSE_DELAY=-1");
+        h2.setUser("sa");
+        try (final Connection conn = h2.getConnection(); final Statement stmt = conn.createStatement()) {
+            stmt.execute("create sequence customer_seq");
+            stmt.execute("create sequence order_seq");
+            stmt.execute("create sequence product_seq");
+            stmt.execute("create table customers (customer_id bigint primary key, customer_key varchar(50), customer_name varchar(100))");
+            stmt.execute("create table orders (order_id bigint primary key, order_key varchar(50), customer_id bigint)");
+            stmt.execute("create table products (product_id bigint primary key, product_key varchar(50), product_status varchar(20), product_description clob)");
+        }
+        this.dataManager = new SimpleDataManager("shop", recording(h2), dialect, null, null, poolSettings);
+        entityIndex.addEntity(Customer.class, Customer.DISPATCH);
+        entityIndex.addEntity(Order.class, Order.DISPATCH);
+        entityIndex.addEntity(Product.class, Product.DISPATCH);
+        this.customers = new CustomerDao(entityIndex);
+        this.orders = new OrderDao(entityIndex);
+        this.products = new ProductDao(entityIndex);
+    }
+
+    public DataManager getDataManager() {
+        return dataManager;
+    }
+
+    public void forgetStatements() {
+        preparedStatements.clear();
+    }
+
+    public long countStatements(final @NotNull String sqlPrefix) {
+        return preparedStatements.stream().filter(sql -> sql.startsWith(sqlPrefix)).count();
+    }
+
+    private DataSource recording(final DataSource dataSource) {
+        return (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{DataSource.class}, (proxy, method, args) -> {
+            final Object result = invoke(dataSource, method, args);
+            return result instanceof Connection conn ? recording(conn) : result;
+        });
+    }
+
+    private Connection recording(final Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+            if (method.getName().equals("prepareStatement") && args != null && args[0] instanceof String sql) {
+                preparedStatements.add(sql);
+            }
+            return invoke(connection, method, args);
+        });
+    }
+
+    private static Object invoke(final Object target, final Method method, final Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    public static class Customer extends JanitorComposed<Customer> implements OrmEntity {
+        public static final DispatchTable<Customer> DISPATCH = new DispatchTable<>(Customer::new);
+        public static final ForeignKeyNull<Customer> NULL = new ForeignKeyNull<>();
+        public static final EntityWrangler<Customer, TestShop> WRANGLER = SimpleWrangler.of(Customer.class, DISPATCH, NULL, shop -> new Customer(), shop -> shop.customers);
+
+        static {
+            DISPATCH.setMetaData(Janitor.MetaData.CLASS, "Customer");
+            DISPATCH.setMetaData(JanitorOrm.MetaData.TABLE_NAME, "customers");
+            DISPATCH.setMetaData(JanitorOrm.MetaData.ID_FIELD, "customer_id");
+            DISPATCH.setMetaData(JanitorOrm.MetaData.KEY_FIELD, "customer_key");
+            DISPATCH.setMetaData(JanitorOrm.MetaData.ID_SEQUENCE, "customer_seq");
+            OrmObject.addLongProperty(DISPATCH, "id", "customer_id", Customer::getId, Customer::setId);
+            OrmObject.addStringProperty(DISPATCH, "key", "customer_key", Customer::getKey, Customer::setKey, 50);
+            OrmObject.addStringProperty(DISPATCH, "name", "customer_name", Customer::getName, Customer::setName, 100);
+        }
+
+        private long id;
+        private String key;
+        private String name;
+        private boolean softDeleted;
+
+        public Customer() {
+            super(DISPATCH);
+        }
+
+        public Customer(final String key, final String name) {
+            this();
+            this.key = key;
+            this.name = name;
+        }
+
+        @Override
+        public long getId() {
+            return id;
+        }
+
+        @Override
+        public void setId(final long id) {
+            this.id = id;
+        }
+
+        @Override
+        public @Nullable String getKey() {
+            return key;
+        }
+
+        @Override
+        public void setKey(final String key) {
+            this.key = key;
+        }
+
+        @Override
+        public @Nullable String getName() {
+            return name;
+        }
+
+        @Override
+        public void setName(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public boolean isSoftDeleted() {
+            return softDeleted;
+        }
+
+        @Override
+        public void setSoftDeleted(final boolean softDeleted) {
+            this.softDeleted = softDeleted;
+        }
+
+        @Override
+        public String toString() {
+            return "Customer{" + id + ", " + key + "}";
+        }
+    }
+
+    public static class Order extends JanitorComposed<Order> implements OrmEntity {
+        public static final DispatchTable<Order> DISPATCH = new DispatchTable<>(Order::new);
+        public static final ForeignKeyNull<Order> NULL = new ForeignKeyNull<>();
+        public static final EntityWrangler<Order, TestShop> WRANGLER = SimpleWrangler.of(Order.class, DISPATCH, NULL, shop -> new Order(), shop -> shop.orders);
+
+        static {
+            DISPATCH.setMetaData(Janitor.MetaData.CLASS, "Order");
+            DISPATCH.setMetaData(JanitorOrm.MetaData.TABLE_NAME, "orders");
+            DISPATCH.setMetaData(JanitorOrm.MetaData.ID_FIELD, "order_id");
+            DISPATCH.setMetaData(JanitorOrm.MetaData.KEY_FIELD, "order_key");
+            DISPATCH.setMetaData(JanitorOrm.MetaData.ID_SEQUENCE, "order_seq");
+            OrmObject.addLongProperty(DISPATCH, "id", "order_id", Order::getId, Order::setId);
+            OrmObject.addStringProperty(DISPATCH, "key", "order_key", Order::getKey, Order::setKey, 50);
+            Customer.WRANGLER.addReference(DISPATCH, "customer", "customer_id", Order::getCustomer, Order::setCustomer,
+                    (self, value) -> value instanceof ForeignKey<?> ? self.castCustomer((ForeignKey<?>) value) : Customer.NULL);
+        }
+
+        private long id;
+        private String key;
+        private boolean softDeleted;
+        private @NotNull ForeignKey<Customer> customer = Customer.NULL;
+
+        public Order() {
+            super(DISPATCH);
+        }
+
+        public Order(final String key, final @NotNull ForeignKey<Customer> customer) {
+            this();
+            this.key = key;
+            this.customer = customer;
+        }
+
+        @SuppressWarnings("unchecked") // the dispatch table only accepts customer references here
+        private ForeignKey<Customer> castCustomer(final ForeignKey<?> value) {
+            return (ForeignKey<Customer>) value;
+        }
+
+        public @NotNull ForeignKey<Customer> getCustomer() {
+            return customer;
+        }
+
+        public void setCustomer(final @NotNull ForeignKey<Customer> customer) {
+            this.customer = customer;
+        }
+
+        @Override
+        public long getId() {
+            return id;
+        }
+
+        @Override
+        public void setId(final long id) {
+            this.id = id;
+        }
+
+        @Override
+        public @Nullable String getKey() {
+            return key;
+        }
+
+        @Override
+        public void setKey(final String key) {
+            this.key = key;
+        }
+
+        @Override
+        public @Nullable String getName() {
+            return key;
+        }
+
+        @Override
+        public void setName(final String name) {
+        }
+
+        @Override
+        public boolean isSoftDeleted() {
+            return softDeleted;
+        }
+
+        @Override
+        public void setSoftDeleted(final boolean softDeleted) {
+            this.softDeleted = softDeleted;
+        }
+    }
+
+    public static class Product extends JanitorComposed<Product> implements ChangeTrackedOrmEntity {
+        public static final DispatchTable<Product> DISPATCH = new DispatchTable<>(Product::new);
+
+        static {
+            DISPATCH.setMetaData(Janitor.MetaData.CLASS, "Product");
+            DISPATCH.setMetaData(JanitorOrm.MetaData.TABLE_NAME, "products");
+            DISPATCH.setMetaData(JanitorOrm.MetaData.ID_FIELD, "product_id");
+            DISPATCH.setMetaData(JanitorOrm.MetaData.KEY_FIELD, "product_key");
+            DISPATCH.setMetaData(JanitorOrm.MetaData.ID_SEQUENCE, "product_seq");
+            OrmObject.addLongProperty(DISPATCH, "id", "product_id", Product::getId, Product::setId);
+            OrmObject.addStringProperty(DISPATCH, "key", "product_key", Product::getKey, Product::setKey, 50);
+            OrmObject.addStringProperty(DISPATCH, "status", "product_status", Product::getStatus, Product::setStatus, 20);
+            OrmObject.addTextProperty(DISPATCH, "description", "product_description", Product::getDescription, Product::setDescription);
+        }
+
+        private @NotNull ChangeTracker changeTracker = new SimpleChangeTracker();
+        private long id;
+        private String key;
+        private String status;
+        private String description;
+        private boolean softDeleted;
+
+        public Product() {
+            super(DISPATCH);
+        }
+
+        public Product(final String key, final String status, final String description) {
+            this();
+            setKey(key);
+            setStatus(status);
+            setDescription(description);
+        }
+
+        @Override
+        public @NotNull ChangeTracker getChangeTracker() {
+            return changeTracker;
+        }
+
+        @Override
+        public void setChangeTracker(final @NotNull ChangeTracker changeTracker) {
+            this.changeTracker = changeTracker;
+        }
+
+        @Override
+        public long getId() {
+            return id;
+        }
+
+        @Override
+        public void setId(final long id) {
+            this.id = id;
+        }
+
+        @Override
+        public @Nullable String getKey() {
+            return key;
+        }
+
+        @Override
+        public void setKey(final String key) {
+            this.key = key;
+            changeTracker.setModified("key");
+        }
+
+        public @Nullable String getStatus() {
+            return status;
+        }
+
+        public void setStatus(final String status) {
+            this.status = status;
+            changeTracker.setModified("status");
+        }
+
+        public @Nullable String getDescription() {
+            return description;
+        }
+
+        public void setDescription(final String description) {
+            this.description = description;
+            changeTracker.setModified("description");
+        }
+
+        @Override
+        public @Nullable String getName() {
+            return key;
+        }
+
+        @Override
+        public void setName(final String name) {
+        }
+
+        @Override
+        public boolean isSoftDeleted() {
+            return softDeleted;
+        }
+
+        @Override
+        public void setSoftDeleted(final boolean softDeleted) {
+            this.softDeleted = softDeleted;
+        }
+    }
+
+    public class CustomerDao extends GenericDao<Customer> {
+        private CustomerDao(final EntityIndex entityIndex) {
+            super(new DispatchTable<CustomerDao>(), entityIndex, Customer.class, Customer.DISPATCH, Customer::new);
+        }
+
+        @Override
+        public @NotNull Class<Customer> getEntityClass() {
+            return entityClass;
+        }
+
+        @Override
+        public @NotNull String getEntityClassName() {
+            return className;
+        }
+
+        @Override
+        protected DataManager getDataManager() {
+            return dataManager;
+        }
+    }
+
+    public class OrderDao extends GenericDao<Order> {
+        private OrderDao(final EntityIndex entityIndex) {
+            super(new DispatchTable<OrderDao>(), entityIndex, Order.class, Order.DISPATCH, Order::new);
+        }
+
+        @Override
+        public @NotNull Class<Order> getEntityClass() {
+            return entityClass;
+        }
+
+        @Override
+        public @NotNull String getEntityClassName() {
+            return className;
+        }
+
+        @Override
+        protected DataManager getDataManager() {
+            return dataManager;
+        }
+    }
+
+    public class ProductDao extends GenericChangeTrackedDao<Product> {
+        private ProductDao(final EntityIndex entityIndex) {
+            super(new DispatchTable<ProductDao>(), entityIndex, Product.class, Product.DISPATCH, Product::new);
+        }
+
+        @Override
+        public @NotNull Class<Product> getEntityClass() {
+            return entityClass;
+        }
+
+        @Override
+        public @NotNull String getEntityClassName() {
+            return className;
+        }
+
+        @Override
+        protected DataManager getDataManager() {
+            return dataManager;
+        }
+    }
+
+}
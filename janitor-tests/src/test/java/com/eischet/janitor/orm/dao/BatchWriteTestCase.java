@@ -0,0 +1,121 @@
+package com.eischet.janitor.orm.dao;
+
+import com.eischet.dbxs.dialects.DatabaseDialectH2;
+import com.eischet.dbxs.statements.SelectStatement;
+import com.eischet.janitor.JanitorTest;
+import com.eischet.janitor.api.Janitor;
+import com.eischet.janitor.orm.TestShop;
+import com.eischet.janitor.orm.TestShop.Customer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * insertAll, updateAll and deleteAll of GenericDao.
+ */
+public class BatchWriteTestCase extends JanitorTest {
+
+    private static final String INSERT_CUSTOMER = "insert into customers";
+    private static final String NEXT_VALUE = "select next value for customer_seq";
+
+    @Test
+    public void insertAllUsesBatchesAndIdBlocks() throws Exception {
+        final TestShop shop = new TestShop();
+        shop.customers.setBatchSize(10);
+        final AtomicInteger inserted = new AtomicInteger();
+        shop.customers.addChangeListener((type, entity) -> {
+            if (type == EntityChangeListener.Type.INSERT) {
+                inserted.incrementAndGet();
+            }
+        });
+        final List<Customer> customers = customers(25);
+        shop.getDataManager().executeTransaction(conn -> shop.customers.insertAll(conn, customers));
+
+        // one statement per batch, and one query per block of ids:
+        assertEquals(3, shop.countStatements(INSERT_CUSTOMER));
+        assertEquals(3, shop.countStatements(NEXT_VALUE));
+        assertEquals(25, inserted.get());
+        assertEquals(25, distinctIds(customers).size());
+        assertEquals(25, count(shop));
+        assertEquals("Customer 7", shop.getDataManager().callTransaction(conn -> shop.customers.findById(conn, customers.get(7).getId())).getName());
+    }
+
+    @Test
+    public void dialectsWithoutBlockQueriesFetchIdsOneByOne() throws Exception {
+        final TestShop shop = new TestShop(new DatabaseDialectH2() {
+            @Override
+            public @Nullable SelectStatement getNextValuesQuery(final @Nullable String schema, final @NotNull String seq) {
+                return null;
+            }
+        });
+        final List<Customer> customers = customers(5);
+        shop.getDataManager().executeTransaction(conn -> shop.customers.insertAll(conn, customers));
+        assertEquals(1, shop.countStatements(INSERT_CUSTOMER));
+        assertEquals(5, shop.countStatements(NEXT_VALUE));
+        assertEquals(5, distinctIds(customers).size());
+        assertEquals(5, count(shop));
+    }
+
+    @Test
+    public void updateAllAndDeleteAll() throws Exception {
+        final TestShop shop = new TestShop();
+        shop.customers.setBatchSize(4);
+        final List<Customer> customers = customers(6);
+        shop.getDataManager().executeTransaction(conn -> shop.customers.insertAll(conn, customers));
+        shop.forgetStatements();
+
+        customers.forEach(customer -> customer.setName(customer.getName() + "!"));
+        shop.getDataManager().executeTransaction(conn -> shop.customers.updateAll(conn, customers));
+        assertEquals(1, shop.countStatements("update customers"));
+        assertTrue(shop.getDataManager().callTransaction(conn -> shop.customers.findAll(conn)).stream().allMatch(customer -> customer.getName().endsWith("!")));
+
+        shop.getDataManager().executeTransaction(conn -> shop.customers.deleteAll(conn, customers.subList(0, 5)));
+        assertEquals(1, shop.countStatements("delete from customers"));
+        assertEquals(1, count(shop));
+    }
+
+    @Test
+    public void batchWritesFromScripts() throws Exception {
+        final TestShop shop = new TestShop();
+        assertEquals("3\n2\n", getOutput("""
+                dao.batchSize = 2;
+                customers = dao.insertAll([{key: 'a', name: 'Alice'}, {key: 'b', name: 'Bob'}, {key: 'c', name: 'Carol'}]);
+                print(dao.getAll().size());
+                customers[0].name = 'Alicia';
+                dao.updateAll([customers[0]]);
+                dao.deleteAll([customers[1]]);
+                print(dao.getAll().size());
+                """, globals -> globals.bind("dao", shop.customers)));
+        assertEquals(2, shop.customers.getBatchSize());
+        assertEquals("Alicia", shop.customers.lazyLoadByKey("a").getName());
+        assertNull(shop.customers.lazyLoadByKey("b"));
+    }
+
+    private List<Customer> customers(final int count) {
+        final List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            customers.add(new Customer("c" + i, "Customer " + i));
+        }
+        return customers;
+    }
+
+    private Set<Long> distinctIds(final List<Customer> customers) {
+        final Set<Long> ids = new HashSet<>();
+        customers.forEach(customer -> ids.add(customer.getId()));
+        assertFalse(ids.contains(0L));
+        return ids;
+    }
+
+    private int count(final TestShop shop) throws Exception {
+        return shop.getDataManager().callTransaction(conn -> shop.customers.countAll(conn));
+    }
+
+}
@@ -0,0 +1,234 @@
+package com.eischet.janitor.orm.dao;
+
+import com.eischet.dbxs.exceptions.DatabaseError;
+import com.eischet.janitor.JanitorTest;
+import com.eischet.janitor.orm.TestShop;
+import com.eischet.janitor.orm.TestShop.Customer;
+import com.eischet.janitor.orm.entity.OrmEntity;
+import com.eischet.janitor.orm.entity.OrmObject;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The identity map and shared cache of GenericDao.
+ */
+public class EntityCacheTestCase extends JanitorTest {
+
+    private static final String SELECT_CUSTOMERS = "select customer_id, customer_key, customer_name from customers where";
+
+    @Test
+    public void identityMapPerTransaction() throws Exception {
+        final TestShop shop = new TestShop();
+        final List<Long> ids = createCustomers(shop, 1);
+        shop.customers.setCache(new EntityCache<>(0, null));
+        shop.forgetStatements();
+
+        shop.getDataManager().executeTransaction(conn -> {
+            final Customer customer = shop.customers.findById(conn, ids.get(0));
+            assertSame(customer, shop.customers.findById(conn, ids.get(0)));
+            assertSame(customer, shop.customers.findByKey(conn, "c0"));
+        });
+        assertEquals(1, shop.countStatements(SELECT_CUSTOMERS));
+
+        // without a shared cache, the next transaction reads again:
+        shop.getDataManager().executeTransaction(conn -> shop.customers.findById(conn, ids.get(0)));
+        assertEquals(2, shop.countStatements(SELECT_CUSTOMERS));
+        assertEquals(0, shop.customers.getCache().getStatistics().size());
+    }
+
+    @Test
+    public void sharedCacheAcrossTransactions() throws Exception {
+        final TestShop shop = new TestShop();
+        final List<Long> ids = createCustomers(shop, 2);
+        final EntityCache<Customer> cache = new EntityCache<>(10, null);
+        shop.customers.setCache(cache);
+        shop.forgetStatements();
+
+        final Customer first = shop.getDataManager().callTransaction(conn -> shop.customers.findById(conn, ids.get(0)));
+        assertSame(first, shop.getDataManager().callTransaction(conn -> shop.customers.findById(conn, ids.get(0))));
+        assertSame(first, shop.getDataManager().callTransaction(conn -> shop.customers.findByKey(conn, "c0")));
+        assertSame(first, shop.customers.lazyLoadById(ids.get(0)));
+        assertEquals(1, shop.countStatements(SELECT_CUSTOMERS));
+
+        // prefetching only asks for the ids not cached yet:
+        assertEquals(2, shop.getDataManager().callTransaction(conn -> shop.customers.findByIds(conn, ids)).size());
+        assertEquals(1, shop.countStatements(SELECT_CUSTOMERS + " customer_id in (?)"));
+
+        final EntityCache.Statistics statistics = cache.getStatistics();
+        assertEquals(4, statistics.hits());
+        assertEquals(2, statistics.misses());
+        assertEquals(2, statistics.size());
+    }
+
+    @Test
+    public void changesInvalidateTheCache() throws Exception {
+        final TestShop shop = new TestShop();
+        final List<Long> ids = createCustomers(shop, 1);
+        final EntityCache<Customer> cache = new EntityCache<>(10, null);
+        shop.customers.setCache(cache);
+
+        final Customer cached = shop.getDataManager().callTransaction(conn -> shop.customers.findById(conn, ids.get(0)));
+        shop.getDataManager().executeTransaction(conn -> {
+            final Customer changed = new Customer("c0", "Changed");
+            changed.setId(ids.get(0));
+            shop.customers.update(conn, changed);
+            // entities loaded after a change in the same transaction stay in the transaction:
+            assertEquals("Changed", shop.customers.findById(conn, ids.get(0)).getName());
+        });
+        assertEquals(1, cache.getStatistics().invalidations());
+        assertEquals(0, cache.getStatistics().size());
+
+        final Customer reloaded = shop.getDataManager().callTransaction(conn -> shop.customers.findById(conn, ids.get(0)));
+        assertNotSame(cached, reloaded);
+        assertEquals("Changed", reloaded.getName());
+
+        shop.getDataManager().executeTransaction(conn -> shop.customers.delete(conn, reloaded));
+        assertNull(shop.getDataManager().callTransaction(conn -> shop.customers.findById(conn, ids.get(0))));
+        assertNull(shop.getDataManager().callTransaction(conn -> shop.customers.findByKey(conn, "c0")));
+
+        // without a cache, nothing is cached anymore:
+        shop.customers.setCache(null);
+        createCustomers(shop, 1);
+        assertEquals(0, cache.getStatistics().size());
+    }
+
+    @Test
+    public void concurrentReaderDuringChange() throws Exception {
+        final TestShop shop = new TestShop();
+        final List<Long> ids = createCustomers(shop, 1);
+        final EntityCache<Customer> cache = new EntityCache<>(10, null);
+        shop.customers.setCache(cache);
+
+        final AtomicReference<Customer> readConcurrently = new AtomicReference<>();
+        shop.getDataManager().executeTransaction(conn -> {
+            final Customer changed = new Customer("c0", "Changed");
+            changed.setId(ids.get(0));
+            shop.customers.update(conn, changed);
+            // another transaction still sees the committed row, but must not put it into the shared cache:
+            final Thread reader = new Thread(() -> {
+                try {
+                    readConcurrently.set(shop.getDataManager().callTransaction(other -> shop.customers.findById(other, ids.get(0))));
+                } catch (DatabaseError e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            reader.start();
+            try {
+                reader.join();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            assertEquals("Customer 0", readConcurrently.get().getName());
+            assertEquals(0, cache.getStatistics().size());
+        });
+
+        assertEquals("Changed", shop.getDataManager().callTransaction(conn -> shop.customers.findById(conn, ids.get(0))).getName());
+        // once the change has been committed, the entity is shared again:
+        assertEquals(1, cache.getStatistics().size());
+        assertEquals("Changed", shop.getDataManager().callTransaction(conn -> shop.customers.findById(conn, ids.get(0))).getName());
+    }
+
+    @Test
+    public void changesInNestedTransactions() throws Exception {
+        final TestShop shop = new TestShop();
+        final List<Long> ids = createCustomers(shop, 1);
+        final EntityCache<Customer> cache = new EntityCache<>(10, null);
+        shop.customers.setCache(cache);
+
+        assertThrows(DatabaseError.class, () -> shop.getDataManager().executeTransaction(conn -> {
+            shop.getDataManager().executeTransaction(nested -> {
+                final Customer changed = new Customer("c0", "Changed");
+                changed.setId(ids.get(0));
+                shop.customers.update(nested, changed);
+            });
+            // the nested transaction has ended, but the enclosing one has not, so the row must not be shared yet:
+            assertEquals("Changed", shop.customers.findById(conn, ids.get(0)).getName());
+            assertEquals(0, cache.getStatistics().size());
+            throw new DatabaseError("roll back");
+        }));
+        assertEquals(0, cache.getStatistics().size());
+        shop.forgetStatements();
+        shop.getDataManager().callTransaction(conn -> shop.customers.findById(conn, ids.get(0)));
+        assertEquals(1, shop.countStatements(SELECT_CUSTOMERS));
+    }
+
+    @Test
+    public void evictionBySizeAndAge() throws Exception {
+        final TestShop shop = new TestShop();
+        final List<Long> ids = createCustomers(shop, 3);
+        final AtomicLong now = new AtomicLong();
+        final EntityCache<Customer> cache = new EntityCache<>(2, Duration.ofSeconds(10), now::get);
+        shop.customers.setCache(cache);
+        shop.forgetStatements();
+
+        for (final long id : ids) {
+            shop.getDataManager().callTransaction(conn -> shop.customers.findById(conn, id));
+        }
+        assertEquals(2, cache.getStatistics().size());
+        assertEquals(1, cache.getStatistics().evictions());
+        shop.getDataManager().callTransaction(conn -> shop.customers.findById(conn, ids.get(2)));
+        assertEquals(3, shop.countStatements(SELECT_CUSTOMERS));
+        shop.getDataManager().callTransaction(conn -> shop.customers.findById(conn, ids.get(0)));
+        assertEquals(4, shop.countStatements(SELECT_CUSTOMERS));
+
+        now.addAndGet(Duration.ofSeconds(11).toNanos());
+        shop.getDataManager().callTransaction(conn -> shop.customers.findById(conn, ids.get(0)));
+        assertEquals(5, shop.countStatements(SELECT_CUSTOMERS));
+        assertEquals(3, cache.getStatistics().evictions());
+    }
+
+    @Test
+    public void lookupsAreReportedToTheLogging() throws Exception {
+        final TestShop shop = new TestShop();
+        final List<Long> ids = createCustomers(shop, 1);
+        final AtomicInteger hits = new AtomicInteger();
+        final AtomicInteger misses = new AtomicInteger();
+        shop.customers.setCache(new EntityCache<>(10, Duration.ofMinutes(1)));
+        shop.customers.setLogging(new DaoLogging() {
+            @Override
+            public void lazyLoadedForeignKey(final String entityClass, final Object identifier, final OrmObject result) {
+            }
+
+            @Override
+            public void lazyLoadedAssociation(final String entityClass, final String keyColumn, final long parentId, final List<? extends OrmEntity> results) {
+            }
+
+            @Override
+            public void cacheHit(final String entityClass, final Object identifier) {
+                hits.incrementAndGet();
+            }
+
+            @Override
+            public void cacheMiss(final String entityClass, final Object identifier) {
+                misses.incrementAndGet();
+            }
+        });
+        shop.customers.lazyLoadById(ids.get(0));
+        shop.customers.lazyLoadById(ids.get(0));
+        shop.customers.lazyLoadByKey("c0");
+        shop.customers.lazyLoadByKey("unknown");
+        assertEquals(2, hits.get());
+        assertEquals(2, misses.get());
+    }
+
+    private List<Long> createCustomers(final TestShop shop, final int count) throws DatabaseError {
+        return shop.getDataManager().callTransaction(conn -> {
+            final List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                final Customer customer = new Customer("c" + i, "Customer " + i);
+                shop.customers.insert(conn, customer);
+                ids.add(customer.getId());
+            }
+            return ids;
+        });
+    }
+
+}
@@ -0,0 +1,129 @@
+package com.eischet.janitor.orm.dao;
+
+import com.eischet.dbxs.ConnectionPool;
+import com.eischet.dbxs.QueryCursor;
+import com.eischet.dbxs.dialects.DatabaseDialectH2;
+import com.eischet.dbxs.statements.SelectStatement;
+import com.eischet.janitor.JanitorTest;
+import com.eischet.janitor.api.Janitor;
+import com.eischet.janitor.api.types.builtin.JList;
+import com.eischet.janitor.orm.TestShop;
+import com.eischet.janitor.orm.TestShop.Customer;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cursors that stream query results instead of collecting them in lists.
+ */
+public class QueryCursorTestCase extends JanitorTest {
+
+    @Test
+    public void cursorReadsWhileIterating() throws Exception {
+        final TestShop shop = createShop(5);
+        final SelectStatement select = new SelectStatement(shop.customers.getStatementPlan().getSelectAll().getSql() + " order by customer_key").withFetchSize(2);
+        assertEquals(2, select.getFetchSize());
+        final List<String> keys = new ArrayList<>();
+        try (final QueryCursor<Customer> cursor = shop.customers.lazyOpenCursor(select, ps -> {})) {
+            while (cursor.hasNext()) {
+                keys.add(cursor.next().getKey());
+            }
+            assertTrue(cursor.isClosed());
+            assertEquals(5, cursor.getReadRows());
+            assertThrows(NoSuchElementException.class, cursor::next);
+        }
+        assertEquals(List.of("c0", "c1", "c2", "c3", "c4"), keys);
+    }
+
+    @Test
+    public void cursorsCanBeClosedEarly() throws Exception {
+        final TestShop shop = createShop(5);
+        final QueryCursor<Customer> cursor = shop.customers.lazyOpenCursor(shop.customers.getStatementPlan().getSelectAll(), ps -> {});
+        assertNotNull(cursor.next());
+        // transactions on the same thread do not interfere with the cursor's own connection:
+        assertEquals(5, (int) shop.getDataManager().callTransaction(conn -> shop.customers.countAll(conn)));
+        assertNotNull(cursor.next());
+        cursor.close();
+        cursor.close();
+        assertTrue(cursor.isClosed());
+        assertFalse(cursor.hasNext());
+        assertEquals(2, cursor.getReadRows());
+    }
+
+    @Test
+    public void cursorInsideTransaction() throws Exception {
+        final TestShop shop = createShop(3);
+        final long count = shop.getDataManager().callTransaction(conn -> {
+            long rows = 0;
+            try (final QueryCursor<Customer> cursor = shop.customers.openCursor(conn, shop.customers.getStatementPlan().getSelectAll(), ps -> {})) {
+                while (cursor.hasNext()) {
+                    cursor.next();
+                    ++rows;
+                }
+            }
+            return rows;
+        });
+        assertEquals(3, count);
+    }
+
+    @Test
+    public void scriptsIterateOverCursors() throws Exception {
+        final TestShop shop = createShop(4);
+        final JList holder = Janitor.list();
+        assertEquals("c0\nc1\nc2\nc3\n4\ntrue\nc0\nfalse\n", getOutput("""
+                c = dao.cursor("select customer_id, customer_key, customer_name from customers order by customer_key", 3);
+                for (customer in c) {
+                    print(customer.key);
+                }
+                print(c.rows);
+                print(c.closed);
+                open = dao.cursor();
+                holder.add(open);
+                for (customer in open) {
+                    print(customer.key);
+                    break;
+                }
+                print(open.closed);
+                """, globals -> {
+            globals.bind("dao", shop.customers);
+            globals.bind("holder", holder);
+        }));
+        // cursors left open are closed when the script ends:
+        assertTrue(((ScriptCursor) holder.get(0)).isClosed());
+    }
+
+    @Test
+    public void queryForEachStreamsIdentifiers() throws Exception {
+        final TestShop shop = createShop(3);
+        assertEquals("c0\nc1\nc2\n3\n", getOutput("""
+                print(dao.queryForEach("select customer_id from customers order by customer_key", (customer, id) -> print(customer.key)));
+                """, globals -> globals.bind("dao", shop.customers)));
+    }
+
+    @Test
+    public void queryForEachNeedsOnlyOneConnection() throws Exception {
+        final TestShop shop = createShop(new TestShop(new DatabaseDialectH2(), ConnectionPool.Settings.of(1).withCheckoutTimeout(Duration.ofMillis(50))), 3);
+        assertEquals("c0\nc1\nc2\n3\n", getOutput("""
+                print(dao.queryForEach("select customer_id from customers order by customer_key", (customer, id) -> print(customer.key)));
+                """, globals -> globals.bind("dao", shop.customers)));
+    }
+
+    private TestShop createShop(final int customers) throws Exception {
+        return createShop(new TestShop(), customers);
+    }
+
+    private TestShop createShop(final TestShop shop, final int customers) throws Exception {
+        final List<Customer> records = new ArrayList<>();
+        for (int i = 0; i < customers; i++) {
+            records.add(new Customer("c" + i, "Customer " + i));
+        }
+        shop.getDataManager().executeTransaction(conn -> shop.customers.insertAll(conn, records));
+        return shop;
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.eischet.janitor.orm.dao;
+
+import com.eischet.janitor.JanitorTest;
+import com.eischet.janitor.orm.TestShop;
+import com.eischet.janitor.orm.TestShop.Customer;
+import com.eischet.janitor.orm.sql.ColumnTypeHint;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The statement plan that GenericDao computes once and reuses for every call.
+ */
+public class StatementPlanTestCase extends JanitorTest {
+
+    @Test
+    public void planIsComputedOnce() throws Exception {
+        final TestShop shop = new TestShop();
+        final StatementPlan<Customer> plan = shop.customers.getStatementPlan();
+        assertSame(plan, shop.customers.getStatementPlan());
+
+        assertEquals(List.of("customer_id", "customer_key", "customer_name"), plan.getAllColumns().stream().map(StatementPlan.Column::name).toList());
+        assertEquals(List.of("key", "name"), plan.getUpdatingColumns().stream().map(StatementPlan.Column::field).toList());
+        assertEquals(ColumnTypeHint.NVARCHAR, plan.getUpdatingColumns().get(1).typeHint());
+        assertEquals("select customer_id, customer_key, customer_name from customers where customer_key = ?", plan.getSelectByKey().getSql());
+        assertEquals("update customers set customer_key = ?, customer_name = ? where customer_id = ?", plan.getUpdate().getSql());
+    }
+
+    @Test
+    public void plannedStatementsAreUsed() throws Exception {
+        final TestShop shop = new TestShop();
+        final Customer customer = new Customer("c0", "Customer");
+        shop.getDataManager().executeTransaction(conn -> {
+            shop.customers.insert(conn, customer);
+            customer.setName("Renamed");
+            shop.customers.update(conn, customer);
+        });
+        final StatementPlan<Customer> plan = shop.customers.getStatementPlan();
+        assertEquals(1, shop.countStatements(plan.getInsert().getSql()));
+        assertEquals(1, shop.countStatements(plan.getUpdate().getSql()));
+        assertEquals("Renamed", shop.getDataManager().callTransaction(conn -> shop.customers.findByKey(conn, "c0")).getName());
+        assertEquals(1, shop.countStatements(plan.getSelectByKey().getSql()));
+        shop.getDataManager().executeTransaction(conn -> shop.customers.delete(conn, customer));
+        assertEquals(1, shop.countStatements(plan.getDelete().getSql()));
+        assertSame(plan, shop.customers.getStatementPlan());
+    }
+
+}
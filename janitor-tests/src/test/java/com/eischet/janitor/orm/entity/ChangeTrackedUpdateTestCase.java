@@ -0,0 +1,103 @@
+package com.eischet.janitor.orm.entity;
+
+import com.eischet.janitor.JanitorTest;
+import com.eischet.janitor.orm.TestShop;
+import com.eischet.janitor.orm.TestShop.Product;
+import com.eischet.janitor.orm.dao.EntityChangeListener;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * GenericChangeTrackedDao only writes the columns of modified fields.
+ */
+public class ChangeTrackedUpdateTestCase extends JanitorTest {
+
+    @Test
+    public void updatesOnlyModifiedColumns() throws Exception {
+        final TestShop shop = new TestShop();
+        final long id = createProducts(shop, 1).get(0).getId();
+        shop.forgetStatements();
+
+        final Product product = shop.getDataManager().callTransaction(conn -> shop.products.findById(conn, id));
+        assertTrue(product.getChangeTracker().getModifiedFields().isEmpty());
+        product.setStatus("sold out");
+        shop.getDataManager().executeTransaction(conn -> shop.products.update(conn, product));
+        assertEquals(1, shop.countStatements("update products set product_status = ? where product_id = ?"));
+        assertTrue(product.getChangeTracker().getModifiedFields().isEmpty());
+
+        final Product reloaded = shop.getDataManager().callTransaction(conn -> shop.products.findById(conn, id));
+        assertEquals("sold out", reloaded.getStatus());
+        assertEquals("a long description of p0", reloaded.getDescription());
+    }
+
+    @Test
+    public void unmodifiedEntitiesAreNotWritten() throws Exception {
+        final TestShop shop = new TestShop();
+        final List<Product> products = createProducts(shop, 2);
+        final AtomicInteger updates = new AtomicInteger();
+        shop.products.addChangeListener((type, entity) -> {
+            if (type == EntityChangeListener.Type.UPDATE) {
+                updates.incrementAndGet();
+            }
+        });
+        shop.forgetStatements();
+        shop.getDataManager().executeTransaction(conn -> {
+            shop.products.update(conn, products.get(0));
+            shop.products.updateAll(conn, products);
+        });
+        assertEquals(0, shop.countStatements("update"));
+        assertEquals(0, updates.get());
+    }
+
+    @Test
+    public void updateAllBatchesPerShape() throws Exception {
+        final TestShop shop = new TestShop();
+        final List<Product> products = createProducts(shop, 5);
+        shop.forgetStatements();
+        products.get(0).setStatus("sold out");
+        products.get(1).setDescription("new");
+        products.get(2).setStatus("sold out");
+        products.get(3).setDescription("new");
+        products.get(3).setStatus("sold out");
+        shop.getDataManager().executeTransaction(conn -> shop.products.updateAll(conn, products));
+        assertEquals(1, shop.countStatements("update products set product_status = ? where"));
+        assertEquals(1, shop.countStatements("update products set product_description = ? where"));
+        assertEquals(1, shop.countStatements("update products set product_status = ?, product_description = ? where"));
+        assertEquals(3, shop.countStatements("update"));
+
+        final List<Product> reloaded = shop.getDataManager().callTransaction(conn -> shop.products.findAll(conn));
+        assertEquals(3, reloaded.stream().filter(product -> "sold out".equals(product.getStatus())).count());
+        assertEquals(2, reloaded.stream().filter(product -> "new".equals(product.getDescription())).count());
+    }
+
+    @Test
+    public void scriptAssignmentsAreTracked() throws Exception {
+        final TestShop shop = new TestShop();
+        createProducts(shop, 1);
+        shop.forgetStatements();
+        assertEquals("", getOutput("""
+                p = products.findByKey('p0');
+                p.status = 'discontinued';
+                products.update(p);
+                products.update(p);
+                """, globals -> globals.bind("products", shop.products)));
+        assertEquals(1, shop.countStatements("update products set product_status = ? where"));
+        assertEquals(1, shop.countStatements("update"));
+        assertEquals("discontinued", shop.products.lazyLoadByKey("p0").getStatus());
+    }
+
+    private List<Product> createProducts(final TestShop shop, final int count) throws Exception {
+        final List<Product> products = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            products.add(new Product("p" + i, "available", "a long description of p" + i));
+        }
+        shop.getDataManager().executeTransaction(conn -> shop.products.insertAll(conn, products));
+        return products;
+    }
+
+}
@@ -0,0 +1,129 @@
+package com.eischet.janitor.orm.ref;
+
+import com.eischet.dbxs.dialects.DatabaseDialectH2;
+import com.eischet.dbxs.exceptions.DatabaseError;
+import com.eischet.janitor.JanitorTest;
+import com.eischet.janitor.api.Janitor;
+import com.eischet.janitor.api.errors.runtime.JanitorRuntimeException;
+import com.eischet.janitor.orm.TestShop;
+import com.eischet.janitor.orm.TestShop.Customer;
+import com.eischet.janitor.orm.TestShop.Order;
+import com.eischet.janitor.orm.entity.AssociatedList;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * dao.prefetch(records, "field") and the prefetching modes of associated lists.
+ */
+public class ForeignKeyPrefetchTestCase extends JanitorTest {
+
+    private static final String SELECT_CUSTOMERS = "select customer_id, customer_key, customer_name from customers";
+
+    @Test
+    public void prefetchResolvesAllKeysAtOnce() throws Exception {
+        final TestShop shop = new TestShop();
+        final List<Order> orders = createOrders(shop, 3, 10);
+        shop.forgetStatements();
+        assertEquals(10, prefetchCustomers(shop, orders));
+        assertEquals(1, shop.countStatements(SELECT_CUSTOMERS));
+
+        for (final Order order : withCustomers(orders)) {
+            final ForeignKeyInteger<Customer> key = (ForeignKeyInteger<Customer>) order.getCustomer();
+            assertTrue(key.isResolved());
+            assertEquals(key.getId(), key.resolve().orElseThrow().getId());
+        }
+        // orders referring to the same customer share the same instance:
+        assertSame(orders.get(0).getCustomer().resolve().orElseThrow(), orders.get(3).getCustomer().resolve().orElseThrow());
+        assertEquals(1, shop.countStatements(SELECT_CUSTOMERS));
+
+        // nothing left to do on a second call:
+        assertEquals(0, prefetchCustomers(shop, orders));
+        assertEquals(1, shop.countStatements(SELECT_CUSTOMERS));
+    }
+
+    @Test
+    public void largeListsAreSplitIntoChunks() throws Exception {
+        final TestShop shop = new TestShop(new DatabaseDialectH2() {
+            @Override
+            public int getMaxInListSize() {
+                return 2;
+            }
+        });
+        final List<Order> orders = createOrders(shop, 5, 7);
+        shop.forgetStatements();
+        assertEquals(7, prefetchCustomers(shop, orders));
+        assertEquals(3, shop.countStatements(SELECT_CUSTOMERS + " where customer_id in (?, ?)")
+                + shop.countStatements(SELECT_CUSTOMERS + " where customer_id in (?)"));
+        assertTrue(withCustomers(orders).stream().allMatch(order -> ((ForeignKeyInteger<?>) order.getCustomer()).isResolved()));
+    }
+
+    @Test
+    public void onlyForeignKeysCanBePrefetched() throws Exception {
+        final TestShop shop = new TestShop();
+        final List<Order> orders = createOrders(shop, 1, 1);
+        assertThrows(DatabaseError.class, () -> shop.getDataManager().callTransaction(conn -> shop.orders.prefetch(conn, orders, "key")));
+        assertThrows(DatabaseError.class, () -> shop.getDataManager().callTransaction(conn -> shop.orders.prefetch(conn, orders, "nonsense")));
+    }
+
+    @Test
+    public void prefetchFromScripts() throws Exception {
+        final TestShop shop = new TestShop();
+        final List<Order> orders = createOrders(shop, 2, 4);
+        shop.forgetStatements();
+        assertEquals("4\n", getOutput("print(orders.prefetch(list, 'customer'));", globals -> {
+            globals.bind("orders", shop.orders);
+            globals.bind("list", Janitor.list(new ArrayList<>(orders)));
+        }));
+        assertEquals(1, shop.countStatements(SELECT_CUSTOMERS));
+        assertThrows(JanitorRuntimeException.class, () -> getOutput("orders.prefetch(list, 'key');", globals -> {
+            globals.bind("orders", shop.orders);
+            globals.bind("list", Janitor.list(new ArrayList<>(orders)));
+        }));
+    }
+
+    @Test
+    public void associatedListsPrefetchOnLoad() throws Exception {
+        final TestShop shop = new TestShop();
+        createOrders(shop, 1, 3);
+        final Customer customer = shop.getDataManager().callTransaction(conn -> shop.customers.findAll(conn)).get(0);
+        shop.forgetStatements();
+        final AssociatedList<Order, TestShop> orders = new AssociatedList<>(customer, Order.class, "customer_id", Order.WRANGLER, () -> shop)
+                .prefetchOnLoad("customer")
+                .lazyLoad();
+        assertEquals(3, orders.size());
+        assertEquals(1, shop.countStatements(SELECT_CUSTOMERS));
+        assertTrue(orders.stream().allMatch(order -> ((ForeignKeyInteger<?>) order.getCustomer()).isResolved()));
+    }
+
+    private List<Order> withCustomers(final List<Order> orders) {
+        return orders.stream().filter(order -> order.getCustomer().isNonNull()).toList();
+    }
+
+    private int prefetchCustomers(final TestShop shop, final List<Order> orders) throws DatabaseError {
+        return shop.getDataManager().callTransaction(conn -> shop.orders.prefetch(conn, orders, "customer"));
+    }
+
+    /**
+     * Create some customers and orders, assigned round-robin, and read the orders back from the database.
+     */
+    private List<Order> createOrders(final TestShop shop, final int customerCount, final int orderCount) throws DatabaseError {
+        return shop.getDataManager().callTransaction(conn -> {
+            final List<Customer> customers = new ArrayList<>();
+            for (int i = 0; i < customerCount; i++) {
+                final Customer customer = new Customer("c" + i, "Customer " + i);
+                shop.customers.insert(conn, customer);
+                customers.add(customer);
+            }
+            for (int i = 0; i < orderCount; i++) {
+                shop.orders.insert(conn, new Order("o" + i, new ForeignKeyInteger<>(customers.get(i % customerCount).getId(), shop.customers)));
+            }
+            shop.orders.insert(conn, new Order("without customer", Customer.NULL));
+            return shop.orders.findAll(conn);
+        });
+    }
+
+}
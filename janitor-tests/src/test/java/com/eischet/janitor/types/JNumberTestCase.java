@@ -0,0 +1,53 @@
+package com.eischet.janitor.types;
+
+import com.eischet.janitor.JanitorTest;
+import com.eischet.janitor.api.errors.runtime.JanitorArithmeticException;
+import com.eischet.janitor.api.types.builtin.JInt;
+import com.eischet.janitor.env.DefaultBuiltinTypes;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JNumberTestCase extends JanitorTest {
+
+    @Test
+    public void arithmeticFastPaths() throws Exception {
+        assertEquals(7L, evaluate("3 + 4").janitorGetHostValue());
+        assertEquals(-1L, evaluate("3 - 4").janitorGetHostValue());
+        assertEquals(12L, evaluate("3 * 4").janitorGetHostValue());
+        assertEquals(2L, evaluate("9 / 4").janitorGetHostValue());
+        assertEquals(1L, evaluate("9 % 4").janitorGetHostValue());
+        assertEquals(3.5, evaluate("1.5 + 2.0").janitorGetHostValue());
+        assertEquals(2.25, evaluate("9.0 / 4.0").janitorGetHostValue());
+        assertEquals(3.5, evaluate("1.5 + 2").janitorGetHostValue());
+        assertEquals(true, evaluate("3 < 4").janitorGetHostValue());
+        assertEquals(true, evaluate("4 <= 4").janitorGetHostValue());
+        assertEquals(false, evaluate("3 > 4").janitorGetHostValue());
+        assertEquals(true, evaluate("4.0 >= 3.5").janitorGetHostValue());
+        assertEquals(true, evaluate("3 < 3.5").janitorGetHostValue());
+    }
+
+    @Test
+    public void integerDivisionByZero() {
+        assertThrows(JanitorArithmeticException.class, () -> evaluate("1 / 0"));
+        assertThrows(JanitorArithmeticException.class, () -> evaluate("1 % 0"));
+    }
+
+    @Test
+    public void smallIntegerCache() {
+        final DefaultBuiltinTypes builtins = new DefaultBuiltinTypes(-10, 100);
+        assertSame(builtins.integer(-10), builtins.integer(-10L));
+        assertSame(builtins.integer(0), builtins.nullableInteger(0));
+        assertSame(builtins.integer(100), builtins.integer(100L));
+        assertNotSame(builtins.integer(101), builtins.integer(101));
+        assertNotSame(builtins.integer(-11), builtins.integer(-11));
+        assertNotSame(builtins.integer(Long.MAX_VALUE), builtins.integer(Long.MAX_VALUE));
+        final JInt uncached = builtins.integer(5000);
+        assertEquals(uncached, builtins.integer(5000));
+
+        final DefaultBuiltinTypes noCache = new DefaultBuiltinTypes(0, -1);
+        assertNotSame(noCache.integer(0), noCache.integer(0));
+        assertEquals(noCache.integer(0), noCache.integer(0));
+    }
+
+}
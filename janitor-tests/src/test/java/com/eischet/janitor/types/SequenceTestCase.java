@@ -0,0 +1,92 @@
+package com.eischet.janitor.types;
+
+import com.eischet.janitor.JanitorTest;
+import com.eischet.janitor.api.errors.runtime.JanitorArgumentException;
+import com.eischet.janitor.api.types.builtin.JInt;
+import com.eischet.janitor.api.types.functions.JCallArgs;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Lazy sequences, as created by list.stream(), set.stream() and map.stream().
+ */
+public class SequenceTestCase extends JanitorTest {
+
+    @Test
+    public void intermediateOperations() throws Exception {
+        assertEquals("[4, 6]\n", getOutput("print([1, 2, 3].stream().filter(x -> x > 1).map(x -> x * 2).toList());"));
+        assertEquals("[1, 2, 3, 4]\n", getOutput("print([[1, 2], [], [3], [4, 5]].stream().flatMap(x -> x).take(4).toList());"));
+        assertEquals("[3, 4]\n", getOutput("print([1, 2, 3, 4, 5].stream().skip(2).take(2).toList());"));
+        assertEquals("[]\n", getOutput("print([1, 2, 3].stream().take(0).toList());"));
+        assertEquals("[1, 1, 2, 2]\n", getOutput("print([1, 2].stream().flatMap(x -> [x].stream().map(y -> [y, y]).first()).toList());"));
+    }
+
+    @Test
+    public void terminalOperations() throws Exception {
+        assertEquals("3 6 10 null\n", getOutput("""
+                s = [1, 2, 3, 4].stream();
+                print(s.count() - 1, s.take(3).reduce((a, b) -> a + b), s.reduce((a, b) -> a + b, 0), [].stream().reduce((a, b) -> a + b));
+                """));
+        assertEquals("3 null\n", getOutput("print([1, 2, 3, 4].stream().filter(x -> x > 2).first(), [].stream().first());"));
+        assertEquals("true false true false\n", getOutput("""
+                s = [1, 2, 3].stream();
+                print(s.any(x -> x == 2), s.any(x -> x > 5), s.all(x -> x > 0), [].stream().any());
+                """));
+        assertEquals("2\n", getOutput("print([1, 1, 2].stream().toSet().size());"));
+        assertEquals("a=1\n", getOutput("print({a: 1}.stream().map(e -> e.key + '=' + e.value).toList()[0]);"));
+        assertEquals("2\n", getOutput("import collections; s = collections.set(1, 2, 2); print(s.stream().count());"));
+        assertEquals("1\n2\n", getOutput("[1, 2].stream().forEach(x -> print(x));"));
+    }
+
+    /**
+     * Stages run lazily, one element at a time, and stop as soon as the result is known.
+     */
+    @Test
+    public void laziness() throws Exception {
+        assertEquals("""
+                filter 1
+                filter 2
+                map 2
+                filter 3
+                map 3
+                [30]
+                """, getOutput("""
+                numbers = [1, 2, 3, 4, 5];
+                s = numbers.stream().filter(x -> { print("filter", x); return x > 1; }).map(x -> { print("map", x); return x * 10; });
+                print(s.skip(1).take(1).toList());
+                """));
+        assertEquals("6\n", getOutput("""
+                numbers = [1, 2];
+                s = numbers.stream().map(x -> x * 2);
+                numbers.add(3);
+                print(s.reduce((a, b) -> a > b ? a : b));
+                """));
+        // take(0) does not ask the source for a single element:
+        assertEquals("[]\n", getOutput("print([1, 2].stream().map(x -> { print('map', x); return x; }).take(0).toList());"));
+    }
+
+    /**
+     * Host functions may keep their arguments, so they must not see them change with the next element.
+     */
+    @Test
+    public void hostFunctionsKeepTheirArguments() throws Exception {
+        final List<JCallArgs> calls = new ArrayList<>();
+        assertEquals("[1, 2, 3]\n", getOutput("print([1, 2, 3].stream().map(keep).toList());", g -> g.bindF("keep", (process, arguments) -> {
+            calls.add(arguments);
+            return arguments.get(0);
+        })));
+        assertEquals(List.of(1L, 2L, 3L), calls.stream().map(arguments -> ((JInt) arguments.get(0)).getValue()).toList());
+    }
+
+    @Test
+    public void invalidArguments() {
+        assertThrows(JanitorArgumentException.class, () -> getOutput("[1].stream().map(17).toList();"));
+        assertThrows(JanitorArgumentException.class, () -> getOutput("[1].stream().flatMap(x -> x).toList();"));
+    }
+
+}
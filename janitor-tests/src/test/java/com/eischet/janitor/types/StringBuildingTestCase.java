@@ -0,0 +1,61 @@
+package com.eischet.janitor.types;
+
+import com.eischet.janitor.JanitorTest;
+import com.eischet.janitor.api.Janitor;
+import com.eischet.janitor.api.errors.runtime.JanitorArgumentException;
+import com.eischet.janitor.api.types.builtin.JString;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The StringBuilder type, and appending to strings with +=.
+ */
+public class StringBuildingTestCase extends JanitorTest {
+
+    @Test
+    public void stringBuilder() throws Exception {
+        assertEquals("a1b true\n", getOutput("sb = StringBuilder(); sb.append('a', 1).append('b'); print(sb.toString(), sb.toString() == 'a1b');"));
+        assertEquals("abc 3\n", getOutput("sb = StringBuilder('ac'); sb.insert(1, 'b'); print(sb, sb.length());"));
+        assertEquals("true 0 false\n", getOutput("sb = StringBuilder('x'); print(sb.isEmpty() == false, sb.clear().length(), sb.isEmpty() == false);"));
+        assertEquals("1;2;3;\n", getOutput("sb = StringBuilder(); for (i in [1, 2, 3]) { sb += i; sb += ';'; } print(sb);"));
+        assertEquals("StringBuilder\n", getOutput("print(StringBuilder().class);"));
+        assertThrows(JanitorArgumentException.class, () -> getOutput("StringBuilder('a').insert(2, 'b');"));
+    }
+
+    @Test
+    public void plusAssignmentOnStrings() throws Exception {
+        assertEquals("0,1,2,3,4, 10\n", getOutput("s = ''; for (i in [0, 1, 2, 3, 4]) { s += i; s += ','; } print(s, s.length());"));
+        // strings are immutable, so appending to a copy leaves the original alone:
+        assertEquals("ab abc abd\n", getOutput("a = 'a'; a += 'b'; b = a; b += 'c'; c = a; c += 'd'; print(a, b, c);"));
+        assertEquals("true true\n", getOutput("s = 'x'; s += 'y'; print(s == 'xy', {xy: true}[s]);"));
+    }
+
+    @Test
+    public void appendIsLazy() {
+        final JString empty = Janitor.string("");
+        JString s = empty;
+        for (int i = 0; i < 100_000; i++) {
+            s = s.append("line " + i + "\n");
+        }
+        assertTrue(s.isAppended());
+        final int length = s.length();
+        assertTrue(s.janitorGetHostValue().endsWith("line 99999\n"));
+        assertFalse(s.isAppended());
+        assertEquals(length, s.janitorGetHostValue().length());
+
+        // strings that share a prefix keep their own values:
+        final JString shorter = s;
+        final JString longer = s.append("x");
+        final JString other = shorter.append("y");
+        assertEquals(shorter.length() + 1, longer.length());
+        assertTrue(longer.janitorGetHostValue().endsWith("x"));
+        assertTrue(other.janitorGetHostValue().endsWith("y"));
+        assertFalse(shorter.janitorGetHostValue().endsWith("x"));
+        assertSame(empty, empty.append(""));
+        assertEquals(Janitor.string(longer.janitorGetHostValue()), longer);
+        assertEquals(longer.hashCode(), Janitor.string(longer.janitorGetHostValue()).hashCode());
+        assertEquals("ab", Janitor.string("a").append("b").toString());
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.eischet.janitor.toolbox.memory;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A string interner with a fixed number of slots, which neither locks nor grows.
+ * <p>Each string maps to one slot by its hash code. If the slot holds an equal string, that one is returned; otherwise
+ * the new string replaces whatever the slot held. Frequently used strings therefore stay in the table, while strings
+ * that are rarely seen again are soon replaced, so the table works like a cheap approximation of an LRU cache.</p>
+ * <p>Unlike {@link String#intern()}, the table is private to its owner, e.g. a single environment, its memory is
+ * bounded, and concurrent threads never wait for each other. Two threads interning equal strings at the same time may
+ * occasionally get different instances, which only costs a little memory.</p>
+ */
+public final class BoundedStringInterner implements StringInterner {
+
+    private final int maximumLength;
+    private final AtomicReferenceArray<String> table;
+    private final int mask;
+
+    /**
+     * Constructor.
+     *
+     * @param capacity      the number of slots, rounded up to a power of two
+     * @param maximumLength longer strings are returned as they are
+     */
+    public BoundedStringInterner(final int capacity, final int maximumLength) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("invalid capacity: " + capacity);
+        }
+        final int slots = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.maximumLength = maximumLength;
+        this.table = new AtomicReferenceArray<>(slots);
+        this.mask = slots - 1;
+    }
+
+    @Override
+    public @Nullable String intern(final @Nullable String string) {
+        if (string == null || string.length() > maximumLength) {
+            return string;
+        }
+        final int hash = string.hashCode();
+        final int index = (hash ^ (hash >>> 16)) & mask;
+        final String cached = table.getAcquire(index);
+        if (string.equals(cached)) {
+            return cached;
+        }
+        table.setRelease(index, string);
+        return string;
+    }
+
+    /**
+     * Return the number of slots.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return table.length();
+    }
+
+    public int getMaximumLength() {
+        return maximumLength;
+    }
+
+}
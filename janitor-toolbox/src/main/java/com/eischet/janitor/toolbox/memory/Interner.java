@@ -1,39 +1,56 @@
 package com.eischet.janitor.toolbox.memory;
 
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+/**
+ * Deduplicates values read from external sources, e.g. database result sets.
+ * <p>Strings go through a replaceable {@link StringInterner}, by default a {@link BoundedStringInterner}.
+ * Small non-negative numbers are shared via caches that are allocated on first use and filled as values are seen,
+ * so applications that never read numbers do not pay for them.</p>
+ */
 public class Interner {
     public static final int INTERNED_INTS = 150000;
-    public static final Integer[] internedIntegers;
-    public static final Long[] internedLongs;
     private static final int MAX_INTERNED_LENGTH = 100;
+    private static final int DEFAULT_STRING_CAPACITY = 16384;
 
-    static {
-        internedIntegers = new Integer[INTERNED_INTS];
-        for (int i = 0; i < INTERNED_INTS; i++) {
-            internedIntegers[i] = i;
-        }
-        internedLongs = new Long[INTERNED_INTS];
-        for (int i = 0; i < INTERNED_INTS; i++) {
-            internedLongs[i] = (long) i;
-        }
+    private static volatile StringInterner stringInterner = StringInterner.bounded(DEFAULT_STRING_CAPACITY, MAX_INTERNED_LENGTH);
+
+    // holder classes, so each cache is only allocated when the first value of its type is interned:
+    private static final class Integers {
+        private static final Integer[] CACHE = new Integer[INTERNED_INTS];
+    }
+
+    private static final class Longs {
+        private static final Long[] CACHE = new Long[INTERNED_INTS];
+    }
+
+    /**
+     * Replace the string interner, e.g. with {@link StringInterner#NONE} to switch off interning.
+     *
+     * @param interner the new interner
+     */
+    public static void setStringInterner(final @NotNull StringInterner interner) {
+        stringInterner = interner;
+    }
+
+    public static @NotNull StringInterner getStringInterner() {
+        return stringInterner;
     }
 
     public static @Nullable String maybeIntern(final @Nullable String s) {
-        if (s != null) {
-            if (s.length() <= MAX_INTERNED_LENGTH) {
-                return s.intern();
-            } else {
-                return s;
-            }
-        } else {
-            return null;
-        }
+        return stringInterner.intern(s);
     }
 
     public static @Nullable Integer maybeIntern(final @Nullable Integer i) {
         if (i != null && i >= 0 && i < INTERNED_INTS) {
-            return internedIntegers[i];
+            // racing threads may both store a value, which is harmless because Integers are immutable
+            final Integer cached = Integers.CACHE[i];
+            if (cached != null) {
+                return cached;
+            }
+            Integers.CACHE[i] = i;
+            return i;
         } else {
             return i;
         }
@@ -41,7 +58,12 @@ public class Interner {
 
     public static @Nullable Long maybeIntern(final @Nullable Long i) {
         if (i != null && i >= 0 && i < INTERNED_INTS) {
-            return internedLongs[i.intValue()];
+            final Long cached = Longs.CACHE[i.intValue()];
+            if (cached != null) {
+                return cached;
+            }
+            Longs.CACHE[i.intValue()] = i;
+            return i;
         } else {
             return i;
         }
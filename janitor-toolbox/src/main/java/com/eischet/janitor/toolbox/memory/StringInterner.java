@@ -0,0 +1,52 @@
+package com.eischet.janitor.toolbox.memory;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A strategy for deduplicating strings, e.g. variable names and short string values.
+ * <p>Interning saves memory when the same short strings are created over and over, but costs time on each call.
+ * Implementations must be thread safe, and must return a string equal to the one passed in.</p>
+ *
+ * @see BoundedStringInterner
+ */
+@FunctionalInterface
+public interface StringInterner {
+
+    /**
+     * Does not intern at all, returning each string as it is.
+     */
+    StringInterner NONE = string -> string;
+
+    /**
+     * Return a string equal to the given one, preferably an instance that has been returned before.
+     *
+     * @param string a string
+     * @return an equal string, or null if the string is null
+     */
+    @Nullable String intern(@Nullable String string);
+
+    /**
+     * Intern short strings in the JVM's global string table via {@link String#intern()}.
+     * <p>The JVM's table is shared by all threads and never shrinks, so under many concurrent scripts it can become a
+     * point of contention; prefer {@link #bounded(int, int)}.</p>
+     *
+     * @param maximumLength longer strings are returned as they are
+     * @return an interner
+     */
+    static @NotNull StringInterner jvm(final int maximumLength) {
+        return string -> string != null && string.length() <= maximumLength ? string.intern() : string;
+    }
+
+    /**
+     * Intern short strings in a bounded, lock-free table, see {@link BoundedStringInterner}.
+     *
+     * @param capacity      the number of table slots, rounded up to a power of two
+     * @param maximumLength longer strings are returned as they are
+     * @return an interner
+     */
+    static @NotNull StringInterner bounded(final int capacity, final int maximumLength) {
+        return new BoundedStringInterner(capacity, maximumLength);
+    }
+
+}